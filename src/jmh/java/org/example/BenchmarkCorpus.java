@@ -0,0 +1,92 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reproduzierbare Eingabe-Korpora für die Benchmarks.
+ * Jedes Korpus enthält genug unterschiedliche Eingaben, damit weder
+ * Sprungvorhersage noch Caches ein einzelnes Passwort auswendig lernen.
+ */
+final class BenchmarkCorpus {
+
+    /** Anzahl der Eingaben pro Korpus (Zweierpotenz für billiges Maskieren) */
+    static final int SIZE = 1 << 12;
+    static final int MASK = SIZE - 1;
+
+    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+    private static final String UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String DIGITS = "0123456789";
+    private static final String SPECIAL = "!@#$%^&*()_+-=[]{}|;:,.<>?";
+    private static final String UNICODE = "äöüßÄÖÜéèçñøåłžЖЯπΩ€";
+
+    private static final String[] COMMON = {
+        "password", "123456", "qwertz", "hallo123", "Passwort1", "letmein", "sommer2024", "admin"
+    };
+
+    private static final String[] ATTACKS = {
+        "' OR '1'='1", "admin'--", "' UNION SELECT username, password FROM users--",
+        "1; DROP TABLE users", "' AND SLEEP(5)--", "') OR ('1'='1", "<script>alert(1)</script>",
+        "'; EXEC xp_cmdshell('dir')--"
+    };
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Erzeugt ein Korpus.
+     *
+     * @param name short-ascii, long-ascii, unicode, common, malicious oder passphrase
+     * @return SIZE Eingaben
+     */
+    static String[] of(String name) {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] corpus = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            corpus[i] = switch (name) {
+                case "short-ascii" -> randomPassword(random, 6, 12, false);
+                case "long-ascii" -> randomPassword(random, 64, 256, false);
+                case "unicode" -> randomPassword(random, 8, 32, true);
+                case "common" -> COMMON[random.nextInt(COMMON.length)];
+                case "malicious" -> randomPassword(random, 0, 12, false)
+                        + ATTACKS[random.nextInt(ATTACKS.length)];
+                case "passphrase" -> randomPassphrase(random, 48, 256);
+                default -> throw new IllegalArgumentException("Unbekanntes Korpus: " + name);
+            };
+        }
+        return corpus;
+    }
+
+    private static String randomPassword(SplittableRandom random, int minLength, int maxLength, boolean unicode) {
+        int length = random.nextInt(minLength, maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            // Überwiegend Buchstaben wie in echten Passwörtern
+            int kind = random.nextInt(unicode ? 10 : 8);
+            String alphabet = switch (kind) {
+                case 0, 1, 2, 3 -> LOWER;
+                case 4 -> UPPER;
+                case 5, 6 -> DIGITS;
+                case 7 -> SPECIAL;
+                default -> UNICODE;
+            };
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    /** Kleingeschriebene Wörter mit Leerzeichen: wenige Klassen, also kein früher Abbruch */
+    private static String randomPassphrase(SplittableRandom random, int minLength, int maxLength) {
+        int length = random.nextInt(minLength, maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            for (int i = random.nextInt(3, 10); i > 0; i--) {
+                sb.append(LOWER.charAt(random.nextInt(LOWER.length())));
+            }
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skalare gegen SIMD-Klassifizierung (Vector API) langer Passwörter.
+ * Der Fork lädt jdk.incubator.vector; {@code vector} fällt ohne das Modul auf den skalaren Weg zurück.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CharClassBenchmark {
+
+    @Param({"passphrase", "long-ascii"})
+    public String corpus;
+
+    private String[] passwords;
+    private char[][] chars;
+    private int index;
+    private CharClassifier.Table table;
+    private CharClassifier.Kernel vector;
+
+    @Setup
+    public void setup() {
+        passwords = BenchmarkCorpus.of(corpus);
+        chars = new char[passwords.length][];
+        for (int i = 0; i < passwords.length; i++) {
+            chars[i] = passwords[i].toCharArray();
+        }
+        byte[] ascii = new byte[128];
+        for (char c = 0; c < 128; c++) {
+            ascii[c] = (byte) PasswordAnalysis.classOf(c);
+        }
+        table = CharClassifier.table(ascii, 0);
+        vector = CharClassifier.vectorKernel();
+    }
+
+    @Benchmark
+    public int scalar() {
+        char[] password = chars[index++ & BenchmarkCorpus.MASK];
+        return CharClassifier.scanScalar(password, 0, password.length, table);
+    }
+
+    @Benchmark
+    public int vector() {
+        char[] password = chars[index++ & BenchmarkCorpus.MASK];
+        return vector.scan(password, 0, password.length, table);
+    }
+
+    /** Öffentlicher Einstieg mit String (inkl. Kopie in den Thread-Puffer) */
+    @Benchmark
+    public int classMask() {
+        return PasswordAnalysis.classMask(passwords[index++ & BenchmarkCorpus.MASK]);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz und Latenz der einzelnen Passwort-Prüfungen.
+ * Jeder Aufruf nimmt die nächste Eingabe aus dem Korpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordCheckBenchmark {
+
+    @Param({"short-ascii", "long-ascii", "unicode", "common"})
+    public String corpus;
+
+    private String[] passwords;
+    private ByteBuffer[] utf8;
+    private int index;
+    private final PasswordAnalysis scratch = new PasswordAnalysis();
+    private PasswordPolicy tenantPolicy;
+
+    @Setup
+    public void setup() throws IOException {
+        passwords = BenchmarkCorpus.of(corpus);
+        Properties properties = new Properties();
+        properties.setProperty("mindestlaenge", "12");
+        properties.setProperty("pflichtklassen", "ziffer,sonder");
+        properties.setProperty("nur-erlaubte-zeichen", "true");
+        tenantPolicy = PasswordPolicy.compile("benchmark", properties);
+        utf8 = new ByteBuffer[passwords.length];
+        for (int i = 0; i < passwords.length; i++) {
+            byte[] bytes = passwords[i].getBytes(StandardCharsets.UTF_8);
+            utf8[i] = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        }
+    }
+
+    private String next() {
+        return passwords[index++ & BenchmarkCorpus.MASK];
+    }
+
+    @Benchmark
+    public boolean istSchwachesPasswort() {
+        return Main.istSchwachesPasswort(next());
+    }
+
+    @Benchmark
+    public boolean enthaeltSonderzeichen() {
+        return Main.enthaeltSonderzeichen(next());
+    }
+
+    @Benchmark
+    public int zaehleZeichenGruppen() {
+        return Main.zaehleZeichenGruppen(next());
+    }
+
+    @Benchmark
+    public PasswordAnalysis analyse() {
+        return PasswordAnalysis.of(next());
+    }
+
+    @Benchmark
+    public double strengthEstimate() {
+        return StrengthEstimator.log10Guesses(next());
+    }
+
+    /** Vollständige Bewertung wie im Stream-Modus (inkl. SQL-Prüfung und Wörterbuch) */
+    @Benchmark
+    public byte evaluate() {
+        return PasswordValidator.evaluate(next(), scratch);
+    }
+
+    /** Vollständige Bewertung nach einer eigenen, kompilierten Richtlinie */
+    @Benchmark
+    public byte evaluateTenantPolicy() {
+        return tenantPolicy.evaluate(next(), scratch);
+    }
+
+    /** Vollständige Bewertung direkt aus einem UTF-8-Netzwerkpuffer, ohne String */
+    @Benchmark
+    public byte evaluateUtf8Direct() {
+        return PasswordValidator.evaluateUtf8(utf8[index++ & BenchmarkCorpus.MASK], scratch);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz und Latenz der SQL-Injection-Erkennung.
+ * {@code tokenizer} misst nur die Token-Fingerprints (Dekodierung und drei Kontexte).
+ * {@code checkForSQLInjection} misst den vollständigen Pfad inklusive Meldung
+ * und IP-Speicher; die Warnungen auf stderr werden dabei verworfen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlInjectionBenchmark {
+
+    @Param({"short-ascii", "long-ascii", "unicode", "malicious"})
+    public String corpus;
+
+    private final SqlInjectionTokenizer tokenizer = new SqlInjectionTokenizer(SqlInjectionTokenizer.DEFAULT_FINGERPRINTS);
+    private String[] inputs;
+    private int index;
+    private PrintStream originalErr;
+
+    @Setup
+    public void setup() {
+        inputs = BenchmarkCorpus.of(corpus);
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setErr(originalErr);
+    }
+
+    private String next() {
+        return inputs[index++ & BenchmarkCorpus.MASK];
+    }
+
+    @Benchmark
+    public int findSQLInjectionPattern() {
+        return SecurityMonitor.findSQLInjectionPattern(next());
+    }
+
+    @Benchmark
+    public int tokenizer() {
+        return tokenizer.detect(next());
+    }
+
+    @Benchmark
+    public boolean checkForSQLInjection() {
+        return SecurityMonitor.checkForSQLInjection(next(), "127.0.0.1");
+    }
+}
@@ -0,0 +1,54 @@
+package org.example;
+
+/**
+ * Ergebnis einer Massenvalidierung: ein Byte pro Passwort (siehe {@link ValidationCodes}).
+ */
+public final class BatchValidationResult {
+
+    private final byte[] codes;
+
+    BatchValidationResult(byte[] codes) {
+        this.codes = codes;
+    }
+
+    /** @return Anzahl der validierten Passwörter */
+    public int size() {
+        return codes.length;
+    }
+
+    /** @return Ergebniscode des Passworts an Position index */
+    public byte code(int index) {
+        return codes[index];
+    }
+
+    /** @return Gesamtbewertung des Passworts an Position index */
+    public PasswordVerdict verdict(int index) {
+        return ValidationCodes.verdict(codes[index]);
+    }
+
+    /** @return true wenn das Passwort an Position index als schwach bekannt ist */
+    public boolean isBlacklisted(int index) {
+        return ValidationCodes.isBlacklisted(codes[index]);
+    }
+
+    /**
+     * Zählt die Passwörter mit einer bestimmten Bewertung.
+     *
+     * @param verdict Die gesuchte Bewertung
+     * @return Anzahl der Passwörter mit dieser Bewertung
+     */
+    public int count(PasswordVerdict verdict) {
+        int count = 0;
+        for (byte code : codes) {
+            if (ValidationCodes.verdict(code) == verdict) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** @return Kopie aller Ergebniscodes */
+    public byte[] toArray() {
+        return codes.clone();
+    }
+}
@@ -0,0 +1,163 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Speicherabgebildeter Bloom-Filter über SHA-1-Hashes geleakter Passwörter.
+ * Die Bits liegen in einer Datei, die per {@link FileChannel#map} eingeblendet wird:
+ * kein Heap-Verbrauch, Start ohne Einlesen, Seiten lädt das Betriebssystem bei Bedarf.
+ *
+ * Dateiformat (big-endian):
+ * <pre>
+ *   int  MAGIC ("PWBF")
+ *   int  VERSION
+ *   int  Anzahl Hashfunktionen k
+ *   int  reserviert
+ *   long Anzahl Bits m (Vielfaches von 64)
+ *   long Anzahl Einträge n
+ *   byte[m / 8] Bitfeld
+ * </pre>
+ *
+ * Ein positives Ergebnis kann optional gegen eine sortierte {@link BreachHashFile}
+ * bestätigt werden, um Falsch-Positive des Filters auszuschließen.
+ */
+public final class BreachFilter {
+
+    static final int MAGIC = 0x50574246; // "PWBF"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final int SEGMENT_SHIFT = 30; // 1 GiB pro Abbildung
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final int hashCount;
+    private final long bitCount;
+    private final long entryCount;
+    private final BreachHashFile confirmation;
+
+    private BreachFilter(MappedByteBuffer[] segments, int hashCount, long bitCount, long entryCount,
+                         BreachHashFile confirmation) {
+        this.segments = segments;
+        this.hashCount = hashCount;
+        this.bitCount = bitCount;
+        this.entryCount = entryCount;
+        this.confirmation = confirmation;
+    }
+
+    /**
+     * Öffnet eine Filterdatei ohne Bestätigungsdatei.
+     *
+     * @param filterFile Die mit {@link BreachFilterBuilder} erzeugte Filterdatei
+     * @return der eingeblendete Filter
+     * @throws IOException bei Lesefehlern oder ungültigem Format
+     */
+    public static BreachFilter open(Path filterFile) throws IOException {
+        return open(filterFile, null);
+    }
+
+    /**
+     * Öffnet eine Filterdatei und optional eine sortierte Hash-Datei zur Bestätigung.
+     *
+     * @param filterFile Die Filterdatei
+     * @param hashFile Sortierte Hash-Datei oder null
+     * @return der eingeblendete Filter
+     * @throws IOException bei Lesefehlern oder ungültigem Format
+     */
+    public static BreachFilter open(Path filterFile, Path hashFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(filterFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Kopf vollständig lesen
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Keine Bloom-Filter-Datei: " + filterFile);
+            }
+            if (header.getInt() != VERSION) {
+                throw new IOException("Nicht unterstützte Filter-Version: " + filterFile);
+            }
+            int hashCount = header.getInt();
+            header.getInt();
+            long bitCount = header.getLong();
+            long entryCount = header.getLong();
+            long byteCount = bitCount >>> 3;
+            if (hashCount < 1 || bitCount <= 0 || (bitCount & 63) != 0
+                    || channel.size() < HEADER_SIZE + byteCount) {
+                throw new IOException("Beschädigte Filterdatei: " + filterFile);
+            }
+            int segmentCount = (int) ((byteCount + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(1L << SEGMENT_SHIFT, byteCount - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + start, length);
+            }
+            BreachHashFile confirmation = hashFile == null ? null : BreachHashFile.open(hashFile);
+            return new BreachFilter(segments, hashCount, bitCount, entryCount, confirmation);
+        }
+    }
+
+    /**
+     * Prüft, ob das Passwort (exakt, SHA-1 über UTF-8) in der Breach-Liste steht.
+     *
+     * @param password Das zu prüfende Passwort (darf nicht null sein)
+     * @return true wenn der Filter anschlägt (und ggf. die Hash-Datei es bestätigt)
+     */
+    public boolean contains(CharSequence password) {
+        return containsSha1(PasswordSha1.of(password));
+    }
+
+    /**
+     * Prüft einen SHA-1-Hash gegen den Filter.
+     *
+     * @param sha1 20 Bytes SHA-1
+     * @return true wenn der Filter anschlägt (und ggf. die Hash-Datei es bestätigt)
+     */
+    public boolean containsSha1(byte[] sha1) {
+        if (!mightContain(sha1)) {
+            return false;
+        }
+        return confirmation == null || confirmation.contains(sha1);
+    }
+
+    /**
+     * Reine Filterabfrage ohne Bestätigung (kann falsch-positiv sein, nie falsch-negativ).
+     *
+     * @param sha1 20 Bytes SHA-1
+     * @return true wenn alle k Bits gesetzt sind
+     */
+    public boolean mightContain(byte[] sha1) {
+        long h1 = PasswordSha1.readLong(sha1, 0);
+        long h2 = PasswordSha1.readLong(sha1, 8) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            long bytePos = bit >>> 3;
+            byte b = segments[(int) (bytePos >>> SEGMENT_SHIFT)].get((int) (bytePos & SEGMENT_MASK));
+            if ((b & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return Anzahl der Hashfunktionen k */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /** @return Größe des Bitfelds m */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /** @return Anzahl der beim Bauen eingefügten Einträge */
+    public long entryCount() {
+        return entryCount;
+    }
+}
@@ -0,0 +1,349 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Werkzeug zum Erzeugen einer {@link BreachFilter}-Datei (und optional einer
+ * sortierten {@link BreachHashFile}) aus einer Wortliste.
+ *
+ * Aufruf:
+ * <pre>
+ *   java -cp target/classes org.example.BreachFilterBuilder &lt;wortliste&gt; &lt;filter-datei&gt;
+ *        [--hashdatei=&lt;datei&gt;] [--format=klartext|sha1] [--fehlerrate=0.001]
+ * </pre>
+ * Format "klartext": ein Passwort pro Zeile. Format "sha1": HIBP-Zeilen
+ * "HEX40[:Anzahl]". Das Bitfeld wird direkt in der eingeblendeten Ausgabedatei
+ * gesetzt, der Heap-Verbrauch hängt also nicht von der Listengröße ab.
+ */
+public final class BreachFilterBuilder {
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    // Datensätze pro Sortierblock beim externen Sortieren (~80 MB)
+    private static final int CHUNK_RECORDS = 4 * 1024 * 1024;
+
+    private final boolean sha1Format;
+    private final int chunkRecords;
+    private final byte[] sha1 = new byte[PasswordSha1.LENGTH];
+
+    private BreachFilterBuilder(boolean sha1Format) {
+        this(sha1Format, CHUNK_RECORDS);
+    }
+
+    BreachFilterBuilder(boolean sha1Format, int chunkRecords) {
+        this.sha1Format = sha1Format;
+        this.chunkRecords = chunkRecords;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Aufruf: BreachFilterBuilder <wortliste> <filter-datei> "
+                    + "[--hashdatei=<datei>] [--format=klartext|sha1] [--fehlerrate=0.001]");
+            System.exit(2);
+        }
+        Path wordlist = Path.of(args[0]);
+        Path filterFile = Path.of(args[1]);
+        Path hashFile = null;
+        boolean sha1Format = false;
+        double falsePositiveRate = 0.001;
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--hashdatei=")) {
+                hashFile = Path.of(arg.substring("--hashdatei=".length()));
+            } else if (arg.equals("--format=sha1")) {
+                sha1Format = true;
+            } else if (arg.equals("--format=klartext")) {
+                sha1Format = false;
+            } else if (arg.startsWith("--fehlerrate=")) {
+                falsePositiveRate = Double.parseDouble(arg.substring("--fehlerrate=".length()));
+            } else {
+                System.err.println("Unbekannte Option: " + arg);
+                System.exit(2);
+            }
+        }
+
+        BreachFilterBuilder builder = new BreachFilterBuilder(sha1Format);
+        long start = System.nanoTime();
+        long entries = builder.buildFilter(wordlist, filterFile, falsePositiveRate);
+        System.out.println("Filter geschrieben: " + filterFile + " (" + entries + " Einträge)");
+        if (hashFile != null) {
+            long hashes = builder.buildHashFile(wordlist, hashFile);
+            System.out.println("Hash-Datei geschrieben: " + hashFile + " (" + hashes + " Hashes)");
+        }
+        System.out.println("Dauer: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Baut die Filterdatei in zwei Durchläufen (Zählen, dann Bits setzen).
+     *
+     * @return Anzahl eingefügter Einträge
+     */
+    long buildFilter(Path wordlist, Path filterFile, double falsePositiveRate) throws IOException {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Fehlerrate muss zwischen 0 und 1 liegen: " + falsePositiveRate);
+        }
+        long n = Math.max(countEntries(wordlist), 1);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = Math.max(64, (bits + 63) & ~63L);
+        int hashCount = (int) Math.max(1, Math.min(30, Math.round((double) bits / n * ln2)));
+        long byteCount = bits >>> 3;
+
+        Files.deleteIfExists(filterFile);
+        long inserted = 0;
+        try (FileChannel channel = FileChannel.open(filterFile, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int segmentCount = (int) ((byteCount + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long offset = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(1L << SEGMENT_SHIFT, byteCount - offset);
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        BreachFilter.HEADER_SIZE + offset, length);
+            }
+
+            try (BufferedReader reader = Files.newBufferedReader(wordlist, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!hashLine(line)) {
+                        continue;
+                    }
+                    long h1 = PasswordSha1.readLong(sha1, 0);
+                    long h2 = PasswordSha1.readLong(sha1, 8) | 1L;
+                    for (int i = 0; i < hashCount; i++) {
+                        long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                        long bytePos = bit >>> 3;
+                        MappedByteBuffer segment = segments[(int) (bytePos >>> SEGMENT_SHIFT)];
+                        int index = (int) (bytePos & SEGMENT_MASK);
+                        segment.put(index, (byte) (segment.get(index) | (1 << (bit & 7))));
+                    }
+                    inserted++;
+                }
+            }
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(BreachFilter.HEADER_SIZE);
+            header.putInt(BreachFilter.MAGIC).putInt(BreachFilter.VERSION).putInt(hashCount).putInt(0)
+                    .putLong(bits).putLong(inserted).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        return inserted;
+    }
+
+    /**
+     * Schreibt alle Hashes sortiert und ohne Duplikate (externes Sortieren in Blöcken).
+     *
+     * @return Anzahl geschriebener Hashes
+     */
+    long buildHashFile(Path wordlist, Path hashFile) throws IOException {
+        Path directory = hashFile.toAbsolutePath().getParent();
+        List<Path> chunks = new ArrayList<>();
+        byte[] chunk = new byte[chunkRecords * PasswordSha1.LENGTH];
+        int records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(wordlist, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!hashLine(line)) {
+                    continue;
+                }
+                System.arraycopy(sha1, 0, chunk, records * PasswordSha1.LENGTH, PasswordSha1.LENGTH);
+                if (++records == chunkRecords) {
+                    chunks.add(writeSortedChunk(chunk, records, directory));
+                    records = 0;
+                }
+            }
+        }
+        if (records > 0 || chunks.isEmpty()) {
+            chunks.add(writeSortedChunk(chunk, records, directory));
+        }
+        try {
+            return mergeChunks(chunks, hashFile);
+        } finally {
+            for (Path path : chunks) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private long countEntries(Path wordlist) throws IOException {
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(wordlist, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Füllt {@link #sha1} aus einer Zeile; false wenn die Zeile übersprungen wird. */
+    private boolean hashLine(String line) {
+        if (line.isEmpty()) {
+            return false;
+        }
+        if (sha1Format) {
+            return PasswordSha1.parseHex(line, sha1);
+        }
+        System.arraycopy(PasswordSha1.of(line), 0, sha1, 0, PasswordSha1.LENGTH);
+        return true;
+    }
+
+    private static Path writeSortedChunk(byte[] chunk, int records, Path directory) throws IOException {
+        sort(chunk, 0, records - 1, new byte[PasswordSha1.LENGTH]);
+        Path path = Files.createTempFile(directory, "breach-", ".chunk");
+        try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            out.write(chunk, 0, records * PasswordSha1.LENGTH);
+        }
+        return path;
+    }
+
+    private static long mergeChunks(List<Path> chunks, Path hashFile) throws IOException {
+        PriorityQueue<ChunkReader> queue = new PriorityQueue<>((x, y) -> Arrays.compareUnsigned(x.current, y.current));
+        long count = 0;
+        Files.deleteIfExists(hashFile);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(hashFile, StandardOpenOption.CREATE_NEW), 1 << 16))) {
+            out.writeInt(BreachHashFile.MAGIC);
+            out.writeInt(BreachHashFile.VERSION);
+            out.writeInt(BreachHashFile.RECORD_SIZE);
+            out.writeInt(0);
+            out.writeLong(0); // Anzahl wird am Ende eingetragen
+            out.writeLong(0);
+            for (Path path : chunks) {
+                ChunkReader reader = new ChunkReader(path);
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            byte[] last = null;
+            while (!queue.isEmpty()) {
+                ChunkReader reader = queue.poll();
+                if (last == null || !Arrays.equals(last, reader.current)) {
+                    out.write(reader.current);
+                    last = reader.current;
+                    count++;
+                }
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+        } finally {
+            for (ChunkReader reader : queue) {
+                reader.close();
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(hashFile.toFile(), "rw")) {
+            file.seek(16);
+            file.writeLong(count);
+            file.getFD().sync();
+        }
+        return count;
+    }
+
+    // Quicksort über 20-Byte-Datensätze in einem flachen Array (vorzeichenloser Vergleich)
+    private static void sort(byte[] data, int low, int high, byte[] tmp) {
+        while (low < high) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    for (int j = i; j > low && compare(data, j - 1, j) > 0; j--) {
+                        swap(data, j - 1, j, tmp);
+                    }
+                }
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            if (compare(data, mid, low) < 0) swap(data, mid, low, tmp);
+            if (compare(data, high, low) < 0) swap(data, high, low, tmp);
+            if (compare(data, high, mid) < 0) swap(data, high, mid, tmp);
+            swap(data, mid, high - 1, tmp); // Pivot ans Ende
+            int pivot = high - 1;
+            int i = low;
+            int j = high - 1;
+            while (true) {
+                while (compare(data, ++i, pivot) < 0) {
+                    // weiter
+                }
+                while (j > low && compare(data, --j, pivot) > 0) {
+                    // weiter
+                }
+                if (i >= j) {
+                    break;
+                }
+                swap(data, i, j, tmp);
+            }
+            swap(data, i, high - 1, tmp);
+            // Kleinere Hälfte rekursiv, größere iterativ (begrenzte Stacktiefe)
+            if (i - low < high - i) {
+                sort(data, low, i - 1, tmp);
+                low = i + 1;
+            } else {
+                sort(data, i + 1, high, tmp);
+                high = i - 1;
+            }
+        }
+    }
+
+    private static int compare(byte[] data, int a, int b) {
+        int size = PasswordSha1.LENGTH;
+        return Arrays.compareUnsigned(data, a * size, a * size + size, data, b * size, b * size + size);
+    }
+
+    private static void swap(byte[] data, int a, int b, byte[] tmp) {
+        int size = PasswordSha1.LENGTH;
+        System.arraycopy(data, a * size, tmp, 0, size);
+        System.arraycopy(data, b * size, data, a * size, size);
+        System.arraycopy(tmp, 0, data, b * size, size);
+    }
+
+    /** Liest einen sortierten Block Datensatz für Datensatz. */
+    private static final class ChunkReader {
+        private final DataInputStream in;
+        private byte[] current = new byte[PasswordSha1.LENGTH];
+
+        ChunkReader(Path path) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            try {
+                current = new byte[PasswordSha1.LENGTH];
+                in.readFully(current);
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+    }
+}
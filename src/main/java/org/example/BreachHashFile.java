@@ -0,0 +1,118 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sortierte, speicherabgebildete Datei mit SHA-1-Hashes (je 20 Bytes).
+ * Dient zur Bestätigung von Bloom-Filter-Treffern per binärer Suche.
+ *
+ * Dateiformat (big-endian):
+ * <pre>
+ *   int  MAGIC ("PWBH")
+ *   int  VERSION
+ *   int  Datensatzgröße (20)
+ *   int  reserviert
+ *   long Anzahl Datensätze
+ *   long reserviert
+ *   byte[20 * n] aufsteigend (vorzeichenlos) sortierte Hashes
+ * </pre>
+ */
+public final class BreachHashFile {
+
+    static final int MAGIC = 0x50574248; // "PWBH"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = PasswordSha1.LENGTH;
+
+    // Datensätze pro Abbildung (~640 MiB), damit kein Datensatz eine Segmentgrenze überschreitet
+    private static final long RECORDS_PER_SEGMENT = 1L << 25;
+
+    private final MappedByteBuffer[] segments;
+    private final long count;
+
+    private BreachHashFile(MappedByteBuffer[] segments, long count) {
+        this.segments = segments;
+        this.count = count;
+    }
+
+    /**
+     * Blendet eine sortierte Hash-Datei ein.
+     *
+     * @param hashFile Die mit {@link BreachFilterBuilder} erzeugte Hash-Datei
+     * @return die eingeblendete Datei
+     * @throws IOException bei Lesefehlern oder ungültigem Format
+     */
+    public static BreachHashFile open(Path hashFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(hashFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Kopf vollständig lesen
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Keine Hash-Datei: " + hashFile);
+            }
+            if (header.getInt() != VERSION || header.getInt() != RECORD_SIZE) {
+                throw new IOException("Nicht unterstütztes Hash-Datei-Format: " + hashFile);
+            }
+            header.getInt();
+            long count = header.getLong();
+            if (count < 0 || channel.size() < HEADER_SIZE + count * RECORD_SIZE) {
+                throw new IOException("Beschädigte Hash-Datei: " + hashFile);
+            }
+            int segmentCount = (int) ((count + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, count - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+            }
+            return new BreachHashFile(segments, count);
+        }
+    }
+
+    /**
+     * Sucht einen SHA-1-Hash per binärer Suche.
+     *
+     * @param sha1 20 Bytes SHA-1
+     * @return true wenn der Hash in der Datei steht
+     */
+    public boolean contains(byte[] sha1) {
+        long a = PasswordSha1.readLong(sha1, 0);
+        long b = PasswordSha1.readLong(sha1, 8);
+        int c = PasswordSha1.readInt(sha1, 16);
+        long low = 0;
+        long high = count - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            MappedByteBuffer segment = segments[(int) (mid / RECORDS_PER_SEGMENT)];
+            int offset = (int) (mid % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            int cmp = Long.compareUnsigned(segment.getLong(offset), a);
+            if (cmp == 0) {
+                cmp = Long.compareUnsigned(segment.getLong(offset + 8), b);
+                if (cmp == 0) {
+                    cmp = Integer.compareUnsigned(segment.getInt(offset + 16), c);
+                }
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return Anzahl der Hashes */
+    public long size() {
+        return count;
+    }
+}
@@ -0,0 +1,416 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Prüft Passwörter gegen einen Breach-Dienst nach dem k-Anonymitäts-Verfahren von
+ * "Have I Been Pwned": übertragen werden nur die ersten 5 Hex-Zeichen des SHA-1
+ * ({@code GET <basis>/ABCDE}), der Dienst antwortet mit allen bekannten Endungen
+ * dieses Bereichs ({@code ENDUNG:ANZAHL} je Zeile, 35 Hex-Zeichen). Das Passwort
+ * selbst und sein vollständiger Hash verlassen den Rechner nie. Angefragt wird mit
+ * {@code Add-Padding: true}; Füllzeilen mit Anzahl 0 werden verworfen.
+ *
+ * Antworten werden je Bereich zwischengespeichert (LRU mit Höchstzahl und Ablaufzeit),
+ * als sortierte long-Arrays, in denen binär gesucht wird. Gleichzeitige Anfragen nach
+ * demselben noch nicht geladenen Bereich teilen sich einen einzigen HTTP-Aufruf.
+ * Die Aufrufe laufen asynchron über {@link HttpClient#sendAsync}; kein Thread wartet
+ * auf das Netz, solange nur {@link #occurrencesAsync(CharSequence)} verwendet wird.
+ * Fehlgeschlagene Abrufe werden nicht gespeichert, der nächste Zugriff versucht es erneut.
+ */
+public final class BreachRangeClient implements AutoCloseable {
+
+    /** Öffentlicher Dienst von Have I Been Pwned */
+    public static final URI DEFAULT_URI = URI.create("https://api.pwnedpasswords.com/range/");
+
+    /** Standard: 10000 Bereiche (etwa 1 % aller 2^20), eine Stunde gültig, 2 Sekunden Wartezeit */
+    public static final int DEFAULT_MAX_PREFIXES = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2);
+
+    private static final int PREFIX_CHARS = 5;
+    private static final int SUFFIX_CHARS = 35;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String base;
+    private final HttpClient http;
+    private final boolean ownsClient;
+    private final int maxPrefixes;
+    private final long ttlNanos;
+    private final Duration timeout;
+    private final LongSupplier clock;
+
+    // Zugriffsreihenfolge, der älteste Eintrag wird verdrängt; geschützt durch sich selbst
+    private final LinkedHashMap<Integer, Range> cache;
+    // Laufende Abrufe je Bereich; geschützt durch cache
+    private final Map<Integer, CompletableFuture<Range>> inFlight = new HashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Sortierte Endungen eines Bereichs: 140 Bit je Endung in hi (64), lo (64) und tail (12).
+     */
+    static final class Range {
+        final long[] his;
+        final long[] los;
+        final short[] tails;
+        final int[] counts;
+        final long expiresAt;
+
+        Range(long[] his, long[] los, short[] tails, int[] counts, long expiresAt) {
+            this.his = his;
+            this.los = los;
+            this.tails = tails;
+            this.counts = counts;
+            this.expiresAt = expiresAt;
+        }
+
+        /** @return Anzahl der Vorkommen dieser Endung oder 0 */
+        int occurrences(long hi, long lo, int tail) {
+            int low = 0;
+            int high = his.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(his[mid], los[mid], tails[mid], hi, lo, tail);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return counts[mid];
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Erzeugt einen Client mit Standardwerten.
+     *
+     * @param baseUri Basisadresse des Dienstes, an die der Bereich angehängt wird
+     */
+    public BreachRangeClient(URI baseUri) {
+        this(baseUri, DEFAULT_MAX_PREFIXES, DEFAULT_TTL, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Erzeugt einen Client.
+     *
+     * @param baseUri Basisadresse des Dienstes, an die der Bereich angehängt wird
+     * @param maxPrefixes Höchstzahl zwischengespeicherter Bereiche (mindestens 1)
+     * @param ttl Gültigkeit einer gespeicherten Antwort
+     * @param timeout Höchste Wartezeit je Abruf (auch für {@link #isBreached(CharSequence)})
+     */
+    public BreachRangeClient(URI baseUri, int maxPrefixes, Duration ttl, Duration timeout) {
+        this(baseUri, maxPrefixes, ttl, timeout,
+                HttpClient.newBuilder().connectTimeout(timeout).followRedirects(HttpClient.Redirect.NORMAL).build(),
+                true, System::nanoTime);
+    }
+
+    BreachRangeClient(URI baseUri, int maxPrefixes, Duration ttl, Duration timeout, HttpClient http,
+                      boolean ownsClient, LongSupplier nanoClock) {
+        if (maxPrefixes < 1) {
+            throw new IllegalArgumentException("Maximalgröße muss mindestens 1 sein");
+        }
+        if (ttl.isNegative() || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Gültigkeit und Wartezeit dürfen nicht negativ sein");
+        }
+        String uri = baseUri.toString();
+        this.base = uri.endsWith("/") ? uri : uri + "/";
+        this.http = http;
+        this.ownsClient = ownsClient;
+        this.maxPrefixes = maxPrefixes;
+        this.ttlNanos = ttl.toNanos();
+        this.timeout = timeout;
+        this.clock = nanoClock;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Range> eldest) {
+                return size() > BreachRangeClient.this.maxPrefixes;
+            }
+        };
+    }
+
+    /**
+     * Ermittelt, wie oft das Passwort in Datenlecks vorkam, ohne zu blockieren.
+     *
+     * @param password Das Passwort (darf nicht null sein)
+     * @return Anzahl der Vorkommen (0 = unbekannt); schlägt bei Netz- oder Formatfehlern fehl
+     */
+    public CompletableFuture<Integer> occurrencesAsync(CharSequence password) {
+        byte[] sha1 = PasswordSha1.of(password);
+        int prefix = prefix(sha1);
+        long hi = suffixHi(sha1);
+        long lo = suffixLo(sha1);
+        int tail = suffixTail(sha1);
+        return range(prefix).thenApply(range -> range.occurrences(hi, lo, tail));
+    }
+
+    /**
+     * Prüft das Passwort und wartet dabei höchstens die eingestellte Wartezeit. Ist der
+     * Bereich zwischengespeichert, kehrt der Aufruf sofort zurück. Bei Zeitüberschreitung
+     * oder Fehlern gilt das Passwort als nicht geleakt, damit ein Ausfall des Dienstes
+     * keine Registrierung blockiert (siehe {@link #failures()}).
+     *
+     * @param password Das Passwort (darf nicht null sein)
+     * @return true wenn das Passwort in einem Datenleck vorkam
+     */
+    public boolean isBreached(CharSequence password) {
+        CompletableFuture<Integer> occurrences = occurrencesAsync(password);
+        try {
+            return occurrences.get(timeout.toNanos(), TimeUnit.NANOSECONDS) > 0;
+        } catch (ExecutionException | TimeoutException e) {
+            failures.increment();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.increment();
+            return false;
+        }
+    }
+
+    /** @return Anzahl der HTTP-Abrufe bisher */
+    public long requests() {
+        return requests.sum();
+    }
+
+    /** @return Anzahl der Prüfungen, die wegen Fehlern oder Zeitüberschreitung ohne Ergebnis blieben */
+    public long failures() {
+        return failures.sum();
+    }
+
+    /** @return Anzahl der zwischengespeicherten Bereiche (auch abgelaufene, bis sie verdrängt werden) */
+    public int cachedPrefixes() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /** Verwirft alle zwischengespeicherten Bereiche. */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsClient) {
+            http.close();
+        }
+    }
+
+    private CompletableFuture<Range> range(int prefix) {
+        Integer key = prefix;
+        CompletableFuture<Range> future;
+        synchronized (cache) {
+            Range cached = cache.get(key);
+            if (cached != null) {
+                if (cached.expiresAt - clock.getAsLong() > 0) {
+                    return CompletableFuture.completedFuture(cached);
+                }
+                cache.remove(key);
+            }
+            CompletableFuture<Range> running = inFlight.get(key);
+            if (running != null) {
+                return running;
+            }
+            future = new CompletableFuture<>();
+            inFlight.put(key, future);
+        }
+        CompletableFuture<Range> response;
+        try {
+            response = fetch(prefix);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((range, error) -> {
+            synchronized (cache) {
+                inFlight.remove(key);
+                if (error == null) {
+                    cache.put(key, range);
+                }
+            }
+            if (error == null) {
+                future.complete(range);
+            } else {
+                future.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<Range> fetch(int prefix) {
+        requests.increment();
+        long start = ValidatorMetrics.startTimer();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + hex(prefix)))
+                .timeout(timeout)
+                .header("Add-Padding", "true")
+                .GET()
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            ValidatorMetrics.recordLatency(ValidatorMetrics.Check.BREACH_RANGE, start);
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("Breach-Dienst antwortet mit " + response.statusCode()));
+            }
+            return parse(response.body(), clock.getAsLong() + ttlNanos);
+        });
+    }
+
+    /**
+     * Liest eine Bereichsantwort ({@code ENDUNG:ANZAHL} je Zeile, CRLF oder LF).
+     *
+     * @param body Die Antwort als ASCII
+     * @param expiresAt Ablaufzeitpunkt (System.nanoTime-Skala)
+     * @return die sortierten Endungen ohne Füllzeilen
+     * @throws IllegalArgumentException bei ungültigen Zeilen
+     */
+    static Range parse(byte[] body, long expiresAt) {
+        int capacity = 16;
+        long[] his = new long[capacity];
+        long[] los = new long[capacity];
+        short[] tails = new short[capacity];
+        int[] counts = new int[capacity];
+        int size = 0;
+        boolean sorted = true;
+        int pos = 0;
+        while (pos < body.length) {
+            int end = pos;
+            while (end < body.length && body[end] != '\n') {
+                end++;
+            }
+            int lineEnd = end > pos && body[end - 1] == '\r' ? end - 1 : end;
+            if (lineEnd > pos) {
+                if (lineEnd - pos < SUFFIX_CHARS + 2 || body[pos + SUFFIX_CHARS] != ':') {
+                    throw new IllegalArgumentException("Ungültige Zeile in der Bereichsantwort");
+                }
+                long hi = hexLong(body, pos, 16);
+                long lo = hexLong(body, pos + 16, 16);
+                int tail = (int) hexLong(body, pos + 32, 3);
+                long count = 0;
+                for (int i = pos + SUFFIX_CHARS + 1; i < lineEnd; i++) {
+                    int digit = body[i] - '0';
+                    if (digit < 0 || digit > 9) {
+                        throw new IllegalArgumentException("Ungültige Anzahl in der Bereichsantwort");
+                    }
+                    count = Math.min(Integer.MAX_VALUE, count * 10 + digit);
+                }
+                if (count > 0) {
+                    if (size == capacity) {
+                        capacity *= 2;
+                        his = Arrays.copyOf(his, capacity);
+                        los = Arrays.copyOf(los, capacity);
+                        tails = Arrays.copyOf(tails, capacity);
+                        counts = Arrays.copyOf(counts, capacity);
+                    }
+                    if (size > 0 && compare(his[size - 1], los[size - 1], tails[size - 1], hi, lo, tail) >= 0) {
+                        sorted = false;
+                    }
+                    his[size] = hi;
+                    los[size] = lo;
+                    tails[size] = (short) tail;
+                    counts[size] = (int) count;
+                    size++;
+                }
+            }
+            pos = end + 1;
+        }
+        Range range = new Range(Arrays.copyOf(his, size), Arrays.copyOf(los, size), Arrays.copyOf(tails, size),
+                Arrays.copyOf(counts, size), expiresAt);
+        return sorted ? range : sort(range);
+    }
+
+    // Der Dienst liefert sortiert; andere Quellen (z. B. eigene Spiegel) werden hier nachsortiert
+    private static Range sort(Range range) {
+        int n = range.his.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(range.his[a], range.los[a], range.tails[a],
+                range.his[b], range.los[b], range.tails[b]));
+        long[] his = new long[n];
+        long[] los = new long[n];
+        short[] tails = new short[n];
+        int[] counts = new int[n];
+        for (int i = 0; i < n; i++) {
+            his[i] = range.his[order[i]];
+            los[i] = range.los[order[i]];
+            tails[i] = range.tails[order[i]];
+            counts[i] = range.counts[order[i]];
+        }
+        return new Range(his, los, tails, counts, range.expiresAt);
+    }
+
+    private static int compare(long hi1, long lo1, int tail1, long hi2, long lo2, int tail2) {
+        int cmp = Long.compareUnsigned(hi1, hi2);
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(lo1, lo2);
+        }
+        return cmp != 0 ? cmp : Integer.compare(tail1, tail2);
+    }
+
+    private static long hexLong(byte[] body, int offset, int chars) {
+        long value = 0;
+        for (int i = offset; i < offset + chars; i++) {
+            int digit = Character.digit(body[i], 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Ungültige Hex-Ziffer in der Bereichsantwort");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    /** @return die ersten 20 Bit des SHA-1 */
+    static int prefix(byte[] sha1) {
+        return (sha1[0] & 0xFF) << 12 | (sha1[1] & 0xFF) << 4 | (sha1[2] & 0xFF) >>> 4;
+    }
+
+    // Die 140 Bit hinter dem Bereich: Bit 20-83, 84-147 und 148-159 des SHA-1
+    private static long suffixHi(byte[] sha1) {
+        return word(sha1, 0) << 20 | word(sha1, 8) >>> 44;
+    }
+
+    private static long suffixLo(byte[] sha1) {
+        return word(sha1, 8) << 20 | (word(sha1, 12) & 0xFFFFFFFFL) >>> 12;
+    }
+
+    private static int suffixTail(byte[] sha1) {
+        return (int) (word(sha1, 12) & 0xFFF);
+    }
+
+    private static long word(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = value << 8 | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /** @return der Bereich als 5 Hex-Zeichen in Großbuchstaben */
+    static String hex(int prefix) {
+        char[] chars = new char[PREFIX_CHARS];
+        for (int i = PREFIX_CHARS - 1; i >= 0; i--) {
+            chars[i] = HEX[prefix & 15];
+            prefix >>>= 4;
+        }
+        return new String(chars);
+    }
+}
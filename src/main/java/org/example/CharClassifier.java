@@ -0,0 +1,220 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Ermittelt die Zeichenklassen eines Passworts als Bitmaske über eine ASCII-Tabelle.
+ * Lange Passwörter (Passphrasen, Massenprüfungen) werden blockweise mit SIMD-Befehlen
+ * geprüft, wenn das Modul jdk.incubator.vector geladen ist
+ * ({@code java --add-modules jdk.incubator.vector ...}, siehe {@link VectorCharClassifier});
+ * sonst und für kurze Passwörter läuft die skalare Tabellen-Schleife. Beide Wege
+ * liefern dieselbe Bitmaske.
+ */
+final class CharClassifier {
+
+    /** Ab dieser Länge lohnt sich der Vektor-Weg */
+    static final int VECTOR_MIN_LENGTH = 32;
+
+    // So viele Zeichen werden immer skalar geprüft, bevor der Vektor-Weg beginnt
+    private static final int SCALAR_PREFIX = 16;
+
+    // Längere Strings werden nicht in den Thread-Puffer kopiert, sondern skalar geprüft
+    private static final int MAX_COPY_CHARS = 1 << 12;
+
+    // Bereits mit Bereichsvergleichen bestimmbare Klassen
+    private static final int LETTERS_AND_DIGITS = PasswordAnalysis.DIGIT | PasswordAnalysis.UPPER | PasswordAnalysis.LOWER;
+
+    /**
+     * Kompilierte Klassentabelle. Für den Vektor-Weg liegen die (höchstens zwei) Bits, die
+     * Sonderzeichen (ASCII außer Buchstaben und Ziffern) tragen können, zusätzlich als
+     * Bitmap vor: 8 Zeilen zu 16 Bit, Zeile = Zeichen / 16, Bit = Zeichen % 16.
+     */
+    static final class Table {
+        final byte[] ascii;
+        final int nonAscii;
+        /** Alle Bits, die vorkommen können; ist sie erreicht, steht das Ergebnis fest */
+        final int stopMask;
+        /** false wenn Buchstaben oder Ziffern abweichend klassifiziert werden oder zu viele Bits vorkommen */
+        final boolean vectorizable;
+        final int firstBit;
+        final int secondBit;
+        /** Bitmaps zu firstBit und secondBit, aufgefüllt auf 64 Zeilen (genug für jede Vektorbreite) */
+        final short[] firstRows = new short[64];
+        final short[] secondRows = new short[64];
+
+        private Table(byte[] ascii, int nonAscii) {
+            this.ascii = ascii.clone();
+            this.nonAscii = nonAscii;
+            int stop = nonAscii;
+            int special = 0;
+            boolean standard = true;
+            for (char c = 0; c < 128; c++) {
+                stop |= ascii[c];
+                int range = rangeClass(c);
+                if (range != 0) {
+                    standard &= ascii[c] == range;
+                } else {
+                    standard &= (ascii[c] & LETTERS_AND_DIGITS) == 0;
+                    special |= ascii[c];
+                }
+            }
+            this.stopMask = stop;
+            this.vectorizable = standard && Integer.bitCount(special) <= 2;
+            this.firstBit = Integer.lowestOneBit(special);
+            this.secondBit = Integer.lowestOneBit(special & ~firstBit);
+            for (char c = 0; c < 128; c++) {
+                if (rangeClass(c) == 0) {
+                    if ((ascii[c] & firstBit) != 0) {
+                        firstRows[c >>> 4] |= (short) (1 << (c & 15));
+                    }
+                    if ((ascii[c] & secondBit) != 0) {
+                        secondRows[c >>> 4] |= (short) (1 << (c & 15));
+                    }
+                }
+            }
+        }
+    }
+
+    /** Klassifiziert einen Ausschnitt eines char[] */
+    interface Kernel {
+        /**
+         * @param chars Die Zeichen
+         * @param offset Erstes Zeichen
+         * @param length Anzahl Zeichen
+         * @param table Die Klassentabelle (muss vectorizable sein)
+         * @return ODER-Verknüpfung der Bits aller Zeichen
+         */
+        int scan(char[] chars, int offset, int length, Table table);
+    }
+
+    private static final Kernel SCALAR = CharClassifier::scanScalar;
+    private static final Kernel KERNEL = loadVectorKernel();
+
+    // Strings werden für den Vektor-Weg in einen Thread-Puffer kopiert (String.getChars ist ein Intrinsic)
+    private static final ThreadLocal<char[]> COPY = ThreadLocal.withInitial(() -> new char[256]);
+
+    private CharClassifier() {
+    }
+
+    /**
+     * Kompiliert eine Klassentabelle.
+     *
+     * @param ascii ASCII-Zeichen -> Klassen-Bits (128 Einträge, wird kopiert)
+     * @param nonAscii Bits für alle Zeichen ab 128
+     * @return die Tabelle
+     */
+    static Table table(byte[] ascii, int nonAscii) {
+        return new Table(ascii, nonAscii);
+    }
+
+    /** @return true wenn lange Passwörter mit dem Vector API geprüft werden */
+    static boolean isVectorized() {
+        return KERNEL != SCALAR;
+    }
+
+    /**
+     * Ermittelt die Bits aller Zeichen.
+     *
+     * @param password Das Passwort (darf nicht null sein)
+     * @param table Die Klassentabelle
+     * @return ODER-Verknüpfung der Bits aller Zeichen
+     */
+    static int scan(CharSequence password, Table table) {
+        byte[] ascii = table.ascii;
+        int nonAscii = table.nonAscii;
+        int stopMask = table.stopMask;
+        int n = password.length();
+        boolean vector = n >= VECTOR_MIN_LENGTH && KERNEL != SCALAR && table.vectorizable;
+        // Gemischte Passwörter enthalten meist nach wenigen Zeichen alle Klassen: erst skalar anfangen
+        int scalarEnd = vector ? SCALAR_PREFIX : n;
+        int mask = 0;
+        for (int i = 0; i < scalarEnd; i++) {
+            char c = password.charAt(i);
+            mask |= c < 128 ? ascii[c] : nonAscii;
+            if (mask == stopMask) {
+                return mask;
+            }
+        }
+        if (!vector) {
+            return mask;
+        }
+        int rest = n - SCALAR_PREFIX;
+        if (password instanceof CharSlice slice) {
+            return mask | KERNEL.scan(slice.array(), slice.offset() + SCALAR_PREFIX, rest, table);
+        }
+        if (password instanceof String string && rest <= MAX_COPY_CHARS) {
+            char[] copy = COPY.get();
+            if (copy.length < rest) {
+                copy = new char[Math.max(rest, copy.length * 2)];
+                COPY.set(copy);
+            }
+            string.getChars(SCALAR_PREFIX, n, copy, 0);
+            try {
+                return mask | KERNEL.scan(copy, 0, rest, table);
+            } finally {
+                Arrays.fill(copy, 0, rest, '\0');
+            }
+        }
+        for (int i = SCALAR_PREFIX; i < n && mask != stopMask; i++) {
+            char c = password.charAt(i);
+            mask |= c < 128 ? ascii[c] : nonAscii;
+        }
+        return mask;
+    }
+
+    /**
+     * Skalarer Weg für char[], auch als Vergleich für Tests und Benchmarks.
+     */
+    static int scanScalar(char[] chars, int offset, int length, Table table) {
+        byte[] ascii = table.ascii;
+        int nonAscii = table.nonAscii;
+        int stopMask = table.stopMask;
+        int mask = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = chars[i];
+            mask |= c < 128 ? ascii[c] : nonAscii;
+            if (mask == stopMask) {
+                break;
+            }
+        }
+        return mask;
+    }
+
+    /** @return die Vektor-Implementierung oder der skalare Weg, wenn das Modul fehlt */
+    static Kernel vectorKernel() {
+        return KERNEL;
+    }
+
+    /** @return Klasse, die sich allein aus dem Zeichenbereich ergibt (0 für alle anderen Zeichen) */
+    private static int rangeClass(char c) {
+        if (c >= '0' && c <= '9') {
+            return PasswordAnalysis.DIGIT;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return PasswordAnalysis.UPPER;
+        }
+        return c >= 'a' && c <= 'z' ? PasswordAnalysis.LOWER : 0;
+    }
+
+    /**
+     * Lädt {@link VectorCharClassifier} per Reflection: ohne --add-modules jdk.incubator.vector
+     * scheitert bereits das Laden der Klasse, und es bleibt beim skalaren Weg.
+     */
+    private static Kernel loadVectorKernel() {
+        try {
+            Class<?> type = Class.forName("org.example.VectorCharClassifier");
+            Kernel kernel = (Kernel) type.getDeclaredConstructor().newInstance();
+            // Kurzer Selbsttest, damit eine unerwartete Plattform nie falsche Masken liefert
+            char[] sample = "passphrase mit vielen woertern und umlauten äöü sowie ziffern 0123456789 !".toCharArray();
+            byte[] ascii = new byte[128];
+            for (char c = 0; c < 128; c++) {
+                ascii[c] = (byte) (PasswordAnalysis.classOf(c) != 0 ? PasswordAnalysis.classOf(c) : 16);
+            }
+            Table table = table(ascii, 32);
+            return kernel.scan(sample, 0, sample.length, table) == scanScalar(sample, 0, sample.length, table)
+                    ? kernel : SCALAR;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return SCALAR;
+        }
+    }
+}
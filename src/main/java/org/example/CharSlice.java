@@ -0,0 +1,71 @@
+package org.example;
+
+/**
+ * Wiederverwendbare CharSequence-Sicht auf einen Ausschnitt eines char[].
+ * Erlaubt es, die CharSequence-basierten Prüfungen auf Puffern laufen zu
+ * lassen, ohne pro Passwort einen String anzulegen.
+ */
+final class CharSlice implements CharSequence {
+
+    private char[] chars;
+    private int offset;
+    private int length;
+
+    CharSlice() {
+    }
+
+    /**
+     * Richtet die Sicht auf einen neuen Ausschnitt aus.
+     *
+     * @return diese Instanz
+     */
+    CharSlice set(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /** Löst die Sicht vom Puffer (keine Referenz auf Geheimnisse behalten). */
+    void clear() {
+        chars = null;
+        offset = 0;
+        length = 0;
+    }
+
+    /** @return das zugrunde liegende Array (nur lesen) */
+    char[] array() {
+        return chars;
+    }
+
+    /** @return Position des ersten Zeichens im Array */
+    int offset() {
+        return offset;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new CharSlice().set(chars, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, offset, length);
+    }
+}
@@ -0,0 +1,600 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Verteilt Verstöße, Sperren und Entsperrungen zwischen mehreren Validator-Knoten, damit ein
+ * auf einem Knoten gesperrter Angreifer nicht einfach zum nächsten wechselt. Der Zustand je
+ * Adresse ist ein CRDT und lässt sich daher in beliebiger Reihenfolge und beliebig oft
+ * zusammenführen:
+ * <ul>
+ *   <li>Verstöße: ein G-Counter (ein wachsender Zähler je Knoten, Zusammenführen per Maximum).
+ *       Was ein anderer Knoten neu gezählt hat, wird im lokalen {@link IpReputationStore} als
+ *       Verstoß nachgemeldet; zwei Verstöße auf zwei Knoten sperren so wie zwei auf einem.</li>
+ *   <li>Sperren: ein LWW-Register (gesperrt oder entsperrt mit Zeitpunkt; bei Gleichstand
+ *       gewinnt die größere Knoten-ID). Eine spätere Entsperrung hebt die Sperre überall auf.</li>
+ * </ul>
+ *
+ * Übertragen wird per UDP nach dem Gossip-Prinzip: Geänderte Adressen werden gesammelt und
+ * alle {@code interval} gebündelt, mit Deflate komprimiert und mit HMAC-SHA256 signiert an
+ * einige zufällige Nachbarn geschickt. Wer dadurch Neues erfährt, gibt es in seiner nächsten
+ * Runde weiter. Verlorene Datagramme gleicht ein regelmäßiger Abgleich des vollständigen
+ * Zustands mit einem zufälligen Nachbarn aus. Pakete ohne gültige Signatur werden verworfen,
+ * damit niemand von außen Sperren einschleusen kann. Einträge verfallen nach der TTL seit
+ * ihrer letzten Änderung.
+ *
+ * Paketformat (little-endian):
+ * <pre>
+ *   int  MAGIC ("PWCR"), byte VERSION, long Absender, int Länge unkomprimiert
+ *   byte[] Deflate(int Anzahl, je Adresse: long hi, long lo, byte Flags, long Zeitpunkt,
+ *                  long Knoten, short Zähler, je Zähler: long Knoten, long Anzahl)
+ *   byte[32] HMAC-SHA256 über alles davor
+ * </pre>
+ */
+public final class ClusterReplicator implements AutoCloseable {
+
+    /**
+     * Erfährt, welche Sperren und Entsperrungen anderer Knoten den lokalen Speicher geändert
+     * haben (z. B. für Metriken, Protokoll und Subnetz-Eskalation). Wird im Empfangs-Thread
+     * aufgerufen, ohne Sperren zu halten; lokale Ereignisse werden nicht gemeldet.
+     */
+    public interface Listener {
+
+        /** @param ip Die durch einen anderen Knoten neu gesperrte Adresse */
+        void remoteBlocked(String ip);
+
+        /** @param ip Die durch einen anderen Knoten entsperrte Adresse */
+        void remoteUnblocked(String ip);
+    }
+
+    /** Standard: alle 200 ms senden, an 3 Nachbarn, jede 25. Runde (5 s) ein vollständiger Abgleich */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(200);
+    public static final int DEFAULT_FANOUT = 3;
+    public static final int DEFAULT_FULL_SYNC_ROUNDS = 25;
+
+    /** Mindestlänge des gemeinsamen Schlüssels in Bytes */
+    public static final int MIN_KEY_LENGTH = 16;
+
+    static final int MAGIC = 0x50574352; // "PWCR"
+    static final byte VERSION = 1;
+
+    private static final int HEADER_SIZE = 17;
+    private static final int MAC_SIZE = 32;
+    // Unkomprimierte Nutzlast je Paket; komprimiert samt Kopf sicher unter der UDP-Grenze
+    private static final int MAX_RAW = 32 * 1024;
+    private static final int MAX_PACKET = 65_507;
+    private static final int MAX_COUNTERS = 256;
+    // Mehr nachgemeldete Verstöße pro Zusammenführung ändern am Ergebnis nichts
+    private static final int MAX_REPLAYED_OFFENSES = 16;
+
+    private static final byte HAS_REGISTER = 1;
+    private static final byte BLOCKED = 2;
+
+    private final IpReputationStore store;
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private final SecretKeySpec key;
+    private final long nodeId;
+    private final int fanout;
+    private final int fullSyncRounds;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Zustand je Adresse und seit der letzten Runde geänderte Adressen; geschützt durch entries
+    private final Map<Address, Entry> entries = new HashMap<>();
+    private final Set<Address> dirty = new LinkedHashSet<>();
+    private long round;
+
+    private final ScheduledExecutorService scheduler;
+    private final Thread receiver;
+    private volatile boolean closed;
+    private volatile Listener listener;
+
+    private final LongAdder packetsSent = new LongAdder();
+    private final LongAdder packetsReceived = new LongAdder();
+    private final LongAdder packetsRejected = new LongAdder();
+    private final LongAdder remoteBlocks = new LongAdder();
+
+    private static final ThreadLocal<long[]> PARSE_BUFFER = ThreadLocal.withInitial(() -> new long[2]);
+
+    private record Address(long hi, long lo) {
+    }
+
+    /** CRDT-Zustand einer Adresse */
+    private static final class Entry {
+        final Map<Long, Long> counters = new HashMap<>();
+        boolean hasRegister;
+        boolean blocked;
+        long registerTime;
+        long registerNode;
+        long touched;
+    }
+
+    private ClusterReplicator(IpReputationStore store, DatagramSocket socket, List<InetSocketAddress> peers,
+                              byte[] key, long nodeId, Duration interval, int fanout, int fullSyncRounds,
+                              Duration ttl, LongSupplier clock) {
+        this.store = store;
+        this.socket = socket;
+        this.peers = List.copyOf(peers);
+        this.key = new SecretKeySpec(key.clone(), "HmacSHA256");
+        this.nodeId = nodeId;
+        this.fanout = fanout;
+        this.fullSyncRounds = fullSyncRounds;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.receiver = new Thread(this::receiveLoop, "cluster-receive");
+        receiver.setDaemon(true);
+        receiver.start();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-gossip");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::gossipRound, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Startet die Replikation mit Standardwerten.
+     *
+     * @param store Der lokale Speicher, in den Ereignisse anderer Knoten übernommen werden
+     * @param bind Lokale Adresse und UDP-Port
+     * @param peers Die anderen Knoten
+     * @param key Gemeinsamer Schlüssel aller Knoten (mindestens {@value #MIN_KEY_LENGTH} Bytes)
+     * @return die laufende Replikation
+     * @throws IOException wenn der Port nicht geöffnet werden kann
+     */
+    public static ClusterReplicator start(IpReputationStore store, InetSocketAddress bind,
+                                          List<InetSocketAddress> peers, byte[] key) throws IOException {
+        return start(store, bind, peers, key, new SecureRandom().nextLong(), DEFAULT_INTERVAL, DEFAULT_FANOUT,
+                DEFAULT_FULL_SYNC_ROUNDS, IpReputationStore.DEFAULT_TTL, System::currentTimeMillis);
+    }
+
+    static ClusterReplicator start(IpReputationStore store, InetSocketAddress bind, List<InetSocketAddress> peers,
+                                   byte[] key, long nodeId, Duration interval, int fanout, int fullSyncRounds,
+                                   Duration ttl, LongSupplier clock) throws IOException {
+        if (key.length < MIN_KEY_LENGTH) {
+            throw new IllegalArgumentException("Schlüssel muss mindestens " + MIN_KEY_LENGTH + " Bytes lang sein");
+        }
+        if (interval.toMillis() <= 0 || fanout < 1 || fullSyncRounds < 1) {
+            throw new IllegalArgumentException("Intervall, Fanout und Abgleich müssen positiv sein");
+        }
+        DatagramSocket socket = new DatagramSocket(bind);
+        return new ClusterReplicator(store, socket, peers, key, nodeId, interval, fanout, fullSyncRounds, ttl, clock);
+    }
+
+    /**
+     * Meldet einen lokalen Verstoß an die anderen Knoten.
+     *
+     * @param ip Die Adresse (ungültige werden ignoriert)
+     * @param newlyBlocked true wenn der Verstoß die Adresse gerade gesperrt hat
+     */
+    public void offense(CharSequence ip, boolean newlyBlocked) {
+        long[] parsed = PARSE_BUFFER.get();
+        if (!IpAddresses.parse(ip, parsed)) {
+            return;
+        }
+        Address address = new Address(parsed[0], parsed[1]);
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.computeIfAbsent(address, a -> new Entry());
+            entry.counters.merge(nodeId, 1L, Long::sum);
+            if (newlyBlocked) {
+                setRegister(entry, true, now);
+            }
+            entry.touched = now;
+            dirty.add(address);
+        }
+    }
+
+    /**
+     * Meldet eine lokale Entsperrung an die anderen Knoten.
+     *
+     * @param ip Die Adresse (ungültige werden ignoriert)
+     */
+    public void unblocked(CharSequence ip) {
+        long[] parsed = PARSE_BUFFER.get();
+        if (!IpAddresses.parse(ip, parsed)) {
+            return;
+        }
+        Address address = new Address(parsed[0], parsed[1]);
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.computeIfAbsent(address, a -> new Entry());
+            setRegister(entry, false, now);
+            entry.touched = now;
+            dirty.add(address);
+        }
+    }
+
+    /**
+     * @param listener Empfänger für übernommene Sperren und Entsperrungen oder null
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** @return die zufällige ID dieses Knotens */
+    public long nodeId() {
+        return nodeId;
+    }
+
+    /** @return der lokale UDP-Port */
+    public int port() {
+        return socket.getLocalPort();
+    }
+
+    /** @return Anzahl der replizierten Adressen */
+    public int entries() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** @return Anzahl der gesendeten Pakete */
+    public long packetsSent() {
+        return packetsSent.sum();
+    }
+
+    /** @return Anzahl der angenommenen Pakete */
+    public long packetsReceived() {
+        return packetsReceived.sum();
+    }
+
+    /** @return Anzahl der verworfenen Pakete (Signatur, Format oder Größe ungültig) */
+    public long packetsRejected() {
+        return packetsRejected.sum();
+    }
+
+    /** @return Anzahl der Sperren, die von anderen Knoten übernommen oder durch ihre Verstöße ausgelöst wurden */
+    public long remoteBlocks() {
+        return remoteBlocks.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        socket.close();
+    }
+
+    // ---------------------------------------------------------------- Senden
+
+    private void gossipRound() {
+        try {
+            List<byte[]> deltas;
+            List<byte[]> full = List.of();
+            synchronized (entries) {
+                expire(clock.getAsLong() - ttlMillis);
+                deltas = encode(dirty);
+                dirty.clear();
+                if (++round % fullSyncRounds == 0 && !entries.isEmpty()) {
+                    full = encode(entries.keySet());
+                }
+            }
+            if (peers.isEmpty()) {
+                return;
+            }
+            List<InetSocketAddress> targets = new ArrayList<>(peers);
+            Collections.shuffle(targets, ThreadLocalRandom.current());
+            for (int i = 0; i < Math.min(fanout, targets.size()); i++) {
+                send(deltas, targets.get(i));
+            }
+            send(full, targets.get(0));
+        } catch (RuntimeException e) {
+            // Eine fehlerhafte Runde darf die nächsten nicht verhindern
+            System.err.println("Cluster-Abgleich fehlgeschlagen: " + e.getMessage());
+        }
+    }
+
+    private void send(List<byte[]> packets, InetSocketAddress target) {
+        for (byte[] packet : packets) {
+            try {
+                socket.send(new DatagramPacket(packet, packet.length, target));
+                packetsSent.increment();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Cluster-Paket an " + target + " nicht gesendet: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void expire(long expiredBefore) {
+        Iterator<Map.Entry<Address, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Address, Entry> e = it.next();
+            if (e.getValue().touched <= expiredBefore) {
+                dirty.remove(e.getKey());
+                it.remove();
+            }
+        }
+    }
+
+    /** Kodiert die Adressen in Pakete zu höchstens {@link #MAX_RAW} Bytes Nutzlast (unter der Sperre). */
+    private List<byte[]> encode(Set<Address> addresses) {
+        List<byte[]> packets = new ArrayList<>();
+        ByteBuffer raw = ByteBuffer.allocate(MAX_RAW).order(ByteOrder.LITTLE_ENDIAN);
+        int count = 0;
+        raw.putInt(0);
+        for (Address address : addresses) {
+            Entry entry = entries.get(address);
+            if (entry == null) {
+                continue;
+            }
+            int counters = Math.min(entry.counters.size(), MAX_COUNTERS);
+            int size = 35 + counters * 16;
+            if (raw.remaining() < size) {
+                packets.add(seal(raw, count));
+                raw.clear();
+                raw.putInt(0);
+                count = 0;
+            }
+            raw.putLong(address.hi()).putLong(address.lo());
+            raw.put((byte) ((entry.hasRegister ? HAS_REGISTER : 0) | (entry.blocked ? BLOCKED : 0)));
+            raw.putLong(entry.registerTime).putLong(entry.registerNode);
+            raw.putShort((short) counters);
+            int written = 0;
+            for (Map.Entry<Long, Long> counter : entry.counters.entrySet()) {
+                if (written++ == counters) {
+                    break;
+                }
+                raw.putLong(counter.getKey()).putLong(counter.getValue());
+            }
+            count++;
+        }
+        if (count > 0) {
+            packets.add(seal(raw, count));
+        }
+        return packets;
+    }
+
+    /** Komprimiert die Nutzlast, setzt den Kopf davor und die Signatur dahinter. */
+    private byte[] seal(ByteBuffer raw, int count) {
+        raw.putInt(0, count);
+        int rawLength = raw.position();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] packet = new byte[MAX_PACKET];
+        int length;
+        try {
+            deflater.setInput(raw.array(), 0, rawLength);
+            deflater.finish();
+            length = HEADER_SIZE + deflater.deflate(packet, HEADER_SIZE, MAX_PACKET - HEADER_SIZE - MAC_SIZE);
+            if (!deflater.finished()) {
+                throw new IllegalStateException("Cluster-Paket zu groß");
+            }
+        } finally {
+            deflater.end();
+        }
+        ByteBuffer header = ByteBuffer.wrap(packet, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).put(VERSION).putLong(nodeId).putInt(rawLength);
+        Mac mac = mac();
+        mac.update(packet, 0, length);
+        try {
+            mac.doFinal(packet, length);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        return Arrays.copyOf(packet, length + MAC_SIZE);
+    }
+
+    // ---------------------------------------------------------------- Empfangen
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[MAX_PACKET];
+        byte[] raw = new byte[MAX_RAW];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!closed) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+            } catch (SocketException e) {
+                return; // geschlossen
+            } catch (IOException e) {
+                continue;
+            }
+            try {
+                if (receive(buffer, packet.getLength(), raw)) {
+                    packetsReceived.increment();
+                } else {
+                    packetsRejected.increment();
+                }
+            } catch (RuntimeException e) {
+                packetsRejected.increment();
+            }
+        }
+    }
+
+    /**
+     * Prüft, entpackt und übernimmt ein Paket.
+     *
+     * @return false wenn das Paket ungültig ist
+     */
+    boolean receive(byte[] packet, int length, byte[] raw) {
+        if (length < HEADER_SIZE + MAC_SIZE) {
+            return false;
+        }
+        int signed = length - MAC_SIZE;
+        Mac mac = mac();
+        mac.update(packet, 0, signed);
+        if (!MessageDigest.isEqual(mac.doFinal(), Arrays.copyOfRange(packet, signed, length))) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.wrap(packet, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC || header.get() != VERSION) {
+            return false;
+        }
+        long sender = header.getLong();
+        int rawLength = header.getInt();
+        if (sender == nodeId) {
+            return true; // eigenes Paket (z. B. sich selbst als Knoten eingetragen)
+        }
+        if (rawLength < 4 || rawLength > MAX_RAW) {
+            return false;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(packet, HEADER_SIZE, signed - HEADER_SIZE);
+            if (inflater.inflate(raw, 0, rawLength) != rawLength || !inflater.finished()) {
+                return false;
+            }
+        } catch (DataFormatException e) {
+            return false;
+        } finally {
+            inflater.end();
+        }
+        merge(ByteBuffer.wrap(raw, 0, rawLength).order(ByteOrder.LITTLE_ENDIAN));
+        return true;
+    }
+
+    private void merge(ByteBuffer in) {
+        int count = in.getInt();
+        long now = clock.getAsLong();
+        for (int i = 0; i < count; i++) {
+            long hi = in.getLong();
+            long lo = in.getLong();
+            byte flags = in.get();
+            long registerTime = in.getLong();
+            long registerNode = in.getLong();
+            int counters = in.getShort();
+            if (counters < 0 || counters > MAX_COUNTERS) {
+                throw new IllegalArgumentException("Ungültige Zähleranzahl");
+            }
+            Address address = new Address(hi, lo);
+            boolean registerChanged;
+            boolean blocked;
+            long added = 0;
+            synchronized (entries) {
+                Entry entry = entries.computeIfAbsent(address, a -> new Entry());
+                boolean changed = false;
+                for (int k = 0; k < counters; k++) {
+                    long node = in.getLong();
+                    long value = in.getLong();
+                    long known = entry.counters.getOrDefault(node, 0L);
+                    if (value > known) {
+                        entry.counters.put(node, value);
+                        added += value - known;
+                        changed = true;
+                    }
+                }
+                registerChanged = (flags & HAS_REGISTER) != 0
+                        && wins(registerTime, registerNode, entry.hasRegister, entry.registerTime, entry.registerNode);
+                if (registerChanged) {
+                    entry.hasRegister = true;
+                    entry.blocked = (flags & BLOCKED) != 0;
+                    entry.registerTime = registerTime;
+                    entry.registerNode = registerNode;
+                    changed = true;
+                }
+                if (!changed) {
+                    if (entry.touched == 0) {
+                        entries.remove(address); // nichts Neues, nur angelegt
+                    }
+                    continue;
+                }
+                entry.touched = now;
+                dirty.add(address);
+                blocked = entry.blocked;
+            }
+            apply(address, registerChanged, blocked, added, now);
+        }
+    }
+
+    /**
+     * Übernimmt eine geänderte Adresse in den lokalen Speicher. Läuft ohne die Sperre auf
+     * {@code entries}, da der Speicher seinen Listener (und damit das WAL) aufruft.
+     */
+    private void apply(Address address, boolean registerChanged, boolean blocked, long added, long now) {
+        long hi = address.hi();
+        long lo = address.lo();
+        Listener current = listener;
+        if (registerChanged) {
+            if (blocked) {
+                if (store.block(hi, lo)) {
+                    remoteBlocks.increment();
+                    if (current != null) {
+                        current.remoteBlocked(IpAddresses.format(hi, lo));
+                    }
+                }
+            } else if (store.unblock(hi, lo) && current != null) {
+                current.remoteUnblocked(IpAddresses.format(hi, lo));
+            }
+            return; // ältere Verstöße nicht wieder einspielen
+        }
+        boolean newlyBlocked = false;
+        for (long k = 0; k < Math.min(added, MAX_REPLAYED_OFFENSES); k++) {
+            newlyBlocked |= (store.recordOffense(hi, lo) & IpReputationStore.NEWLY_BLOCKED) != 0;
+        }
+        if (!newlyBlocked) {
+            return;
+        }
+        // Erst die zusammengeführten Verstöße sperren: als eigene Sperre weitergeben
+        remoteBlocks.increment();
+        synchronized (entries) {
+            Entry entry = entries.computeIfAbsent(address, a -> new Entry());
+            setRegister(entry, true, now);
+            entry.touched = now;
+            dirty.add(address);
+        }
+        if (current != null) {
+            current.remoteBlocked(IpAddresses.format(hi, lo));
+        }
+    }
+
+    private void setRegister(Entry entry, boolean blocked, long now) {
+        long time = entry.hasRegister ? Math.max(now, entry.registerTime + 1) : now;
+        entry.hasRegister = true;
+        entry.blocked = blocked;
+        entry.registerTime = time;
+        entry.registerNode = nodeId;
+    }
+
+    private static boolean wins(long time, long node, boolean hasLocal, long localTime, long localNode) {
+        return !hasLocal || time > localTime || (time == localTime && node > localNode);
+    }
+
+    private Mac mac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 nicht verfügbar", e);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Prüft ein Passwort, während es eingegeben wird. Statt bei jedem Tastendruck das ganze
+ * Passwort neu zu analysieren, führt der Zustand alles, was sich zeichenweise fortschreiben
+ * lässt, je Eingabeposition mit:
+ * <ul>
+ *   <li>Länge und die Anzahl der Zeichen je Klasse (Klassentabelle der Richtlinie)</li>
+ *   <li>den FNV-1a-Zustand des Wörterbuch-Fingerabdrucks ({@link WeakPasswordDictionary#fnv(long, char)})</li>
+ *   <li>die Menge der erreichbaren Knoten im Varianten-Trie ({@link WeakPasswordVariants#advance})</li>
+ * </ul>
+ * Anhängen und Löschen des letzten Zeichens kosten damit O(1); Löschen entfernt nur den
+ * obersten Stapeleintrag. Eine Bewertung schlägt das Wörterbuch mit dem fertigen
+ * Fingerabdruck nach und liest den Varianten-Treffer ab; nur SQL-Injection-Muster, Breach-Filter
+ * und Stärkeschätzung laufen dann noch über das Passwort, die Schätzung nur, wenn das
+ * Ergebnis nicht schon WEAK ist.
+ *
+ * {@link #evaluate(PasswordAnalysis)} liefert immer denselben Code wie
+ * {@link PasswordPolicy#evaluate(CharSequence, PasswordAnalysis)} für den aktuellen Text.
+ * Wird das Wörterbuch der Richtlinie ausgetauscht oder ergänzt, wird der Trie-Zustand bei der
+ * nächsten Bewertung neu aufgebaut. Nicht threadsicher: eine Instanz je Eingabefeld.
+ */
+public final class IncrementalValidator {
+
+    // Höchstens so viele Zeichen werden im Varianten-Trie verfolgt (längere Passwörter prüft er nicht)
+    private static final int MAX_TRACKED = WeakPasswordVariants.MAX_LENGTH;
+
+    // Bits der Klassentabelle: DIGIT, UPPER, LOWER, SPECIAL und das interne Bit für nicht erlaubte Zeichen
+    private static final int CLASS_BITS = 5;
+
+    private final PasswordPolicy policy;
+    private final CharClassifier.Table classTable;
+    private final CharSlice slice = new CharSlice();
+    private final int[] classCounts = new int[CLASS_BITS];
+
+    private char[] chars = new char[32];
+    private int length;
+
+    // FNV-1a-Zustand nach den ersten i Zeichen
+    private long[] hashes = new long[33];
+
+    // Varianten-Trie: Knoten nach den ersten i Zeichen in states[stateStart[i] .. stateStart[i + 1])
+    private WeakPasswordDictionary trieDictionary;
+    private WeakPasswordVariants trie;
+    private int trieSize;
+    private int[] states = new int[64];
+    private final int[] stateStart = new int[MAX_TRACKED + 2];
+    // Position hinter dem letzten Buchstaben der ersten i Zeichen (0 = noch keiner)
+    private final int[] letterEnd = new int[MAX_TRACKED + 1];
+    // Größte Position j <= i, an der ein Wort endet (-1 = keine)
+    private final int[] lastWord = new int[MAX_TRACKED + 1];
+
+    /**
+     * Erzeugt einen leeren Zustand für die Standard-Richtlinie.
+     */
+    public IncrementalValidator() {
+        this(PasswordPolicy.defaults());
+    }
+
+    /**
+     * Erzeugt einen leeren Zustand.
+     *
+     * @param policy Die Richtlinie, nach der bewertet wird
+     */
+    public IncrementalValidator(PasswordPolicy policy) {
+        this.policy = policy;
+        this.classTable = policy.classTable();
+        hashes[0] = WeakPasswordDictionary.FNV_OFFSET;
+        bindTrie();
+    }
+
+    /**
+     * Hängt ein Zeichen an.
+     *
+     * @param c Das neue Zeichen
+     */
+    public void append(char c) {
+        int n = length;
+        if (n == chars.length) {
+            grow();
+        }
+        chars[n] = c;
+        hashes[n + 1] = WeakPasswordDictionary.fnv(hashes[n], c);
+        int bits = c < 128 ? classTable.ascii[c] : classTable.nonAscii;
+        if (bits != 0) {
+            classCounts[Integer.numberOfTrailingZeros(bits)]++;
+        }
+        length = n + 1;
+        if (n < MAX_TRACKED) {
+            advanceTrie(n, c);
+        }
+    }
+
+    /**
+     * Hängt mehrere Zeichen an (z. B. beim Einfügen aus der Zwischenablage).
+     *
+     * @param text Die neuen Zeichen
+     */
+    public void append(CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            append(text.charAt(i));
+        }
+    }
+
+    /**
+     * Löscht das letzte Zeichen (Rücktaste).
+     *
+     * @return false wenn der Text bereits leer war
+     */
+    public boolean deleteLast() {
+        if (length == 0) {
+            return false;
+        }
+        char c = chars[--length];
+        chars[length] = '\0';
+        int bits = c < 128 ? classTable.ascii[c] : classTable.nonAscii;
+        if (bits != 0) {
+            classCounts[Integer.numberOfTrailingZeros(bits)]--;
+        }
+        return true;
+    }
+
+    /**
+     * Kürzt den Text auf die ersten {@code newLength} Zeichen.
+     *
+     * @param newLength Neue Länge (0 bis {@link #length()})
+     */
+    public void truncate(int newLength) {
+        if (newLength < 0 || newLength > length) {
+            throw new IndexOutOfBoundsException("Länge " + newLength + ", aktuell " + length);
+        }
+        while (length > newLength) {
+            deleteLast();
+        }
+    }
+
+    /**
+     * Übernimmt den kompletten aktuellen Text eines Eingabefelds. Der gemeinsame Anfang mit dem
+     * bisherigen Text bleibt erhalten, nur der geänderte Rest wird neu verarbeitet; so lassen
+     * sich auch Änderungen mitten im Text ohne eigene Differenzbildung nachführen.
+     *
+     * @param text Der neue Text (darf nicht null sein)
+     */
+    public void update(CharSequence text) {
+        int n = text.length();
+        int common = 0;
+        int limit = Math.min(n, length);
+        while (common < limit && chars[common] == text.charAt(common)) {
+            common++;
+        }
+        truncate(common);
+        for (int i = common; i < n; i++) {
+            append(text.charAt(i));
+        }
+    }
+
+    /** Löscht den Text und überschreibt den Puffer. */
+    public void clear() {
+        Arrays.fill(chars, 0, length, '\0');
+        Arrays.fill(classCounts, 0);
+        length = 0;
+    }
+
+    /** @return aktuelle Länge des Textes */
+    public int length() {
+        return length;
+    }
+
+    /** @return Bitmaske der enthaltenen Zeichenklassen (siehe {@link PasswordAnalysis}) */
+    public int classes() {
+        return mask() & PasswordAnalysis.ALL_CLASSES;
+    }
+
+    /**
+     * Bewertet den aktuellen Text.
+     *
+     * @param scratch Wiederverwendbare Analyse, enthält danach Länge und Zeichenklassen
+     * @return Ergebniscode wie von {@link PasswordPolicy#evaluate(CharSequence, PasswordAnalysis)}
+     */
+    public byte evaluate(PasswordAnalysis scratch) {
+        long start = ValidatorMetrics.startTimer();
+        int mask = mask();
+        scratch.set(length, mask & PasswordAnalysis.ALL_CLASSES);
+        CharSequence password = slice.set(chars, 0, length);
+        byte code;
+        try {
+            if (SecurityMonitor.findSQLInjectionPattern(password) >= 0) {
+                code = ValidationCodes.encode(mask & PasswordAnalysis.ALL_CLASSES, length >= policy.minLength(), false,
+                        PasswordVerdict.REJECTED);
+            } else {
+                code = policy.classify(password, mask, length, isBlacklisted(password));
+            }
+        } finally {
+            slice.clear();
+        }
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.VALIDATION, start);
+        ValidatorMetrics.recordVerdict(ValidationCodes.verdict(code));
+        return code;
+    }
+
+    /** @return Bewertung des aktuellen Textes */
+    public PasswordVerdict verdict() {
+        return ValidationCodes.verdict(evaluate(new PasswordAnalysis()));
+    }
+
+    private int mask() {
+        int mask = 0;
+        for (int bit = 0; bit < CLASS_BITS; bit++) {
+            if (classCounts[bit] != 0) {
+                mask |= 1 << bit;
+            }
+        }
+        return mask;
+    }
+
+    private boolean isBlacklisted(CharSequence password) {
+        long start = ValidatorMetrics.startTimer();
+        WeakPasswordDictionary dictionary = policy.blacklistDictionary();
+        boolean weak = false;
+        if (dictionary != null) {
+            weak = dictionary.containsFingerprint(WeakPasswordDictionary.finish(hashes[length]));
+            if (!weak && policy.checksVariants()) {
+                if (dictionary != trieDictionary || dictionary.variants().size() != trieSize) {
+                    rebuildTrie();
+                }
+                weak = containsVariant();
+            }
+            if (!weak && policy.checksBreaches()) {
+                weak = WeakPasswordCheck.isBreached(password);
+            }
+        }
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.WEAK_PASSWORD, start);
+        return weak;
+    }
+
+    /**
+     * Entspricht {@link WeakPasswordVariants#matches(CharSequence)}: ein Wort muss an einer
+     * Position enden, hinter der kein Buchstabe mehr folgt.
+     */
+    private boolean containsVariant() {
+        int n = length;
+        return n <= MAX_TRACKED && trieSize > 0 && lastWord[n] >= letterEnd[n];
+    }
+
+    private void bindTrie() {
+        trieDictionary = policy.checksVariants() ? policy.blacklistDictionary() : null;
+        trie = trieDictionary != null ? trieDictionary.variants() : null;
+        trieSize = trie != null ? trie.size() : 0;
+        states[0] = WordTrie.ROOT;
+        stateStart[0] = 0;
+        stateStart[1] = 1;
+        letterEnd[0] = 0;
+        lastWord[0] = -1;
+    }
+
+    private void rebuildTrie() {
+        bindTrie();
+        for (int i = 0, n = Math.min(length, MAX_TRACKED); i < n; i++) {
+            advanceTrie(i, chars[i]);
+        }
+    }
+
+    /** Berechnet die Trie-Knoten nach Position i + 1 aus denen nach Position i. */
+    private void advanceTrie(int i, char c) {
+        int from = stateStart[i];
+        int to = stateStart[i + 1];
+        letterEnd[i + 1] = Character.isLetter(c) ? i + 1 : letterEnd[i];
+        int count = to;
+        if (trie != null) {
+            if (states.length < to + 3 * (to - from) + 1) {
+                states = Arrays.copyOf(states, Math.max(states.length * 2, to + 3 * (to - from) + 1));
+            }
+            for (int k = from; k < to; k++) {
+                int end = trie.advance(states[k], c, states, count);
+                // Doppelte Knoten (z. B. "1" als i und l auf denselben Pfad) nur einmal behalten
+                for (int m = count; m < end; m++) {
+                    if (!containsState(to, count, states[m])) {
+                        states[count++] = states[m];
+                    }
+                }
+            }
+        }
+        boolean word = false;
+        for (int k = to; k < count; k++) {
+            word |= trie.isWord(states[k]);
+        }
+        if (letterEnd[i + 1] == 0) {
+            // Vor dem ersten Buchstaben darf das Wort an jeder Position beginnen
+            if (states.length == count) {
+                states = Arrays.copyOf(states, count * 2);
+            }
+            if (!containsState(to, count, WordTrie.ROOT)) {
+                states[count++] = WordTrie.ROOT;
+            }
+        }
+        stateStart[i + 2] = count;
+        lastWord[i + 1] = word ? i + 1 : lastWord[i];
+    }
+
+    private boolean containsState(int from, int to, int node) {
+        for (int k = from; k < to; k++) {
+            if (states[k] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void grow() {
+        char[] old = chars;
+        chars = Arrays.copyOf(old, old.length * 2);
+        Arrays.fill(old, '\0');
+        hashes = Arrays.copyOf(hashes, chars.length + 1);
+    }
+}
@@ -0,0 +1,240 @@
+package org.example;
+
+/**
+ * Hilfsfunktionen für IP-Adressen in gepackter Form.
+ * Jede Adresse wird als 128 Bit (hi, lo) dargestellt; IPv4-Adressen als
+ * IPv4-mapped IPv6 (::ffff:a.b.c.d), so dass lo die gepackte IPv4 enthält.
+ * Das Parsen arbeitet direkt auf der Zeichenfolge und legt keine Objekte an.
+ */
+public final class IpAddresses {
+
+    /** Präfix von IPv4-mapped-Adressen im unteren Wort */
+    static final long IPV4_MAPPED = 0x0000FFFF00000000L;
+
+    private IpAddresses() {
+    }
+
+    /**
+     * Parst eine IPv4- oder IPv6-Adresse (optional in [Klammern] und mit %Zone).
+     *
+     * @param address Die Adresse als Text
+     * @param out Ergebnis: out[0] = hi, out[1] = lo
+     * @return true wenn die Adresse gültig ist
+     */
+    public static boolean parse(CharSequence address, long[] out) {
+        if (address == null) {
+            return false;
+        }
+        int start = 0;
+        int end = address.length();
+        if (end > 1 && address.charAt(0) == '[' && address.charAt(end - 1) == ']') {
+            start = 1;
+            end--;
+        }
+        boolean colon = false;
+        for (int i = start; i < end; i++) {
+            char c = address.charAt(i);
+            if (c == '%') {
+                end = i; // Zonen-ID ignorieren
+                break;
+            }
+            if (c == ':') {
+                colon = true;
+            }
+        }
+        if (!colon) {
+            long v4 = parseIpv4(address, start, end);
+            if (v4 < 0) {
+                return false;
+            }
+            out[0] = 0;
+            out[1] = IPV4_MAPPED | v4;
+            return true;
+        }
+        return parseIpv6(address, start, end, out);
+    }
+
+    /**
+     * Parst eine IPv4-Adresse in Punktnotation.
+     *
+     * @return die Adresse als vorzeichenlose 32 Bit in einem long oder -1 wenn ungültig
+     */
+    static long parseIpv4(CharSequence s, int start, int end) {
+        long result = 0;
+        int parts = 0;
+        int i = start;
+        while (i < end) {
+            int value = 0;
+            int digits = 0;
+            while (i < end && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                value = value * 10 + (s.charAt(i) - '0');
+                if (++digits > 3) {
+                    return -1;
+                }
+                i++;
+            }
+            if (digits == 0 || value > 255) {
+                return -1;
+            }
+            result = (result << 8) | value;
+            parts++;
+            if (i < end) {
+                if (s.charAt(i) != '.' || parts == 4) {
+                    return -1;
+                }
+                i++;
+                if (i == end) {
+                    return -1;
+                }
+            }
+        }
+        return parts == 4 ? result : -1;
+    }
+
+    private static boolean parseIpv6(CharSequence s, int start, int end, long[] out) {
+        // Gruppen vor "::" (head) und danach (tail) getrennt sammeln
+        long headHi = 0, headLo = 0, tailHi = 0, tailLo = 0;
+        int headGroups = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+        int i = start;
+        if (end - start >= 2 && s.charAt(start) == ':' && s.charAt(start + 1) == ':') {
+            compressed = true;
+            i += 2;
+        } else if (end > start && s.charAt(start) == ':') {
+            return false;
+        }
+        while (i < end) {
+            // Eingebettete IPv4 am Ende?
+            int segmentEnd = i;
+            boolean dotted = false;
+            while (segmentEnd < end && s.charAt(segmentEnd) != ':') {
+                if (s.charAt(segmentEnd) == '.') {
+                    dotted = true;
+                }
+                segmentEnd++;
+            }
+            int groups;
+            long value;
+            if (dotted) {
+                if (segmentEnd != end) {
+                    return false;
+                }
+                value = parseIpv4(s, i, end);
+                if (value < 0) {
+                    return false;
+                }
+                groups = 2;
+            } else {
+                int length = segmentEnd - i;
+                if (length == 0 || length > 4) {
+                    return false;
+                }
+                value = 0;
+                for (int j = i; j < segmentEnd; j++) {
+                    int digit = Character.digit(s.charAt(j), 16);
+                    if (digit < 0) {
+                        return false;
+                    }
+                    value = (value << 4) | digit;
+                }
+                groups = 1;
+            }
+            int bits = groups * 16;
+            if (compressed) {
+                tailHi = (tailHi << bits) | (tailLo >>> (64 - bits));
+                tailLo = (tailLo << bits) | value;
+                tailGroups += groups;
+            } else {
+                headHi = (headHi << bits) | (headLo >>> (64 - bits));
+                headLo = (headLo << bits) | value;
+                headGroups += groups;
+            }
+            if (headGroups + tailGroups > 8) {
+                return false;
+            }
+            i = segmentEnd;
+            if (i < end) {
+                // Trenner ":" oder "::"
+                i++;
+                if (i < end && s.charAt(i) == ':') {
+                    if (compressed) {
+                        return false;
+                    }
+                    compressed = true;
+                    i++;
+                } else if (i == end) {
+                    return false;
+                }
+            }
+        }
+        int total = headGroups + tailGroups;
+        if (compressed ? total > 7 : total != 8) {
+            return false;
+        }
+        // head an den Anfang schieben, tail bleibt rechtsbündig
+        int shift = 8 - headGroups;
+        for (int k = 0; k < shift; k++) {
+            headHi = (headHi << 16) | (headLo >>> 48);
+            headLo <<= 16;
+        }
+        out[0] = headHi | tailHi;
+        out[1] = headLo | tailLo;
+        return true;
+    }
+
+    /**
+     * @return true wenn (hi, lo) eine IPv4-mapped-Adresse ist
+     */
+    public static boolean isIpv4(long hi, long lo) {
+        return hi == 0 && (lo & 0xFFFFFFFF00000000L) == IPV4_MAPPED;
+    }
+
+    /**
+     * Formatiert eine gepackte Adresse (IPv4 in Punktnotation, IPv6 mit "::").
+     *
+     * @param hi Obere 64 Bit
+     * @param lo Untere 64 Bit
+     * @return die Adresse als Text
+     */
+    public static String format(long hi, long lo) {
+        if (isIpv4(hi, lo)) {
+            return ((lo >>> 24) & 0xFF) + "." + ((lo >>> 16) & 0xFF) + "." + ((lo >>> 8) & 0xFF) + "." + (lo & 0xFF);
+        }
+        int[] groups = new int[8];
+        for (int i = 0; i < 4; i++) {
+            groups[i] = (int) (hi >>> (48 - 16 * i)) & 0xFFFF;
+            groups[i + 4] = (int) (lo >>> (48 - 16 * i)) & 0xFFFF;
+        }
+        // Längste Nullfolge (mind. 2 Gruppen) durch "::" ersetzen
+        int bestStart = -1, bestLength = 1;
+        for (int i = 0; i < 8; ) {
+            if (groups[i] == 0) {
+                int j = i;
+                while (j < 8 && groups[j] == 0) {
+                    j++;
+                }
+                if (j - i > bestLength) {
+                    bestStart = i;
+                    bestLength = j - i;
+                }
+                i = j;
+            } else {
+                i++;
+            }
+        }
+        StringBuilder sb = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                sb.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ':') {
+                sb.append(':');
+            }
+            sb.append(Integer.toHexString(groups[i]));
+        }
+        return sb.toString();
+    }
+}
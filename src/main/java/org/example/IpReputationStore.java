@@ -0,0 +1,692 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Threadsicherer Speicher für den Ruf von IP-Adressen (sauber, verdächtig, gesperrt).
+ * Adressen werden gepackt als 128 Bit gespeichert (siehe {@link IpAddresses}),
+ * nicht als String. Der Speicher ist in Streifen mit je eigener {@link StampedLock}
+ * aufgeteilt; Lesezugriffe laufen optimistisch ohne Sperre, daher skalieren
+ * Abfragen wie {@link #status(long, long)} mit der Anzahl der Kerne.
+ *
+ * Der Speicher ist begrenzt: Verstöße werden pro IP in einem gleitenden Fenster
+ * gezählt, ein Eintrag verfällt nach der TTL seit dem letzten Verstoß, und bei
+ * voller Kapazität wird der am längsten nicht gesehene Eintrag verdrängt.
+ * Beides geschieht über eine LRU-Liste je Streifen in amortisiert O(1).
+ */
+public final class IpReputationStore {
+
+    /**
+     * Wird beim Übergang in den Status gesperrt und bei Entsperrungen aufgerufen, noch unter
+     * der Sperre des Streifens; Ereignisse einer Adresse kommen daher in der richtigen
+     * Reihenfolge an. Erneute Verstöße einer bereits gesperrten Adresse werden nicht gemeldet.
+     * Implementierungen müssen schnell sein, dürfen keine Ein-/Ausgabe machen und den
+     * Speicher nicht aufrufen.
+     */
+    public interface Listener {
+
+        /**
+         * @param hi Obere 64 Bit der Adresse
+         * @param lo Untere 64 Bit der Adresse
+         * @param time Zeitpunkt des Verstoßes (ms seit 1970)
+         */
+        void blocked(long hi, long lo, long time);
+
+        /**
+         * @param hi Obere 64 Bit der Adresse
+         * @param lo Untere 64 Bit der Adresse
+         * @param time Zeitpunkt der Entsperrung (ms seit 1970)
+         */
+        void unblocked(long hi, long lo, long time);
+    }
+
+    public static final int CLEAN = 0;
+    public static final int SUSPICIOUS = 1;
+    public static final int BLOCKED = 2;
+
+    /** Maske für den Status im Ergebnis von {@link #recordOffense(long, long)} */
+    public static final int STATUS_MASK = 3;
+    /** Bit im Ergebnis von {@link #recordOffense(long, long)}: genau dieser Verstoß hat die Adresse gesperrt */
+    public static final int NEWLY_BLOCKED = 4;
+
+    /** Standard: zweiter Verstoß innerhalb einer Stunde sperrt, Einträge verfallen nach 24 Stunden */
+    public static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+    public static final int DEFAULT_THRESHOLD = 2;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+    public static final int DEFAULT_MAX_ENTRIES = 1_000_000;
+
+    private static final int STRIPE_BITS = 6; // 64 Streifen
+    private static final int STRIPE_COUNT = 1 << STRIPE_BITS;
+    private static final int NONE = -1;
+
+    private static final ThreadLocal<long[]> PARSE_BUFFER = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+    private final long windowMillis;
+    private final int threshold;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private volatile Listener listener;
+
+    /**
+     * Erzeugt einen Speicher mit Standardwerten.
+     */
+    public IpReputationStore() {
+        this(DEFAULT_WINDOW, DEFAULT_THRESHOLD, DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Erzeugt einen begrenzten Speicher.
+     *
+     * @param window Länge des gleitenden Fensters für das Zählen von Verstößen
+     * @param threshold Anzahl Verstöße im Fenster, ab der gesperrt wird (mindestens 1)
+     * @param ttl Zeit seit dem letzten Verstoß, nach der ein Eintrag verfällt
+     * @param maxEntries Maximale Anzahl gespeicherter Adressen
+     */
+    public IpReputationStore(Duration window, int threshold, Duration ttl, int maxEntries) {
+        this(window, threshold, ttl, maxEntries, System::currentTimeMillis);
+    }
+
+    IpReputationStore(Duration window, int threshold, Duration ttl, int maxEntries, LongSupplier clock) {
+        if (window.toMillis() <= 0 || ttl.toMillis() <= 0) {
+            throw new IllegalArgumentException("Fenster und TTL müssen positiv sein");
+        }
+        if (threshold < 1 || maxEntries < 1) {
+            throw new IllegalArgumentException("Schwelle und Maximalgröße müssen mindestens 1 sein");
+        }
+        this.windowMillis = window.toMillis();
+        this.threshold = threshold;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        int stripeCapacity = Math.max(1, (maxEntries + STRIPE_COUNT - 1) / STRIPE_COUNT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * @param ip Die Adresse als Text
+     * @return CLEAN, SUSPICIOUS oder BLOCKED
+     * @throws IllegalArgumentException wenn die Adresse ungültig ist
+     */
+    public int status(CharSequence ip) {
+        long[] key = parse(ip);
+        return status(key[0], key[1]);
+    }
+
+    /**
+     * Liest den Status ohne Sperre (optimistisch, bei Konflikt mit Lesesperre).
+     * Abgelaufene Einträge gelten als sauber.
+     *
+     * @param hi Obere 64 Bit der Adresse
+     * @param lo Untere 64 Bit der Adresse
+     * @return CLEAN, SUSPICIOUS oder BLOCKED
+     */
+    public int status(long hi, long lo) {
+        long hash = hash(hi, lo);
+        Stripe stripe = stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+        long expiredBefore = clock.getAsLong() - ttlMillis;
+        long stamp = stripe.lock.tryOptimisticRead();
+        int status = stripe.table.status(hi, lo, (int) hash, expiredBefore);
+        if (!stripe.lock.validate(stamp)) {
+            stamp = stripe.lock.readLock();
+            try {
+                status = stripe.table.status(hi, lo, (int) hash, expiredBefore);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Meldet einen Verstoß (siehe {@link #reportOffense(long, long)}).
+     *
+     * @param ip Die Adresse als Text
+     * @return der neue Status
+     * @throws IllegalArgumentException wenn die Adresse ungültig ist
+     */
+    public int reportOffense(CharSequence ip) {
+        long[] key = parse(ip);
+        return reportOffense(key[0], key[1]);
+    }
+
+    /**
+     * Meldet einen Verstoß. Die Adresse wird verdächtig; erreicht die Anzahl der
+     * Verstöße im gleitenden Fenster die Schwelle, wird sie gesperrt.
+     *
+     * @param hi Obere 64 Bit der Adresse
+     * @param lo Untere 64 Bit der Adresse
+     * @return der neue Status
+     */
+    public int reportOffense(long hi, long lo) {
+        return recordOffense(hi, lo) & STATUS_MASK;
+    }
+
+    /**
+     * Meldet einen Verstoß (siehe {@link #recordOffense(long, long)}).
+     *
+     * @param ip Die Adresse als Text
+     * @return der neue Status, bei einer neuen Sperre zusätzlich {@link #NEWLY_BLOCKED}
+     * @throws IllegalArgumentException wenn die Adresse ungültig ist
+     */
+    public int recordOffense(CharSequence ip) {
+        long[] key = parse(ip);
+        return recordOffense(key[0], key[1]);
+    }
+
+    /**
+     * Meldet einen Verstoß wie {@link #reportOffense(long, long)} und meldet zusätzlich, ob genau
+     * dieser Verstoß die Adresse gesperrt hat. Der Übergang wird unter der Sperre des Streifens
+     * ermittelt; von mehreren gleichzeitigen Verstößen derselben Adresse erhält ihn genau einer.
+     *
+     * @param hi Obere 64 Bit der Adresse
+     * @param lo Untere 64 Bit der Adresse
+     * @return der neue Status, bei einer neuen Sperre zusätzlich {@link #NEWLY_BLOCKED}
+     */
+    public int recordOffense(long hi, long lo) {
+        long hash = hash(hi, lo);
+        Stripe stripe = stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+        long now = clock.getAsLong();
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.evictExpired(now - ttlMillis);
+            Table table = stripe.table;
+            int entry = table.find(hi, lo, (int) hash);
+            if (entry < 0) {
+                if (table.used == stripe.capacity) {
+                    stripe.evict(table.tail); // Am längsten nicht gesehener Eintrag
+                } else if (table.isFull()) {
+                    table = stripe.table = table.grow(stripe.capacity);
+                }
+                entry = table.insert(hi, lo, (int) hash, CLEAN);
+                table.windowStart[entry] = now;
+            } else {
+                table.unlink(entry);
+            }
+            table.linkFirst(entry);
+            table.lastSeen[entry] = now;
+
+            int old = table.states[entry];
+            int status = old == BLOCKED || countOffense(table, entry, now) >= threshold ? BLOCKED : SUSPICIOUS;
+            if (status != old) {
+                table.states[entry] = (byte) status;
+                if (old != CLEAN) {
+                    stripe.counts[old]--;
+                }
+                stripe.counts[status]++;
+            }
+            Listener current = listener;
+            if (status == BLOCKED && old != BLOCKED && current != null) {
+                current.blocked(hi, lo, now); // nur beim Übergang, nicht bei jedem erneuten Verstoß
+            }
+            return status == BLOCKED && old != BLOCKED ? status | NEWLY_BLOCKED : status;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Zählt einen Verstoß im gleitenden Fenster (Schätzung aus aktuellem und
+     * vorherigem Fenster, gewichtet nach Überlappung).
+     *
+     * @return geschätzte Anzahl Verstöße im letzten Fenster inklusive diesem
+     */
+    private int countOffense(Table table, int entry, long now) {
+        long elapsed = now - table.windowStart[entry];
+        if (elapsed >= windowMillis) {
+            table.previousCount[entry] = elapsed < 2 * windowMillis ? table.currentCount[entry] : 0;
+            table.currentCount[entry] = 0;
+            table.windowStart[entry] = now - elapsed % windowMillis;
+            elapsed %= windowMillis;
+        }
+        table.currentCount[entry]++;
+        double previousWeight = (double) (windowMillis - elapsed) / windowMillis;
+        return (int) (table.previousCount[entry] * previousWeight) + table.currentCount[entry];
+    }
+
+    /**
+     * Sperrt eine Adresse sofort, z. B. auf Meldung eines anderen Knotens. Wie bei einem
+     * Verstoß gilt die aktuelle Zeit als letzter Verstoß, der Eintrag rückt an den Anfang
+     * der LRU-Liste und der Listener erfährt von einer neuen Sperre.
+     *
+     * @param hi Obere 64 Bit der Adresse
+     * @param lo Untere 64 Bit der Adresse
+     * @return true wenn die Adresse dadurch neu gesperrt wurde
+     */
+    public boolean block(long hi, long lo) {
+        long hash = hash(hi, lo);
+        Stripe stripe = stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+        long now = clock.getAsLong();
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.evictExpired(now - ttlMillis);
+            Table table = stripe.table;
+            int entry = table.find(hi, lo, (int) hash);
+            if (entry < 0) {
+                if (table.used == stripe.capacity) {
+                    stripe.evict(table.tail);
+                } else if (table.isFull()) {
+                    table = stripe.table = table.grow(stripe.capacity);
+                }
+                entry = table.insert(hi, lo, (int) hash, CLEAN);
+                table.windowStart[entry] = now;
+            } else {
+                table.unlink(entry);
+            }
+            table.linkFirst(entry);
+            table.lastSeen[entry] = now;
+
+            int old = table.states[entry];
+            if (old == BLOCKED) {
+                return false;
+            }
+            table.states[entry] = BLOCKED;
+            if (old != CLEAN) {
+                stripe.counts[old]--;
+            }
+            stripe.counts[BLOCKED]++;
+            Listener current = listener;
+            if (current != null) {
+                current.blocked(hi, lo, now);
+            }
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Setzt eine Adresse auf sauber zurück.
+     *
+     * @param ip Die Adresse als Text
+     * @return true wenn die Adresse verdächtig oder gesperrt war
+     * @throws IllegalArgumentException wenn die Adresse ungültig ist
+     */
+    public boolean unblock(CharSequence ip) {
+        long[] key = parse(ip);
+        return unblock(key[0], key[1]);
+    }
+
+    /**
+     * Setzt eine Adresse auf sauber zurück.
+     *
+     * @return true wenn die Adresse verdächtig oder gesperrt war
+     */
+    public boolean unblock(long hi, long lo) {
+        long hash = hash(hi, lo);
+        Stripe stripe = stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+        long now = clock.getAsLong();
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.evictExpired(now - ttlMillis);
+            int entry = stripe.table.find(hi, lo, (int) hash);
+            if (entry < 0) {
+                return false;
+            }
+            stripe.evict(entry);
+            Listener current = listener;
+            if (current != null) {
+                current.unblocked(hi, lo, now);
+            }
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param status SUSPICIOUS oder BLOCKED
+     * @return Anzahl der nicht abgelaufenen Adressen mit diesem Status
+     */
+    public int count(int status) {
+        long expiredBefore = clock.getAsLong() - ttlMillis;
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.evictExpired(expiredBefore);
+                total += stripe.counts[status];
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Erstellt eine Momentaufnahme aller nicht abgelaufenen Adressen mit dem gegebenen Status.
+     *
+     * @param status SUSPICIOUS oder BLOCKED
+     * @return die Adressen als Text
+     */
+    public List<String> addresses(int status) {
+        long expiredBefore = clock.getAsLong() - ttlMillis;
+        List<String> result = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.evictExpired(expiredBefore);
+                Table table = stripe.table;
+                for (int entry = 0; entry < table.used; entry++) {
+                    if (table.states[entry] == status) {
+                        result.add(IpAddresses.format(table.his[entry], table.los[entry]));
+                    }
+                }
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        return result;
+    }
+
+    /** @return Maximale Anzahl gespeicherter Adressen */
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @param listener Empfänger für Sperren und Entsperrungen oder null
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stellt eine gesperrte Adresse wieder her (z. B. aus einer Sicherung), ohne
+     * den Listener aufzurufen. Abgelaufene Einträge werden ignoriert.
+     *
+     * @param lastSeen Zeitpunkt des letzten Verstoßes (ms seit 1970)
+     */
+    void restoreBlocked(long hi, long lo, long lastSeen) {
+        long hash = hash(hi, lo);
+        Stripe stripe = stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+        long expiredBefore = clock.getAsLong() - ttlMillis;
+        if (lastSeen <= expiredBefore) {
+            return;
+        }
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.evictExpired(expiredBefore);
+            Table table = stripe.table;
+            int entry = table.find(hi, lo, (int) hash);
+            if (entry < 0) {
+                if (table.used == stripe.capacity) {
+                    stripe.evict(table.tail);
+                } else if (table.isFull()) {
+                    table = stripe.table = table.grow(stripe.capacity);
+                }
+                entry = table.insert(hi, lo, (int) hash, BLOCKED);
+                stripe.counts[BLOCKED]++;
+            } else {
+                table.unlink(entry);
+                stripe.counts[table.states[entry]]--;
+                table.states[entry] = BLOCKED;
+                stripe.counts[BLOCKED]++;
+            }
+            table.linkFirst(entry);
+            table.lastSeen[entry] = lastSeen;
+            table.windowStart[entry] = lastSeen;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Exportiert alle nicht abgelaufenen Adressen mit dem gegebenen Status.
+     * Innerhalb eines Streifens aufsteigend nach letztem Verstoß, so dass
+     * {@link #restoreBlocked} in dieser Reihenfolge die LRU-Ordnung wiederherstellt.
+     *
+     * @param status SUSPICIOUS oder BLOCKED
+     * @return je Adresse drei Werte: hi, lo, letzter Verstoß
+     */
+    long[] export(int status) {
+        long expiredBefore = clock.getAsLong() - ttlMillis;
+        long[] result = new long[0];
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.evictExpired(expiredBefore);
+                int needed = size + 3 * stripe.counts[status];
+                if (needed > result.length) {
+                    result = Arrays.copyOf(result, Math.max(needed, result.length * 2));
+                }
+                Table table = stripe.table;
+                for (int entry = table.tail; entry != NONE; entry = table.prev[entry]) {
+                    if (table.states[entry] == status) {
+                        result[size++] = table.his[entry];
+                        result[size++] = table.los[entry];
+                        result[size++] = table.lastSeen[entry];
+                    }
+                }
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] parse(CharSequence ip) {
+        long[] key = PARSE_BUFFER.get();
+        if (!IpAddresses.parse(ip, key)) {
+            throw new IllegalArgumentException("Ungültige IP-Adresse: " + ip);
+        }
+        return key;
+    }
+
+    private static long hash(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** Ein Streifen: Sperre, Tabelle, Kapazität und Zähler je Status. */
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        final int[] counts = new int[3];
+        final int capacity;
+        Table table;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.table = new Table(Math.min(16, capacity));
+        }
+
+        /** Entfernt abgelaufene Einträge vom Ende der LRU-Liste (nur unter Schreibsperre). */
+        void evictExpired(long expiredBefore) {
+            while (table.tail != NONE && table.lastSeen[table.tail] <= expiredBefore) {
+                evict(table.tail);
+            }
+        }
+
+        void evict(int entry) {
+            counts[table.states[entry]]--;
+            table.remove(entry);
+        }
+    }
+
+    /**
+     * Einträge in dichten Arrays plus Hash-Index mit linearem Sondieren und
+     * doppelt verketteter LRU-Liste über die Eintragsnummern. Wird nur unter
+     * Schreibsperre verändert; optimistische Leser sehen immer Arrays passender Größe.
+     */
+    private static final class Table {
+        final long[] his;
+        final long[] los;
+        final byte[] states;
+        final long[] lastSeen;
+        final long[] windowStart;
+        final int[] currentCount;
+        final int[] previousCount;
+        final int[] prev;
+        final int[] next;
+        final int[] index; // Eintrag + 1, 0 = leer
+        final int indexMask;
+        int used; // belegte Einträge (dicht von 0 bis used - 1)
+        int head = NONE; // zuletzt gesehen
+        int tail = NONE; // am längsten nicht gesehen
+
+        Table(int capacity) {
+            his = new long[capacity];
+            los = new long[capacity];
+            states = new byte[capacity];
+            lastSeen = new long[capacity];
+            windowStart = new long[capacity];
+            currentCount = new int[capacity];
+            previousCount = new int[capacity];
+            prev = new int[capacity];
+            next = new int[capacity];
+            index = new int[Integer.highestOneBit(capacity) << 2];
+            indexMask = index.length - 1;
+        }
+
+        boolean isFull() {
+            return used == his.length;
+        }
+
+        int status(long hi, long lo, int hash, long expiredBefore) {
+            int entry = find(hi, lo, hash);
+            return entry < 0 || lastSeen[entry] <= expiredBefore ? CLEAN : states[entry];
+        }
+
+        int find(long hi, long lo, int hash) {
+            int slot = hash & indexMask;
+            for (int probes = 0; probes <= indexMask; probes++) {
+                int value = index[slot];
+                if (value == 0) {
+                    return NONE;
+                }
+                int entry = value - 1;
+                if (entry < used && his[entry] == hi && los[entry] == lo) {
+                    return entry;
+                }
+                slot = (slot + 1) & indexMask;
+            }
+            return NONE;
+        }
+
+        int insert(long hi, long lo, int hash, int status) {
+            int entry = used++;
+            his[entry] = hi;
+            los[entry] = lo;
+            states[entry] = (byte) status;
+            currentCount[entry] = 0;
+            previousCount[entry] = 0;
+            int slot = hash & indexMask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & indexMask;
+            }
+            index[slot] = entry + 1;
+            return entry;
+        }
+
+        void linkFirst(int entry) {
+            prev[entry] = NONE;
+            next[entry] = head;
+            if (head != NONE) {
+                prev[head] = entry;
+            } else {
+                tail = entry;
+            }
+            head = entry;
+        }
+
+        void unlink(int entry) {
+            int p = prev[entry];
+            int n = next[entry];
+            if (p != NONE) {
+                next[p] = n;
+            } else {
+                head = n;
+            }
+            if (n != NONE) {
+                prev[n] = p;
+            } else {
+                tail = p;
+            }
+        }
+
+        /** Entfernt einen Eintrag; der letzte Eintrag rückt in die Lücke nach. */
+        void remove(int entry) {
+            unlink(entry);
+            removeFromIndex(entry, (int) IpReputationStore.hash(his[entry], los[entry]));
+            int last = --used;
+            if (entry != last) {
+                int slot = slotOf(last, (int) IpReputationStore.hash(his[last], los[last]));
+                his[entry] = his[last];
+                los[entry] = los[last];
+                states[entry] = states[last];
+                lastSeen[entry] = lastSeen[last];
+                windowStart[entry] = windowStart[last];
+                currentCount[entry] = currentCount[last];
+                previousCount[entry] = previousCount[last];
+                // LRU-Nachbarn auf die neue Position umhängen
+                prev[entry] = prev[last];
+                next[entry] = next[last];
+                if (prev[entry] != NONE) {
+                    next[prev[entry]] = entry;
+                } else {
+                    head = entry;
+                }
+                if (next[entry] != NONE) {
+                    prev[next[entry]] = entry;
+                } else {
+                    tail = entry;
+                }
+                index[slot] = entry + 1;
+            }
+        }
+
+        private int slotOf(int entry, int hash) {
+            int slot = hash & indexMask;
+            while (index[slot] != entry + 1) {
+                slot = (slot + 1) & indexMask;
+            }
+            return slot;
+        }
+
+        // Löschen mit Rückwärtsverschiebung (keine Grabsteine)
+        private void removeFromIndex(int entry, int hash) {
+            int hole = slotOf(entry, hash);
+            int slot = hole;
+            while (true) {
+                slot = (slot + 1) & indexMask;
+                int value = index[slot];
+                if (value == 0) {
+                    break;
+                }
+                int home = (int) IpReputationStore.hash(his[value - 1], los[value - 1]) & indexMask;
+                // Eintrag darf in das Loch, wenn das Loch zwischen Heimat und aktueller Position liegt
+                if (((slot - home) & indexMask) >= ((slot - hole) & indexMask)) {
+                    index[hole] = value;
+                    hole = slot;
+                }
+            }
+            index[hole] = 0;
+        }
+
+        /** Kopiert in eine doppelt so große Tabelle (höchstens maxCapacity); LRU-Reihenfolge bleibt erhalten. */
+        Table grow(int maxCapacity) {
+            Table bigger = new Table(Math.min(his.length * 2, maxCapacity));
+            for (int entry = tail; entry != NONE; entry = prev[entry]) {
+                int copy = bigger.insert(his[entry], los[entry], (int) IpReputationStore.hash(his[entry], los[entry]), states[entry]);
+                bigger.lastSeen[copy] = lastSeen[entry];
+                bigger.windowStart[copy] = windowStart[entry];
+                bigger.currentCount[copy] = currentCount[entry];
+                bigger.previousCount[copy] = previousCount[entry];
+                bigger.linkFirst(copy);
+            }
+            return bigger;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Vorberechnete Nachbarschaft der Tasten einer Tastaturbelegung für die Erkennung
+ * von Tastaturmustern ("qwertz", "1qay", "zxcvbn").
+ * Jede Zeile ist um eine halbe Taste nach rechts versetzt; eine Taste (Spalte c, Zeile r)
+ * hat bis zu sechs Nachbarn: links, rechts, oben, oben rechts, unten links, unten.
+ * Geshiftete Zeichen liegen auf derselben Taste wie ihr ungeshiftetes Gegenstück.
+ */
+enum KeyboardLayout {
+
+    QWERTY(new String[] {"`1234567890-=", " qwertyuiop[]\\", " asdfghjkl;'", " zxcvbnm,./"},
+            new String[] {"~!@#$%^&*()_+", " QWERTYUIOP{}|", " ASDFGHJKL:\"", " ZXCVBNM<>?"}),
+    QWERTZ(new String[] {"^1234567890ß´", " qwertzuiopü+", " asdfghjklöä#", "<yxcvbnm,.-"},
+            new String[] {"°!\"§$%&/()=?`", " QWERTZUIOPÜ*", " ASDFGHJKLÖÄ'", ">YXCVBNM;:_"});
+
+    /** Kein Nachbar */
+    static final int NOT_ADJACENT = -1;
+
+    private static final int COLUMN_BITS = 5;
+
+    /** Versatz (Spalte, Zeile) der sechs Nachbarn; eigene Klasse, da Enum-Konstruktoren keine statischen Felder lesen dürfen */
+    private static final class Neighbours {
+        static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {1, -1}, {-1, 1}, {0, 1}};
+    }
+
+    // Zeichen (< 256) -> Zeile << COLUMN_BITS | Spalte, -1 wenn nicht auf der Tastatur
+    private final short[] positions = new short[256];
+    private final boolean[] shifted = new boolean[256];
+    private final int keys;
+    private final double averageDegree;
+
+    KeyboardLayout(String[] rows, String[] shiftedRows) {
+        Arrays.fill(positions, (short) -1);
+        boolean[] present = new boolean[rows.length << COLUMN_BITS];
+        int count = 0;
+        for (int r = 0; r < rows.length; r++) {
+            for (int c = 0; c < rows[r].length(); c++) {
+                char plain = rows[r].charAt(c);
+                if (plain == ' ') {
+                    continue;
+                }
+                short position = (short) (r << COLUMN_BITS | c);
+                positions[plain] = position;
+                positions[shiftedRows[r].charAt(c)] = position;
+                shifted[shiftedRows[r].charAt(c)] = true;
+                present[position] = true;
+                count++;
+            }
+        }
+        int degrees = 0;
+        for (int position = 0; position < present.length; position++) {
+            if (!present[position]) {
+                continue;
+            }
+            for (int[] d : Neighbours.DIRECTIONS) {
+                int r = (position >>> COLUMN_BITS) + d[1];
+                int c = (position & ((1 << COLUMN_BITS) - 1)) + d[0];
+                if (r >= 0 && r < rows.length && c >= 0 && c < (1 << COLUMN_BITS) && present[r << COLUMN_BITS | c]) {
+                    degrees++;
+                }
+            }
+        }
+        this.keys = count;
+        this.averageDegree = (double) degrees / count;
+    }
+
+    /**
+     * @param from Vorheriges Zeichen
+     * @param to Nächstes Zeichen
+     * @return Richtung (0 bis 5) wenn die Tasten benachbart sind, sonst {@link #NOT_ADJACENT}
+     */
+    int direction(char from, char to) {
+        if (from >= 256 || to >= 256) {
+            return NOT_ADJACENT;
+        }
+        int a = positions[from];
+        int b = positions[to];
+        if (a < 0 || b < 0) {
+            return NOT_ADJACENT;
+        }
+        int dc = (b & ((1 << COLUMN_BITS) - 1)) - (a & ((1 << COLUMN_BITS) - 1));
+        int dr = (b >>> COLUMN_BITS) - (a >>> COLUMN_BITS);
+        int[][] directions = Neighbours.DIRECTIONS;
+        for (int i = 0; i < directions.length; i++) {
+            if (directions[i][0] == dc && directions[i][1] == dr) {
+                return i;
+            }
+        }
+        return NOT_ADJACENT;
+    }
+
+    /** @return true wenn das Zeichen nur mit Umschalt erreichbar ist */
+    boolean isShifted(char c) {
+        return c < 256 && shifted[c];
+    }
+
+    /** @return Anzahl der Tasten (mögliche Startpositionen eines Musters) */
+    int keys() {
+        return keys;
+    }
+
+    /** @return durchschnittliche Anzahl Nachbarn einer Taste */
+    double averageDegree() {
+        return averageDegree;
+    }
+}
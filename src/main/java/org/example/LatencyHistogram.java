@@ -0,0 +1,95 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-freies Latenz-Histogramm mit log-linearen Buckets (wie HdrHistogram):
+ * jede Zweierpotenz ist in 16 lineare Unter-Buckets geteilt, die relative
+ * Auflösung liegt also bei etwa 6 %. Das Erfassen eines Werts ist ein
+ * atomares Inkrement in einem festen Array und legt keine Objekte an.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Werte < 16 direkt, danach 16 Buckets pro Zweierpotenz bis 2^63 */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Erfasst einen Wert.
+     *
+     * @param nanos Dauer in Nanosekunden (negative Werte zählen als 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.getAndIncrement(indexOf(value));
+        count.increment();
+        sum.add(value);
+    }
+
+    /** @return Anzahl der erfassten Werte */
+    public long count() {
+        return count.sum();
+    }
+
+    /** @return Summe aller erfassten Werte in Nanosekunden */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Schätzt ein Quantil. Das Ergebnis ist die Obergrenze des Buckets, in dem
+     * das Quantil liegt, also höchstens etwa 6 % zu hoch.
+     *
+     * @param quantile Quantil zwischen 0 und 1 (z. B. 0.99)
+     * @return geschätzter Wert in Nanosekunden oder 0 wenn leer
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantil muss zwischen 0 und 1 liegen: " + quantile);
+        }
+        // Eigene Summe statt count(): Buckets und Zähler werden nicht gemeinsam aktualisiert
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lower = (SUB_BUCKETS + subBucket) << shift;
+        long upper = lower + (1L << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
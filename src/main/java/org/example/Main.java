@@ -1,13 +1,304 @@
 package org.example;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 public class Main {
     // Konstanten
-    private static final int MIN_PASSWORD_LENGTH = 8;
-    private static final String ALLOWED_SPECIAL_CHARS = "!@#$%^&*()_+-=[]{}|;:,.<>?";
     private static final String EXIT_COMMAND = "exit";
+    private static final String WORDLIST_OPTION = "--wortliste=";
+    private static final String FILTER_OPTION = "--filter=";
+    private static final String HASHFILE_OPTION = "--hashdatei=";
+    private static final String LEAK_SERVICE_OPTION = "--leakdienst=";
+    private static final String STREAM_OPTION = "--stream";
+    private static final String OUTPUT_OPTION = "--ausgabe=";
+    private static final String FORMAT_OPTION = "--format=";
+    private static final String THREADS_OPTION = "--threads=";
+    private static final String SERVER_OPTION = "--server";
+    private static final int DEFAULT_SERVER_PORT = 8080;
+    private static final String EVENT_LOG_OPTION = "--protokoll=";
+    private static final String DEFAULT_SERVER_EVENT_LOG = "security-events.log";
+    private static final String EVENT_LOG_INPUTS_OPTION = "--protokolleingaben";
+    private static final String BLOCKLIST_OPTION = "--sperrliste=";
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
+    private static final String RANGES_OPTION = "--sperrbereiche=";
+    private static final String SUBNET_OPTION = "--subnetzsperre=";
+    private static final Duration SUBNET_WINDOW = Duration.ofHours(1);
+    private static final String POLICY_OPTION = "--richtlinie=";
+    private static final String POLICIES_OPTION = "--richtlinien=";
+    private static final Duration POLICY_RELOAD_INTERVAL = Duration.ofSeconds(10);
+    private static final String RATE_LIMIT_OPTION = "--ratenlimit=";
+    private static final String VERDICT_CACHE_OPTION = "--ergebniscache=";
+    private static final String CLUSTER_OPTION = "--cluster=";
+    private static final String CLUSTER_PEERS_OPTION = "--clusterknoten=";
+    private static final String CLUSTER_KEY_OPTION = "--clusterschluessel=";
     
     public static void main(String[] args) {
+        // Optionen auswerten
+        Path filterDatei = null;
+        Path hashDatei = null;
+        String leakDienst = null;
+        boolean streamModus = false;
+        String eingabe = "-";
+        String ausgabe = "-";
+        StreamingValidator.Format format = StreamingValidator.Format.CSV;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int serverPort = -1;
+        Path protokoll = null;
+        boolean protokollEingaben = false;
+        Path sperrliste = null;
+        Path sperrbereiche = null;
+        int subnetzSperre = 0;
+        Path richtlinienDatei = null;
+        Path richtlinienVerzeichnis = null;
+        String ratenlimit = null;
+        long ergebnisCacheMiB = 0;
+        int clusterPort = -1;
+        String clusterKnoten = "";
+        Path clusterSchluessel = null;
+        for (String arg : args) {
+            if (arg.equals(SERVER_OPTION)) {
+                serverPort = DEFAULT_SERVER_PORT;
+            } else if (arg.startsWith(SERVER_OPTION + "=")) {
+                serverPort = (int) zahl(arg, arg.substring(SERVER_OPTION.length() + 1), 0, 65535);
+            } else if (arg.startsWith(BLOCKLIST_OPTION)) {
+                sperrliste = Path.of(arg.substring(BLOCKLIST_OPTION.length()));
+            } else if (arg.startsWith(RANGES_OPTION)) {
+                sperrbereiche = Path.of(arg.substring(RANGES_OPTION.length()));
+            } else if (arg.startsWith(SUBNET_OPTION)) {
+                subnetzSperre = (int) zahl(arg, arg.substring(SUBNET_OPTION.length()), 0, Integer.MAX_VALUE); // 0 = aus
+            } else if (arg.startsWith(POLICY_OPTION)) {
+                richtlinienDatei = Path.of(arg.substring(POLICY_OPTION.length()));
+            } else if (arg.startsWith(POLICIES_OPTION)) {
+                richtlinienVerzeichnis = Path.of(arg.substring(POLICIES_OPTION.length()));
+            } else if (arg.startsWith(RATE_LIMIT_OPTION)) {
+                ratenlimit = arg.substring(RATE_LIMIT_OPTION.length());
+            } else if (arg.startsWith(VERDICT_CACHE_OPTION)) {
+                ergebnisCacheMiB = zahl(arg, arg.substring(VERDICT_CACHE_OPTION.length()), 1, 1L << 20); // höchstens 1 TiB, kein Überlauf bei << 20
+            } else if (arg.startsWith(CLUSTER_OPTION)) {
+                clusterPort = (int) zahl(arg, arg.substring(CLUSTER_OPTION.length()), 0, 65535); // 0 = beliebiger freier Port
+            } else if (arg.startsWith(CLUSTER_PEERS_OPTION)) {
+                clusterKnoten = arg.substring(CLUSTER_PEERS_OPTION.length());
+            } else if (arg.startsWith(CLUSTER_KEY_OPTION)) {
+                clusterSchluessel = Path.of(arg.substring(CLUSTER_KEY_OPTION.length()));
+            } else if (arg.startsWith(EVENT_LOG_OPTION)) {
+                protokoll = Path.of(arg.substring(EVENT_LOG_OPTION.length()));
+            } else if (arg.equals(EVENT_LOG_INPUTS_OPTION)) {
+                protokollEingaben = true;
+            } else if (arg.equals(STREAM_OPTION)) {
+                streamModus = true;
+            } else if (arg.startsWith(STREAM_OPTION + "=")) {
+                streamModus = true;
+                eingabe = arg.substring(STREAM_OPTION.length() + 1);
+            } else if (arg.startsWith(OUTPUT_OPTION)) {
+                ausgabe = arg.substring(OUTPUT_OPTION.length());
+            } else if (arg.startsWith(FORMAT_OPTION)) {
+                format = arg.substring(FORMAT_OPTION.length()).equalsIgnoreCase("binaer")
+                        ? StreamingValidator.Format.BINARY : StreamingValidator.Format.CSV;
+            } else if (arg.startsWith(THREADS_OPTION)) {
+                threads = (int) zahl(arg, arg.substring(THREADS_OPTION.length()), 1, Integer.MAX_VALUE);
+            } else if (arg.startsWith(FILTER_OPTION)) {
+                filterDatei = Path.of(arg.substring(FILTER_OPTION.length()));
+            } else if (arg.startsWith(LEAK_SERVICE_OPTION)) {
+                leakDienst = arg.substring(LEAK_SERVICE_OPTION.length());
+            } else if (arg.startsWith(HASHFILE_OPTION)) {
+                hashDatei = Path.of(arg.substring(HASHFILE_OPTION.length()));
+            } else if (arg.startsWith(WORDLIST_OPTION)) {
+                Path wortliste = Path.of(arg.substring(WORDLIST_OPTION.length()));
+                try {
+                    WeakPasswordCheck.loadWordlist(wortliste);
+                    System.err.println("Wortliste geladen: " + WeakPasswordCheck.getDictionary().size() + " Einträge");
+                } catch (IOException e) {
+                    System.err.println("Wortliste konnte nicht geladen werden: " + e.getMessage());
+                    System.exit(2);
+                }
+            }
+        }
+        if (filterDatei != null) {
+            try {
+                WeakPasswordCheck.openBreachFilter(filterDatei, hashDatei);
+                System.err.println("Breach-Filter eingeblendet: " + WeakPasswordCheck.getBreachFilter().entryCount() + " Einträge");
+            } catch (IOException e) {
+                System.err.println("Breach-Filter konnte nicht geöffnet werden: " + e.getMessage());
+                System.exit(2);
+            }
+        } else if (hashDatei != null) {
+            // Die Hash-Datei bestätigt nur Treffer des Filters, allein wäre sie wirkungslos
+            System.err.println("Option " + HASHFILE_OPTION + "<datei> nur zusammen mit " + FILTER_OPTION + "<datei>");
+            System.exit(2);
+        }
+        if (leakDienst != null) {
+            try {
+                URI adresse = leakDienst.equalsIgnoreCase("hibp") ? BreachRangeClient.DEFAULT_URI : URI.create(leakDienst);
+                BreachRangeClient client = new BreachRangeClient(adresse);
+                WeakPasswordCheck.setBreachRangeClient(client);
+                Runtime.getRuntime().addShutdownHook(new Thread(client::close, "breach-range-client-close"));
+                System.err.println("Breach-Dienst: " + adresse);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ungültige Adresse des Breach-Dienstes: " + leakDienst);
+                System.exit(2);
+            }
+        }
+
+        // Richtlinie statt fester Regeln (Mindestlänge, Zeichenklassen, Wortliste, Schwellen)
+        PasswordPolicy richtlinie = PasswordPolicy.defaults();
+        if (richtlinienDatei != null) {
+            try {
+                richtlinie = PasswordPolicy.load(richtlinienDatei);
+                System.err.println("Richtlinie geladen: " + richtlinie.name());
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Richtlinie konnte nicht geladen werden: " + e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        // Im Server-Betrieb keine Warnungen auf stderr, dafür immer ein Protokoll
+        if (serverPort >= 0) {
+            SecurityMonitor.setConsoleWarnings(false);
+            if (protokoll == null) {
+                protokoll = Path.of(DEFAULT_SERVER_EVENT_LOG);
+            }
+        }
+        if (protokoll != null) {
+            try {
+                // Eingaben nur auf ausdrücklichen Wunsch im Klartext (sonst Länge und Hash)
+                SecurityEventLog log = SecurityEventLog.open(protokoll, SecurityEventLog.DEFAULT_CAPACITY,
+                        SecurityEventLog.OverflowPolicy.DROP, SecurityEventLog.DEFAULT_MAX_FILE_BYTES,
+                        SecurityEventLog.DEFAULT_MAX_FILES, protokollEingaben);
+                SecurityMonitor.setEventLog(log);
+                Runtime.getRuntime().addShutdownHook(new Thread(log::close, "security-event-log-close"));
+                System.err.println("Sicherheitsprotokoll: " + protokoll.toAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("Sicherheitsprotokoll konnte nicht geöffnet werden: " + e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        // Gesperrte IPs über Neustarts hinweg behalten
+        if (sperrliste != null) {
+            try {
+                long start = System.nanoTime();
+                ReputationPersistence persistenz = SecurityMonitor.enablePersistence(sperrliste);
+                persistenz.startPeriodicSnapshots(SNAPSHOT_INTERVAL);
+                Runtime.getRuntime().addShutdownHook(new Thread(persistenz::close, "reputation-close"));
+                System.err.println("Sperrliste geladen: " + persistenz.restoredSnapshotEntries() + " aus Snapshot, "
+                        + persistenz.replayedRecords() + " aus WAL in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (IOException e) {
+                System.err.println("Sperrliste konnte nicht geladen werden: " + e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        // Sperrliste mit anderen Knoten abgleichen (nach dem Laden, damit wiederhergestellte Sperren lokal bleiben)
+        if (clusterPort >= 0) {
+            try {
+                if (clusterSchluessel == null) {
+                    throw new IllegalArgumentException("Option " + CLUSTER_KEY_OPTION + "<datei> fehlt");
+                }
+                byte[] schluessel = Files.readAllBytes(clusterSchluessel);
+                List<InetSocketAddress> knoten = new ArrayList<>();
+                for (String eintrag : clusterKnoten.split(",")) {
+                    int doppelpunkt = eintrag.lastIndexOf(':');
+                    if (!eintrag.isBlank()) {
+                        if (doppelpunkt < 0) {
+                            throw new IllegalArgumentException("Knoten ohne Port: " + eintrag);
+                        }
+                        knoten.add(new InetSocketAddress(eintrag.substring(0, doppelpunkt).trim(),
+                                (int) zahl(CLUSTER_PEERS_OPTION + eintrag.trim(), eintrag.substring(doppelpunkt + 1), 1, 65535)));
+                    }
+                }
+                ClusterReplicator cluster = SecurityMonitor.enableReplication(new InetSocketAddress(clusterPort), knoten, schluessel);
+                Runtime.getRuntime().addShutdownHook(new Thread(cluster::close, "cluster-close"));
+                System.err.println("Cluster: UDP-Port " + cluster.port() + ", " + knoten.size() + " Knoten");
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Cluster konnte nicht gestartet werden: " + e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        // Ganze Adressbereiche sperren (z. B. Listen von Cloud-Anbietern)
+        if (sperrbereiche != null) {
+            try {
+                int bereiche = SecurityMonitor.loadBlockedRanges(sperrbereiche);
+                System.err.println("Gesperrte Adressbereiche geladen: " + bereiche);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Adressbereiche konnten nicht geladen werden: " + e.getMessage());
+                System.exit(2);
+            }
+        }
+        if (subnetzSperre > 0) {
+            SecurityMonitor.enableSubnetEscalation(subnetzSperre, SUBNET_WINDOW);
+        }
+
+        // Anfragen je IP begrenzen (im Server-Betrieb standardmäßig, "aus" schaltet ab)
+        if (ratenlimit == null && serverPort >= 0) {
+            SecurityMonitor.enableRateLimit(RateLimiter.DEFAULT_PERMITS_PER_SECOND, RateLimiter.DEFAULT_BURST);
+        } else if (ratenlimit != null && !ratenlimit.equalsIgnoreCase("aus")) {
+            try {
+                int komma = ratenlimit.indexOf(',');
+                double proSekunde = Double.parseDouble(komma < 0 ? ratenlimit : ratenlimit.substring(0, komma));
+                int burst = komma < 0 ? Math.max(1, (int) Math.ceil(proSekunde * 2)) : Integer.parseInt(ratenlimit.substring(komma + 1));
+                SecurityMonitor.enableRateLimit(proSekunde, burst);
+                System.err.println("Ratenlimit: " + proSekunde + " Anfragen/s je IP, kurzzeitig " + burst);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ungültiges Ratenlimit: " + ratenlimit + " (" + e.getMessage() + ")");
+                System.exit(2);
+            }
+        }
+
+        // Ergebnisse wiederkehrender Passwörter merken (nur SipHash-Schlüssel, kein Klartext)
+        if (ergebnisCacheMiB > 0) {
+            VerdictCache cache = new VerdictCache(ergebnisCacheMiB << 20, VerdictCache.DEFAULT_TTL);
+            VerdictCache.setActive(cache);
+            System.err.println("Ergebnis-Cache: " + ergebnisCacheMiB + " MiB, " + cache.capacity() + " Einträge");
+        }
+
+        // Metriken per JMX abfragbar machen (jconsole, Monitoring-Agenten)
+        if (streamModus || serverPort >= 0) {
+            ValidatorMetrics.registerMBean();
+        }
+
+        // Nicht-interaktiver Modus für große Dateien
+        if (streamModus) {
+            System.exit(streamen(eingabe, ausgabe, format, threads, richtlinie));
+        }
+
+        // HTTP-Dienst statt interaktiver Eingabe
+        if (serverPort >= 0) {
+            PolicyRegistry mandanten = null;
+            if (richtlinienVerzeichnis != null) {
+                try {
+                    mandanten = PolicyRegistry.open(richtlinienVerzeichnis);
+                    mandanten.startWatching(POLICY_RELOAD_INTERVAL);
+                    System.err.println("Richtlinien geladen: " + mandanten.size() + " Mandanten");
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("Richtlinien konnten nicht geladen werden: " + e.getMessage());
+                    System.exit(2);
+                }
+            }
+            try {
+                ValidationServer server = ValidationServer.start(new InetSocketAddress(serverPort), mandanten);
+                System.err.println("Validierungsdienst läuft auf Port " + server.port());
+            } catch (IOException e) {
+                System.err.println("Dienst konnte nicht gestartet werden: " + e.getMessage());
+                System.exit(2);
+            }
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         System.out.println("Der beste Passwort Validator on the City");
         System.out.println("#################");
@@ -25,6 +316,18 @@ public class Main {
                 break;
             }
             
+            // Zu viele Eingaben in kurzer Zeit: vor allen weiteren Prüfungen abweisen
+            if (!SecurityMonitor.isCurrentRequestAllowed()) {
+                System.out.println("⏳ Zu viele Eingaben - bitte " + SecurityMonitor.retryAfterSeconds() + " s warten.");
+                if (SecurityMonitor.isCurrentIPBlocked()) {
+                    System.err.println("🚫 ZUGRIFF VERWEIGERT - IP GESPERRT!");
+                    System.err.println("Das Programm wird beendet.");
+                    scanner.close();
+                    System.exit(1);
+                }
+                continue;
+            }
+            
             // 🚨 SICHERHEITSPRÜFUNG: SQL-Injection-Erkennung
             if (SecurityMonitor.checkForSQLInjection(password)) {
                 // Bei gesperrter IP: Programm beenden
@@ -38,28 +341,35 @@ public class Main {
                 continue;
             }
             
-            // Alle Validierungen aufrufen
-            boolean laengeOk = hatMindestLaenge(password, MIN_PASSWORD_LENGTH);
-            boolean hatZiffer = enthaeltZiffer(password);
-            boolean hatGrossKlein = enthaeltGrossUndKlein(password);
-            boolean istSchwach = istSchwachesPasswort(password);
-            boolean hatSonderzeichen = enthaeltSonderzeichen(password);
-            int zeichenGruppen = zaehleZeichenGruppen(password);
+            // Alle Validierungen in einem Durchlauf
+            PasswordAnalysis analyse = new PasswordAnalysis();
+            int ergebnis = richtlinie.assess(password, analyse); // Über den Ergebnis-Cache, mit Stärke
+            byte code = (byte) ergebnis;
+            boolean laengeOk = ValidationCodes.meetsMinLength(code);
+            boolean hatZiffer = analyse.hasDigit();
+            boolean hatGrossKlein = analyse.hasUpperAndLower();
+            boolean istSchwach = ValidationCodes.isBlacklisted(code);
+            boolean hatSonderzeichen = analyse.hasSpecialChar();
+            int zeichenGruppen = analyse.characterGroups();
+            double versuche = ValidationCodes.log10Guesses(ergebnis);
+            int staerke = ValidationCodes.strengthScore(ergebnis);
             
             // Ergebnisse ausgeben
             System.out.println("\n--- Passwort Analyse ---");
             System.out.println("Passwort: " + password);
-            System.out.println("Mindestlänge (" + MIN_PASSWORD_LENGTH + " Zeichen): " + (laengeOk ? "✓" : "✗"));
+            System.out.println("Mindestlänge (" + richtlinie.minLength() + " Zeichen): " + (laengeOk ? "✓" : "✗"));
             System.out.println("Enthält Ziffer: " + (hatZiffer ? "✓" : "✗"));
             System.out.println("Groß- und Kleinbuchstaben: " + (hatGrossKlein ? "✓" : "✗"));
             System.out.println("Sonderzeichen: " + (hatSonderzeichen ? "✓" : "✗"));
             System.out.println("Ist schwaches Passwort: " + (istSchwach ? "✗ JA" : "✓ NEIN"));
             System.out.println("Anzahl Zeichengruppen: " + zeichenGruppen + "/4");
+            System.out.printf("Geschätzte Stärke: %d/%d (ca. 10^%.1f Versuche)%n", staerke, StrengthEstimator.MAX_SCORE, versuche);
             
             // Gesamtbewertung
-            if (!istSchwach && laengeOk && hatZiffer && hatGrossKlein && hatSonderzeichen) {
+            PasswordVerdict bewertung = ValidationCodes.verdict(code);
+            if (bewertung == PasswordVerdict.STRONG) {
                 System.out.println("\n🔒 STARKES PASSWORT! Alle Kriterien erfüllt.");
-            } else if (!istSchwach && zeichenGruppen >= 3 && laengeOk) {
+            } else if (bewertung == PasswordVerdict.MEDIUM) {
                 System.out.println("\n🔓 MITTLERES PASSWORT. Könnte stärker sein.");
             } else {
                 System.out.println("\n⚠️ SCHWACHES PASSWORT! Bitte verbessern.");
@@ -75,13 +385,66 @@ public class Main {
         scanner.close();
     }
 
+    /**
+     * Validiert eine Datei oder stdin zeilenweise und schreibt kompakte Ergebnisse.
+     * @param eingabe Eingabedatei oder "-" für stdin
+     * @param ausgabe Ausgabedatei oder "-" für stdout
+     * @param format CSV oder binär
+     * @param threads Anzahl der Validierungs-Threads
+     * @param richtlinie Die anzuwendende Richtlinie
+     * @return Exit-Code (0 bei Erfolg)
+     */
+    private static int streamen(String eingabe, String ausgabe, StreamingValidator.Format format, int threads,
+                                PasswordPolicy richtlinie) {
+        long start = System.nanoTime();
+        try (ReadableByteChannel in = eingabe.equals("-")
+                     ? Channels.newChannel(System.in)
+                     : FileChannel.open(Path.of(eingabe), StandardOpenOption.READ);
+             OutputStream out = ausgabe.equals("-")
+                     ? System.out
+                     : new BufferedOutputStream(new FileOutputStream(ausgabe), 1 << 16)) {
+            long zeilen = new StreamingValidator(threads, format, richtlinie).run(in, out);
+            long dauer = (System.nanoTime() - start) / 1_000_000;
+            System.err.println(zeilen + " Passwörter validiert in " + dauer + " ms");
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Fehler beim Streamen: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    /**
+     * Liest eine ganze Zahl aus einer Option und beendet das Programm bei einem ungültigen Wert.
+     * @param option Die vollständige Option (für die Fehlermeldung)
+     * @param wert Der Text der Zahl
+     * @param minimum Kleinster erlaubter Wert
+     * @param maximum Größter erlaubter Wert
+     * @return die Zahl
+     */
+    private static long zahl(String option, String wert, long minimum, long maximum) {
+        try {
+            long zahl = Long.parseLong(wert.trim());
+            if (zahl >= minimum && zahl <= maximum) {
+                return zahl;
+            }
+        } catch (NumberFormatException e) {
+            // Meldung wie bei einem Wert außerhalb des Bereichs
+        }
+        System.err.println("Ungültiger Wert: " + option + " (ganze Zahl von " + minimum + " bis " + maximum + " erwartet)");
+        System.exit(2);
+        return minimum; // nicht erreicht
+    }
+
     /**
      * Überprüft, ob das Passwort die Mindestlänge erfüllt.
      * @param password Das zu prüfende Passwort
      * @param min Die erforderliche Mindestlänge
      * @return true wenn das Passwort lang genug ist, sonst false
      */
-    public static boolean hatMindestLaenge(String password, int min) {
+    public static boolean hatMindestLaenge(CharSequence password, int min) {
         if (password == null) {
             return false;
         }
@@ -93,19 +456,11 @@ public class Main {
      * @param password Das zu prüfende Passwort
      * @return true wenn eine Ziffer gefunden wird, sonst false
      */
-    public static boolean enthaeltZiffer(String password) {
+    public static boolean enthaeltZiffer(CharSequence password) {
         if (password == null) {
             return false;
         }
-        
-        char[] chars = password.toCharArray();
-        for (int i = 0; i < chars.length; i++) {
-            char c = chars[i];
-            if (c >= '0' && c <= '9') {
-                return true;
-            }
-        }
-        return false;
+        return (PasswordAnalysis.classMask(password) & PasswordAnalysis.DIGIT) != 0;
     }
 
     /**
@@ -113,29 +468,12 @@ public class Main {
      * @param password Das zu prüfende Passwort
      * @return true wenn beide Buchstabenarten vorhanden sind, sonst false
      */
-    public static boolean enthaeltGrossUndKlein(String password) {
+    public static boolean enthaeltGrossUndKlein(CharSequence password) {
         if (password == null) {
             return false;
         }
-        
-        boolean hasCapital = false;
-        boolean hasLowerCase = false;
-        char[] chars = password.toCharArray();
-        
-        for (int i = 0; i < chars.length; i++) {
-            char c = chars[i];
-            if (c >= 'A' && c <= 'Z') {
-                hasCapital = true;
-            } else if (c >= 'a' && c <= 'z') {
-                hasLowerCase = true;
-            }
-            
-            // Früh beenden wenn beide gefunden
-            if (hasCapital && hasLowerCase) {
-                return true;
-            }
-        }
-        return hasCapital && hasLowerCase;
+        int gesucht = PasswordAnalysis.UPPER | PasswordAnalysis.LOWER;
+        return (PasswordAnalysis.classMask(password) & gesucht) == gesucht;
     }
 
     /**
@@ -143,29 +481,9 @@ public class Main {
      * @param password Das zu prüfende Passwort
      * @return true wenn das Passwort schwach ist, sonst false
      */
-    public static boolean istSchwachesPasswort(String password) {
-        if (password == null) {
-            return true;
-        }
-
-        // Liste schwacher Passwörter
-        String[] schwachePasswoerter = {
-                "password", "123456", "123456789", "12345678", "12345",
-                "1234567", "password123", "admin", "qwerty", "abc123",
-                "letmein", "monkey", "1234567890", "dragon", "111111",
-                "baseball", "iloveyou", "trustno1", "sunshine", "master",
-                "welcome", "shadow", "ashley", "football", "jesus",
-                "michael", "ninja", "mustang", "password1", "root", "sudo"
-        };
-
-        String kleinPassword = password.toLowerCase();
-
-        for (int i = 0; i < schwachePasswoerter.length; i++) {
-            if (kleinPassword.equals(schwachePasswoerter[i])) {
-                return true;
-            }
-        }
-        return false;
+    public static boolean istSchwachesPasswort(CharSequence password) {
+        // Nachschlagen im geladenen Wörterbuch (O(1), ohne Kopie)
+        return WeakPasswordCheck.isWeak(password);
     }
 
     /**
@@ -173,24 +491,11 @@ public class Main {
      * @param password Das zu prüfende Passwort
      * @return true wenn ein Sonderzeichen gefunden wird, sonst false
      */
-    public static boolean enthaeltSonderzeichen(String password) {
+    public static boolean enthaeltSonderzeichen(CharSequence password) {
         if (password == null) {
             return false;
         }
-
-        String erlaubteSonderzeichen = ALLOWED_SPECIAL_CHARS;
-        char[] passwordChars = password.toCharArray();
-        char[] sonderChars = erlaubteSonderzeichen.toCharArray();
-        
-        for (int i = 0; i < passwordChars.length; i++) {
-            char passwordChar = passwordChars[i];
-            for (int j = 0; j < sonderChars.length; j++) {
-                if (passwordChar == sonderChars[j]) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return (PasswordAnalysis.classMask(password) & PasswordAnalysis.SPECIAL) != 0;
     }
 
     /**
@@ -199,40 +504,11 @@ public class Main {
      * @param password Das zu prüfende Passwort
      * @return Anzahl der verschiedenen Zeichengruppen (0-4)
      */
-    public static int zaehleZeichenGruppen(String password) {
+    public static int zaehleZeichenGruppen(CharSequence password) {
         if (password == null) {
             return 0;
         }
-
-        int gruppen = 0;
-
-        // Ziffer prüfen
-        if (enthaeltZiffer(password)) {
-            gruppen++;
-        }
-
-        // Großbuchstaben und Kleinbuchstaben separat prüfen
-        boolean hasCapital = false;
-        boolean hasLowerCase = false;
-
-        char[] chars = password.toCharArray();
-        for (int i = 0; i < chars.length; i++) {
-            char c = chars[i];
-            if (c >= 'A' && c <= 'Z') {
-                hasCapital = true;
-            } else if (c >= 'a' && c <= 'z') {
-                hasLowerCase = true;
-            }
-        }
-
-        if (hasCapital) gruppen++;
-        if (hasLowerCase) gruppen++;
-
-        // Sonderzeichen prüfen
-        if (enthaeltSonderzeichen(password)) {
-            gruppen++;
-        }
-
-        return gruppen;
+        // Ziffern, Groß-, Kleinbuchstaben und Sonderzeichen in einem Durchlauf
+        return Integer.bitCount(PasswordAnalysis.classMask(password));
     }
 }
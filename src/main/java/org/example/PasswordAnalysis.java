@@ -0,0 +1,154 @@
+package org.example;
+
+/**
+ * Ergebnis einer einzigen Analyse-Runde über ein Passwort.
+ * Ein Durchlauf ermittelt Länge und alle Zeichenklassen gleichzeitig,
+ * ohne das Passwort zu kopieren (kein toCharArray()).
+ */
+public final class PasswordAnalysis {
+
+    // Bitmasken der Zeichenklassen
+    public static final int DIGIT = 1;
+    public static final int UPPER = 2;
+    public static final int LOWER = 4;
+    public static final int SPECIAL = 8;
+    public static final int ALL_CLASSES = DIGIT | UPPER | LOWER | SPECIAL;
+
+    /** Erlaubte Sonderzeichen (Standard-Policy) */
+    static final String ALLOWED_SPECIAL_CHARS = "!@#$%^&*()_+-=[]{}|;:,.<>?";
+
+    // Vorberechnete Nachschlagetabelle: ASCII-Zeichen -> Klassen-Bit
+    private static final byte[] CLASS_TABLE = new byte[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            CLASS_TABLE[c] = DIGIT;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CLASS_TABLE[c] = UPPER;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            CLASS_TABLE[c] = LOWER;
+        }
+        for (int i = 0; i < ALLOWED_SPECIAL_CHARS.length(); i++) {
+            CLASS_TABLE[ALLOWED_SPECIAL_CHARS.charAt(i)] = SPECIAL;
+        }
+    }
+
+    private static final CharClassifier.Table CLASSES = CharClassifier.table(CLASS_TABLE, 0);
+
+    private int length = -1; // -1 = null-Passwort
+    private int classes;
+
+    /**
+     * Erzeugt eine leere Analyse, die mit {@link #analyze(CharSequence)}
+     * wiederverwendet werden kann.
+     */
+    public PasswordAnalysis() {
+    }
+
+    /**
+     * Analysiert ein Passwort in einem einzigen Durchlauf.
+     *
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @return neue Analyse mit Länge und Zeichenklassen
+     */
+    public static PasswordAnalysis of(CharSequence password) {
+        return new PasswordAnalysis().analyze(password);
+    }
+
+    /**
+     * Füllt diese Instanz neu, ohne weitere Objekte anzulegen.
+     *
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @return diese Instanz
+     */
+    public PasswordAnalysis analyze(CharSequence password) {
+        if (password == null) {
+            length = -1;
+            classes = 0;
+        } else {
+            length = password.length();
+            classes = classMask(password);
+        }
+        return this;
+    }
+
+    /**
+     * Übernimmt ein an anderer Stelle ermitteltes Ergebnis (z. B. von {@link PasswordPolicy}).
+     *
+     * @param length Länge des Passworts, -1 bei null
+     * @param classes Bitmaske der Zeichenklassen
+     * @return diese Instanz
+     */
+    PasswordAnalysis set(int length, int classes) {
+        this.length = length;
+        this.classes = classes;
+        return this;
+    }
+
+    /**
+     * Ermittelt die Zeichenklassen eines Passworts als Bitmaske.
+     * Bricht ab, sobald alle vier Klassen gefunden wurden; lange Passwörter werden
+     * mit SIMD-Befehlen geprüft, wenn das Vector API verfügbar ist ({@link CharClassifier}).
+     *
+     * @param password Das zu prüfende Passwort (darf nicht null sein)
+     * @return Kombination aus DIGIT, UPPER, LOWER und SPECIAL
+     */
+    public static int classMask(CharSequence password) {
+        return CharClassifier.scan(password, CLASSES);
+    }
+
+    /**
+     * Liefert das Klassen-Bit eines einzelnen Zeichens (0 für alle anderen Zeichen).
+     *
+     * @param c Das zu prüfende Zeichen
+     * @return DIGIT, UPPER, LOWER, SPECIAL oder 0
+     */
+    public static int classOf(char c) {
+        return c < 128 ? CLASS_TABLE[c] : 0;
+    }
+
+    /** @return true wenn das analysierte Passwort null war */
+    public boolean isNull() {
+        return length < 0;
+    }
+
+    /** @return Länge des Passworts, -1 bei null */
+    public int length() {
+        return length;
+    }
+
+    /** @return Bitmaske der gefundenen Zeichenklassen */
+    public int classes() {
+        return classes;
+    }
+
+    /**
+     * @param min Die erforderliche Mindestlänge
+     * @return true wenn das Passwort nicht null und mindestens min Zeichen lang ist
+     */
+    public boolean hasMinLength(int min) {
+        return length >= 0 && length >= min;
+    }
+
+    /** @return true wenn eine ASCII-Ziffer enthalten ist */
+    public boolean hasDigit() {
+        return (classes & DIGIT) != 0;
+    }
+
+    /** @return true wenn Groß- und Kleinbuchstaben enthalten sind */
+    public boolean hasUpperAndLower() {
+        return (classes & (UPPER | LOWER)) == (UPPER | LOWER);
+    }
+
+    /** @return true wenn ein erlaubtes Sonderzeichen enthalten ist */
+    public boolean hasSpecialChar() {
+        return (classes & SPECIAL) != 0;
+    }
+
+    /** @return Anzahl der verschiedenen Zeichengruppen (0-4) */
+    public int characterGroups() {
+        return Integer.bitCount(classes);
+    }
+}
@@ -0,0 +1,223 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Passwörter direkt aus Puffern prüfen, ohne einen String anzulegen: char[], UTF-8 in
+ * byte[] oder ByteBuffer (auch direkte Puffer aus Netzwerk-Lesevorgängen). Strings sind
+ * unveränderlich und bleiben bis zur nächsten Garbage Collection im Speicher; ein Puffer
+ * lässt sich dagegen sofort nach der Prüfung mit {@link #wipe(char[])} usw. überschreiben.
+ *
+ * Pro Thread werden eine CharSequence-Sicht und ein Dekodierpuffer wiederverwendet;
+ * der Dekodierpuffer wird nach jeder Prüfung gelöscht. Die Eingabepuffer selbst
+ * (auch ihre Position) bleiben unverändert, bis der Aufrufer sie löscht.
+ */
+public final class PasswordBuffers {
+
+    // Größere Eingaben werden in einem einmaligen Puffer dekodiert (der Thread-Puffer wächst nicht unbegrenzt)
+    private static final int MAX_SCRATCH_CHARS = 1 << 16;
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private static final class Scratch {
+        final CharSlice slice = new CharSlice();
+        char[] decoded = new char[256];
+
+        char[] decoded(int capacity) {
+            if (decoded.length < capacity) {
+                wipe(decoded);
+                decoded = new char[Math.max(capacity, decoded.length * 2)];
+            }
+            return decoded;
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private PasswordBuffers() {
+    }
+
+    static byte evaluate(PasswordPolicy policy, char[] password, int offset, int length, PasswordAnalysis scratch) {
+        if (password == null) {
+            return policy.evaluate((CharSequence) null, scratch);
+        }
+        Objects.checkFromIndexSize(offset, length, password.length);
+        CharSlice slice = SCRATCH.get().slice;
+        try {
+            return policy.evaluate(slice.set(password, offset, length), scratch);
+        } finally {
+            slice.clear();
+        }
+    }
+
+    static byte evaluateUtf8(PasswordPolicy policy, ByteBuffer buffer, byte[] array, int offset, int length,
+                             PasswordAnalysis scratch) {
+        Scratch threadScratch = SCRATCH.get();
+        char[] decoded = length <= MAX_SCRATCH_CHARS ? threadScratch.decoded(length) : new char[length];
+        int n = decodeUtf8(buffer, array, offset, length, decoded);
+        try {
+            return policy.evaluate(threadScratch.slice.set(decoded, 0, n), scratch);
+        } finally {
+            threadScratch.slice.clear();
+            Arrays.fill(decoded, 0, n, '\0');
+        }
+    }
+
+    static byte evaluateUtf8(PasswordPolicy policy, ByteBuffer utf8, PasswordAnalysis scratch) {
+        if (utf8 == null) {
+            return policy.evaluate((CharSequence) null, scratch);
+        }
+        if (utf8.hasArray()) {
+            return evaluateUtf8(policy, null, utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining(), scratch);
+        }
+        return evaluateUtf8(policy, utf8, null, utf8.position(), utf8.remaining(), scratch);
+    }
+
+    static byte evaluateUtf8(PasswordPolicy policy, byte[] utf8, int offset, int length, PasswordAnalysis scratch) {
+        if (utf8 == null) {
+            return policy.evaluate((CharSequence) null, scratch);
+        }
+        Objects.checkFromIndexSize(offset, length, utf8.length);
+        return evaluateUtf8(policy, null, utf8, offset, length, scratch);
+    }
+
+    /**
+     * Dekodiert UTF-8 in ein char[]; ungültige Folgen werden durch U+FFFD ersetzt.
+     *
+     * @param utf8 Die Bytes
+     * @param offset Erstes Byte
+     * @param length Anzahl Bytes
+     * @param out Ziel mit mindestens length Plätzen
+     * @return Anzahl der geschriebenen Zeichen (höchstens length)
+     */
+    static int decodeUtf8(byte[] utf8, int offset, int length, char[] out) {
+        return decodeUtf8(null, utf8, offset, length, out);
+    }
+
+    /**
+     * Liest entweder aus dem Array (Heap) oder per absolutem Zugriff aus dem Puffer (direkt),
+     * ohne die Position des Puffers zu verändern.
+     */
+    private static int decodeUtf8(ByteBuffer buffer, byte[] array, int offset, int length, char[] out) {
+        int end = offset + length;
+        int n = 0;
+        int i = offset;
+        while (i < end) {
+            int b = array != null ? array[i++] : buffer.get(i++);
+            if (b >= 0) {
+                out[n++] = (char) b;
+                continue;
+            }
+            b &= 0xFF;
+            int needed;
+            int min;
+            int codePoint;
+            if (b >= 0xC2 && b <= 0xDF) {
+                needed = 1;
+                min = 0x80;
+                codePoint = b & 0x1F;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                needed = 2;
+                min = 0x800;
+                codePoint = b & 0x0F;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                needed = 3;
+                min = 0x10000;
+                codePoint = b & 0x07;
+            } else {
+                out[n++] = REPLACEMENT;
+                continue;
+            }
+            int read = 0;
+            while (read < needed && i < end) {
+                int next = array != null ? array[i] : buffer.get(i);
+                if ((next & 0xC0) != 0x80) {
+                    break;
+                }
+                codePoint = codePoint << 6 | next & 0x3F;
+                i++;
+                read++;
+            }
+            if (read < needed || codePoint < min || codePoint > Character.MAX_CODE_POINT
+                    || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                out[n++] = REPLACEMENT;
+            } else if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                out[n++] = Character.highSurrogate(codePoint);
+                out[n++] = Character.lowSurrogate(codePoint);
+            } else {
+                out[n++] = (char) codePoint;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Überschreibt ein Passwort mit Nullzeichen.
+     *
+     * @param password Der Puffer (darf null sein)
+     */
+    public static void wipe(char[] password) {
+        if (password != null) {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    /**
+     * Überschreibt einen Ausschnitt mit Nullzeichen.
+     *
+     * @param password Der Puffer
+     * @param offset Erstes Zeichen
+     * @param length Anzahl Zeichen
+     */
+    public static void wipe(char[] password, int offset, int length) {
+        Arrays.fill(password, offset, offset + length, '\0');
+    }
+
+    /**
+     * Überschreibt ein Passwort (z. B. UTF-8) mit Nullbytes.
+     *
+     * @param password Der Puffer (darf null sein)
+     */
+    public static void wipe(byte[] password) {
+        if (password != null) {
+            Arrays.fill(password, (byte) 0);
+        }
+    }
+
+    /**
+     * Überschreibt die verbleibenden Bytes (Position bis Limit) eines Heap- oder direkten
+     * Puffers mit Nullbytes; Position und Limit bleiben unverändert.
+     *
+     * @param password Der Puffer (darf null sein)
+     */
+    public static void wipe(ByteBuffer password) {
+        if (password == null) {
+            return;
+        }
+        if (password.hasArray()) {
+            int start = password.arrayOffset() + password.position();
+            Arrays.fill(password.array(), start, start + password.remaining(), (byte) 0);
+            return;
+        }
+        for (int i = password.position(), end = password.limit(); i < end; i++) {
+            password.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * Überschreibt den Inhalt eines StringBuilder und leert ihn.
+     *
+     * @param password Der Puffer (darf null sein)
+     */
+    public static void wipe(StringBuilder password) {
+        if (password == null) {
+            return;
+        }
+        for (int i = 0; i < password.length(); i++) {
+            password.setCharAt(i, '\0');
+        }
+        password.setLength(0);
+    }
+}
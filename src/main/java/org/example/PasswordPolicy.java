@@ -0,0 +1,530 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unveränderliche, vorkompilierte Passwort-Richtlinie.
+ * Mindestlänge, Pflichtklassen, erlaubte Zeichen, Wortliste und Schwellen der
+ * Bewertung werden beim Kompilieren in eine Klassentabelle und wenige
+ * final-Felder übersetzt. {@link #evaluate(CharSequence, PasswordAnalysis)} prüft
+ * damit in einem einzigen Durchlauf über das Passwort, ohne Verzweigungen über
+ * Konfigurationsobjekte und ohne Allokation. Die Klasse ist final und hat keine
+ * Unterklassen, Aufrufstellen bleiben also monomorph und der JIT kann die Prüfung
+ * vollständig in die aufrufende Schleife einbetten.
+ *
+ * <pre>
+ *   mindestlaenge          = 8
+ *   pflichtklassen         = ziffer, gross, klein, sonder   (ohne diese immer WEAK; Standard: keine)
+ *   sonderzeichen          = !@#$%^&amp;*()_+-=[]{}|;:,.&lt;&gt;?
+ *   nur-erlaubte-zeichen   = false   (true: andere Zeichen machen das Passwort WEAK)
+ *   wortliste              = standard | keine | pfad/zur/liste.txt
+ *   breach-filter          = true    (eingeblendeten Bloom-Filter und Breach-Dienst mitprüfen)
+ *   varianten              = true    (auch "P@ssw0rd", "password2024" usw. als schwach erkennen)
+ *   stark.zeichengruppen   = 4
+ *   stark.staerke          = 3       (Mindestbewertung der Stärkeschätzung, 0 = aus)
+ *   mittel.zeichengruppen  = 3
+ *   mittel.staerke         = 2
+ * </pre>
+ * Relative Pfade der Wortliste beziehen sich auf das Verzeichnis der Richtliniendatei.
+ */
+public final class PasswordPolicy {
+
+    /** Name der Standard-Richtlinie */
+    public static final String DEFAULT_NAME = "standard";
+
+    // Markiert ASCII-Zeichen, die nach der Richtlinie nicht erlaubt sind
+    private static final int OTHER = 16;
+
+    private static final Set<String> KEYS = Set.of("mindestlaenge", "pflichtklassen", "sonderzeichen",
+            "nur-erlaubte-zeichen", "wortliste", "breach-filter", "varianten", "stark.zeichengruppen", "stark.staerke",
+            "mittel.zeichengruppen", "mittel.staerke");
+
+    /** Woher die Liste schwacher Passwörter kommt */
+    private enum Blacklist {
+        /** Globale Prüfung ({@link WeakPasswordCheck}), folgt --wortliste und --filter */
+        SHARED,
+        /** Eigene Wortliste der Richtlinie */
+        OWN,
+        /** Keine Wortliste */
+        NONE
+    }
+
+    // Namensräume im VerdictCache (0 ist der SQL-Injection-Prüfung vorbehalten)
+    private static final AtomicLong CACHE_NAMESPACES = new AtomicLong(VerdictCache.SQL_NAMESPACE);
+
+    private static final PasswordPolicy DEFAULT = new PasswordPolicy(DEFAULT_NAME, PasswordValidator.DEFAULT_MIN_LENGTH,
+            0, PasswordAnalysis.ALLOWED_SPECIAL_CHARS, false, Blacklist.SHARED, null, true, true,
+            4, PasswordVerdict.STRONG_SCORE, 3, PasswordVerdict.MEDIUM_SCORE);
+
+    private final long cacheNamespace = CACHE_NAMESPACES.incrementAndGet();
+    private final String name;
+    private final int minLength;
+    private final int requiredClasses;
+    private final String specialChars;
+    private final boolean allowedCharsOnly;
+    private final Blacklist blacklist;
+    private final WeakPasswordDictionary dictionary;
+    private final boolean breachFilter;
+    private final boolean variants;
+    private final int strongGroups;
+    private final int strongScore;
+    private final int mediumGroups;
+    private final int mediumScore;
+
+    // ASCII-Zeichen -> Klassen-Bit bzw. OTHER, Zeichen ab 128 -> OTHER wenn nur erlaubte Zeichen gelten
+    private final CharClassifier.Table classTable;
+
+    private PasswordPolicy(String name, int minLength, int requiredClasses, String specialChars,
+                           boolean allowedCharsOnly, Blacklist blacklist, WeakPasswordDictionary dictionary,
+                           boolean breachFilter, boolean variants, int strongGroups, int strongScore,
+                           int mediumGroups, int mediumScore) {
+        this.name = name;
+        this.minLength = minLength;
+        this.requiredClasses = requiredClasses;
+        this.specialChars = specialChars;
+        this.allowedCharsOnly = allowedCharsOnly;
+        this.blacklist = blacklist;
+        this.dictionary = dictionary;
+        this.breachFilter = breachFilter;
+        this.variants = variants;
+        this.strongGroups = strongGroups;
+        this.strongScore = strongScore;
+        this.mediumGroups = mediumGroups;
+        this.mediumScore = mediumScore;
+        byte[] table = new byte[128];
+        for (char c = 0; c < table.length; c++) {
+            int bit = PasswordAnalysis.classOf(c);
+            if (bit == PasswordAnalysis.SPECIAL) {
+                bit = 0;
+            }
+            if (bit == 0 && allowedCharsOnly) {
+                bit = OTHER;
+            }
+            table[c] = (byte) bit;
+        }
+        for (int i = 0; i < specialChars.length(); i++) {
+            table[specialChars.charAt(i)] = PasswordAnalysis.SPECIAL;
+        }
+        this.classTable = CharClassifier.table(table, allowedCharsOnly ? OTHER : 0);
+    }
+
+    /** @return die eingebaute Standard-Richtlinie (entspricht der bisherigen festen Regel) */
+    public static PasswordPolicy defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Lädt und kompiliert eine Richtlinie aus einer Properties-Datei (UTF-8).
+     * Der Name ist der Dateiname ohne ".properties".
+     *
+     * @param file Die Richtliniendatei
+     * @return die kompilierte Richtlinie
+     * @throws IOException wenn die Datei oder ihre Wortliste nicht gelesen werden kann
+     * @throws IllegalArgumentException bei unbekannten Schlüsseln oder ungültigen Werten
+     */
+    public static PasswordPolicy load(Path file) throws IOException {
+        return load(file, new HashMap<>());
+    }
+
+    /**
+     * @param dictionaries Bereits geladene Wortlisten je Pfad (werden zwischen Richtlinien geteilt)
+     */
+    static PasswordPolicy load(Path file, Map<Path, WeakPasswordDictionary> dictionaries) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String fileName = file.getFileName().toString();
+        String name = fileName.endsWith(".properties") ? fileName.substring(0, fileName.length() - 11) : fileName;
+        try {
+            return compile(name, properties, file.toAbsolutePath().getParent(), dictionaries);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Kompiliert eine Richtlinie aus bereits gelesenen Einstellungen; fehlende
+     * Schlüssel erhalten die Werte der Standard-Richtlinie.
+     *
+     * @param name Name der Richtlinie (z. B. der Mandant)
+     * @param properties Die Einstellungen
+     * @return die kompilierte Richtlinie
+     * @throws IOException wenn eine angegebene Wortliste nicht gelesen werden kann
+     * @throws IllegalArgumentException bei unbekannten Schlüsseln oder ungültigen Werten
+     */
+    public static PasswordPolicy compile(String name, Properties properties) throws IOException {
+        return compile(name, properties, Path.of(""), new HashMap<>());
+    }
+
+    private static PasswordPolicy compile(String name, Properties properties, Path baseDirectory,
+                                          Map<Path, WeakPasswordDictionary> dictionaries) throws IOException {
+        for (String key : properties.stringPropertyNames()) {
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unbekannter Schlüssel '" + key + "'");
+            }
+        }
+        int minLength = intValue(properties, "mindestlaenge", DEFAULT.minLength, 0);
+        int requiredClasses = classes(properties.getProperty("pflichtklassen", ""));
+        String specialChars = properties.getProperty("sonderzeichen", DEFAULT.specialChars);
+        for (int i = 0; i < specialChars.length(); i++) {
+            char c = specialChars.charAt(i);
+            if (c <= ' ' || c >= 128 || (PasswordAnalysis.classOf(c) & ~PasswordAnalysis.SPECIAL) != 0) {
+                throw new IllegalArgumentException("Ungültiges Sonderzeichen '" + c + "'");
+            }
+        }
+        boolean allowedCharsOnly = booleanValue(properties, "nur-erlaubte-zeichen", false);
+        boolean breachFilter = booleanValue(properties, "breach-filter", true);
+        boolean variants = booleanValue(properties, "varianten", true);
+
+        String source = properties.getProperty("wortliste", "standard").strip();
+        Blacklist blacklist;
+        WeakPasswordDictionary dictionary = null;
+        if (source.equalsIgnoreCase("standard")) {
+            blacklist = Blacklist.SHARED;
+        } else if (source.equalsIgnoreCase("keine")) {
+            blacklist = Blacklist.NONE;
+        } else {
+            blacklist = Blacklist.OWN;
+            Path wordlist = baseDirectory.resolve(source).toAbsolutePath().normalize();
+            dictionary = dictionaries.get(wordlist);
+            if (dictionary == null) {
+                dictionary = WeakPasswordDictionary.load(wordlist);
+                dictionaries.put(wordlist, dictionary);
+            }
+        }
+
+        int strongGroups = intValue(properties, "stark.zeichengruppen", DEFAULT.strongGroups, 1);
+        int mediumGroups = intValue(properties, "mittel.zeichengruppen", DEFAULT.mediumGroups, 1);
+        int strongScore = intValue(properties, "stark.staerke", DEFAULT.strongScore, 0);
+        int mediumScore = intValue(properties, "mittel.staerke", DEFAULT.mediumScore, 0);
+        if (strongGroups > 4 || mediumGroups > strongGroups) {
+            throw new IllegalArgumentException("Zeichengruppen müssen 1 <= mittel <= stark <= 4 erfüllen");
+        }
+        if (strongScore > StrengthEstimator.MAX_SCORE || mediumScore > strongScore) {
+            throw new IllegalArgumentException("Stärke muss 0 <= mittel <= stark <= " + StrengthEstimator.MAX_SCORE + " erfüllen");
+        }
+        return new PasswordPolicy(name, minLength, requiredClasses, specialChars, allowedCharsOnly, blacklist,
+                dictionary, breachFilter, variants, strongGroups, strongScore, mediumGroups, mediumScore);
+    }
+
+    /**
+     * Validiert ein Passwort nach dieser Richtlinie (inkl. SQL-Injection-Muster),
+     * ohne Seiteneffekte wie IP-Sperren.
+     *
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @param scratch Wiederverwendbare Analyse, enthält danach Länge und Zeichenklassen
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    public byte evaluate(CharSequence password, PasswordAnalysis scratch) {
+        long start = ValidatorMetrics.startTimer();
+        byte code = classify(password, scratch);
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.VALIDATION, start);
+        ValidatorMetrics.recordVerdict(ValidationCodes.verdict(code));
+        return code;
+    }
+
+    /**
+     * Bewertet ein Passwort mit Stärkeschätzung, für Server und Konsole, die sie anzeigen.
+     * Die SQL-Injection-Prüfung (mit IP-Sperre) übernimmt der Aufrufer vorher. Wiederholte
+     * Passwörter (erneute Anmeldeversuche) kommen aus dem {@link VerdictCache}, ohne
+     * Wortliste, Breach-Dienst und Schätzung erneut zu fragen.
+     *
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @param scratch Wiederverwendbare Analyse, enthält danach Länge und Zeichenklassen
+     * @return erweiterter Ergebniscode mit Stärke (siehe {@link ValidationCodes})
+     */
+    public int assess(CharSequence password, PasswordAnalysis scratch) {
+        long start = ValidatorMetrics.startTimer();
+        VerdictCache cache = password != null ? VerdictCache.active() : null;
+        long key = 0;
+        int cached = -1;
+        if (cache != null) {
+            key = cache.key(cacheNamespace, password);
+            cached = cache.get(key);
+        }
+        int result;
+        if (cached >= 0 && ValidationCodes.hasStrength(cached)) {
+            scratch.set(password.length(), ValidationCodes.classes((byte) cached));
+            result = cached;
+        } else {
+            long failures = WeakPasswordCheck.breachFailures();
+            double guesses = StrengthEstimator.log10Guesses(password);
+            byte code;
+            if (cached >= 0) {
+                // Aus evaluate() gemerkt, nur die Schätzung fehlt noch
+                scratch.set(password.length(), ValidationCodes.classes((byte) cached));
+                code = (byte) cached;
+            } else {
+                int mask = scan(password, scratch);
+                boolean blacklisted = isBlacklisted(password);
+                code = ValidationCodes.encode(mask & PasswordAnalysis.ALL_CLASSES, scratch.hasMinLength(minLength),
+                        blacklisted, verdict(mask, scratch.length(), blacklisted, StrengthEstimator.score(guesses)));
+            }
+            result = ValidationCodes.withStrength(code, guesses);
+            if (cache != null && WeakPasswordCheck.breachFailures() == failures) {
+                cache.put(key, result);
+            }
+        }
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.VALIDATION, start);
+        ValidatorMetrics.recordVerdict(ValidationCodes.verdict((byte) result));
+        return result;
+    }
+
+    /**
+     * Validiert einen Ausschnitt eines char[] ohne Kopie (siehe {@link PasswordBuffers}).
+     *
+     * @param password Der Puffer (darf null sein)
+     * @param offset Erstes Zeichen
+     * @param length Anzahl Zeichen
+     * @param scratch Wiederverwendbare Analyse
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    public byte evaluate(char[] password, int offset, int length, PasswordAnalysis scratch) {
+        return PasswordBuffers.evaluate(this, password, offset, length, scratch);
+    }
+
+    /**
+     * Validiert die verbleibenden UTF-8-Bytes eines Heap- oder direkten Puffers, ohne einen
+     * String anzulegen; die Position des Puffers bleibt unverändert.
+     *
+     * @param utf8 Der Puffer (darf null sein)
+     * @param scratch Wiederverwendbare Analyse
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    public byte evaluateUtf8(ByteBuffer utf8, PasswordAnalysis scratch) {
+        return PasswordBuffers.evaluateUtf8(this, utf8, scratch);
+    }
+
+    /**
+     * Validiert UTF-8-Bytes, ohne einen String anzulegen.
+     *
+     * @param utf8 Die Bytes (darf null sein)
+     * @param offset Erstes Byte
+     * @param length Anzahl Bytes
+     * @param scratch Wiederverwendbare Analyse
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    public byte evaluateUtf8(byte[] utf8, int offset, int length, PasswordAnalysis scratch) {
+        return PasswordBuffers.evaluateUtf8(this, utf8, offset, length, scratch);
+    }
+
+    private byte classify(CharSequence password, PasswordAnalysis scratch) {
+        VerdictCache cache = password != null ? VerdictCache.active() : null;
+        if (cache == null) {
+            return classifyUncached(password, scratch);
+        }
+        long key = cache.key(cacheNamespace, password);
+        int cached = cache.get(key);
+        if (cached >= 0) {
+            scratch.set(password.length(), ValidationCodes.classes((byte) cached));
+            return (byte) cached;
+        }
+        long failures = WeakPasswordCheck.breachFailures();
+        byte code = classifyUncached(password, scratch);
+        if (WeakPasswordCheck.breachFailures() == failures) {
+            // Hat der Breach-Dienst nicht geantwortet (fail open), gilt das Ergebnis nur dieses Mal
+            cache.put(key, code & 0xFF);
+        }
+        return code;
+    }
+
+    private byte classifyUncached(CharSequence password, PasswordAnalysis scratch) {
+        int mask = scan(password, scratch);
+        int classes = mask & PasswordAnalysis.ALL_CLASSES;
+        boolean longEnough = scratch.hasMinLength(minLength);
+        if (password != null && SecurityMonitor.findSQLInjectionPattern(password) >= 0) {
+            return ValidationCodes.encode(classes, longEnough, false, PasswordVerdict.REJECTED);
+        }
+        return classify(password, mask, scratch.length(), isBlacklisted(password));
+    }
+
+    /**
+     * Bewertet ein Passwort ohne SQL-Injection-Muster, dessen Klassen und Wortlisten-Treffer
+     * bereits feststehen (z. B. von {@link IncrementalValidator} mitgeführt).
+     *
+     * @param password Das Passwort (für die Stärkeschätzung)
+     * @param mask Zeichenklassen wie von {@link #scan(CharSequence, PasswordAnalysis)}
+     * @param length Länge des Passworts (-1 bei null)
+     * @param blacklisted Ergebnis von {@link #isBlacklisted(CharSequence)}
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    byte classify(CharSequence password, int mask, int length, boolean blacklisted) {
+        PasswordVerdict verdict = verdictWithoutScore(mask, length, blacklisted);
+        if (verdict != PasswordVerdict.WEAK && mediumScore + strongScore > 0) {
+            // Schätzung nur, wenn sie das Ergebnis noch herabstufen kann
+            verdict = cap(verdict, StrengthEstimator.score(password));
+        }
+        return ValidationCodes.encode(mask & PasswordAnalysis.ALL_CLASSES, length >= 0 && length >= minLength,
+                blacklisted, verdict);
+    }
+
+    /**
+     * Ermittelt Länge und Zeichenklassen nach der Klassentabelle dieser Richtlinie.
+     *
+     * @param password Das Passwort (darf null sein)
+     * @param scratch Wird mit Länge und Zeichenklassen befüllt
+     * @return Zeichenklassen, bei nicht erlaubten Zeichen zusätzlich ein internes Bit
+     */
+    int scan(CharSequence password, PasswordAnalysis scratch) {
+        if (password == null) {
+            scratch.set(-1, 0);
+            return 0;
+        }
+        int mask = CharClassifier.scan(password, classTable);
+        scratch.set(password.length(), mask & PasswordAnalysis.ALL_CLASSES);
+        return mask;
+    }
+
+    /**
+     * @param password Das Passwort (darf null sein)
+     * @return true wenn es nach der Wortliste dieser Richtlinie schwach ist (null immer)
+     */
+    boolean isBlacklisted(CharSequence password) {
+        return switch (blacklist) {
+            case SHARED -> WeakPasswordCheck.isWeak(password, WeakPasswordCheck.getDictionary(), breachFilter, variants);
+            case OWN -> WeakPasswordCheck.isWeak(password, dictionary, breachFilter, variants);
+            case NONE -> password == null;
+        };
+    }
+
+    /** @return die Klassentabelle dieser Richtlinie */
+    CharClassifier.Table classTable() {
+        return classTable;
+    }
+
+    /** @return das Wörterbuch, gegen das {@link #isBlacklisted(CharSequence)} prüft, oder null */
+    WeakPasswordDictionary blacklistDictionary() {
+        return switch (blacklist) {
+            case SHARED -> WeakPasswordCheck.getDictionary();
+            case OWN -> dictionary;
+            case NONE -> null;
+        };
+    }
+
+    /** @return true wenn {@link #isBlacklisted(CharSequence)} auch Schreibvarianten erkennt */
+    boolean checksVariants() {
+        return variants;
+    }
+
+    /** @return true wenn {@link #isBlacklisted(CharSequence)} auch Breach-Filter und Breach-Dienst fragt */
+    boolean checksBreaches() {
+        return blacklist != Blacklist.NONE && breachFilter;
+    }
+
+    /**
+     * Bewertet ein bereits analysiertes Passwort.
+     *
+     * @param mask Rückgabe von {@link #scan(CharSequence, PasswordAnalysis)}
+     * @param length Länge des Passworts (-1 bei null)
+     * @param blacklisted Ergebnis von {@link #isBlacklisted(CharSequence)}
+     * @param strengthScore Bewertung der Stärkeschätzung (0 bis 4)
+     * @return STRONG, MEDIUM oder WEAK
+     */
+    PasswordVerdict verdict(int mask, int length, boolean blacklisted, int strengthScore) {
+        return cap(verdictWithoutScore(mask, length, blacklisted), strengthScore);
+    }
+
+    private PasswordVerdict verdictWithoutScore(int mask, int length, boolean blacklisted) {
+        if (blacklisted || length < minLength || length < 0 || (mask & OTHER) != 0
+                || (mask & requiredClasses) != requiredClasses) {
+            return PasswordVerdict.WEAK;
+        }
+        int groups = Integer.bitCount(mask);
+        if (groups >= strongGroups) {
+            return PasswordVerdict.STRONG;
+        }
+        return groups >= mediumGroups ? PasswordVerdict.MEDIUM : PasswordVerdict.WEAK;
+    }
+
+    private PasswordVerdict cap(PasswordVerdict verdict, int strengthScore) {
+        if (verdict == PasswordVerdict.STRONG && strengthScore < strongScore) {
+            verdict = PasswordVerdict.MEDIUM;
+        }
+        if (verdict == PasswordVerdict.MEDIUM && strengthScore < mediumScore) {
+            verdict = PasswordVerdict.WEAK;
+        }
+        return verdict;
+    }
+
+    /** @return Name der Richtlinie */
+    public String name() {
+        return name;
+    }
+
+    /** @return die erforderliche Mindestlänge */
+    public int minLength() {
+        return minLength;
+    }
+
+    /** @return Bitmaske der Pflichtklassen (siehe {@link PasswordAnalysis}) */
+    public int requiredClasses() {
+        return requiredClasses;
+    }
+
+    /** @return die als Sonderzeichen gezählten Zeichen */
+    public String specialChars() {
+        return specialChars;
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordPolicy[" + name + ", mindestlaenge=" + minLength + "]";
+    }
+
+    private static int classes(String value) {
+        int mask = 0;
+        for (String part : value.split(",")) {
+            String token = part.strip().toLowerCase(Locale.ROOT);
+            mask |= switch (token) {
+                case "" -> 0;
+                case "ziffer" -> PasswordAnalysis.DIGIT;
+                case "gross" -> PasswordAnalysis.UPPER;
+                case "klein" -> PasswordAnalysis.LOWER;
+                case "sonder" -> PasswordAnalysis.SPECIAL;
+                default -> throw new IllegalArgumentException("Unbekannte Zeichenklasse '" + token + "'");
+            };
+        }
+        return mask;
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue, int min) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + key + "' ist keine Zahl: " + value);
+        }
+        if (parsed < min) {
+            throw new IllegalArgumentException("'" + key + "' muss mindestens " + min + " sein: " + value);
+        }
+        return parsed;
+    }
+
+    private static boolean booleanValue(Properties properties, String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return switch (value.strip().toLowerCase(Locale.ROOT)) {
+            case "true", "ja" -> true;
+            case "false", "nein" -> false;
+            default -> throw new IllegalArgumentException("'" + key + "' muss true oder false sein: " + value);
+        };
+    }
+}
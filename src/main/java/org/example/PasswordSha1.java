@@ -0,0 +1,124 @@
+package org.example;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * SHA-1 über die UTF-8-Bytes eines Passworts, wie sie Breach-Listen (HIBP) verwenden.
+ * Digest, Eingabepuffer und Ergebnis werden pro Thread wiederverwendet,
+ * daher legt eine Berechnung keine neuen Objekte an.
+ */
+final class PasswordSha1 {
+
+    static final int LENGTH = 20;
+
+    private static final ThreadLocal<PasswordSha1> SCRATCH = ThreadLocal.withInitial(PasswordSha1::new);
+
+    private final MessageDigest digest;
+    private final byte[] result = new byte[LENGTH];
+    private byte[] utf8 = new byte[64];
+
+    private PasswordSha1() {
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Berechnet den SHA-1 des Passworts.
+     * Das zurückgegebene Array gehört dem aktuellen Thread und wird beim
+     * nächsten Aufruf überschrieben - sofort auswerten, nicht speichern.
+     *
+     * @param password Das Passwort (darf nicht null sein)
+     * @return 20 Bytes SHA-1 (threadlokaler Puffer)
+     */
+    static byte[] of(CharSequence password) {
+        return SCRATCH.get().compute(password);
+    }
+
+    private byte[] compute(CharSequence password) {
+        int n = password.length();
+        if (utf8.length < n * 3) {
+            utf8 = new byte[n * 3];
+        }
+        int length = encodeUtf8(password, utf8);
+        digest.update(utf8, 0, length);
+        try {
+            digest.digest(result, 0, LENGTH);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        // Klartext-Bytes nicht im Puffer liegen lassen
+        Arrays.fill(utf8, 0, length, (byte) 0);
+        return result;
+    }
+
+    /**
+     * Kodiert die Zeichenfolge als UTF-8 (einzelne Surrogates werden zu '?').
+     *
+     * @return Anzahl geschriebener Bytes
+     */
+    static int encodeUtf8(CharSequence s, byte[] out) {
+        int pos = 0;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out[pos++] = (byte) (0xF0 | (cp >> 18));
+                out[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                out[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[pos++] = (byte) '?';
+            } else {
+                out[pos++] = (byte) (0xE0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    /** Liest 8 Bytes big-endian ab off. */
+    static long readLong(byte[] b, int off) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = (v << 8) | (b[off + i] & 0xFF);
+        }
+        return v;
+    }
+
+    /** Liest 4 Bytes big-endian ab off. */
+    static int readInt(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 24) | ((b[off + 1] & 0xFF) << 16) | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+    }
+
+    /**
+     * Wandelt einen 40-stelligen Hex-String (Groß- oder Kleinbuchstaben) in 20 Bytes um.
+     *
+     * @return true wenn die ersten 40 Zeichen gültiges Hex sind
+     */
+    static boolean parseHex(CharSequence hex, byte[] out) {
+        if (hex.length() < LENGTH * 2) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return false;
+            }
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return true;
+    }
+}
@@ -1,10 +1,23 @@
 package org.example;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * TDD-basierter Passwort-Validator
  */
 public class PasswordValidator {
     
+    /** Standard-Mindestlänge eines Passworts */
+    public static final int DEFAULT_MIN_LENGTH = 8;
+    
+    // Ab dieser Größe wird ein Teilstück der Massenvalidierung weiter aufgeteilt
+    private static final int BATCH_SPLIT_THRESHOLD = 2048;
+    
     /**
      * Überprüft die Mindestlänge eines Passworts
      * 
@@ -12,7 +25,7 @@ public class PasswordValidator {
      * @param minLength Die erforderliche Mindestlänge (muss >= 0 sein)
      * @return true wenn das Passwort die Mindestlänge erfüllt, false bei null oder zu kurz
      */
-    public static boolean hasMinLength(String password, int minLength) {
+    public static boolean hasMinLength(CharSequence password, int minLength) {
         // Null-Check: null-Passwort ist immer ungültig
         if (password == null) {
             return false;
@@ -28,30 +41,138 @@ public class PasswordValidator {
      * @param password Das zu prüfende Passwort (darf null sein)
      * @return true wenn das Passwort mindestens eine ASCII-Ziffer enthält, false bei null oder ohne Ziffern
      */
-    public static boolean containsDigit(String password) {
+    public static boolean containsDigit(CharSequence password) {
         // Null-Check: null-Passwort enthält keine Ziffern
         if (password == null) {
             return false;
         }
         
-        // Durchsuche jedes Zeichen nach ASCII-Ziffern (0-9)
-        for (char character : password.toCharArray()) {
-            if (isAsciiDigit(character)) {
-                return true; // Erste Ziffer gefunden - sofort zurückgeben
-            }
-        }
-        
-        // Keine Ziffer gefunden
-        return false;
+        // Ein Durchlauf über die Zeichenklassen-Tabelle, ohne Kopie des Passworts
+        return (PasswordAnalysis.classMask(password) & PasswordAnalysis.DIGIT) != 0;
     }
     
     /**
-     * Hilfsmethode: Prüft ob ein Zeichen eine ASCII-Ziffer ist
+     * Analysiert alle Zeichenklassen eines Passworts in einem Durchlauf
      * 
-     * @param c Das zu prüfende Zeichen
-     * @return true wenn c eine ASCII-Ziffer (0-9) ist
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @return Analyse mit Länge, Ziffern, Groß-/Kleinbuchstaben und Sonderzeichen
+     */
+    public static PasswordAnalysis analyze(CharSequence password) {
+        return PasswordAnalysis.of(password);
+    }
+    
+    /**
+     * Validiert ein Passwort vollständig (Zeichenklassen, Mindestlänge, Liste schwacher
+     * Passwörter, Stärkeschätzung, SQL-Injection-Muster) nach der Standard-Richtlinie,
+     * ohne Seiteneffekte wie IP-Sperren
+     * 
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @param scratch Wiederverwendbare Analyse (vermeidet Allokationen in Schleifen)
+     * @return Ergebniscode (siehe {@link ValidationCodes})
      */
-    private static boolean isAsciiDigit(char c) {
-        return c >= '0' && c <= '9';
+    public static byte evaluate(CharSequence password, PasswordAnalysis scratch) {
+        return PasswordPolicy.defaults().evaluate(password, scratch);
+    }
+    
+    /**
+     * Validiert einen Ausschnitt eines char[] ohne Kopie; der Aufrufer kann den Puffer
+     * danach mit {@link PasswordBuffers#wipe(char[])} löschen.
+     * 
+     * @param password Der Puffer (darf null sein)
+     * @param offset Erstes Zeichen
+     * @param length Anzahl Zeichen
+     * @param scratch Wiederverwendbare Analyse
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    public static byte evaluate(char[] password, int offset, int length, PasswordAnalysis scratch) {
+        return PasswordPolicy.defaults().evaluate(password, offset, length, scratch);
+    }
+    
+    /**
+     * Validiert die verbleibenden UTF-8-Bytes eines Puffers (auch direkt, z. B. aus einem
+     * SocketChannel), ohne einen String anzulegen
+     * 
+     * @param utf8 Der Puffer (darf null sein), Position bleibt unverändert
+     * @param scratch Wiederverwendbare Analyse
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    public static byte evaluateUtf8(ByteBuffer utf8, PasswordAnalysis scratch) {
+        return PasswordPolicy.defaults().evaluateUtf8(utf8, scratch);
+    }
+    
+    /**
+     * Validiert UTF-8-Bytes, ohne einen String anzulegen
+     * 
+     * @param utf8 Die Bytes (darf null sein)
+     * @param offset Erstes Byte
+     * @param length Anzahl Bytes
+     * @param scratch Wiederverwendbare Analyse
+     * @return Ergebniscode (siehe {@link ValidationCodes})
+     */
+    public static byte evaluateUtf8(byte[] utf8, int offset, int length, PasswordAnalysis scratch) {
+        return PasswordPolicy.defaults().evaluateUtf8(utf8, offset, length, scratch);
+    }
+    
+    /**
+     * Validiert viele Passwörter parallel im gemeinsamen ForkJoinPool
+     * 
+     * @param passwords Die zu prüfenden Passwörter (Einträge dürfen null sein)
+     * @return ein Ergebnisbyte pro Passwort in Eingabereihenfolge
+     */
+    public static BatchValidationResult validateAll(List<? extends CharSequence> passwords) {
+        return validateAll(passwords, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Validiert viele Passwörter parallel im angegebenen ForkJoinPool.
+     * Wörterbuch, Breach-Filter und SQL-Injection-Automat werden von allen
+     * Threads nur lesend geteilt.
+     * 
+     * @param passwords Die zu prüfenden Passwörter (Einträge dürfen null sein)
+     * @param pool Der Pool, auf den die Arbeit verteilt wird
+     * @return ein Ergebnisbyte pro Passwort in Eingabereihenfolge
+     */
+    public static BatchValidationResult validateAll(List<? extends CharSequence> passwords, ForkJoinPool pool) {
+        // Zugriff per Index muss billig sein
+        List<? extends CharSequence> input = passwords instanceof RandomAccess ? passwords : new ArrayList<>(passwords);
+        byte[] codes = new byte[input.size()];
+        if (codes.length > 0) {
+            pool.invoke(new ValidationTask(input, codes, 0, codes.length));
+        }
+        return new BatchValidationResult(codes);
+    }
+    
+    /**
+     * Teilt einen Bereich rekursiv auf, bis er klein genug für einen Thread ist
+     */
+    private static final class ValidationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Aufgaben werden nie serialisiert (RecursiveAction ist nur formal Serializable)
+        private final transient List<? extends CharSequence> passwords;
+        private final byte[] codes;
+        private final int from;
+        private final int to;
+        
+        ValidationTask(List<? extends CharSequence> passwords, byte[] codes, int from, int to) {
+            this.passwords = passwords;
+            this.codes = codes;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SPLIT_THRESHOLD) {
+                // Eine Analyse-Instanz pro Teilstück, keine Allokation pro Passwort
+                PasswordAnalysis scratch = new PasswordAnalysis();
+                for (int i = from; i < to; i++) {
+                    codes[i] = evaluate(passwords.get(i), scratch);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ValidationTask(passwords, codes, from, mid), new ValidationTask(passwords, codes, mid, to));
+        }
     }
 }
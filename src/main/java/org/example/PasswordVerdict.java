@@ -0,0 +1,64 @@
+package org.example;
+
+/**
+ * Gesamtbewertung eines Passworts
+ */
+public enum PasswordVerdict {
+    /** Verbesserung erforderlich */
+    WEAK,
+    /** 3+ Zeichengruppen und Mindestlänge */
+    MEDIUM,
+    /** Alle Kriterien erfüllt */
+    STRONG,
+    /** Eingabe enthält ein SQL-Injection-Muster und wurde nicht bewertet */
+    REJECTED;
+
+    /** Mindestbewertung der Stärkeschätzung für STRONG bzw. MEDIUM */
+    public static final int STRONG_SCORE = 3;
+    public static final int MEDIUM_SCORE = 2;
+
+    private static final PasswordVerdict[] VALUES = values();
+
+    /**
+     * Bewertet ein analysiertes Passwort nach der Standard-Regel.
+     *
+     * @param analysis Die Analyse des Passworts
+     * @param minLength Die erforderliche Mindestlänge
+     * @param blacklisted true wenn das Passwort als schwach bekannt ist
+     * @return STRONG, MEDIUM oder WEAK
+     */
+    public static PasswordVerdict of(PasswordAnalysis analysis, int minLength, boolean blacklisted) {
+        if (blacklisted || !analysis.hasMinLength(minLength)) {
+            return WEAK;
+        }
+        if (analysis.classes() == PasswordAnalysis.ALL_CLASSES) {
+            return STRONG;
+        }
+        return analysis.characterGroups() >= 3 ? MEDIUM : WEAK;
+    }
+
+    /**
+     * Bewertet ein Passwort nach der Standard-Regel, begrenzt durch die
+     * geschätzte Anzahl Versuche ({@link StrengthEstimator}): "Password1!" erfüllt
+     * alle Zeichenklassen, ist aber in wenigen tausend Versuchen erraten.
+     *
+     * @param analysis Die Analyse des Passworts
+     * @param minLength Die erforderliche Mindestlänge
+     * @param blacklisted true wenn das Passwort als schwach bekannt ist
+     * @param strengthScore Bewertung der Stärkeschätzung (0 bis 4)
+     * @return STRONG, MEDIUM oder WEAK
+     */
+    public static PasswordVerdict of(PasswordAnalysis analysis, int minLength, boolean blacklisted, int strengthScore) {
+        PasswordVerdict byClasses = of(analysis, minLength, blacklisted);
+        PasswordVerdict byScore = strengthScore >= STRONG_SCORE ? STRONG : strengthScore >= MEDIUM_SCORE ? MEDIUM : WEAK;
+        return byScore.ordinal() < byClasses.ordinal() ? byScore : byClasses;
+    }
+
+    /**
+     * @param ordinal Ordinalzahl einer Bewertung
+     * @return die Bewertung (ohne Array-Kopie wie bei values())
+     */
+    static PasswordVerdict ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
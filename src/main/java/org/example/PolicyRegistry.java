@@ -0,0 +1,221 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Richtlinien je Mandant aus einem Verzeichnis (eine Datei "mandant.properties" pro Mandant,
+ * Format siehe {@link PasswordPolicy}). Alle Richtlinien liegen in einer unveränderlichen
+ * Map, die beim Neuladen vollständig neu aufgebaut und mit einem einzigen volatile-Schreibzugriff
+ * ersetzt wird. Laufende Validierungen behalten die Richtlinie, die sie bereits gelesen haben;
+ * Leser warten nie auf einen Ladevorgang.
+ *
+ * Unbekannte Mandanten erhalten die Richtlinie "standard.properties" oder, falls diese fehlt,
+ * {@link PasswordPolicy#defaults()}. Wortlisten, auf die mehrere Richtlinien verweisen,
+ * werden nur einmal geladen und bis zur nächsten Änderung der Datei wiederverwendet.
+ */
+public final class PolicyRegistry implements AutoCloseable {
+
+    private static final String SUFFIX = ".properties";
+
+    /** Unveränderlicher Stand aller Richtlinien */
+    private static final class Snapshot {
+        final Map<String, PasswordPolicy> policies;
+        final PasswordPolicy fallback;
+        final long fingerprint;
+
+        Snapshot(Map<String, PasswordPolicy> policies, PasswordPolicy fallback, long fingerprint) {
+            this.policies = policies;
+            this.fallback = fallback;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final Path directory;
+    private volatile Snapshot snapshot;
+
+    // Geladene Wortlisten mit Änderungszeitpunkt; nur unter der Sperre von reload()
+    private final Map<Path, WeakPasswordDictionary> dictionaries = new HashMap<>();
+    private final Map<Path, Long> dictionaryTimes = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private PolicyRegistry(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Lädt alle Richtlinien eines Verzeichnisses.
+     *
+     * @param directory Verzeichnis mit *.properties-Dateien
+     * @return die Registry
+     * @throws IOException wenn das Verzeichnis oder eine Datei nicht gelesen werden kann
+     * @throws IllegalArgumentException wenn eine Richtlinie ungültig ist
+     */
+    public static PolicyRegistry open(Path directory) throws IOException {
+        PolicyRegistry registry = new PolicyRegistry(directory);
+        List<String> errors = registry.reload();
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        return registry;
+    }
+
+    /**
+     * Liefert die Richtlinie eines Mandanten, ohne zu sperren oder Objekte anzulegen.
+     *
+     * @param tenant Name des Mandanten (darf null sein)
+     * @return seine Richtlinie oder die Standard-Richtlinie
+     */
+    public PasswordPolicy policy(String tenant) {
+        Snapshot current = snapshot;
+        PasswordPolicy policy = tenant == null ? null : current.policies.get(tenant);
+        return policy != null ? policy : current.fallback;
+    }
+
+    /** @return Anzahl der geladenen Richtlinien */
+    public int size() {
+        return snapshot.policies.size();
+    }
+
+    /**
+     * Liest alle Richtlinien neu ein und ersetzt den Stand atomar. Ungültige Dateien
+     * werden gemeldet; für sie bleibt die zuletzt gültige Richtlinie aktiv.
+     *
+     * @return Fehlermeldungen je ungültiger Datei (leer wenn alles geladen wurde)
+     * @throws IOException wenn das Verzeichnis nicht gelesen werden kann
+     */
+    public synchronized List<String> reload() throws IOException {
+        Snapshot previous = snapshot;
+        Map<String, PasswordPolicy> policies = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        Map<Path, WeakPasswordDictionary> current = currentDictionaries();
+        for (Path file : policyFiles()) {
+            String name = file.getFileName().toString();
+            name = name.substring(0, name.length() - SUFFIX.length());
+            try {
+                policies.put(name, PasswordPolicy.load(file, current));
+            } catch (IOException | IllegalArgumentException e) {
+                errors.add(e instanceof IllegalArgumentException ? e.getMessage() : file + ": " + e);
+                PasswordPolicy old = previous == null ? null : previous.policies.get(name);
+                if (old != null) {
+                    policies.put(name, old);
+                }
+            }
+        }
+        // Nicht mehr verwendete Wortlisten freigeben
+        dictionaries.clear();
+        dictionaryTimes.clear();
+        for (Map.Entry<Path, WeakPasswordDictionary> entry : current.entrySet()) {
+            dictionaries.put(entry.getKey(), entry.getValue());
+            dictionaryTimes.put(entry.getKey(), modified(entry.getKey()));
+        }
+        PasswordPolicy fallback = policies.getOrDefault(PasswordPolicy.DEFAULT_NAME, PasswordPolicy.defaults());
+        snapshot = new Snapshot(Map.copyOf(policies), fallback, fingerprint());
+        return errors;
+    }
+
+    /**
+     * Prüft regelmäßig in einem Hintergrund-Thread, ob sich Richtlinien oder Wortlisten
+     * geändert haben, und lädt dann neu.
+     *
+     * @param interval Abstand zwischen zwei Prüfungen
+     */
+    public synchronized void startWatching(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "policy-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                if (changed()) {
+                    for (String error : reload()) {
+                        System.err.println("Richtlinie nicht geladen: " + error);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Richtlinien konnten nicht neu geladen werden: " + e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true wenn sich seit dem letzten Laden eine Datei geändert hat
+     * @throws IOException wenn das Verzeichnis nicht gelesen werden kann
+     */
+    synchronized boolean changed() throws IOException {
+        return fingerprint() != snapshot.fingerprint;
+    }
+
+    /** Beendet die Überwachung des Verzeichnisses. */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /** @return die bisherigen Wortlisten, deren Datei sich nicht geändert hat */
+    private Map<Path, WeakPasswordDictionary> currentDictionaries() {
+        Map<Path, WeakPasswordDictionary> current = new HashMap<>();
+        for (Map.Entry<Path, WeakPasswordDictionary> entry : dictionaries.entrySet()) {
+            if (dictionaryTimes.get(entry.getKey()) == modified(entry.getKey())) {
+                current.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return current;
+    }
+
+    private List<Path> policyFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /** Prüfsumme über Namen, Größen und Änderungszeitpunkte aller beteiligten Dateien */
+    private long fingerprint() throws IOException {
+        long hash = 17;
+        for (Path file : policyFiles()) {
+            hash = hash * 31 + file.getFileName().hashCode();
+            hash = hash * 31 + modified(file);
+        }
+        for (Path wordlist : dictionaryTimes.keySet()) {
+            hash += wordlist.hashCode() * 31L + modified(wordlist);
+        }
+        return hash;
+    }
+
+    /** @return Änderungszeitpunkt und Größe als eine Zahl, 0 wenn die Datei fehlt */
+    private static long modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis() * 31 + Files.size(file);
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Binärer Patricia-Trie (pfadkomprimiert) für IPv4- und IPv6-Präfixe.
+ * Alle Adressen sind 128 Bit (siehe {@link IpAddresses}); ein IPv4-Präfix /n
+ * wird als IPv4-mapped-Präfix /(96 + n) gespeichert.
+ *
+ * Knoten liegen in primitiven Arrays und werden nur angehängt. Ein neuer Knoten
+ * wird vollständig geschrieben und erst dann per Release-Schreibzugriff in den
+ * Baum gehängt; Leser folgen den Kanten mit Acquire-Lesezugriffen und brauchen
+ * daher keine Sperre. Schreiber werden untereinander synchronisiert.
+ * Die Suche nach dem längsten passenden Präfix besucht höchstens so viele
+ * Knoten, wie gespeicherte Präfixe auf dem Pfad liegen (bei Sperrlisten meist 1-3).
+ */
+public final class PrefixTrie {
+
+    private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int NONE = 0; // Knoten 0 ist die Wurzel, als Kind also "kein Kind"
+    private static final int TERMINAL = 1 << 8;
+    private static final int LENGTH_MASK = 0xFF;
+
+    private static final ThreadLocal<long[]> PARSE_BUFFER = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Knoten-Arrays; werden beim Wachsen kopiert und als Ganzes neu veröffentlicht.
+     */
+    private static final class Nodes {
+        final long[] his;
+        final long[] los;
+        final int[] info; // Präfixlänge | TERMINAL
+        final int[] children; // 2 * Knoten + Bit
+
+        Nodes(int capacity) {
+            his = new long[capacity];
+            los = new long[capacity];
+            info = new int[capacity];
+            children = new int[capacity * 2];
+        }
+
+        Nodes grow() {
+            Nodes bigger = new Nodes(his.length * 2);
+            System.arraycopy(his, 0, bigger.his, 0, his.length);
+            System.arraycopy(los, 0, bigger.los, 0, los.length);
+            System.arraycopy(info, 0, bigger.info, 0, info.length);
+            System.arraycopy(children, 0, bigger.children, 0, children.length);
+            return bigger;
+        }
+    }
+
+    private volatile Nodes nodes = new Nodes(64);
+    private int used = 1; // Wurzel: Präfix ::/0, nicht terminal
+    private int size;
+
+    /**
+     * Fügt ein Präfix in CIDR-Notation hinzu ("10.0.0.0/8", "2001:db8::/32")
+     * oder eine einzelne Adresse.
+     *
+     * @param cidr Das Präfix
+     * @return true wenn es neu war
+     * @throws IllegalArgumentException wenn das Präfix ungültig ist
+     */
+    public boolean add(CharSequence cidr) {
+        long[] prefix = parseCidr(cidr);
+        return add(prefix[0], prefix[1], (int) prefix[2]);
+    }
+
+    /**
+     * Fügt ein Präfix hinzu; Bits nach der Präfixlänge werden ignoriert.
+     *
+     * @param hi Obere 64 Bit
+     * @param lo Untere 64 Bit
+     * @param length Präfixlänge (0 bis 128)
+     * @return true wenn es neu war
+     */
+    public synchronized boolean add(long hi, long lo, int length) {
+        checkLength(length);
+        hi &= maskHi(length);
+        lo &= maskLo(length);
+        Nodes n = nodes;
+        int parent = 0;
+        int node = 0;
+        while (true) {
+            int nodeLength = n.info[node] & LENGTH_MASK;
+            int common = Math.min(commonPrefix(hi, lo, n.his[node], n.los[node]), Math.min(length, nodeLength));
+            if (common == nodeLength && nodeLength == length) {
+                // Präfix existiert als Knoten
+                if ((n.info[node] & TERMINAL) != 0) {
+                    return false;
+                }
+                INT_ARRAY.setRelease(n.info, node, n.info[node] | TERMINAL);
+                size++;
+                return true;
+            }
+            if (common == nodeLength) {
+                // Weiter nach unten
+                int slot = 2 * node + bit(hi, lo, nodeLength);
+                int child = n.children[slot];
+                if (child == NONE) {
+                    n = ensureCapacity(1);
+                    int leaf = newNode(n, hi, lo, length | TERMINAL);
+                    INT_ARRAY.setRelease(n.children, slot, leaf);
+                    size++;
+                    return true;
+                }
+                parent = node;
+                node = child;
+                continue;
+            }
+            // Verzweigung innerhalb der Kante parent -> node: Knoten mit Länge common einfügen
+            n = ensureCapacity(2);
+            int split;
+            if (common == length) {
+                // Neues Präfix liegt zwischen parent und node
+                split = newNode(n, hi, lo, length | TERMINAL);
+            } else {
+                split = newNode(n, hi & maskHi(common), lo & maskLo(common), common);
+                int leaf = newNode(n, hi, lo, length | TERMINAL);
+                n.children[2 * split + bit(hi, lo, common)] = leaf;
+            }
+            n.children[2 * split + bit(n.his[node], n.los[node], common)] = node;
+            int slot = 2 * parent + bit(hi, lo, n.info[parent] & LENGTH_MASK);
+            INT_ARRAY.setRelease(n.children, slot, split);
+            size++;
+            return true;
+        }
+    }
+
+    /**
+     * Entfernt ein Präfix (der Knoten bleibt als Verzweigung erhalten).
+     *
+     * @param cidr Das Präfix in CIDR-Notation
+     * @return true wenn es enthalten war
+     * @throws IllegalArgumentException wenn das Präfix ungültig ist
+     */
+    public synchronized boolean remove(CharSequence cidr) {
+        long[] prefix = parseCidr(cidr);
+        int length = (int) prefix[2];
+        Nodes n = nodes;
+        int node = 0;
+        while (true) {
+            int nodeLength = n.info[node] & LENGTH_MASK;
+            if (nodeLength > length || commonPrefix(prefix[0], prefix[1], n.his[node], n.los[node]) < nodeLength) {
+                return false;
+            }
+            if (nodeLength == length) {
+                if ((n.info[node] & TERMINAL) == 0) {
+                    return false;
+                }
+                INT_ARRAY.setRelease(n.info, node, nodeLength);
+                size--;
+                return true;
+            }
+            node = n.children[2 * node + bit(prefix[0], prefix[1], nodeLength)];
+            if (node == NONE) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Sucht das längste gespeicherte Präfix, das die Adresse enthält (ohne Sperre).
+     *
+     * @param hi Obere 64 Bit der Adresse
+     * @param lo Untere 64 Bit der Adresse
+     * @return Länge des Präfixes (bei IPv4 ab 96) oder -1 wenn keines passt
+     */
+    public int longestMatch(long hi, long lo) {
+        Nodes n = nodes;
+        int best = -1;
+        int node = 0;
+        do {
+            int info = (int) INT_ARRAY.getAcquire(n.info, node);
+            int nodeLength = info & LENGTH_MASK;
+            if (commonPrefix(hi, lo, n.his[node], n.los[node]) < nodeLength) {
+                break;
+            }
+            if ((info & TERMINAL) != 0) {
+                best = nodeLength;
+            }
+            if (nodeLength == 128) {
+                break;
+            }
+            node = (int) INT_ARRAY.getAcquire(n.children, 2 * node + bit(hi, lo, nodeLength));
+        } while (node != NONE);
+        return best;
+    }
+
+    /**
+     * @param hi Obere 64 Bit der Adresse
+     * @param lo Untere 64 Bit der Adresse
+     * @return true wenn ein gespeichertes Präfix die Adresse enthält
+     */
+    public boolean contains(long hi, long lo) {
+        return longestMatch(hi, lo) >= 0;
+    }
+
+    /**
+     * @param ip Die Adresse als Text
+     * @return true wenn ein gespeichertes Präfix die Adresse enthält, false auch bei ungültiger Adresse
+     */
+    public boolean contains(CharSequence ip) {
+        long[] key = PARSE_BUFFER.get();
+        return IpAddresses.parse(ip, key) && contains(key[0], key[1]);
+    }
+
+    /** @return Anzahl der gespeicherten Präfixe */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Lädt eine Liste von Präfixen (z. B. Adressbereiche von Cloud-Anbietern):
+     * ein Präfix pro Zeile, leere Zeilen und Kommentare (#) werden übersprungen.
+     *
+     * @param file Die Datei
+     * @return Anzahl der neu hinzugefügten Präfixe
+     * @throws IOException wenn die Datei nicht gelesen werden kann
+     * @throws IllegalArgumentException bei einer ungültigen Zeile (mit Zeilennummer)
+     */
+    public int addAll(Path file) throws IOException {
+        int added = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                String entry = (comment >= 0 ? line.substring(0, comment) : line).strip();
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                try {
+                    if (add(entry)) {
+                        added++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Parst ein Präfix in CIDR-Notation.
+     *
+     * @return hi, lo (Host-Bits gelöscht) und Länge in 128-Bit-Schreibweise
+     * @throws IllegalArgumentException wenn das Präfix ungültig ist
+     */
+    static long[] parseCidr(CharSequence cidr) {
+        String text = cidr.toString().strip();
+        int slash = text.indexOf('/');
+        String address = slash >= 0 ? text.substring(0, slash) : text;
+        long[] result = new long[3];
+        if (!IpAddresses.parse(address, result)) {
+            throw new IllegalArgumentException("Ungültige IP-Adresse: " + address);
+        }
+        boolean ipv4 = address.indexOf(':') < 0;
+        int maxLength = ipv4 ? 32 : 128;
+        int length = maxLength;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(text.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ungültige Präfixlänge: " + cidr);
+            }
+            if (length < 0 || length > maxLength) {
+                throw new IllegalArgumentException("Ungültige Präfixlänge: " + cidr);
+            }
+        }
+        if (ipv4) {
+            length += 96;
+        }
+        result[0] &= maskHi(length);
+        result[1] &= maskLo(length);
+        result[2] = length;
+        return result;
+    }
+
+    private Nodes ensureCapacity(int additional) {
+        Nodes n = nodes;
+        while (used + additional > n.his.length) {
+            n = n.grow();
+        }
+        if (n != nodes) {
+            nodes = n; // Leser wechseln beim nächsten Zugriff auf die Kopie
+        }
+        return n;
+    }
+
+    private int newNode(Nodes n, long hi, long lo, int info) {
+        int node = used++;
+        n.his[node] = hi;
+        n.los[node] = lo;
+        n.info[node] = info;
+        n.children[2 * node] = NONE;
+        n.children[2 * node + 1] = NONE;
+        return node;
+    }
+
+    private static void checkLength(int length) {
+        if (length < 0 || length > 128) {
+            throw new IllegalArgumentException("Ungültige Präfixlänge: " + length);
+        }
+    }
+
+    /** @return Anzahl gleicher führender Bits (0 bis 128) */
+    private static int commonPrefix(long hi1, long lo1, long hi2, long lo2) {
+        long x = hi1 ^ hi2;
+        if (x != 0) {
+            return Long.numberOfLeadingZeros(x);
+        }
+        return 64 + Long.numberOfLeadingZeros(lo1 ^ lo2);
+    }
+
+    /** @return Bit an Position index (0 = höchstwertiges Bit) */
+    private static int bit(long hi, long lo, int index) {
+        return index < 64 ? (int) (hi >>> (63 - index)) & 1 : (int) (lo >>> (127 - index)) & 1;
+    }
+
+    static long maskHi(int length) {
+        return length >= 64 ? -1L : length == 0 ? 0 : -1L << (64 - length);
+    }
+
+    static long maskLo(int length) {
+        return length <= 64 ? 0 : length == 128 ? -1L : -1L << (128 - length);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PrefixTrie[" + size + " Präfixe, " + used + " Knoten]";
+    }
+}
@@ -0,0 +1,203 @@
+package org.example;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Begrenzt die Anfragen je IP-Adresse mit einem Token-Bucket: ein Client darf kurzzeitig
+ * bis zu {@code burst} Anfragen stellen, danach im Mittel {@code permitsPerSecond} pro
+ * Sekunde. Der Eimer wird erst beim nächsten Zugriff aufgefüllt (kein Hintergrund-Thread).
+ * Gespeichert wird er in der GCRA-Form: ein einziger Zeitstempel je Adresse (der Zeitpunkt,
+ * ab dem der Eimer wieder voll ist) ersetzt Füllstand und Zeitpunkt der letzten Auffüllung.
+ *
+ * Die Einträge liegen in einer festen, satz-assoziativen Tabelle (8 Plätze je Satz) mit
+ * je einer Sperre pro Streifen; Speicher und Aufwand je Anfrage sind daher konstant. Ist ein
+ * Satz voll, wird der Eintrag mit dem vollsten Eimer verdrängt; volle Eimer sind von
+ * unbekannten Adressen nicht zu unterscheiden, so geht keine Begrenzung verloren, solange
+ * die Tabelle groß genug für alle aktiven Clients ist.
+ *
+ * Jede {@code violationsPerOffense}-te abgewiesene Anfrage in Folge (ohne dass sich der
+ * Eimer zwischendurch wieder füllt) wird als {@link #OFFENSE} gemeldet, damit der Aufrufer
+ * sie wie einen Angriff eskalieren kann (siehe {@link SecurityMonitor#allowRequest(String)}).
+ */
+public final class RateLimiter {
+
+    /** Anfrage erlaubt */
+    public static final int ALLOWED = 0;
+    /** Anfrage abgewiesen */
+    public static final int LIMITED = 1;
+    /** Anfrage abgewiesen, und die Zahl der Abweisungen hat die Verstoß-Schwelle erreicht */
+    public static final int OFFENSE = 2;
+
+    /** Standard: 10 Anfragen pro Sekunde, kurzzeitig 20, jede 100. Abweisung ist ein Verstoß */
+    public static final double DEFAULT_PERMITS_PER_SECOND = 10;
+    public static final int DEFAULT_BURST = 20;
+    public static final int DEFAULT_VIOLATIONS_PER_OFFENSE = 100;
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 16;
+
+    private static final int WAYS = 8;
+    private static final int STRIPE_COUNT = 64;
+
+    private static final ThreadLocal<long[]> PARSE_BUFFER = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int violationsPerOffense;
+    private final LongSupplier clock;
+    private final long origin;
+    private final int setMask;
+    private final Object[] locks = new Object[STRIPE_COUNT];
+
+    // Je Platz: Adresse, Zeitpunkt "Eimer wieder voll" (0 = frei) und Abweisungen in Folge
+    private final long[] his;
+    private final long[] los;
+    private final long[] fullAt;
+    private final int[] rejected;
+
+    /**
+     * Erzeugt eine Begrenzung mit Standardwerten.
+     */
+    public RateLimiter() {
+        this(DEFAULT_PERMITS_PER_SECOND, DEFAULT_BURST, DEFAULT_VIOLATIONS_PER_OFFENSE, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Erzeugt eine Begrenzung.
+     *
+     * @param permitsPerSecond Dauerhaft erlaubte Anfragen pro Sekunde und Adresse
+     * @param burst Anzahl Anfragen, die ein ruhender Client auf einmal stellen darf (mindestens 1)
+     * @param violationsPerOffense Abweisungen in Folge, die einen Verstoß ergeben (mindestens 1)
+     * @param maxEntries Anzahl gleichzeitig verfolgter Adressen (wird auf 8er-Sätze aufgerundet)
+     */
+    public RateLimiter(double permitsPerSecond, int burst, int violationsPerOffense, int maxEntries) {
+        this(permitsPerSecond, burst, violationsPerOffense, maxEntries, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, int violationsPerOffense, int maxEntries, LongSupplier nanoClock) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Rate und Burst müssen positiv sein");
+        }
+        if (violationsPerOffense < 1 || maxEntries < 1) {
+            throw new IllegalArgumentException("Verstoß-Schwelle und Maximalgröße müssen mindestens 1 sein");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1e9 / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.violationsPerOffense = violationsPerOffense;
+        this.clock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        int minSets = (maxEntries + WAYS - 1) / WAYS;
+        int sets = minSets <= 1 ? 1 : Integer.highestOneBit(minSets - 1) << 1;
+        this.setMask = sets - 1;
+        this.his = new long[sets * WAYS];
+        this.los = new long[sets * WAYS];
+        this.fullAt = new long[sets * WAYS];
+        this.rejected = new int[sets * WAYS];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @param ip Die Adresse als Text
+     * @return ALLOWED, LIMITED oder OFFENSE
+     * @throws IllegalArgumentException wenn die Adresse ungültig ist
+     */
+    public int tryAcquire(CharSequence ip) {
+        long[] key = PARSE_BUFFER.get();
+        if (!IpAddresses.parse(ip, key)) {
+            throw new IllegalArgumentException("Ungültige IP-Adresse: " + ip);
+        }
+        return tryAcquire(key[0], key[1]);
+    }
+
+    /**
+     * Entnimmt ein Token für eine Anfrage der Adresse.
+     *
+     * @param hi Obere 64 Bit der Adresse
+     * @param lo Untere 64 Bit der Adresse
+     * @return ALLOWED, LIMITED oder OFFENSE
+     */
+    public int tryAcquire(long hi, long lo) {
+        long hash = hash(hi, lo);
+        int set = (int) hash & setMask;
+        int base = set * WAYS;
+        long now = clock.getAsLong() - origin + 1; // immer > 0, 0 markiert freie Plätze
+        synchronized (locks[set & (STRIPE_COUNT - 1)]) {
+            int slot = -1;
+            int victim = base;
+            long victimFullAt = Long.MAX_VALUE;
+            for (int way = base; way < base + WAYS; way++) {
+                long full = fullAt[way];
+                if (full != 0 && his[way] == hi && los[way] == lo) {
+                    slot = way;
+                    break;
+                }
+                if (full < victimFullAt) {
+                    victimFullAt = full;
+                    victim = way;
+                }
+            }
+            long full;
+            if (slot < 0) {
+                slot = victim;
+                his[slot] = hi;
+                los[slot] = lo;
+                rejected[slot] = 0;
+                full = now;
+            } else {
+                full = fullAt[slot];
+                if (full <= now) {
+                    // Eimer hat sich vollständig gefüllt: frühere Abweisungen vergessen
+                    full = now;
+                    rejected[slot] = 0;
+                }
+            }
+            long next = full + intervalNanos;
+            if (next - now <= burstNanos) {
+                fullAt[slot] = next;
+                return ALLOWED;
+            }
+            fullAt[slot] = full;
+            if (++rejected[slot] >= violationsPerOffense) {
+                rejected[slot] = 0;
+                return OFFENSE;
+            }
+            return LIMITED;
+        }
+    }
+
+    /** @return Sekunden, nach denen ein abgewiesener Client frühestens wieder ein Token erhält */
+    public long retryAfterSeconds() {
+        return Math.max(1, (intervalNanos + 999_999_999) / 1_000_000_000);
+    }
+
+    /** @return Anzahl der Adressen, deren Eimer gerade nicht voll ist */
+    public int activeEntries() {
+        long now = clock.getAsLong() - origin + 1;
+        int count = 0;
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int set = stripe; set <= setMask; set += STRIPE_COUNT) {
+                    for (int way = set * WAYS; way < (set + 1) * WAYS; way++) {
+                        if (fullAt[way] > now) {
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /** @return Anzahl der Plätze in der Tabelle */
+    public int capacity() {
+        return fullAt.length;
+    }
+
+    private static long hash(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
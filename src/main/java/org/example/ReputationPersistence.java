@@ -0,0 +1,458 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Dauerhafte Sperrliste für einen {@link IpReputationStore}: ein Write-Ahead-Log
+ * (nur Anhängen) mit Sperren und Entsperrungen plus regelmäßige, kompakte
+ * Binär-Snapshots der gesperrten Adressen.
+ *
+ * <pre>
+ *   snapshot-&lt;n&gt;.bin  Kopf (32 Bytes, Magic "PWIS") + je Adresse hi, lo, letzter Verstoß
+ *   wal-&lt;n&gt;.log       je Ereignis 32 Bytes: CRC32C, Typ, hi, lo, Zeitpunkt
+ * </pre>
+ * Beim Start wird der neueste gültige Snapshot eingeblendet ({@code FileChannel.map})
+ * und nur das WAL ab seiner Generation nachgespielt. Jedes Ereignis setzt den
+ * Zustand einer Adresse absolut (gesperrt mit Zeitpunkt bzw. sauber), daher ist das
+ * Nachspielen idempotent und eine Überlappung von Snapshot und WAL unschädlich.
+ * Ein beim Absturz halb geschriebener Datensatz am WAL-Ende wird an der Prüfsumme
+ * erkannt und abgeschnitten.
+ *
+ * Der Speicher meldet Ereignisse unter der Sperre seines Streifens; sie landen daher
+ * nur in einem Puffer im Speicher, geschrieben wird im Hintergrund-Thread
+ * "reputation-wal". Was beim Absturz noch im Puffer lag, fehlt nach dem Neustart.
+ * Erneute Verstöße einer gesperrten Adresse stehen nicht im WAL; ihr letzter Verstoß
+ * (und damit die verlängerte TTL) wird gebündelt mit dem nächsten Snapshot gesichert.
+ */
+public final class ReputationPersistence implements IpReputationStore.Listener, AutoCloseable {
+
+    private static final int SNAPSHOT_MAGIC = 0x50574953; // "PWIS"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_SIZE = 32;
+    private static final int SNAPSHOT_ENTRY_SIZE = 24;
+    private static final int WAL_RECORD_SIZE = 32;
+    private static final byte BLOCK = 1;
+    private static final byte UNBLOCK = 2;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String WAL_PREFIX = "wal-";
+    private static final String WAL_SUFFIX = ".log";
+
+    private final Path directory;
+    private final IpReputationStore store;
+    private final CRC32C crc = new CRC32C();
+    private final Object snapshotLock = new Object();
+    private final Thread writer;
+    private ScheduledExecutorService scheduler;
+
+    // Geschützt durch pendingLock (Reihenfolge: erst this, dann pendingLock)
+    private final Object pendingLock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(WAL_RECORD_SIZE * 256).order(ByteOrder.LITTLE_ENDIAN);
+    private boolean stopped;
+
+    // Geschützt durch this
+    private ByteBuffer writing = ByteBuffer.allocate(WAL_RECORD_SIZE * 256).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel wal;
+    private long generation;
+    private boolean closed;
+
+    private final int restoredSnapshotEntries;
+    private final int replayedRecords;
+
+    private ReputationPersistence(Path directory, IpReputationStore store) throws IOException {
+        this.directory = directory;
+        this.store = store;
+        Files.createDirectories(directory);
+
+        // Neuesten gültigen Snapshot suchen und aus dem schon geprüften Rumpf laden (Prüfsumme nur einmal)
+        long snapshotGeneration = -1;
+        int restored = 0;
+        List<Long> snapshots = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0 && snapshotGeneration < 0; i--) {
+            ByteBuffer body = mapSnapshot(snapshotPath(snapshots.get(i)));
+            if (body != null) {
+                snapshotGeneration = snapshots.get(i);
+                restored = loadSnapshot(body);
+            }
+        }
+        restoredSnapshotEntries = restored;
+        generation = Math.max(snapshotGeneration, 0);
+
+        // WAL ab der Snapshot-Generation nachspielen (auch spätere, falls ein Snapshot abbrach)
+        int replayed = 0;
+        for (long walGeneration : generations(WAL_PREFIX, WAL_SUFFIX)) {
+            if (walGeneration >= generation) {
+                replayed += replay(walPath(walGeneration));
+                generation = walGeneration;
+            }
+        }
+        replayedRecords = replayed;
+        wal = openWal(generation);
+        writer = new Thread(this::writeLoop, "reputation-wal");
+        writer.setDaemon(true);
+        writer.start();
+        store.setListener(this);
+    }
+
+    /**
+     * Stellt den Zustand aus dem Verzeichnis im Speicher wieder her und
+     * protokolliert ab jetzt alle Sperren und Entsperrungen.
+     *
+     * @param directory Verzeichnis für Snapshots und WAL (wird angelegt)
+     * @param store Der (leere) Speicher, der befüllt und überwacht wird
+     * @return die aktive Persistenz
+     * @throws IOException bei Lese- oder Schreibfehlern
+     */
+    public static ReputationPersistence open(Path directory, IpReputationStore store) throws IOException {
+        return new ReputationPersistence(directory, store);
+    }
+
+    /** @return Anzahl der beim Start aus dem Snapshot geladenen Adressen */
+    public int restoredSnapshotEntries() {
+        return restoredSnapshotEntries;
+    }
+
+    /** @return Anzahl der beim Start nachgespielten WAL-Datensätze */
+    public int replayedRecords() {
+        return replayedRecords;
+    }
+
+    @Override
+    public void blocked(long hi, long lo, long time) {
+        append(BLOCK, hi, lo, time);
+    }
+
+    @Override
+    public void unblocked(long hi, long lo, long time) {
+        append(UNBLOCK, hi, lo, time);
+    }
+
+    /** Hängt einen Datensatz an den Puffer an (ohne Ein-/Ausgabe, läuft unter der Sperre des Streifens). */
+    private void append(byte type, long hi, long lo, long time) {
+        synchronized (pendingLock) {
+            if (stopped) {
+                return;
+            }
+            if (pending.remaining() < WAL_RECORD_SIZE) {
+                pending = grow(pending);
+            }
+            int start = pending.position();
+            pending.putInt(0);
+            pending.put(type).put((byte) 0).put((byte) 0).put((byte) 0);
+            pending.putLong(hi).putLong(lo).putLong(time);
+            crc.reset();
+            crc.update(pending.array(), start + 4, WAL_RECORD_SIZE - 4);
+            pending.putInt(start, (int) crc.getValue());
+            pendingLock.notify();
+        }
+    }
+
+    /**
+     * Schreibt alle bisher gemeldeten Ereignisse ins WAL (ohne {@code force}).
+     *
+     * @throws IOException bei Schreibfehlern
+     */
+    public synchronized void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        synchronized (pendingLock) {
+            ByteBuffer full = pending;
+            pending = writing;
+            writing = full;
+        }
+        writing.flip();
+        try {
+            while (writing.hasRemaining()) {
+                wal.write(writing);
+            }
+        } finally {
+            writing.clear();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            synchronized (pendingLock) {
+                while (pending.position() == 0 && !stopped) {
+                    try {
+                        pendingLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (stopped) {
+                    return; // close() schreibt den Rest selbst
+                }
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                // Die Sperre selbst gilt weiter; nur die Dauerhaftigkeit fehlt
+                System.err.println("Sperrliste konnte nicht geschrieben werden: " + e.getMessage());
+            }
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    /**
+     * Schreibt einen Snapshot aller gesperrten Adressen und beginnt ein neues WAL.
+     * Ältere Snapshots und WAL-Dateien werden danach gelöscht.
+     *
+     * @throws IOException bei Schreibfehlern (der bisherige Stand bleibt dann gültig)
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long next;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // Erst auf ein neues WAL umschalten, dann exportieren: alles im alten WAL ist
+                // im Export enthalten, Überlappung mit dem neuen WAL ist idempotent
+                flush();
+                wal.force(false);
+                wal.close();
+                next = generation + 1;
+                wal = openWal(next);
+                generation = next;
+            }
+            long[] entries = store.export(IpReputationStore.BLOCKED);
+            writeSnapshot(next, entries);
+            for (long old : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (old < next) {
+                    Files.deleteIfExists(snapshotPath(old));
+                }
+            }
+            for (long old : generations(WAL_PREFIX, WAL_SUFFIX)) {
+                if (old < next) {
+                    Files.deleteIfExists(walPath(old));
+                }
+            }
+        }
+    }
+
+    /**
+     * Erstellt regelmäßig Snapshots in einem Hintergrund-Thread.
+     *
+     * @param interval Abstand zwischen zwei Snapshots
+     */
+    public synchronized void startPeriodicSnapshots(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reputation-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                System.err.println("Snapshot der Sperrliste fehlgeschlagen: " + e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schreibt einen letzten Snapshot und schließt das WAL.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
+        try {
+            snapshot();
+        } catch (IOException e) {
+            System.err.println("Snapshot der Sperrliste fehlgeschlagen: " + e.getMessage());
+        }
+        synchronized (this) {
+            store.setListener(null);
+            synchronized (pendingLock) {
+                stopped = true;
+                pendingLock.notify();
+            }
+            try (FileChannel channel = wal) {
+                flush();
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.println("Sperrliste konnte nicht geschlossen werden: " + e.getMessage());
+            } finally {
+                closed = true;
+            }
+        }
+    }
+
+    private void writeSnapshot(long snapshotGeneration, long[] entries) throws IOException {
+        int count = entries.length / 3;
+        Path target = snapshotPath(snapshotGeneration);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.allocate(Math.max(SNAPSHOT_ENTRY_SIZE, Math.min(count, 1 << 16) * SNAPSHOT_ENTRY_SIZE))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C bodyCrc = new CRC32C();
+            channel.position(SNAPSHOT_HEADER_SIZE);
+            for (int i = 0; i < entries.length; i += 3) {
+                if (body.remaining() < SNAPSHOT_ENTRY_SIZE) {
+                    flushBody(channel, body, bodyCrc);
+                }
+                body.putLong(entries[i]).putLong(entries[i + 1]).putLong(entries[i + 2]);
+            }
+            flushBody(channel, body, bodyCrc);
+
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(snapshotGeneration).putLong(count)
+                    .putInt((int) bodyCrc.getValue()).putInt(0);
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void flushBody(FileChannel channel, ByteBuffer body, CRC32C bodyCrc) throws IOException {
+        body.flip();
+        bodyCrc.update(body.duplicate());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+        body.clear();
+    }
+
+    /** @return der eingeblendete Rumpf oder null wenn die Datei ungültig ist */
+    private static ByteBuffer mapSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SNAPSHOT_HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            long count = mapped.getLong(16);
+            if (mapped.getInt(0) != SNAPSHOT_MAGIC || mapped.getInt(4) != SNAPSHOT_VERSION
+                    || count < 0 || size != SNAPSHOT_HEADER_SIZE + count * SNAPSHOT_ENTRY_SIZE) {
+                return null;
+            }
+            ByteBuffer body = mapped.slice(SNAPSHOT_HEADER_SIZE, (int) (size - SNAPSHOT_HEADER_SIZE))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C bodyCrc = new CRC32C();
+            bodyCrc.update(body.duplicate());
+            return (int) bodyCrc.getValue() == mapped.getInt(24) ? body : null;
+        }
+    }
+
+    /** @param body der von {@link #mapSnapshot(Path)} geprüfte Rumpf */
+    private int loadSnapshot(ByteBuffer body) {
+        int count = body.remaining() / SNAPSHOT_ENTRY_SIZE;
+        for (int i = 0; i < count; i++) {
+            int offset = i * SNAPSHOT_ENTRY_SIZE;
+            store.restoreBlocked(body.getLong(offset), body.getLong(offset + 8), body.getLong(offset + 16));
+        }
+        return count;
+    }
+
+    /** Spielt ein WAL nach und schneidet einen beschädigten Rest am Ende ab. */
+    private int replay(Path file) throws IOException {
+        int records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(WAL_RECORD_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C recordCrc = new CRC32C();
+            long valid = 0;
+            boolean corrupt = false;
+            while (!corrupt && valid + WAL_RECORD_SIZE <= size) {
+                buffer.clear();
+                channel.read(buffer, valid);
+                buffer.flip();
+                while (buffer.remaining() >= WAL_RECORD_SIZE) {
+                    int start = buffer.position();
+                    recordCrc.reset();
+                    recordCrc.update(buffer.array(), start + 4, WAL_RECORD_SIZE - 4);
+                    byte type = buffer.get(start + 4);
+                    if ((int) recordCrc.getValue() != buffer.getInt(start) || (type != BLOCK && type != UNBLOCK)) {
+                        corrupt = true;
+                        break;
+                    }
+                    long hi = buffer.getLong(start + 8);
+                    long lo = buffer.getLong(start + 16);
+                    if (type == BLOCK) {
+                        store.restoreBlocked(hi, lo, buffer.getLong(start + 24));
+                    } else {
+                        store.unblock(hi, lo);
+                    }
+                    buffer.position(start + WAL_RECORD_SIZE);
+                    valid += WAL_RECORD_SIZE;
+                    records++;
+                }
+            }
+            if (valid < size) {
+                channel.truncate(valid);
+            }
+        }
+        return records;
+    }
+
+    private FileChannel openWal(long walGeneration) throws IOException {
+        return FileChannel.open(walPath(walGeneration), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path snapshotPath(long snapshotGeneration) {
+        return directory.resolve(SNAPSHOT_PREFIX + snapshotGeneration + SNAPSHOT_SUFFIX);
+    }
+
+    private Path walPath(long walGeneration) {
+        return directory.resolve(WAL_PREFIX + walGeneration + WAL_SUFFIX);
+    }
+
+    /** @return aufsteigend sortierte Generationen der Dateien mit Präfix und Suffix */
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        result.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                    } catch (NumberFormatException e) {
+                        // Fremde Datei - ignorieren
+                    }
+                }
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+}
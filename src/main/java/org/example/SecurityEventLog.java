@@ -0,0 +1,387 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchrones Sicherheitsprotokoll. Erkennende Threads legen Ereignisse nur in
+ * einen begrenzten, lock-freien Ringpuffer (mehrere Erzeuger, ein Verbraucher);
+ * ein Hintergrund-Thread schreibt sie gebündelt als JSON-Zeilen in eine Datei.
+ * Die Datei wird nur angehängt und ab einer Größe rotiert (datei.1, datei.2, ...).
+ *
+ * Ist der Puffer voll, wird das Ereignis je nach {@link OverflowPolicy}
+ * verworfen (und gezählt) oder der Erzeuger wartet, bis wieder Platz ist.
+ *
+ * Verdächtige Eingaben (oft echte Passwörter, die fälschlich anschlagen) landen
+ * standardmäßig nicht im Klartext in der Datei, sondern nur als Länge und
+ * SipHash mit zufälligem Schlüssel je Protokoll: gleiche Eingaben lassen sich
+ * innerhalb eines Laufs zuordnen, aber nicht per Wörterbuch zurückrechnen.
+ * Den Klartext schreibt nur ein ausdrücklich so geöffnetes Protokoll.
+ */
+public final class SecurityEventLog implements AutoCloseable {
+
+    /** Art des Ereignisses */
+    public enum Type {
+        SQL_INJECTION, IP_BLOCKED, IP_UNBLOCKED, RATE_LIMITED
+    }
+
+    /** Verhalten bei vollem Puffer */
+    public enum OverflowPolicy {
+        /** Ereignis verwerfen; die Erkennung wird nie gebremst */
+        DROP,
+        /** Erzeuger wartet auf den Schreib-Thread; kein Ereignis geht verloren */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final long DEFAULT_MAX_FILE_BYTES = 10L << 20;
+    public static final int DEFAULT_MAX_FILES = 5;
+
+    /** Längere Eingaben werden im Protokoll abgeschnitten */
+    static final int MAX_INPUT_LENGTH = 256;
+
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final OverflowPolicy policy;
+    private final boolean rawInput;
+    private final long k0;
+    private final long k1;
+
+    // Ringpuffer: Slot i ist lesbar, wenn published[i] die erwartete Sequenznummer enthält
+    private final int mask;
+    private final long[] times;
+    private final Type[] types;
+    private final String[] ips;
+    private final String[] patterns;
+    private final int[] inputLengths;
+    private final long[] inputHashes;
+    private final String[] inputs;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private FileChannel channel;
+    private long fileSize;
+
+    private SecurityEventLog(Path file, int capacity, OverflowPolicy policy, long maxFileBytes, int maxFiles,
+            boolean rawInput) throws IOException {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Kapazität muss eine Zweierpotenz sein: " + capacity);
+        }
+        if (maxFiles < 1 || maxFileBytes < 1) {
+            throw new IllegalArgumentException("Ungültige Rotation: " + maxFileBytes + " Bytes, " + maxFiles + " Dateien");
+        }
+        this.file = file;
+        this.policy = policy;
+        this.rawInput = rawInput;
+        SecureRandom random = new SecureRandom();
+        this.k0 = random.nextLong();
+        this.k1 = random.nextLong();
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.mask = capacity - 1;
+        this.times = new long[capacity];
+        this.types = new Type[capacity];
+        this.ips = new String[capacity];
+        this.patterns = new String[capacity];
+        this.inputLengths = new int[capacity];
+        this.inputHashes = new long[capacity];
+        this.inputs = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, i - capacity);
+        }
+        openChannel();
+        this.writer = new Thread(this::writeLoop, "security-event-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Öffnet ein Protokoll mit Standardwerten (8192 Ereignisse Puffer, verwerfen
+     * bei Überlauf, Rotation ab 10 MiB, 5 Dateien).
+     *
+     * @param file Protokolldatei (wird angelegt oder fortgesetzt)
+     * @return das laufende Protokoll
+     * @throws IOException wenn die Datei nicht geöffnet werden kann
+     */
+    public static SecurityEventLog open(Path file) throws IOException {
+        return open(file, DEFAULT_CAPACITY, OverflowPolicy.DROP, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * Öffnet ein Protokoll.
+     *
+     * @param file Protokolldatei (wird angelegt oder fortgesetzt)
+     * @param capacity Puffergröße in Ereignissen (Zweierpotenz)
+     * @param policy Verhalten bei vollem Puffer
+     * @param maxFileBytes Größe, ab der die Datei rotiert wird
+     * @param maxFiles Anzahl der aufbewahrten Dateien inklusive der aktuellen
+     * @return das laufende Protokoll
+     * @throws IOException wenn die Datei nicht geöffnet werden kann
+     */
+    public static SecurityEventLog open(Path file, int capacity, OverflowPolicy policy, long maxFileBytes, int maxFiles)
+            throws IOException {
+        return open(file, capacity, policy, maxFileBytes, maxFiles, false);
+    }
+
+    /**
+     * Öffnet ein Protokoll, das auf Wunsch auch die verdächtigen Eingaben im Klartext schreibt.
+     *
+     * @param file Protokolldatei (wird angelegt oder fortgesetzt)
+     * @param capacity Puffergröße in Ereignissen (Zweierpotenz)
+     * @param policy Verhalten bei vollem Puffer
+     * @param maxFileBytes Größe, ab der die Datei rotiert wird
+     * @param maxFiles Anzahl der aufbewahrten Dateien inklusive der aktuellen
+     * @param rawInput true um Eingaben (gekürzt) zusätzlich zu Länge und Hash zu schreiben
+     * @return das laufende Protokoll
+     * @throws IOException wenn die Datei nicht geöffnet werden kann
+     */
+    public static SecurityEventLog open(Path file, int capacity, OverflowPolicy policy, long maxFileBytes, int maxFiles,
+            boolean rawInput) throws IOException {
+        return new SecurityEventLog(file, capacity, policy, maxFileBytes, maxFiles, rawInput);
+    }
+
+    /**
+     * Legt ein Ereignis in den Puffer. Kehrt sofort zurück, außer bei
+     * {@link OverflowPolicy#BLOCK} und vollem Puffer.
+     *
+     * @param type Art des Ereignisses
+     * @param ip IP-Adresse des Clients
+     * @param pattern Erkanntes Muster (darf null sein)
+     * @param input Verdächtige Eingabe (darf null sein; nur Länge und Hash, Klartext nur wenn so geöffnet)
+     * @return false wenn das Ereignis verworfen wurde
+     */
+    public boolean log(Type type, String ip, String pattern, String input) {
+        if (closed) {
+            dropped.increment();
+            return false;
+        }
+        long sequence;
+        while (true) {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                if (closed || policy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(1000);
+                continue;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        int slot = (int) sequence & mask;
+        times[slot] = System.currentTimeMillis();
+        types[slot] = type;
+        ips[slot] = ip;
+        patterns[slot] = pattern;
+        inputLengths[slot] = input == null ? -1 : input.length();
+        inputHashes[slot] = input == null ? 0 : VerdictCache.sipHash(k0, k1, 0, input);
+        inputs[slot] = rawInput ? input : null;
+        published.setRelease(slot, sequence);
+        return true;
+    }
+
+    /** @return Anzahl der wegen vollem Puffer verworfenen Ereignisse */
+    public long droppedEvents() {
+        return dropped.sum();
+    }
+
+    /** @return Pfad der aktuellen Protokolldatei */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Schreibt alle gepufferten Ereignisse und schließt die Datei.
+     * Danach eintreffende Ereignisse werden verworfen.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(MAX_BATCH * 128);
+        try {
+            while (true) {
+                // closed vor dem Leeren lesen: danach ist nichts mehr nachgekommen
+                boolean last = closed;
+                int count = drain(batch);
+                if (count > 0) {
+                    write(batch);
+                    batch.setLength(0);
+                } else if (last) {
+                    break;
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Sicherheitsprotokoll kann nicht geschrieben werden: " + e.getMessage());
+            closed = true;
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Schließen beim Beenden
+            }
+        }
+    }
+
+    /** Liest bis zu MAX_BATCH veröffentlichte Ereignisse als JSON-Zeilen. */
+    private int drain(StringBuilder batch) {
+        long next = head;
+        int count = 0;
+        while (count < MAX_BATCH) {
+            int slot = (int) next & mask;
+            if (published.getAcquire(slot) != next) {
+                break;
+            }
+            appendJson(batch, times[slot], types[slot], ips[slot], patterns[slot], inputLengths[slot], inputHashes[slot],
+                    inputs[slot]);
+            ips[slot] = null;
+            patterns[slot] = null;
+            inputs[slot] = null;
+            next++;
+            count++;
+            head = next; // Slot für Erzeuger freigeben
+        }
+        return count;
+    }
+
+    static void appendJson(StringBuilder sb, long time, Type type, String ip, String pattern, int inputLength,
+            long inputHash, String input) {
+        sb.append("{\"zeit\":\"").append(Instant.ofEpochMilli(time))
+                .append("\",\"typ\":\"").append(type)
+                .append("\",\"ip\":");
+        appendString(sb, ip);
+        if (pattern != null) {
+            sb.append(",\"muster\":");
+            appendString(sb, pattern);
+        }
+        if (inputLength >= 0) {
+            sb.append(",\"laenge\":").append(inputLength).append(",\"hash\":\"");
+            String hex = Long.toHexString(inputHash);
+            sb.append("0".repeat(16 - hex.length())).append(hex).append('"');
+        }
+        if (input != null) {
+            sb.append(",\"eingabe\":");
+            appendString(sb, input.length() > MAX_INPUT_LENGTH ? input.substring(0, MAX_INPUT_LENGTH) : input);
+        }
+        sb.append("}\n");
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private void write(StringBuilder batch) throws IOException {
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        while (start < bytes.length) {
+            // So viele ganze Zeilen wie in die aktuelle Datei passen (mindestens eine in eine leere)
+            int end = start;
+            int next = start;
+            while (next < bytes.length) {
+                int lineEnd = next;
+                while (bytes[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                lineEnd++;
+                if (fileSize + (lineEnd - start) > maxFileBytes && (fileSize > 0 || end > start)) {
+                    break;
+                }
+                end = lineEnd;
+                next = lineEnd;
+            }
+            if (end == start) {
+                rotate();
+                continue;
+            }
+            ByteBuffer chunk = ByteBuffer.wrap(bytes, start, end - start);
+            while (chunk.hasRemaining()) {
+                fileSize += channel.write(chunk);
+            }
+            start = end;
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        // datei.(n-1) fällt weg, datei.k -> datei.(k+1), datei -> datei.1
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int k = maxFiles - 2; k >= 1; k--) {
+            Path source = rotated(k);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(k + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        openChannel();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+}
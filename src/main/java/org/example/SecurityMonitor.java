@@ -1,9 +1,13 @@
 package org.example; // Paket-Deklaration für die Klasse
 
 // Import-Anweisungen für benötigte Java-Klassen
+import java.io.IOException; // Für Fehler beim Dateizugriff
 import java.net.InetAddress; // Für IP-Adress-Operationen
+import java.net.InetSocketAddress; // Für Adressen der Cluster-Knoten
 import java.net.UnknownHostException; // Für Netzwerk-Fehlerbehandlung
-import java.util.*; // Für Collections (Set, HashSet, Arrays)
+import java.nio.file.Path; // Für das Verzeichnis der Sperrliste
+import java.time.Duration; // Für Zeitfenster und TTL
+import java.util.*; // Für Collections (Set, HashSet, Arrays, List)
 
 /**
  * Sicherheitsmonitor für SQL-Injection-Erkennung
@@ -74,72 +78,301 @@ public class SecurityMonitor { // Hauptklasse für Sicherheitsüberwachung
         "pg_sleep(" // Schlaf-Funktion für PostgreSQL
     )); // Ende der SQL-Injection-Muster-Liste
     
-    // Statische Variable: Set für verdächtige IP-Adressen (erste Warnung)
-    private static final Set<String> SUSPICIOUS_IPS = new HashSet<>();
+    // Konstante: Einmal gebauter Aho-Corasick-Automat über alle Muster
+    private static final SqlInjectionMatcher SQL_INJECTION_MATCHER = new SqlInjectionMatcher(SQL_INJECTION_PATTERNS);
     
-    // Statische Variable: Set für gesperrte IP-Adressen (zweite Warnung)
-    private static final Set<String> BLOCKED_IPS = new HashSet<>();
+    // Konstante: Token-Lexer für verschleierte Angriffe ('/**/OR/**/1=1, %27%20OR%201%3D1, ...)
+    private static final SqlInjectionTokenizer SQL_INJECTION_TOKENIZER = new SqlInjectionTokenizer(SqlInjectionTokenizer.DEFAULT_FINGERPRINTS);
+    
+    // Konstante: Index des Lexers in den Metriken (hinter allen festen Mustern)
+    private static final int TOKENIZER_INDEX = SQL_INJECTION_MATCHER.patternCount();
+    
+    // Statische Variable: Threadsicherer, begrenzter Speicher für verdächtige (erste Warnung) und gesperrte (zweite Warnung) IP-Adressen
+    private static volatile IpReputationStore ipReputation = new IpReputationStore();
+    
+    // Statische Variable: Speicher an Persistenz oder Replikation gebunden (dann nicht mehr austauschbar)
+    private static volatile boolean reputationBound;
+    
+    // Statische Variable: Gesperrte Adressbereiche (CIDR), Suche ohne Sperre
+    private static volatile PrefixTrie blockedRanges = new PrefixTrie();
+    
+    // Statische Variable: Gesperrte IPs je Subnetz (null = keine Eskalation auf Subnetze)
+    private static volatile IpReputationStore subnetReputation;
+    
+    // Konstanten: Subnetzgrößen für die Eskalation (/24 bei IPv4, /64 bei IPv6)
+    private static final int IPV4_SUBNET_LENGTH = 96 + 24; // IPv4-mapped in 128-Bit-Schreibweise
+    private static final int IPV6_SUBNET_LENGTH = 64;
+    
+    // Statische Variable: Anfragebegrenzung je IP (null = keine Begrenzung)
+    private static volatile RateLimiter rateLimiter;
+    
+    // Statische Variable: Asynchrones Sicherheitsprotokoll (null = kein Protokoll)
+    private static volatile SecurityEventLog eventLog;
+    
+    // Statische Variable: Abgleich der Sperrliste mit anderen Knoten (null = kein Cluster)
+    private static volatile ClusterReplicator clusterReplicator;
+    
+    // Statische Variable: Warnungen zusätzlich auf der Konsole ausgeben (interaktiver Modus)
+    private static volatile boolean consoleWarnings = true;
     
     /**
      * Überprüft eine Eingabe auf SQL-Injection-Muster
      * 
+     * @param input Die zu überprüfende Eingabe (String, char[]-Sicht usw.; wird nicht kopiert)
+     * @return true wenn verdächtige Muster gefunden wurden
+     */
+    public static boolean checkForSQLInjection(CharSequence input) { // Öffentliche statische Methode für SQL-Injection-Prüfung
+        return checkForSQLInjection(input, getClientIP()); // Prüfung mit der lokal ermittelten IP-Adresse
+    }
+    
+    /**
+     * Überprüft eine Eingabe eines bestimmten Clients auf SQL-Injection-Muster
+     * 
      * @param input Die zu überprüfende Eingabe
+     * @param clientIP Die echte IP-Adresse des Clients (z. B. aus der Netzwerkverbindung)
      * @return true wenn verdächtige Muster gefunden wurden
      */
-    public static boolean checkForSQLInjection(String input) { // Öffentliche statische Methode für SQL-Injection-Prüfung
-        // Null-Check und Leerstring-Prüfung
-        if (input == null || input.trim().isEmpty()) { // Wenn Eingabe null oder leer ist
+    public static boolean checkForSQLInjection(CharSequence input, String clientIP) { // Variante für Server mit echter Client-IP
+        // Null-Check
+        if (input == null) { // Wenn Eingabe null ist
             return false; // Keine Bedrohung - gib false zurück
         }
         
-        // Eingabe in Großbuchstaben für case-insensitive Vergleich
-        String upperInput = input.toUpperCase().trim(); // Konvertiere zu Großbuchstaben für einheitlichen Vergleich
-        
-        // Prüfe gegen alle bekannten SQL-Injection-Muster
-        for (String pattern : SQL_INJECTION_PATTERNS) { // Durchlaufe jedes SQL-Injection-Muster
-            if (upperInput.contains(pattern.toUpperCase())) { // Wenn Eingabe das Muster enthält
-                handleSuspiciousActivity(input, pattern); // Behandle verdächtige Aktivität
-                return true; // Bedrohung erkannt - gib true zurück
+        // Schon als unbedenklich bekannt? (nur saubere Eingaben werden gemerkt)
+        VerdictCache cache = VerdictCache.active(); // Einmal lesen (kann neu konfiguriert werden)
+        long schluessel = 0; // SipHash der Eingabe
+        if (cache != null) { // Wenn ein Ergebnis-Cache konfiguriert ist
+            schluessel = cache.key(VerdictCache.SQL_NAMESPACE, input); // Eigener Namensraum für diese Prüfung
+            if (cache.get(schluessel) >= 0) { // Treffer
+                return false; // Keine Bedrohung - ohne erneuten Durchlauf
             }
-        } // Ende der Muster-Schleife
-        
+        }
+
+        // Ein Durchlauf durch den Automaten über alle Muster (Groß-/Kleinschreibung egal)
+        long ergebnis = scanSQLInjection(input); // Index und Fingerprint des erkannten Musters oder -1 (mit Metriken)
+        int treffer = (int) ergebnis; // Index des Musters in den unteren 32 Bits
+        if (treffer >= 0) { // Wenn ein Muster gefunden wurde
+            String muster = treffer == TOKENIZER_INDEX // Vom Lexer oder von einem festen Muster erkannt?
+                    ? "Fingerprint " + SqlInjectionTokenizer.fingerprint((int) (ergebnis >>> 32)) // Token-Folge aus demselben Durchlauf, z. B. s&1o1
+                    : SQL_INJECTION_MATCHER.pattern(treffer); // Festes Muster
+            handleSuspiciousActivity(input.toString(), muster, clientIP); // Nur bei Treffer als String (für Protokoll und Warnung)
+            return true; // Bedrohung erkannt - gib true zurück
+        }
+
+        if (cache != null) { // Saubere Eingabe für das nächste Mal merken
+            cache.put(schluessel, 0); // Der Code spielt in diesem Namensraum keine Rolle
+        }
         return false; // Keine Bedrohung gefunden - gib false zurück
     }
     
+    /**
+     * Sucht SQL-Injection-Muster ohne Seiteneffekte (keine Warnung, keine IP-Sperre, nur Metriken).
+     * Zuerst die festen Muster, danach die Token-Fingerprints von {@link SqlInjectionTokenizer}.
+     * 
+     * @param input Die zu überprüfende Eingabe (darf nicht null sein)
+     * @return Index des erkannten Musters (Anzahl der festen Muster für den Lexer) oder -1
+     */
+    public static int findSQLInjectionPattern(CharSequence input) { // Reine Prüfung, z. B. für Massenvalidierung
+        return (int) scanSQLInjection(input); // Nur der Index (untere 32 Bits)
+    }
+    
+    /**
+     * Wie {@link #findSQLInjectionPattern(CharSequence)}, behält aber den Fingerprint des Lexers,
+     * damit er für die Warnung nicht ein zweites Mal berechnet werden muss.
+     * 
+     * @param input Die zu überprüfende Eingabe (darf nicht null sein)
+     * @return -1, sonst Index des Musters in den unteren und Fingerprint des Lexers (oder 0) in den oberen 32 Bits
+     */
+    private static long scanSQLInjection(CharSequence input) { // Gemeinsamer Durchlauf für beide Prüfungen
+        long start = ValidatorMetrics.startTimer(); // Latenzmessung starten (0 wenn ausgeschaltet)
+        long ergebnis = SQL_INJECTION_MATCHER.find(input); // Ein Durchlauf durch den Automaten
+        if (ergebnis < 0) { // Sonst Struktur prüfen (Leerraum, Kommentare, Kodierungen)
+            int fingerprint = SQL_INJECTION_TOKENIZER.detect(input); // Erkannte Token-Folge oder 0
+            if (fingerprint != 0) { // Wenn der Lexer anschlägt
+                ergebnis = (long) fingerprint << 32 | TOKENIZER_INDEX; // Eigener Index für den Lexer, Fingerprint darüber
+            }
+        }
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.SQL_INJECTION, start); // Latenz erfassen
+        if (ergebnis >= 0) { // Wenn ein Muster gefunden wurde
+            ValidatorMetrics.recordPatternHit((int) ergebnis); // Treffer je Muster zählen
+        }
+        return ergebnis; // Index und Fingerprint oder -1
+    }
+    
+    /**
+     * @return Anzahl der bekannten SQL-Injection-Muster
+     */
+    static int sqlInjectionPatternCount() { // Für die Metriken (ein Zähler pro Muster)
+        return SQL_INJECTION_MATCHER.patternCount() + 1; // Anzahl der Muster im Automaten plus Lexer
+    }
+    
+    /**
+     * @param index Index des Musters
+     * @return Das Muster als Text
+     */
+    static String sqlInjectionPattern(int index) { // Für die Metriken (Beschriftung der Zähler)
+        return index == TOKENIZER_INDEX ? "<token-fingerprint>" : SQL_INJECTION_MATCHER.pattern(index); // Muster zum Index
+    }
+    
     /**
      * Behandelt verdächtige Aktivitäten
      * 
      * @param input Die verdächtige Eingabe
      * @param pattern Das erkannte Muster
+     * @param clientIP Die IP-Adresse des Clients
      */
-    private static void handleSuspiciousActivity(String input, String pattern) { // Private Methode für Behandlung verdächtiger Aktivitäten
-        String clientIP = getClientIP(); // Hole die IP-Adresse des Clients
+    private static void handleSuspiciousActivity(String input, String pattern, String clientIP) { // Private Methode für Behandlung verdächtiger Aktivitäten
+        int status = reportOffense(SecurityEventLog.Type.SQL_INJECTION, clientIP, pattern, input); // Verstoß melden und protokollieren
         
-        // Ausgabe der Sicherheitswarnung auf Fehler-Stream (stderr)
-        System.err.println("\n" + "=".repeat(60)); // Trennlinie mit 60 Gleichheitszeichen
-        System.err.println("🚨 SICHERHEITSWARNUNG: SQL-INJECTION ERKANNT! 🚨"); // Hauptwarnung
-        System.err.println("=".repeat(60)); // Weitere Trennlinie
-        System.err.println("Verdächtige Eingabe: " + input); // Zeige die verdächtige Eingabe
-        System.err.println("Erkanntes Muster: " + pattern); // Zeige das erkannte SQL-Injection-Muster
-        System.err.println("Ihre IP-Adresse: " + clientIP); // Zeige die IP-Adresse des Angreifers
-        System.err.println("Zeitpunkt: " + new Date()); // Zeige aktuelles Datum und Uhrzeit
+        if (consoleWarnings) { // Nur wenn Konsolenwarnungen aktiv sind
+            printWarning(input, pattern, clientIP, status); // Warnung für den Benutzer ausgeben
+        }
+    }
+    
+    /**
+     * Meldet einen Verstoß einer IP-Adresse: sauber -> verdächtig -> gesperrt, mit Protokoll und Subnetz-Eskalation
+     * 
+     * @param type Art des Verstoßes für das Protokoll
+     * @param clientIP Die IP-Adresse des Clients
+     * @param pattern Das erkannte Muster oder null
+     * @param input Die verdächtige Eingabe oder null
+     * @return Der neue Status der IP-Adresse
+     */
+    private static int reportOffense(SecurityEventLog.Type type, String clientIP, String pattern, String input) { // Private Methode für die Eskalation
+        // Verstoß melden: sauber -> verdächtig (erster Versuch), verdächtig -> gesperrt (zweiter Versuch)
+        int ergebnis = ipReputation.recordOffense(clientIP); // Atomarer Statusübergang im Speicher
+        int status = ergebnis & IpReputationStore.STATUS_MASK; // Neuer Status
+        boolean neuGesperrt = (ergebnis & IpReputationStore.NEWLY_BLOCKED) != 0; // Unter der Sperre ermittelt: genau ein Aufrufer sieht die neue Sperre
+        if (neuGesperrt) { // Wenn IP gerade neu gesperrt wurde
+            ValidatorMetrics.recordBlock(); // Sperre zählen
+        }
         
-        // Prüfe ob IP bereits verdächtig ist (zweiter Versuch)
-        if (SUSPICIOUS_IPS.contains(clientIP)) { // Wenn IP bereits in der Verdächtigen-Liste steht
-            // Zweite Warnung - IP wird gesperrt
-            BLOCKED_IPS.add(clientIP); // Füge IP zur Sperrliste hinzu
-            System.err.println("\n❌ IHRE IP-ADRESSE WURDE GESPERRT!"); // Sperrung-Nachricht
-            System.err.println("Grund: Wiederholte SQL-Injection-Versuche"); // Grund für Sperrung
-            System.err.println("Kontaktieren Sie den Administrator für Entsperrung."); // Anweisung für Entsperrung
-        } else { // Wenn IP noch nicht verdächtig war (erster Versuch)
+        // Ereignisse nur in den Puffer legen - geschrieben wird im Hintergrund
+        SecurityEventLog log = eventLog; // Einmal lesen (kann neu konfiguriert werden)
+        if (log != null) { // Wenn ein Protokoll konfiguriert ist
+            log.log(type, clientIP, pattern, input); // Verstoß protokollieren
+            if (neuGesperrt) { // Wenn die IP neu gesperrt wurde
+                log.log(SecurityEventLog.Type.IP_BLOCKED, clientIP, null, null); // Sperre protokollieren
+            }
+        }
+        if (neuGesperrt) { // Neue Sperre zählt auch für das Subnetz
+            escalateSubnet(clientIP); // Ggf. ganzes Subnetz sperren
+        }
+        ClusterReplicator cluster = clusterReplicator; // Einmal lesen (kann neu konfiguriert werden)
+        if (cluster != null) { // Wenn ein Cluster konfiguriert ist
+            cluster.offense(clientIP, neuGesperrt); // Verstoß (und ggf. Sperre) an die anderen Knoten verteilen
+        }
+        return status; // Neuer Status
+    } // Ende der reportOffense Methode
+    
+    /**
+     * Zählt eine neu gesperrte IP für ihr Subnetz und sperrt das Subnetz,
+     * sobald genug IPs daraus gesperrt wurden (nur wenn die Eskalation aktiv ist)
+     * 
+     * @param clientIP Die gerade gesperrte IP-Adresse
+     */
+    private static void escalateSubnet(String clientIP) { // Private Methode für die Subnetz-Eskalation
+        IpReputationStore subnets = subnetReputation; // Einmal lesen (kann neu konfiguriert werden)
+        long[] key = new long[2]; // Adresse als 128-Bit-Wert
+        if (subnets == null || !IpAddresses.parse(clientIP, key)) { // Eskalation aus oder Adresse ungültig
+            return; // Nichts zu tun
+        }
+        int length = IpAddresses.isIpv4(key[0], key[1]) ? IPV4_SUBNET_LENGTH : IPV6_SUBNET_LENGTH; // Subnetzgröße
+        long hi = key[0] & PrefixTrie.maskHi(length); // Basisadresse des Subnetzes (obere 64 Bit)
+        long lo = key[1] & PrefixTrie.maskLo(length); // Basisadresse des Subnetzes (untere 64 Bit)
+        if (subnets.reportOffense(hi, lo) != IpReputationStore.BLOCKED || !blockedRanges.add(hi, lo, length)) { // Schwelle nicht erreicht oder schon gesperrt
+            return; // Subnetz bleibt offen
+        }
+        ValidatorMetrics.recordBlock(); // Sperre zählen
+        String cidr = IpAddresses.format(hi, lo) + "/" + (length == IPV4_SUBNET_LENGTH ? 24 : length); // Subnetz als CIDR
+        SecurityEventLog log = eventLog; // Aktuelles Protokoll
+        if (log != null) { // Wenn ein Protokoll konfiguriert ist
+            log.log(SecurityEventLog.Type.IP_BLOCKED, cidr, null, null); // Subnetz-Sperre protokollieren
+        }
+        if (consoleWarnings) { // Nur wenn Konsolenwarnungen aktiv sind
+            System.err.println("❌ Subnetz " + cidr + " wurde gesperrt (zu viele gesperrte IPs)."); // Hinweis
+        }
+    } // Ende der escalateSubnet Methode
+    
+    /**
+     * Gibt die Sicherheitswarnung auf stderr aus (ein einziger Schreibaufruf)
+     * 
+     * @param input Die verdächtige Eingabe
+     * @param pattern Das erkannte Muster
+     * @param clientIP Die IP-Adresse des Clients
+     * @param status Der neue Status der IP-Adresse
+     */
+    private static void printWarning(String input, String pattern, String clientIP, int status) { // Private Methode für die Konsolenausgabe
+        String linie = "=".repeat(60); // Trennlinie mit 60 Gleichheitszeichen
+        StringBuilder sb = new StringBuilder(512); // Gesamte Warnung sammeln
+        sb.append('\n').append(linie).append('\n'); // Trennlinie
+        sb.append("🚨 SICHERHEITSWARNUNG: SQL-INJECTION ERKANNT! 🚨\n"); // Hauptwarnung
+        sb.append(linie).append('\n'); // Weitere Trennlinie
+        sb.append("Verdächtige Eingabe: ").append(input).append('\n'); // Zeige die verdächtige Eingabe
+        sb.append("Erkanntes Muster: ").append(pattern).append('\n'); // Zeige das erkannte SQL-Injection-Muster
+        sb.append("Ihre IP-Adresse: ").append(clientIP).append('\n'); // Zeige die IP-Adresse des Angreifers
+        sb.append("Zeitpunkt: ").append(new Date()).append('\n'); // Zeige aktuelles Datum und Uhrzeit
+        
+        if (status == IpReputationStore.BLOCKED) { // Wenn IP jetzt gesperrt ist
+            // Zweite Warnung - IP wurde gesperrt
+            sb.append("\n❌ IHRE IP-ADRESSE WURDE GESPERRT!\n"); // Sperrung-Nachricht
+            sb.append("Grund: Wiederholte SQL-Injection-Versuche\n"); // Grund für Sperrung
+            sb.append("Kontaktieren Sie den Administrator für Entsperrung.\n"); // Anweisung für Entsperrung
+        } else { // Wenn IP erst verdächtig ist (erster Versuch)
             // Erste Warnung
-            SUSPICIOUS_IPS.add(clientIP); // Füge IP zur Verdächtigen-Liste hinzu
-            System.err.println("\n⚠️  WARNUNG: Beim nächsten Hack-Versuch wird Ihre IP gesperrt!"); // Erste Warnung
-            System.err.println("Diese Aktivität wurde protokolliert und gemeldet."); // Protokollierung-Hinweis
+            sb.append("\n⚠️  WARNUNG: Beim nächsten Hack-Versuch wird Ihre IP gesperrt!\n"); // Erste Warnung
+            sb.append("Diese Aktivität wurde protokolliert und gemeldet.\n"); // Protokollierung-Hinweis
         } // Ende der IP-Status-Prüfung
         
-        System.err.println("=".repeat(60)); // Abschließende Trennlinie
-        System.err.println(); // Leerzeile für bessere Lesbarkeit
+        sb.append(linie).append('\n'); // Abschließende Trennlinie
+        System.err.println(sb); // Ein Aufruf statt vieler einzelner (weniger Konkurrenz um den stderr-Lock)
+    }
+    
+    /**
+     * Prüft die Anfragebegrenzung für die lokal ermittelte IP-Adresse (interaktiver Modus)
+     * 
+     * @return true wenn die Anfrage bearbeitet werden darf
+     */
+    public static boolean isCurrentRequestAllowed() { // Öffentliche statische Methode zur Ratenprüfung
+        return allowRequest(getClientIP()); // Prüfe die lokal ermittelte IP-Adresse
+    }
+    
+    /**
+     * Prüft, ob ein Client noch eine Anfrage stellen darf (Token-Bucket je IP-Adresse).
+     * Wird vor der SQL-Injection-Prüfung und der Validierung aufgerufen, damit eine Flut von
+     * Anfragen möglichst wenig kostet. Wer die Grenze dauerhaft überschreitet, sammelt
+     * Verstöße wie bei einer SQL-Injection (verdächtig, dann gesperrt).
+     * 
+     * @param clientIP Die IP-Adresse des Clients
+     * @return true wenn die Anfrage bearbeitet werden darf
+     * @throws IllegalArgumentException wenn die Adresse ungültig ist
+     */
+    public static boolean allowRequest(String clientIP) { // Öffentliche statische Methode zur Ratenprüfung
+        RateLimiter limiter = rateLimiter; // Einmal lesen (kann neu konfiguriert werden)
+        if (limiter == null) { // Keine Begrenzung konfiguriert
+            return true; // Jede Anfrage erlaubt
+        }
+        int ergebnis = limiter.tryAcquire(clientIP); // Token entnehmen (Auffüllen beim Zugriff, ohne Hintergrund-Thread)
+        if (ergebnis == RateLimiter.ALLOWED) { // Noch Tokens übrig
+            return true; // Anfrage bearbeiten
+        }
+        ValidatorMetrics.recordRateLimited(); // Abgewiesene Anfrage zählen
+        if (ergebnis == RateLimiter.OFFENSE) { // Grenze dauerhaft überschritten
+            int status = reportOffense(SecurityEventLog.Type.RATE_LIMITED, clientIP, null, null); // Wie einen Angriff eskalieren
+            if (consoleWarnings) { // Nur wenn Konsolenwarnungen aktiv sind
+                System.err.println("⚠️  Zu viele Anfragen von " + clientIP + (status == IpReputationStore.BLOCKED // Hinweis
+                        ? " - IP-Adresse wurde gesperrt." : " - beim nächsten Mal wird die IP gesperrt.")); // Je nach Status
+            }
+        }
+        return false; // Anfrage abweisen
+    }
+    
+    /**
+     * @return Sekunden, nach denen ein abgewiesener Client es erneut versuchen sollte (für Retry-After)
+     */
+    public static long retryAfterSeconds() { // Öffentliche statische Methode zum Abfragen
+        RateLimiter limiter = rateLimiter; // Aktuelle Begrenzung
+        return limiter == null ? 0 : limiter.retryAfterSeconds(); // 0 wenn keine Begrenzung aktiv ist
     }
     
     /**
@@ -148,8 +381,18 @@ public class SecurityMonitor { // Hauptklasse für Sicherheitsüberwachung
      * @return true wenn die aktuelle IP gesperrt ist
      */
     public static boolean isCurrentIPBlocked() { // Öffentliche statische Methode zur IP-Sperr-Prüfung
-        String clientIP = getClientIP(); // Hole die aktuelle Client-IP-Adresse
-        return BLOCKED_IPS.contains(clientIP); // Prüfe ob IP in der Sperrliste enthalten ist
+        return isIPBlocked(getClientIP()); // Prüfe die lokal ermittelte IP-Adresse
+    }
+    
+    /**
+     * Überprüft ob eine bestimmte IP-Adresse gesperrt ist
+     * 
+     * @param clientIP Die zu prüfende IP-Adresse
+     * @return true wenn die IP gesperrt ist
+     */
+    public static boolean isIPBlocked(String clientIP) { // Öffentliche statische Methode zur IP-Sperr-Prüfung
+        return ipReputation.status(clientIP) == IpReputationStore.BLOCKED // Prüfe ob IP gesperrt ist (ohne Sperre)
+                || blockedRanges.contains(clientIP); // Oder in einem gesperrten Adressbereich liegt
     }
     
     /**
@@ -173,28 +416,264 @@ public class SecurityMonitor { // Hauptklasse für Sicherheitsüberwachung
      */
     public static void printSecurityStats() { // Öffentliche statische Methode für Sicherheitsstatistiken
         System.out.println("\n📊 SICHERHEITSSTATISTIKEN:"); // Überschrift für Statistiken
-        System.out.println("Verdächtige IPs (1. Warnung): " + SUSPICIOUS_IPS.size()); // Anzahl verdächtiger IPs
-        System.out.println("Gesperrte IPs: " + BLOCKED_IPS.size()); // Anzahl gesperrter IPs
+        // Momentaufnahmen statt direkter Iteration (keine ConcurrentModificationException)
+        List<String> verdaechtig = ipReputation.addresses(IpReputationStore.SUSPICIOUS); // Verdächtige IPs
+        List<String> gesperrt = ipReputation.addresses(IpReputationStore.BLOCKED); // Gesperrte IPs
+        System.out.println("Verdächtige IPs (1. Warnung): " + verdaechtig.size()); // Anzahl verdächtiger IPs
+        System.out.println("Gesperrte IPs: " + gesperrt.size()); // Anzahl gesperrter IPs
+        System.out.println("Gesperrte Adressbereiche: " + blockedRanges.size()); // Anzahl gesperrter CIDR-Bereiche
         
         // Zeige verdächtige IPs nur wenn vorhanden
-        if (!SUSPICIOUS_IPS.isEmpty()) { // Wenn verdächtige IPs existieren
-            System.out.println("Verdächtige IPs: " + SUSPICIOUS_IPS); // Liste der verdächtigen IPs
+        if (!verdaechtig.isEmpty()) { // Wenn verdächtige IPs existieren
+            System.out.println("Verdächtige IPs: " + verdaechtig); // Liste der verdächtigen IPs
         }
         
         // Zeige gesperrte IPs nur wenn vorhanden
-        if (!BLOCKED_IPS.isEmpty()) { // Wenn gesperrte IPs existieren
-            System.out.println("Gesperrte IPs: " + BLOCKED_IPS); // Liste der gesperrten IPs
+        if (!gesperrt.isEmpty()) { // Wenn gesperrte IPs existieren
+            System.out.println("Gesperrte IPs: " + gesperrt); // Liste der gesperrten IPs
         }
     } // Ende der printSecurityStats Methode
     
     /**
-     * Entsperrt eine IP-Adresse (nur für Administratoren)
+     * Konfiguriert den Reputationsspeicher neu (bisherige Einträge werden verworfen).
+     * Muss vor {@link #enablePersistence(Path)} und {@link #enableReplication} aufgerufen werden,
+     * da beide an den Speicher gebunden bleiben, der beim Aufruf aktiv war.
+     * 
+     * @param window Gleitendes Fenster, in dem Verstöße gezählt werden
+     * @param threshold Anzahl Verstöße im Fenster, ab der eine IP gesperrt wird
+     * @param ttl Zeit seit dem letzten Verstoß, nach der eine IP wieder sauber ist
+     * @param maxEntries Maximale Anzahl gespeicherter IP-Adressen
+     * @throws IllegalStateException wenn Persistenz oder Replikation bereits aktiv ist
+     */
+    public static synchronized void configureReputation(Duration window, int threshold, Duration ttl, int maxEntries) { // Öffentliche statische Methode zur Konfiguration
+        if (reputationBound) { // Sperren würden sonst weder gespeichert noch verteilt
+            throw new IllegalStateException("Reputationsspeicher ist bereits an Persistenz oder Replikation gebunden"); // Reihenfolge verletzt
+        }
+        ipReputation = new IpReputationStore(window, threshold, ttl, maxEntries); // Neuen, leeren Speicher aktivieren
+    } // Ende der configureReputation Methode
+    
+    /**
+     * Sperrt einen ganzen Adressbereich (z. B. "203.0.113.0/24" oder "2001:db8::/32")
+     * 
+     * @param cidr Der Adressbereich in CIDR-Notation
+     * @return true wenn der Bereich neu gesperrt wurde
+     * @throws IllegalArgumentException wenn der Bereich ungültig ist
+     */
+    public static boolean blockRange(String cidr) { // Öffentliche statische Methode für Bereichssperren
+        boolean neu = blockedRanges.add(cidr); // In den Präfix-Baum einfügen
+        if (neu) { // Nur neue Sperren zählen
+            ValidatorMetrics.recordBlock(); // Sperre zählen
+            SecurityEventLog log = eventLog; // Aktuelles Protokoll
+            if (log != null) { // Wenn ein Protokoll konfiguriert ist
+                log.log(SecurityEventLog.Type.IP_BLOCKED, cidr, null, null); // Bereichssperre protokollieren
+            }
+        }
+        return neu; // Ergebnis zurückgeben
+    } // Ende der blockRange Methode
+    
+    /**
+     * Lädt gesperrte Adressbereiche aus einer Datei (ein CIDR-Bereich pro Zeile, # für Kommentare),
+     * z. B. veröffentlichte Adresslisten von Cloud- oder VPN-Anbietern
+     * 
+     * @param file Die Datei mit den Bereichen
+     * @return Anzahl der neu gesperrten Bereiche
+     * @throws IOException wenn die Datei nicht gelesen werden kann
+     * @throws IllegalArgumentException bei einer ungültigen Zeile
+     */
+    public static int loadBlockedRanges(Path file) throws IOException { // Öffentliche statische Methode zum Massenladen
+        return blockedRanges.addAll(file); // Alle Bereiche einfügen (Leser werden nicht blockiert)
+    } // Ende der loadBlockedRanges Methode
+    
+    /**
+     * Sperrt ein ganzes Subnetz (/24 bei IPv4, /64 bei IPv6), sobald innerhalb des
+     * Zeitfensters die angegebene Anzahl IPs daraus gesperrt wurde
+     * 
+     * @param blockedIpsPerSubnet Anzahl gesperrter IPs, ab der das Subnetz gesperrt wird
+     * @param window Zeitfenster, in dem die Sperren gezählt werden
+     */
+    public static void enableSubnetEscalation(int blockedIpsPerSubnet, Duration window) { // Öffentliche statische Methode zur Konfiguration
+        subnetReputation = new IpReputationStore(window, blockedIpsPerSubnet, window, IpReputationStore.DEFAULT_MAX_ENTRIES); // Eigener Zähler je Subnetz
+    } // Ende der enableSubnetEscalation Methode
+    
+    /**
+     * Schaltet die Eskalation auf Subnetze wieder ab (bereits gesperrte Bereiche bleiben gesperrt)
+     */
+    public static void disableSubnetEscalation() { // Öffentliche statische Methode zur Konfiguration
+        subnetReputation = null; // Keine Zählung mehr
+    } // Ende der disableSubnetEscalation Methode
+    
+    /**
+     * Begrenzt die Anfragen je IP-Adresse (ersetzt eine bestehende Begrenzung mit leerem Zustand)
+     * 
+     * @param permitsPerSecond Dauerhaft erlaubte Anfragen pro Sekunde
+     * @param burst Anzahl Anfragen, die ein ruhender Client auf einmal stellen darf
+     */
+    public static void enableRateLimit(double permitsPerSecond, int burst) { // Öffentliche statische Methode zur Konfiguration
+        rateLimiter = new RateLimiter(permitsPerSecond, burst, RateLimiter.DEFAULT_VIOLATIONS_PER_OFFENSE, RateLimiter.DEFAULT_MAX_ENTRIES); // Neue Begrenzung aktivieren
+    } // Ende der enableRateLimit Methode
+    
+    /**
+     * Setzt eine eigene Anfragebegrenzung (z. B. mit anderer Verstoß-Schwelle)
+     * 
+     * @param limiter Die Begrenzung oder null für keine
+     */
+    public static void setRateLimiter(RateLimiter limiter) { // Öffentliche statische Methode zur Konfiguration
+        rateLimiter = limiter; // Atomar austauschen
+    } // Ende der setRateLimiter Methode
+    
+    /**
+     * Schaltet die Anfragebegrenzung ab
+     */
+    public static void disableRateLimit() { // Öffentliche statische Methode zur Konfiguration
+        rateLimiter = null; // Keine Begrenzung mehr
+    } // Ende der disableRateLimit Methode
+    
+    /**
+     * @return true wenn eine Anfragebegrenzung aktiv ist
+     */
+    public static boolean isRateLimitEnabled() { // Öffentliche statische Methode zum Abfragen
+        return rateLimiter != null; // Begrenzung gesetzt?
+    } // Ende der isRateLimitEnabled Methode
+    
+    /**
+     * Macht die Sperrliste dauerhaft: stellt gesperrte IPs aus dem Verzeichnis wieder her
+     * und protokolliert ab jetzt jede Sperre und Entsperrung (WAL + Snapshots)
      * 
-     * @param ipAddress Die zu entsperrende IP-Adresse
+     * @param directory Verzeichnis für Snapshots und WAL
+     * @return Die aktive Persistenz (zum regelmäßigen Snapshot und Schließen)
+     * @throws IOException bei Lese- oder Schreibfehlern
+     */
+    public static synchronized ReputationPersistence enablePersistence(Path directory) throws IOException { // Öffentliche statische Methode zur Konfiguration
+        ReputationPersistence persistence = ReputationPersistence.open(directory, ipReputation); // Aktuellen Speicher befüllen und überwachen
+        reputationBound = true; // Speicher ab jetzt nicht mehr austauschen
+        return persistence; // Zum Snapshot und Schließen zurückgeben
+    } // Ende der enablePersistence Methode
+    
+    /**
+     * Gleicht Verstöße, Sperren und Entsperrungen ab jetzt mit anderen Knoten ab
+     * (eine vorherige Replikation wird nicht geschlossen)
+     * 
+     * @param replicator Die gestartete Replikation für den aktuellen Speicher oder null für keine
+     */
+    public static void setClusterReplicator(ClusterReplicator replicator) { // Öffentliche statische Methode zur Konfiguration
+        if (replicator != null) { // Übernommene Sperren wie lokale behandeln
+            replicator.setListener(REMOTE_EVENTS); // Metriken, Protokoll und Subnetz-Eskalation
+        }
+        ClusterReplicator vorher = clusterReplicator; // Bisherige Replikation
+        clusterReplicator = replicator; // Atomar austauschen
+        if (vorher != null && vorher != replicator) { // Alte Replikation nicht mehr auswerten
+            vorher.setListener(null); // Abmelden
+        }
+    } // Ende der setClusterReplicator Methode
+
+    // Empfänger für Sperren und Entsperrungen, die andere Knoten in den lokalen Speicher übernommen haben
+    private static final ClusterReplicator.Listener REMOTE_EVENTS = new ClusterReplicator.Listener() { // Anonyme Klasse (läuft im Empfangs-Thread)
+        @Override
+        public void remoteBlocked(String ip) { // Eine Sperre eines anderen Knotens
+            ValidatorMetrics.recordBlock(); // Sperre zählen
+            SecurityEventLog log = eventLog; // Aktuelles Protokoll
+            if (log != null) { // Wenn ein Protokoll konfiguriert ist
+                log.log(SecurityEventLog.Type.IP_BLOCKED, ip, null, null); // Sperre protokollieren
+            }
+            escalateSubnet(ip); // Zählt auch für das Subnetz
+        } // Ende der remoteBlocked Methode
+
+        @Override
+        public void remoteUnblocked(String ip) { // Eine Entsperrung eines anderen Knotens
+            ValidatorMetrics.recordUnblock(); // Entsperrung zählen
+            SecurityEventLog log = eventLog; // Aktuelles Protokoll
+            if (log != null) { // Wenn ein Protokoll konfiguriert ist
+                log.log(SecurityEventLog.Type.IP_UNBLOCKED, ip, null, null); // Entsperrung protokollieren
+            }
+        } // Ende der remoteUnblocked Methode
+    }; // Ende der anonymen Klasse
+    
+    /**
+     * Startet die Replikation für den aktuellen Speicher und aktiviert sie
+     * 
+     * @param bind Lokale Adresse und UDP-Port
+     * @param peers Die anderen Knoten
+     * @param key Gemeinsamer Schlüssel aller Knoten
+     * @return Die laufende Replikation (zum Schließen)
+     * @throws IOException wenn der Port nicht geöffnet werden kann
+     */
+    public static synchronized ClusterReplicator enableReplication(InetSocketAddress bind, List<InetSocketAddress> peers, byte[] key) throws IOException { // Öffentliche statische Methode zur Konfiguration
+        ClusterReplicator replicator = ClusterReplicator.start(ipReputation, bind, peers, key); // An den aktuellen Speicher binden
+        reputationBound = true; // Speicher ab jetzt nicht mehr austauschen
+        setClusterReplicator(replicator); // Ab jetzt lokale Ereignisse verteilen und fremde auswerten
+        return replicator; // Zum Schließen zurückgeben
+    } // Ende der enableReplication Methode
+    
+    /**
+     * Setzt das Sicherheitsprotokoll (ein vorheriges wird nicht geschlossen)
+     * 
+     * @param log Das neue Protokoll oder null für keines
+     */
+    public static void setEventLog(SecurityEventLog log) { // Öffentliche statische Methode zur Konfiguration
+        eventLog = log; // Atomar austauschen
+    } // Ende der setEventLog Methode
+    
+    /**
+     * @return Das aktive Sicherheitsprotokoll oder null
+     */
+    public static SecurityEventLog getEventLog() { // Öffentliche statische Methode zum Abfragen
+        return eventLog; // Aktuelles Protokoll
+    } // Ende der getEventLog Methode
+    
+    /**
+     * Schaltet die Warnungen auf stderr ein oder aus (z. B. im Server-Betrieb aus)
+     * 
+     * @param enabled true für Konsolenwarnungen
+     */
+    public static void setConsoleWarnings(boolean enabled) { // Öffentliche statische Methode zur Konfiguration
+        consoleWarnings = enabled; // Sofort wirksam
+    } // Ende der setConsoleWarnings Methode
+    
+    /**
+     * Entsperrt eine IP-Adresse oder einen Adressbereich in CIDR-Notation (nur für Administratoren)
+     * 
+     * @param ipAddress Die zu entsperrende IP-Adresse oder der Bereich (z. B. "203.0.113.0/24")
      */
     public static void unblockIP(String ipAddress) { // Öffentliche statische Methode für IP-Entsperrung
-        BLOCKED_IPS.remove(ipAddress); // Entferne IP aus der Sperrliste
-        SUSPICIOUS_IPS.remove(ipAddress); // Entferne IP aus der Verdächtigen-Liste
-        System.out.println("✅ IP-Adresse " + ipAddress + " wurde entsperrt."); // Bestätigungsnachricht
+        try { // Versuche die Adresse zu parsen und zurückzusetzen
+            boolean entsperrt = ipAddress.indexOf('/') >= 0 // Bereich oder einzelne Adresse?
+                    ? unblockRange(ipAddress) // Bereich und seinen Subnetz-Zähler zurücksetzen
+                    : ipReputation.unblock(ipAddress); // Entferne IP aus Sperr- und Verdächtigen-Liste
+            ClusterReplicator cluster = clusterReplicator; // Einmal lesen (kann neu konfiguriert werden)
+            if (cluster != null && ipAddress.indexOf('/') < 0) { // Einzelne Adressen auch auf den anderen Knoten entsperren
+                cluster.unblocked(ipAddress); // Auch wenn die Sperre hier noch nicht angekommen war
+            }
+            if (entsperrt) { // Nur wenn wirklich etwas gesperrt war
+                ValidatorMetrics.recordUnblock(); // Entsperrung zählen
+                SecurityEventLog log = eventLog; // Aktuelles Protokoll
+                if (log != null) { // Wenn ein Protokoll konfiguriert ist
+                    log.log(SecurityEventLog.Type.IP_UNBLOCKED, ipAddress, null, null); // Entsperrung protokollieren
+                }
+            }
+            System.out.println(entsperrt // Nur bestätigen, was wirklich entsperrt wurde
+                    ? "✅ IP-Adresse " + ipAddress + " wurde entsperrt." // Bestätigungsnachricht
+                    : "ℹ️ IP-Adresse " + ipAddress + " war nicht gesperrt."); // Hinweis statt falscher Bestätigung
+        } catch (IllegalArgumentException e) { // Falls die Adresse ungültig ist
+            System.out.println("❌ Ungültige IP-Adresse: " + ipAddress); // Fehlermeldung
+        } // Ende des try-catch-Blocks
     } // Ende der unblockIP Methode
+
+    /**
+     * Entfernt einen Adressbereich aus dem Präfix-Baum und setzt den Zähler seines Subnetzes zurück,
+     * damit die nächste gesperrte IP das Subnetz nicht sofort wieder sperrt
+     *
+     * @param cidr Der Bereich in CIDR-Notation
+     * @return true, wenn der Bereich gesperrt war
+     * @throws IllegalArgumentException wenn der Bereich ungültig ist
+     */
+    private static boolean unblockRange(String cidr) { // Private Methode für die Bereichs-Entsperrung
+        long[] prefix = PrefixTrie.parseCidr(cidr); // Basisadresse und Länge (wirft bei ungültigem Bereich)
+        boolean entfernt = blockedRanges.remove(cidr); // Bereich aus dem Präfix-Baum entfernen
+        IpReputationStore subnets = subnetReputation; // Einmal lesen (kann neu konfiguriert werden)
+        if (subnets != null) { // Nur wenn die Eskalation aktiv ist
+            int length = IpAddresses.isIpv4(prefix[0], prefix[1]) ? IPV4_SUBNET_LENGTH : IPV6_SUBNET_LENGTH; // Subnetzgröße
+            subnets.unblock(prefix[0] & PrefixTrie.maskHi(length), prefix[1] & PrefixTrie.maskLo(length)); // Zähler des Subnetzes löschen
+        }
+        return entfernt; // Ob wirklich etwas gesperrt war
+    } // Ende der unblockRange Methode
 } // Ende der SecurityMonitor Klasse
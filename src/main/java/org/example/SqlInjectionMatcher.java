@@ -0,0 +1,163 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Aho-Corasick-Automat für die Suche nach vielen Mustern in einem Durchlauf.
+ * Groß-/Kleinschreibung wird zeichenweise gefaltet, daher muss die Eingabe
+ * nicht mehr mit toUpperCase() kopiert werden. Der Automat wird einmal gebaut
+ * und als vollständige Übergangstabelle in primitiven Arrays abgelegt;
+ * eine Suche legt keine Objekte an.
+ */
+public final class SqlInjectionMatcher {
+
+    private static final int NO_MATCH = -1;
+
+    private final String[] patterns;
+    // ASCII-Zeichen (bereits gefaltet) -> Symbol; 0 = Zeichen kommt in keinem Muster vor
+    private final int[] symbols = new int[128];
+    private final int alphabetSize;
+    // Übergangstabelle: delta[zustand * alphabetSize + symbol]
+    private final int[] delta;
+    // Index des Musters, das in diesem Zustand endet (inkl. Suffix-Links), sonst -1
+    private final int[] output;
+
+    /**
+     * Baut den Automaten aus den gegebenen Mustern.
+     *
+     * @param patternSet Die Muster (nur ASCII, Groß-/Kleinschreibung egal)
+     */
+    public SqlInjectionMatcher(Collection<String> patternSet) {
+        patterns = patternSet.toArray(new String[0]);
+
+        // Alphabet: nur Zeichen, die in den Mustern vorkommen
+        int nextSymbol = 1;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = fold(pattern.charAt(i));
+                if (c < 0) {
+                    throw new IllegalArgumentException("Muster darf nur ASCII enthalten: " + pattern);
+                }
+                if (symbols[c] == 0) {
+                    symbols[c] = nextSymbol++;
+                }
+            }
+        }
+        alphabetSize = nextSymbol;
+
+        // 1. Trie aufbauen (0 = Wurzel)
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(newRow());
+        terminal.add(NO_MATCH);
+        for (int p = 0; p < patterns.length; p++) {
+            int state = 0;
+            String pattern = patterns[p];
+            for (int i = 0; i < pattern.length(); i++) {
+                int symbol = symbols[fold(pattern.charAt(i))];
+                int next = trie.get(state)[symbol];
+                if (next <= 0) {
+                    next = trie.size();
+                    trie.get(state)[symbol] = next;
+                    trie.add(newRow());
+                    terminal.add(NO_MATCH);
+                }
+                state = next;
+            }
+            if (terminal.get(state) == NO_MATCH) {
+                terminal.set(state, p);
+            }
+        }
+
+        // 2. Fehlerlinks per Breitensuche und vollständige Übergangstabelle
+        int stateCount = trie.size();
+        delta = new int[stateCount * alphabetSize];
+        output = new int[stateCount];
+        int[] fail = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        output[0] = NO_MATCH;
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = trie.get(0)[symbol];
+            if (next > 0) {
+                fail[next] = 0;
+                queue[tail++] = next;
+                delta[symbol] = next;
+            } else {
+                delta[symbol] = 0;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int own = terminal.get(state);
+            output[state] = own != NO_MATCH ? own : output[fail[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next > 0) {
+                    fail[next] = delta[fail[state] * alphabetSize + symbol];
+                    queue[tail++] = next;
+                    delta[state * alphabetSize + symbol] = next;
+                } else {
+                    delta[state * alphabetSize + symbol] = delta[fail[state] * alphabetSize + symbol];
+                }
+            }
+        }
+    }
+
+    /**
+     * Durchsucht die Eingabe in einem linearen Durchlauf.
+     *
+     * @param input Die zu prüfende Eingabe (darf nicht null sein)
+     * @return Index des ersten gefundenen Musters oder -1
+     */
+    public int find(CharSequence input) {
+        int state = 0;
+        for (int i = 0, n = input.length(); i < n; i++) {
+            int c = fold(input.charAt(i));
+            int symbol = c < 0 ? 0 : symbols[c];
+            state = delta[state * alphabetSize + symbol];
+            int match = output[state];
+            if (match != NO_MATCH) {
+                return match;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * @param index Index aus {@link #find(CharSequence)}
+     * @return das Muster im Originalwortlaut
+     */
+    public String pattern(int index) {
+        return patterns[index];
+    }
+
+    /** @return Anzahl der Muster */
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * Faltet ein Zeichen auf ASCII-Großbuchstaben (wie toUpperCase()).
+     *
+     * @return gefaltetes ASCII-Zeichen oder -1 wenn es kein ASCII-Gegenstück gibt
+     */
+    private static int fold(char c) {
+        if (c < 128) {
+            return c >= 'a' && c <= 'z' ? c - ('a' - 'A') : c;
+        }
+        // z. B. 'ı' -> 'I' oder 'ſ' -> 'S'
+        char upper = Character.toUpperCase(c);
+        return upper < 128 ? upper : -1;
+    }
+}
@@ -0,0 +1,585 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Erkennt SQL- und NoSQL-Injections an ihrer Struktur statt an festen Zeichenketten
+ * (nach dem Vorbild von libinjection). Die Eingabe wird in einem Durchlauf dekodiert
+ * (%XX, doppelt kodiertes %25XX, %uXXXX, \xXX, Vollbreiten-Zeichen) und auf ASCII-Großbuchstaben
+ * gefaltet; ein Lexer zerlegt sie anschließend in Token-Typen, wobei Leerraum und
+ * Kommentare wegfallen. Die ersten höchstens {@value #MAX_TOKENS} Typen ergeben den
+ * Fingerprint, z. B. {@code s&1} für {@code '/ ** /OR/ ** /1=1}, der in einer sortierten
+ * Tabelle nachgeschlagen wird. Ein Kontext endet, sobald kein Fingerprint mehr mit den
+ * bisherigen Token beginnt; die meisten Passwörter sind so nach ein bis zwei Token geprüft.
+ *
+ * Da unbekannt ist, wo die Eingabe in der Anfrage landet, wird sie in drei Kontexten
+ * gelesen: ohne Anführungszeichen, innerhalb von '...' und innerhalb von "...".
+ * Jeder Kontext endet nach {@value #MAX_TOKENS} Token; die Laufzeit ist daher linear
+ * in der Länge der Eingabe, und eine Prüfung legt keine Objekte an.
+ *
+ * <pre>
+ *   s String   1 Zahl    n Bezeichner   k Schlüsselwort   U UNION   E Anweisung (SELECT, DROP, ...)
+ *   &amp; AND/OR   o Operator  f Funktion  ( ) , ;          v @Variable  c Kommentar bis zum Ende
+ *   m MongoDB-Operator als Schlüssel ($ne, $gt, ...; gilt immer als Angriff)
+ * </pre>
+ */
+public final class SqlInjectionTokenizer {
+
+    /** Höchstzahl der Token je Fingerprint */
+    public static final int MAX_TOKENS = 5;
+
+    /**
+     * Fingerprints typischer Angriffe. Ein Eintrag passt auf jeden Fingerprint, der mit ihm
+     * beginnt; Kontexte in Anführungszeichen beginnen immer mit {@code s}.
+     */
+    public static final List<String> DEFAULT_FINGERPRINTS = List.of(
+            // ' OR 1=1, ' OR 'a'='a, ' OR x=..., ' AND SLEEP(5), ' OR (1)=(1), ' || @x
+            "s&1", "s&s", "s&n", "s&f", "s&(", "s&v",
+            // admin'--, admin'/* (admin'# allein nicht, siehe scan), ')#
+            "sc", "s)c",
+            // ') OR ('1'='1, '); DROP ...
+            "s)&", "s);E", "s)UE",
+            // ' UNION SELECT, '; DROP TABLE, ' WAITFOR DELAY, ' SELECT * ...
+            "sUE", "sU(E", "s;E", "sEk", "sEo",
+            // Zahlen-Kontext: 1 OR 1=1, 1 OR 1--, 1 AND SLEEP(5), 1) OR (1=1
+            "1&1o", "1&1c", "1&s", "1&(", "1&f", "1)&", "n&1o1",
+            // UNION SELECT NULL, 1 UNION SELECT, x; DROP ...
+            "UE", "U(E", "1UE", "nUE", "1;E", "n;E",
+            // SELECT * FROM, SELECT SLEEP(5), EXEC xp_cmdshell 'dir'
+            "Eok", "Ef(", "E(", "Ens");
+
+    private static final String TYPES = "s1nkUE&of(),;vcm";
+    private static final int STRING = code('s');
+    private static final int NUMBER = code('1');
+    private static final int BAREWORD = code('n');
+    private static final int KEYWORD = code('k');
+    private static final int UNION = code('U');
+    private static final int STATEMENT = code('E');
+    private static final int LOGIC = code('&');
+    private static final int OPERATOR = code('o');
+    private static final int FUNCTION = code('f');
+    private static final int OPEN = code('(');
+    private static final int CLOSE = code(')');
+    private static final int COMMA = code(',');
+    private static final int SEMICOLON = code(';');
+    private static final int VARIABLE = code('v');
+    private static final int COMMENT = code('c');
+    private static final int MONGO = code('m');
+
+    // Schlüsselwörter als gepackte Großbuchstaben (5 Bit je Zeichen) -> Token-Typ
+    private static final long[] KEYWORD_KEYS;
+    private static final byte[] KEYWORD_TYPES;
+    private static final long[] MONGO_KEYS;
+    private static final long ALL = key("ALL");
+    private static final long DISTINCT = key("DISTINCT");
+
+    static {
+        Map<Long, Integer> keywords = new TreeMap<>();
+        add(keywords, UNION, "UNION");
+        add(keywords, STATEMENT, "SELECT", "INSERT", "UPDATE", "DELETE", "DROP", "CREATE", "ALTER", "TRUNCATE",
+                "EXEC", "EXECUTE", "DECLARE", "WAITFOR", "SHUTDOWN", "MERGE", "GRANT", "HANDLER");
+        add(keywords, LOGIC, "AND", "OR", "XOR");
+        add(keywords, OPERATOR, "NOT", "LIKE", "IS", "IN", "REGEXP", "RLIKE", "DIV", "MOD", "BETWEEN", "SOUNDS");
+        add(keywords, NUMBER, "NULL", "TRUE", "FALSE");
+        add(keywords, KEYWORD, "FROM", "WHERE", "INTO", "VALUES", "TABLE", "DATABASE", "LIMIT", "OFFSET", "ORDER",
+                "GROUP", "BY", "HAVING", "SET", "CASE", "WHEN", "THEN", "ELSE", "END", "AS", "ALL", "DISTINCT",
+                "OUTFILE", "DUMPFILE", "DELAY", "PROCEDURE", "TOP", "JOIN", "ON", "ASC", "DESC", "COLLATE");
+        KEYWORD_KEYS = new long[keywords.size()];
+        KEYWORD_TYPES = new byte[keywords.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : keywords.entrySet()) {
+            KEYWORD_KEYS[i] = entry.getKey();
+            KEYWORD_TYPES[i++] = (byte) (int) entry.getValue();
+        }
+        String[] mongo = {"NE", "EQ", "GT", "GTE", "LT", "LTE", "IN", "NIN", "OR", "AND", "NOR", "NOT", "WHERE",
+                "REGEX", "EXISTS", "EXPR", "ELEMMATCH", "FUNCTION", "ACCUMULATOR"};
+        MONGO_KEYS = new long[mongo.length];
+        for (int m = 0; m < mongo.length; m++) {
+            MONGO_KEYS[m] = key(mongo[m]);
+        }
+        Arrays.sort(MONGO_KEYS);
+    }
+
+    // Gefaltete ASCII-Zeichen und Operatorzeichen als Tabellen (kein Verzweigen je Zeichen)
+    private static final char[] ASCII_FOLD = new char[128];
+    private static final boolean[] OPERATOR_CHARS = new boolean[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            ASCII_FOLD[c] = fold(c);
+        }
+        for (char c : "=<>!+-*/%^~|&:?.\\{}[]".toCharArray()) {
+            OPERATOR_CHARS[c] = true;
+        }
+    }
+
+    // Dekodierte Eingabe je Thread (wird nach jeder Prüfung überschrieben)
+    private static final ThreadLocal<char[]> DECODED = ThreadLocal.withInitial(() -> new char[256]);
+
+    private final int[] fingerprints;
+    // Alle echten Anfänge der Fingerprints: passt keiner mehr, endet der Kontext sofort
+    private final int[] prefixes;
+
+    /**
+     * Übersetzt die Fingerprints in die Suchtabelle.
+     *
+     * @param fingerprintSet Fingerprints aus den Token-Typen oben (1 bis {@value #MAX_TOKENS} Zeichen)
+     */
+    public SqlInjectionTokenizer(Collection<String> fingerprintSet) {
+        fingerprints = new int[fingerprintSet.size()];
+        int[] starts = new int[fingerprintSet.size() * (MAX_TOKENS - 1)];
+        int prefixCount = 0;
+        int i = 0;
+        for (String fingerprint : fingerprintSet) {
+            if (fingerprint.isEmpty() || fingerprint.length() > MAX_TOKENS) {
+                throw new IllegalArgumentException("Fingerprint muss 1 bis " + MAX_TOKENS + " Token haben: " + fingerprint);
+            }
+            int packed = 0;
+            for (int c = 0; c < fingerprint.length(); c++) {
+                int type = TYPES.indexOf(fingerprint.charAt(c));
+                if (type < 0) {
+                    throw new IllegalArgumentException("Unbekannter Token-Typ in " + fingerprint);
+                }
+                packed = packed << 5 | type + 1;
+                if (c < fingerprint.length() - 1) {
+                    starts[prefixCount++] = packed;
+                }
+            }
+            fingerprints[i++] = packed;
+        }
+        Arrays.sort(fingerprints);
+        prefixes = Arrays.stream(starts, 0, prefixCount).sorted().distinct().toArray();
+    }
+
+    /**
+     * Prüft die Eingabe in allen drei Kontexten.
+     *
+     * @param input Die zu prüfende Eingabe (darf nicht null sein)
+     * @return der passende Fingerprint (siehe {@link #fingerprint(int)}) oder 0
+     */
+    public int detect(CharSequence input) {
+        int length = input.length();
+        char[] decoded = DECODED.get();
+        if (decoded.length < length) {
+            decoded = new char[Math.max(length, decoded.length * 2)];
+            DECODED.set(decoded);
+        }
+        int n = decode(input, decoded);
+        try {
+            boolean single = false;
+            boolean dbl = false;
+            boolean dollar = false;
+            for (int i = 0; i < n; i++) {
+                char c = decoded[i];
+                single |= c == '\'';
+                dbl |= c == '"';
+                dollar |= c == '$';
+            }
+            // Die Kontexte in Anführungszeichen nur, wenn das Zeichen überhaupt vorkommt
+            int match = scan(decoded, n, '\0', dollar);
+            if (match == 0 && single) {
+                match = scan(decoded, n, '\'', dollar);
+            }
+            if (match == 0 && dbl) {
+                match = scan(decoded, n, '"', dollar);
+            }
+            return match;
+        } finally {
+            Arrays.fill(decoded, 0, n, '\0');
+        }
+    }
+
+    /**
+     * @param packed Rückgabewert von {@link #detect(CharSequence)}
+     * @return der Fingerprint als Text, z. B. "s&amp;1o1"
+     */
+    public static String fingerprint(int packed) {
+        StringBuilder sb = new StringBuilder(MAX_TOKENS);
+        for (; packed != 0; packed >>>= 5) {
+            sb.append(TYPES.charAt((packed & 31) - 1));
+        }
+        return sb.reverse().toString();
+    }
+
+    /** @return Anzahl der Fingerprints in der Tabelle */
+    public int fingerprintCount() {
+        return fingerprints.length;
+    }
+
+    /**
+     * Zerlegt die dekodierte Eingabe in einem Kontext und vergleicht nach jedem Token.
+     *
+     * @param quote 0 ohne Anführungszeichen, sonst das Zeichen, in dem die Eingabe steht
+     * @param dollar true wenn ein MongoDB-Operator vorkommen kann (dann nicht vorzeitig abbrechen)
+     * @return der passende Fingerprint oder 0
+     */
+    private int scan(char[] s, int n, char quote, boolean dollar) {
+        int fp = 0;
+        int count = 0;
+        boolean unary = false; // letzter Operator war ein einzelnes +, -, ~ oder !
+        int i = 0;
+        if (quote != '\0') {
+            i = endOfString(s, 0, n, quote);
+            fp = STRING;
+            count = 1;
+        }
+        while (i < n) {
+            char c = s[i];
+            char next = i + 1 < n ? s[i + 1] : 0;
+            int type;
+            boolean single = false;
+            if (c == ' ') {
+                i++;
+                continue;
+            } else if (c == '\'' || c == '"') {
+                i = endOfString(s, i + 1, n, c);
+                type = STRING;
+            } else if (c == '`') {
+                i = endOfString(s, i + 1, n, c);
+                type = BAREWORD;
+            } else if (c == '-' && next == '-' || c == '#') {
+                int end = indexOf(s, i, n, '\n');
+                if (end < 0 && c == '#' && count == 1) {
+                    return 0; // x'# ist in Passwörtern zu häufig, erst ab drei Token ein Kommentar-Angriff
+                } else if (end < 0) {
+                    type = COMMENT;
+                    i = n;
+                } else {
+                    i = end + 1;
+                    continue;
+                }
+            } else if (c == '/' && next == '*') {
+                if (i + 2 < n && s[i + 2] == '!') {
+                    // MySQL führt /*!50000 ... */ aus: nur den Kopf überspringen
+                    i += 3;
+                    while (i < n && isDigit(s[i])) {
+                        i++;
+                    }
+                    continue;
+                }
+                int end = indexOfCommentEnd(s, i + 2, n);
+                if (end < 0) {
+                    type = COMMENT;
+                    i = n;
+                } else {
+                    i = end + 2;
+                    continue;
+                }
+            } else if (c == '*' && next == '/') {
+                i += 2; // Ende eines ausführbaren Kommentars
+                continue;
+            } else if (isDigit(c) || c == '.' && isDigit(next)) {
+                i = endOfNumber(s, i, n);
+                type = NUMBER;
+                if (i < n && isWordChar(s[i])) {
+                    i = endOfWord(s, i, n);
+                    type = BAREWORD;
+                }
+            } else if (isWordStart(c)) {
+                int end = endOfWord(s, i, n);
+                long word = key(s, i, end);
+                type = keywordType(word);
+                i = end;
+                if ((word == ALL || word == DISTINCT) && (fp & 31) == UNION) {
+                    continue; // UNION ALL wie UNION
+                }
+                if (type == BAREWORD && nextSignificant(s, i, n) == '(') {
+                    type = FUNCTION;
+                }
+            } else if (c == '@') {
+                int start = next == '@' ? i + 2 : i + 1;
+                i = start < n && isWordStart(s[start]) ? endOfWord(s, start, n) : start;
+                type = VARIABLE;
+            } else if (c == '$' && isWordStart(next)) {
+                int end = endOfWord(s, i + 1, n);
+                char after = nextSignificant(s, end, n);
+                // Nur als Schlüssel ({"$ne": ...}, [$gt]=) ein Operator, sonst z. B. "Pa$in&"
+                boolean operator = after == ':' || after == ']' || after == '"' || after == '\'';
+                type = operator && Arrays.binarySearch(MONGO_KEYS, key(s, i + 1, end)) >= 0 ? MONGO : BAREWORD;
+                i = end;
+            } else if (c == '(') {
+                i++;
+                type = OPEN;
+            } else if (c == ')') {
+                i++;
+                type = CLOSE;
+            } else if (c == ',') {
+                i++;
+                type = COMMA;
+            } else if (c == ';') {
+                i++;
+                type = SEMICOLON;
+            } else if ((c == '|' || c == '&') && next == c) {
+                i += 2;
+                type = LOGIC;
+            } else {
+                int start = i;
+                i++;
+                while (i < n && isOperatorChar(s[i]) && !startsComment(s, i, n)) {
+                    i++;
+                }
+                type = OPERATOR;
+                single = i - start == 1 && (c == '+' || c == '-' || c == '~' || c == '!');
+            }
+
+            // Faltung: Operatoren und Strings hintereinander zählen einmal, Vorzeichen gehören zur Zahl
+            int last = fp & 31;
+            if (type == OPERATOR && last == OPERATOR || type == STRING && last == STRING) {
+                unary = false;
+                continue;
+            }
+            if (type == NUMBER && last == OPERATOR && unary && (count == 1 || isUnaryContext(fp >>> 5 & 31))) {
+                fp = fp & ~31 | NUMBER;
+            } else {
+                fp = fp << 5 | type;
+                count++;
+            }
+            unary = single;
+            if (type == MONGO) {
+                return fp;
+            }
+            if (Arrays.binarySearch(fingerprints, fp) >= 0) {
+                return fp;
+            }
+            // Ein Vorzeichen kann noch mit der folgenden Zahl verschmelzen
+            if (count == MAX_TOKENS || !unary && !dollar && Arrays.binarySearch(prefixes, fp) < 0) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Dekodiert Prozent- und Hex-Kodierungen und faltet auf ASCII-Großbuchstaben;
+     * Leerraum aller Art wird zu ' '.
+     *
+     * @return Anzahl der dekodierten Zeichen
+     */
+    static int decode(CharSequence in, char[] out) {
+        int length = in.length();
+        int n = 0;
+        int i = 0;
+        while (i < length) {
+            char c = in.charAt(i++);
+            if (c < 128 && c != '%' && c != '\\') {
+                out[n++] = ASCII_FOLD[c];
+                continue;
+            }
+            // Doppelt kodiert (%2527 -> %27 -> ') höchstens zweimal auflösen
+            for (int round = 0; round < 2; round++) {
+                if (c == '%' && i + 1 < length && hex(in.charAt(i)) >= 0 && hex(in.charAt(i + 1)) >= 0) {
+                    c = (char) (hex(in.charAt(i)) << 4 | hex(in.charAt(i + 1)));
+                    i += 2;
+                } else if ((c == '%' || c == '\\') && i + 4 < length && (in.charAt(i) == 'u' || in.charAt(i) == 'U')
+                        && hex4(in, i + 1) >= 0) {
+                    c = (char) hex4(in, i + 1);
+                    i += 5;
+                } else if (c == '\\' && i + 2 < length && (in.charAt(i) == 'x' || in.charAt(i) == 'X')
+                        && hex(in.charAt(i + 1)) >= 0 && hex(in.charAt(i + 2)) >= 0) {
+                    c = (char) (hex(in.charAt(i + 1)) << 4 | hex(in.charAt(i + 2)));
+                    i += 3;
+                } else {
+                    break;
+                }
+            }
+            out[n++] = fold(c);
+        }
+        return n;
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            if (c >= 'a' && c <= 'z') {
+                return (char) (c - ('a' - 'A'));
+            }
+            return c <= ' ' || c == 127 ? ' ' : c;
+        }
+        if (c >= '\uFF01' && c <= '\uFF5E') {
+            return fold((char) (c - 0xFEE0)); // Vollbreite: ＇ＯＲ -> 'OR
+        }
+        if (Character.isSpaceChar(c) || Character.isWhitespace(c) || c == '\uFEFF') {
+            return ' ';
+        }
+        char upper = Character.toUpperCase(c); // z. B. 'ı' -> 'I'
+        return upper < 128 ? upper : c;
+    }
+
+    /** @return Index hinter dem schließenden Anführungszeichen (verdoppelt oder mit \ maskiert zählt nicht) */
+    private static int endOfString(char[] s, int i, int n, char quote) {
+        while (i < n) {
+            char c = s[i];
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < n && s[i + 1] == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return n;
+    }
+
+    private static int endOfNumber(char[] s, int i, int n) {
+        if (s[i] == '0' && i + 2 < n && (s[i + 1] == 'X' || s[i + 1] == 'B') && hex(s[i + 2]) >= 0) {
+            i += 2;
+            while (i < n && hex(s[i]) >= 0) {
+                i++;
+            }
+            return i;
+        }
+        while (i < n && isDigit(s[i])) {
+            i++;
+        }
+        if (i < n && s[i] == '.') {
+            i++;
+            while (i < n && isDigit(s[i])) {
+                i++;
+            }
+        }
+        if (i + 1 < n && s[i] == 'E' && (isDigit(s[i + 1]) || (s[i + 1] == '+' || s[i + 1] == '-') && i + 2 < n && isDigit(s[i + 2]))) {
+            i += 2;
+            while (i < n && isDigit(s[i])) {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static int endOfWord(char[] s, int i, int n) {
+        while (i < n && isWordChar(s[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int keywordType(long word) {
+        if (word == 0) {
+            return BAREWORD;
+        }
+        int index = Arrays.binarySearch(KEYWORD_KEYS, word);
+        return index >= 0 ? KEYWORD_TYPES[index] : BAREWORD;
+    }
+
+    /** @return erstes Zeichen nach Leerraum und abgeschlossenen Blockkommentaren oder 0 */
+    private static char nextSignificant(char[] s, int i, int n) {
+        while (i < n) {
+            if (s[i] == ' ') {
+                i++;
+            } else if (s[i] == '/' && i + 1 < n && s[i + 1] == '*') {
+                int end = indexOfCommentEnd(s, i + 2, n);
+                if (end < 0) {
+                    return 0;
+                }
+                i = end + 2;
+            } else {
+                return s[i];
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(char[] s, int i, int n, char c) {
+        for (; i < n; i++) {
+            if (s[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfCommentEnd(char[] s, int i, int n) {
+        for (; i + 1 < n; i++) {
+            if (s[i] == '*' && s[i + 1] == '/') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsComment(char[] s, int i, int n) {
+        char c = s[i];
+        char next = i + 1 < n ? s[i + 1] : 0;
+        return c == '#' || c == '-' && next == '-' || c == '/' && next == '*' || c == '*' && next == '/';
+    }
+
+    private static boolean isUnaryContext(int type) {
+        return type == LOGIC || type == OPERATOR || type == OPEN || type == COMMA || type == 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordStart(char c) {
+        return c >= 'A' && c <= 'Z' || c == '_' || c >= 128;
+    }
+
+    private static boolean isWordChar(char c) {
+        return isWordStart(c) || isDigit(c) || c == '$';
+    }
+
+    private static boolean isOperatorChar(char c) {
+        return c < 128 && OPERATOR_CHARS[c];
+    }
+
+    /** @return Wort als 5-Bit-Zeichen gepackt (A-Z, _), 0 wenn es kein Schlüsselwort sein kann */
+    private static long key(char[] s, int start, int end) {
+        if (end - start > 12) {
+            return 0;
+        }
+        long key = 0;
+        for (int i = start; i < end; i++) {
+            char c = s[i];
+            int value = c >= 'A' && c <= 'Z' ? c - 'A' + 1 : c == '_' ? 27 : 0;
+            if (value == 0) {
+                return 0;
+            }
+            key = key << 5 | value;
+        }
+        return key;
+    }
+
+    private static long key(String word) {
+        return key(word.toCharArray(), 0, word.length());
+    }
+
+    private static void add(Map<Long, Integer> keywords, int type, String... words) {
+        for (String word : words) {
+            keywords.putIfAbsent(key(word), type);
+        }
+    }
+
+    private static int code(char type) {
+        return TYPES.indexOf(type) + 1;
+    }
+
+    private static int hex(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return c >= 'A' && c <= 'F' ? c - 'A' + 10 : -1;
+    }
+
+    private static int hex4(CharSequence s, int i) {
+        int value = 0;
+        for (int k = i; k < i + 4; k++) {
+            int digit = hex(s.charAt(k));
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,322 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Nicht-interaktive Validierung beliebig großer Eingaben (ein Passwort pro Zeile).
+ * Lesen, Validieren und Schreiben laufen als Pipeline überlappend:
+ * ein Lese-Thread dekodiert die Eingabe über einen NIO-Kanal in Blöcke,
+ * ein Thread-Pool validiert die Blöcke, und der aufrufende Thread schreibt
+ * die Ergebnisse in Eingabereihenfolge. Die Zahl der Blöcke in Bearbeitung
+ * ist begrenzt, der Speicherverbrauch hängt also nicht von der Eingabegröße ab.
+ *
+ * Ausgabe: CSV ("zeile,bewertung,klassen,mindestlaenge,schwach") oder binär
+ * (ein Ergebnisbyte pro Zeile, siehe {@link ValidationCodes}). Passwörter selbst
+ * werden nie ausgegeben.
+ */
+public final class StreamingValidator {
+
+    /** Ausgabeformat */
+    public enum Format {
+        CSV, BINARY
+    }
+
+    /** Zeilen, die länger sind, werden nach dieser Zeichenzahl abgeschnitten */
+    public static final int MAX_LINE_LENGTH = 4096;
+
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int BLOCK_CHARS = 1 << 18;
+    private static final int BLOCK_LINES = 1 << 14;
+    private static final byte[] CSV_HEADER = "zeile,bewertung,klassen,mindestlaenge,schwach\n"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private final int threads;
+    private final Format format;
+    private final PasswordPolicy policy;
+
+    /**
+     * @param threads Anzahl der Validierungs-Threads
+     * @param format Ausgabeformat
+     */
+    public StreamingValidator(int threads, Format format) {
+        this(threads, format, PasswordPolicy.defaults());
+    }
+
+    /**
+     * @param threads Anzahl der Validierungs-Threads
+     * @param format Ausgabeformat
+     * @param policy Die anzuwendende Richtlinie
+     */
+    public StreamingValidator(int threads, Format format, PasswordPolicy policy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + threads);
+        }
+        this.threads = threads;
+        this.format = format;
+        this.policy = policy;
+    }
+
+    /**
+     * Validiert alle Zeilen der Eingabe und schreibt die Ergebnisse.
+     *
+     * @param in Eingabekanal (UTF-8, Zeilen getrennt durch \n oder \r\n)
+     * @param out Ausgabe (wird gepuffert, aber nicht geschlossen)
+     * @return Anzahl der validierten Zeilen
+     * @throws IOException bei Lese- oder Schreibfehlern
+     * @throws InterruptedException wenn der aufrufende Thread unterbrochen wird
+     */
+    public long run(ReadableByteChannel in, OutputStream out) throws IOException, InterruptedException {
+        // Begrenzte Warteschlange: höchstens so viele Blöcke gleichzeitig im Speicher
+        BlockingQueue<CompletableFuture<Block>> pending = new ArrayBlockingQueue<>(threads * 2 + 2);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stream-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread reader = new Thread(() -> read(in, pending, pool), "stream-reader");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            return write(pending, out);
+        } finally {
+            reader.interrupt();
+            pool.shutdownNow();
+        }
+    }
+
+    private void read(ReadableByteChannel in, BlockingQueue<CompletableFuture<Block>> pending, ExecutorService pool) {
+        try {
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            ByteBuffer bytes = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            CharBuffer chars = CharBuffer.allocate(READ_BUFFER_SIZE);
+            Block block = new Block();
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                endOfInput = in.read(bytes) < 0;
+                bytes.flip();
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                if (endOfInput) {
+                    decoder.flush(chars);
+                }
+                bytes.compact();
+                chars.flip();
+                while (chars.hasRemaining()) {
+                    char c = chars.get();
+                    if (c == '\n') {
+                        block.endLine();
+                        if (block.isFull()) {
+                            submit(block, pending, pool);
+                            block = new Block();
+                        }
+                    } else {
+                        block.append(c);
+                    }
+                }
+                Arrays.fill(chars.array(), 0, chars.limit(), '\0'); // dekodierte Passwörter nicht liegen lassen
+                chars.clear();
+                if (result.isError()) {
+                    result.throwException();
+                }
+            }
+            PasswordBuffers.wipe(bytes.clear());
+            if (block.hasOpenLine()) {
+                block.endLine(); // letzte Zeile ohne Zeilenumbruch
+            }
+            if (block.lines > 0) {
+                submit(block, pending, pool);
+            }
+            pending.put(CompletableFuture.completedFuture(Block.END));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            pending.clear();
+            pending.offer(CompletableFuture.failedFuture(e));
+        }
+    }
+
+    private void submit(Block block, BlockingQueue<CompletableFuture<Block>> pending, ExecutorService pool)
+            throws InterruptedException {
+        pending.put(CompletableFuture.supplyAsync(() -> block.validate(policy), pool));
+    }
+
+    private long write(BlockingQueue<CompletableFuture<Block>> pending, OutputStream out)
+            throws IOException, InterruptedException {
+        OutputBuffer buffer = new OutputBuffer(out);
+        if (format == Format.CSV) {
+            buffer.write(CSV_HEADER);
+        }
+        long line = 0;
+        while (true) {
+            Block block;
+            try {
+                block = pending.take().join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                throw e;
+            }
+            if (block == Block.END) {
+                break;
+            }
+            for (int i = 0; i < block.lines; i++) {
+                line++;
+                byte code = block.codes[i];
+                if (format == Format.BINARY) {
+                    buffer.write(code);
+                } else {
+                    buffer.writeNumber(line);
+                    buffer.write((byte) ',');
+                    buffer.writeAscii(ValidationCodes.verdict(code).name());
+                    buffer.write((byte) ',');
+                    buffer.writeNumber(ValidationCodes.classes(code));
+                    buffer.write((byte) ',');
+                    buffer.write((byte) (ValidationCodes.meetsMinLength(code) ? '1' : '0'));
+                    buffer.write((byte) ',');
+                    buffer.write((byte) (ValidationCodes.isBlacklisted(code) ? '1' : '0'));
+                    buffer.write((byte) '\n');
+                }
+            }
+        }
+        buffer.flush();
+        return line;
+    }
+
+    /**
+     * Ein Block aufeinanderfolgender Zeilen: Zeichen in einem Array, Zeilenenden als Offsets.
+     */
+    private static final class Block {
+        static final Block END = new Block(0, 0);
+
+        final char[] chars;
+        final int[] ends;
+        byte[] codes;
+        int length;
+        int lines;
+        int lineStart;
+
+        Block(int charCapacity, int lineCapacity) {
+            chars = new char[charCapacity];
+            ends = new int[lineCapacity];
+        }
+
+        Block() {
+            this(BLOCK_CHARS, BLOCK_LINES);
+        }
+
+        void append(char c) {
+            // Zeilen über MAX_LINE_LENGTH werden abgeschnitten
+            if (length - lineStart < MAX_LINE_LENGTH) {
+                chars[length++] = c;
+            }
+        }
+
+        void endLine() {
+            if (length > lineStart && chars[length - 1] == '\r') {
+                length--;
+            }
+            ends[lines++] = length;
+            lineStart = length;
+        }
+
+        boolean hasOpenLine() {
+            return length > lineStart;
+        }
+
+        /** Voll, wenn keine weitere Zeile maximaler Länge sicher hineinpasst. */
+        boolean isFull() {
+            return lines == BLOCK_LINES || BLOCK_CHARS - length < MAX_LINE_LENGTH;
+        }
+
+        Block validate(PasswordPolicy policy) {
+            PasswordAnalysis scratch = new PasswordAnalysis();
+            CharSlice slice = new CharSlice();
+            codes = new byte[lines];
+            int start = 0;
+            for (int i = 0; i < lines; i++) {
+                codes[i] = policy.evaluate(slice.set(chars, start, ends[i] - start), scratch);
+                start = ends[i];
+            }
+            slice.clear();
+            Arrays.fill(chars, 0, length, '\0'); // nur die Ergebniscodes werden noch gebraucht
+            return this;
+        }
+    }
+
+    /**
+     * Ausgabepuffer, der Zahlen und ASCII-Text ohne Zwischen-Strings schreibt.
+     */
+    private static final class OutputBuffer {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position;
+
+        OutputBuffer(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(byte b) throws IOException {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            buffer[position++] = b;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            for (byte b : bytes) {
+                write(b);
+            }
+        }
+
+        void writeAscii(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                write((byte) text.charAt(i));
+            }
+        }
+
+        void writeNumber(long value) throws IOException {
+            if (position + 20 > buffer.length) {
+                flushBuffer();
+            }
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            int end = position + digits;
+            int i = end;
+            do {
+                buffer[--i] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            position = end;
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
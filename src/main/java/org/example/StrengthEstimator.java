@@ -0,0 +1,669 @@
+package org.example;
+
+import java.time.Year;
+import java.util.Arrays;
+
+/**
+ * Schätzt, wie viele Versuche ein Angreifer für ein Passwort braucht (nach dem
+ * Vorbild von zxcvbn). Das Passwort wird in Muster zerlegt - Wörter aus einer
+ * Rangliste, Tastaturmuster (QWERTY/QWERTZ), Folgen ("abc", "9753"),
+ * Wiederholungen ("aaa", "abcabc") und Datumsangaben, Wörter auch mit
+ * l33t-Ersetzungen ("p@ssw0rd") - und per dynamischer
+ * Programmierung die Zerlegung mit den wenigsten Versuchen gesucht; was kein
+ * Muster trifft, wird mit 10 Versuchen pro Zeichen erraten.
+ *
+ * Wortliste und Tastaturnachbarschaften werden einmal beim Laden der Klasse in
+ * Arrays übersetzt. Die Schätzung arbeitet mit wiederverwendeten Puffern pro
+ * Thread und legt keine Objekte an; die Kopien des Passworts darin werden nach
+ * jeder Schätzung überschrieben. Berücksichtigt werden höchstens
+ * {@link #MAX_LENGTH} Zeichen; längere Passwörter werden dadurch eher unterschätzt.
+ */
+public final class StrengthEstimator {
+
+    /** Länge, bis zu der Muster gesucht werden */
+    public static final int MAX_LENGTH = 64;
+
+    /** Höchste Bewertung (sehr schwer zu erraten) */
+    public static final int MAX_SCORE = 4;
+
+    // Grenzen zwischen den Bewertungen 0-4 in log10(Versuche) wie bei zxcvbn
+    private static final double[] SCORE_THRESHOLDS = {3, 6, 8, 10};
+
+    private static final WordTrie WORDS = WordTrie.load("strength-words.txt");
+    private static final KeyboardLayout[] LAYOUTS = KeyboardLayout.values();
+
+    private static final int REFERENCE_YEAR = Year.now().getValue();
+    private static final int MIN_YEAR_SPACE = 20;
+    private static final String DATE_SEPARATORS = " -/\\_.";
+    // Aufteilungen reiner Ziffernfolgen (Länge 4-8) in drei Teile: Ende Teil 1, Ende Teil 2
+    private static final int[][][] DATE_SPLITS = {
+            {}, {}, {}, {},
+            {{1, 2}, {2, 3}},
+            {{1, 3}, {2, 3}},
+            {{1, 2}, {2, 4}, {4, 5}},
+            {{1, 3}, {2, 3}, {4, 5}, {4, 6}},
+            {{2, 4}, {4, 6}}
+    };
+
+    // Jede weitere Teilfolge muss mindestens so viele Versuche wert sein (10^4)
+    private static final double LOG10_SEQUENCE_GROWTH = 4;
+    private static final double LOG10_MIN_SINGLE_CHAR = 1; // 10 Versuche
+    private static final double LOG10_MIN_MULTI_CHAR = Math.log10(50);
+
+    private static final double[] LOG10_FACTORIAL = new double[MAX_LENGTH + 1];
+
+    static {
+        for (int i = 2; i <= MAX_LENGTH; i++) {
+            LOG10_FACTORIAL[i] = LOG10_FACTORIAL[i - 1] + Math.log10(i);
+        }
+    }
+
+    // L33T[c]: Buchstaben, für die das Zeichen c stehen kann (wie bei zxcvbn)
+    private static final char[][] L33T = new char[128][];
+
+    static {
+        String[] table = {"4a", "@a", "8b", "(c", "{c", "[c", "<c", "3e", "6g", "9g", "1il", "!i", "|il", "7lt",
+                "0o", "$s", "5s", "+t", "%x", "2z"};
+        for (String entry : table) {
+            L33T[entry.charAt(0)] = entry.substring(1).toCharArray();
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Puffer einer Schätzung; die geschachtelte Instanz bewertet die Grundeinheit
+     * einer Wiederholung ("abc" in "abcabcabc").
+     */
+    private static final class Scratch {
+        final char[] chars = new char[MAX_LENGTH];
+        final char[] lower = new char[MAX_LENGTH];
+        final char[] word = new char[MAX_LENGTH]; // l33t: gelesener Buchstabe je Position
+        int length;
+        int maxSequence; // mehr Muster können nie weniger Versuche ergeben
+
+        int matches;
+        int[] starts = new int[128];
+        int[] ends = new int[128];
+        double[] logs = new double[128];
+        int[] nextWithSameEnd = new int[128];
+        final int[] firstByEnd = new int[MAX_LENGTH + 1]; // verkettete Liste der Muster je Endposition
+
+        // best[p * (MAX_LENGTH + 1) + l]: kleinstes log10-Produkt für die ersten p Zeichen aus l Mustern
+        final double[] best = new double[(MAX_LENGTH + 1) * (MAX_LENGTH + 1)];
+        final boolean[] bruteForce = new boolean[(MAX_LENGTH + 1) * (MAX_LENGTH + 1)];
+        // bruteStart[l]: kleinstes best[i][l] - i über alle bisherigen i (Raten ab i kostet 10^(p-i))
+        final double[] bruteStart = new double[MAX_LENGTH + 1];
+
+        Scratch nested;
+
+        void add(int start, int end, double log10Guesses) {
+            if (end - start == 1 && length > 1) {
+                return; // Ein Zeichen als Muster ist nie billiger als Raten (10 Versuche)
+            }
+            if (matches == starts.length) {
+                starts = Arrays.copyOf(starts, matches * 2);
+                ends = Arrays.copyOf(ends, matches * 2);
+                logs = Arrays.copyOf(logs, matches * 2);
+                nextWithSameEnd = Arrays.copyOf(nextWithSameEnd, matches * 2);
+            }
+            nextWithSameEnd[matches] = firstByEnd[end];
+            firstByEnd[end] = matches;
+            starts[matches] = start;
+            ends[matches] = end;
+            logs[matches] = Math.max(log10Guesses, minimumGuesses(start, end, length));
+            matches++;
+        }
+
+        /** Überschreibt die Kopien des Passworts (auch in der geschachtelten Instanz). */
+        void wipe(int upTo) {
+            PasswordBuffers.wipe(chars, 0, upTo);
+            PasswordBuffers.wipe(lower, 0, upTo);
+            PasswordBuffers.wipe(word, 0, upTo);
+            if (nested != null) {
+                nested.wipe(Math.min(upTo, MAX_LENGTH));
+            }
+        }
+    }
+
+    private StrengthEstimator() {
+    }
+
+    /**
+     * Schätzt die Anzahl der nötigen Versuche.
+     *
+     * @param password Das Passwort (darf null sein)
+     * @return log10 der geschätzten Versuche (0 für null oder leer)
+     */
+    public static double log10Guesses(CharSequence password) {
+        if (password == null || password.length() == 0) {
+            return 0;
+        }
+        long start = ValidatorMetrics.startTimer();
+        Scratch scratch = SCRATCH.get();
+        int length = Math.min(password.length(), MAX_LENGTH);
+        double guesses;
+        try {
+            for (int i = 0; i < length; i++) {
+                scratch.chars[i] = password.charAt(i);
+            }
+            guesses = estimate(scratch, scratch.chars, 0, length, true);
+        } finally {
+            scratch.wipe(length); // Keine Reste des Passworts im Puffer des Threads
+        }
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.STRENGTH, start);
+        return guesses;
+    }
+
+    /**
+     * Bewertet ein Passwort von 0 (trivial zu erraten) bis 4 (sehr schwer zu erraten).
+     *
+     * @param password Das Passwort (darf null sein)
+     * @return Bewertung 0 bis {@link #MAX_SCORE}
+     */
+    public static int score(CharSequence password) {
+        return score(log10Guesses(password));
+    }
+
+    /**
+     * @param log10Guesses log10 der geschätzten Versuche
+     * @return Bewertung 0 (unter 10^3) bis 4 (ab 10^10)
+     */
+    public static int score(double log10Guesses) {
+        int score = 0;
+        while (score < SCORE_THRESHOLDS.length && log10Guesses >= SCORE_THRESHOLDS[score]) {
+            score++;
+        }
+        return score;
+    }
+
+    private static double estimate(Scratch s, char[] source, int offset, int length, boolean blockRepeats) {
+        s.length = length;
+        s.matches = 0;
+        Arrays.fill(s.firstByEnd, 0, length + 1, -1);
+        // l Muster kosten mindestens 10^(4(l-1)); reines Raten kostet 10^length
+        s.maxSequence = (int) (length / LOG10_SEQUENCE_GROWTH) + 1;
+        for (int i = 0; i < length; i++) {
+            char c = source[offset + i];
+            s.chars[i] = c;
+            s.lower[i] = c < 128 ? (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c) : Character.toLowerCase(c);
+        }
+        matchDictionary(s);
+        for (KeyboardLayout layout : LAYOUTS) {
+            matchKeyboard(s, layout);
+        }
+        matchSequences(s);
+        matchRepeats(s, blockRepeats);
+        matchDates(s);
+        return minimumGuesses(s);
+    }
+
+    // ---------------------------------------------------------------- Muster
+
+    private static void matchDictionary(Scratch s) {
+        for (int i = 0; i < s.length; i++) {
+            int node = WordTrie.ROOT;
+            for (int j = i; j < s.length; j++) {
+                node = WORDS.child(node, s.lower[j]);
+                if (node == WordTrie.NONE) {
+                    break;
+                }
+                int rank = WORDS.rank(node);
+                if (rank > 0) {
+                    s.add(i, j + 1, Math.log10(rank) + Math.log10(uppercaseVariations(s.chars, i, j + 1)));
+                }
+            }
+        }
+        for (int i = 0; i < s.length; i++) {
+            matchL33t(s, i, i, WordTrie.ROOT, 0);
+        }
+    }
+
+    /** Folgt im Wortbaum dem Zeichen selbst und jedem Buchstaben, für den es stehen kann. */
+    private static void matchL33t(Scratch s, int start, int position, int node, int substitutions) {
+        if (position == s.length) {
+            return;
+        }
+        char c = s.lower[position];
+        stepL33t(s, start, position, WORDS.child(node, c), c, substitutions);
+        char[] letters = c < L33T.length ? L33T[c] : null;
+        if (letters != null) {
+            for (char letter : letters) {
+                stepL33t(s, start, position, WORDS.child(node, letter), letter, substitutions + 1);
+            }
+        }
+    }
+
+    private static void stepL33t(Scratch s, int start, int position, int node, char letter, int substitutions) {
+        if (node == WordTrie.NONE) {
+            return;
+        }
+        s.word[position] = letter;
+        int rank = WORDS.rank(node);
+        if (rank > 0 && substitutions > 0) { // Ohne Ersetzung schon oben gefunden
+            s.add(start, position + 1, Math.log10(rank) + Math.log10(uppercaseVariations(s.chars, start, position + 1))
+                    + Math.log10(l33tVariations(s, start, position + 1)));
+        }
+        matchL33t(s, start, position + 1, node, substitutions);
+    }
+
+    private static void matchKeyboard(Scratch s, KeyboardLayout layout) {
+        int i = 0;
+        while (i < s.length - 2) {
+            int j = i;
+            int turns = 0;
+            int lastDirection = KeyboardLayout.NOT_ADJACENT;
+            int shifted = layout.isShifted(s.chars[i]) ? 1 : 0;
+            while (j + 1 < s.length) {
+                int direction = layout.direction(s.chars[j], s.chars[j + 1]);
+                if (direction == KeyboardLayout.NOT_ADJACENT) {
+                    break;
+                }
+                if (direction != lastDirection) {
+                    turns++;
+                    lastDirection = direction;
+                }
+                j++;
+                if (layout.isShifted(s.chars[j])) {
+                    shifted++;
+                }
+            }
+            int length = j - i + 1;
+            if (length >= 3) {
+                s.add(i, j + 1, Math.log10(keyboardGuesses(layout, length, turns, shifted)));
+                i = j; // Das letzte Zeichen kann ein neues Muster beginnen
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static void matchSequences(Scratch s) {
+        int i = 0;
+        while (i < s.length - 2) {
+            int delta = s.chars[i + 1] - s.chars[i];
+            int kind = sequenceClass(s.chars[i]);
+            if (delta == 0 || Math.abs(delta) > 5 || kind == 0 || sequenceClass(s.chars[i + 1]) != kind) {
+                i++;
+                continue;
+            }
+            int j = i + 1;
+            while (j + 1 < s.length && s.chars[j + 1] - s.chars[j] == delta && sequenceClass(s.chars[j + 1]) == kind) {
+                j++;
+            }
+            int length = j - i + 1;
+            if (length >= 3) {
+                char first = s.chars[i];
+                double base = "aAzZ019".indexOf(first) >= 0 ? 4 : kind == 1 ? 10 : 26;
+                if (delta < 0) {
+                    base *= 2;
+                }
+                s.add(i, j + 1, Math.log10(base * length));
+                i = j;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static void matchRepeats(Scratch s, boolean blockRepeats) {
+        int n = s.length;
+        for (int block = 1; 2 * block <= n; block++) {
+            if (block > 1 && !blockRepeats) {
+                break;
+            }
+            // run = Anzahl aufeinanderfolgender k mit chars[k] == chars[k + block]
+            int run = 0;
+            for (int k = 0; k <= n - block; k++) {
+                if (k < n - block && s.chars[k] == s.chars[k + block]) {
+                    run++;
+                    continue;
+                }
+                if (run >= block) {
+                    int start = k - run;
+                    int count = run / block + 1;
+                    double base;
+                    if (block == 1) {
+                        base = Math.log10(cardinality(s.chars[start]));
+                    } else {
+                        if (s.nested == null) {
+                            s.nested = new Scratch();
+                        }
+                        base = estimate(s.nested, s.chars, start, block, false);
+                    }
+                    s.add(start, start + count * block, base + Math.log10(count));
+                }
+                run = 0;
+            }
+        }
+    }
+
+    private static void matchDates(Scratch s) {
+        for (int i = 0; i < s.length; i++) {
+            if (!isDigit(s.chars[i])) {
+                continue;
+            }
+            // Jahreszahl allein (1900-2099)
+            if (i + 4 <= s.length && allDigits(s.chars, i, i + 4)) {
+                int year = number(s.chars, i, i + 4);
+                if (year >= 1900 && year <= 2099) {
+                    s.add(i, i + 4, Math.log10(yearSpace(year)));
+                }
+            }
+            // Ohne Trennzeichen: 4-8 Ziffern, beste Aufteilung in Tag, Monat, Jahr
+            for (int length = 4; length <= 8 && i + length <= s.length; length++) {
+                if (!allDigits(s.chars, i, i + length)) {
+                    break;
+                }
+                int bestYear = -1;
+                for (int[] split : DATE_SPLITS[length]) {
+                    int year = dateYear(s.chars, i, i + split[0], i + split[1], i + length);
+                    if (year >= 0 && (bestYear < 0 || Math.abs(year - REFERENCE_YEAR) < Math.abs(bestYear - REFERENCE_YEAR))) {
+                        bestYear = year;
+                    }
+                }
+                if (bestYear >= 0) {
+                    s.add(i, i + length, Math.log10(365.0 * yearSpace(bestYear)));
+                }
+            }
+            // Mit Trennzeichen: 1-4 Ziffern, Trenner, 1-2 Ziffern, gleicher Trenner, 1-4 Ziffern
+            if (i > 0 && isDigit(s.chars[i - 1])) {
+                continue;
+            }
+            int a = digitsFrom(s, i, 4);
+            int firstSeparator = i + a;
+            if (a == 0 || firstSeparator >= s.length || DATE_SEPARATORS.indexOf(s.chars[firstSeparator]) < 0) {
+                continue;
+            }
+            int b = digitsFrom(s, firstSeparator + 1, 2);
+            int secondSeparator = firstSeparator + 1 + b;
+            if (b == 0 || secondSeparator >= s.length || s.chars[secondSeparator] != s.chars[firstSeparator]) {
+                continue;
+            }
+            int c = digitsFrom(s, secondSeparator + 1, 4);
+            int end = secondSeparator + 1 + c;
+            if (c == 0 || (end < s.length && isDigit(s.chars[end]))) {
+                continue;
+            }
+            int year = dateYear(s.chars, i, firstSeparator, firstSeparator + 1, secondSeparator, secondSeparator + 1, end);
+            if (year >= 0) {
+                s.add(i, end, Math.log10(365.0 * yearSpace(year) * 4));
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- Suche
+
+    /**
+     * Sucht die Zerlegung mit den wenigsten Versuchen. Für l Muster zählen
+     * l! * Produkt der Versuche (Reihenfolge unbekannt) plus 10^(4(l-1)),
+     * damit viele kleine Muster nicht billiger werden als ein langes.
+     * Zwei Rate-Stücke hintereinander sind nicht erlaubt (wären eines).
+     */
+    private static double minimumGuesses(Scratch s) {
+        int n = s.length;
+        int stride = MAX_LENGTH + 1;
+        int maxSequence = s.maxSequence;
+        double[] best = s.best;
+        boolean[] bruteForce = s.bruteForce;
+        double[] bruteStart = s.bruteStart;
+        for (int p = 0; p <= n; p++) {
+            Arrays.fill(best, p * stride, p * stride + Math.min(p, maxSequence) + 1, Double.POSITIVE_INFINITY);
+        }
+        Arrays.fill(bruteStart, 0, maxSequence + 1, Double.POSITIVE_INFINITY);
+        best[0] = 0;
+        bruteStart[0] = 0;
+        for (int p = 1; p <= n; p++) {
+            // Position p-1 ist fertig berechnet: als Startpunkt für Raten aufnehmen
+            int i = p - 1;
+            for (int l = 1; l <= Math.min(i, maxSequence - 1); l++) {
+                int state = i * stride + l;
+                if (!bruteForce[state] && best[state] - i < bruteStart[l]) {
+                    bruteStart[l] = best[state] - i;
+                }
+            }
+            for (int m = s.firstByEnd[p]; m >= 0; m = s.nextWithSameEnd[m]) {
+                extend(s, s.starts[m], p, s.logs[m]);
+            }
+            for (int l = 0; l <= Math.min(p - 1, maxSequence - 1); l++) {
+                int next = p * stride + l + 1;
+                double candidate = bruteStart[l] + p;
+                if (candidate < best[next]) {
+                    best[next] = candidate;
+                    bruteForce[next] = true;
+                }
+            }
+        }
+        double result = Double.POSITIVE_INFINITY;
+        for (int l = 1; l <= Math.min(n, maxSequence); l++) {
+            double product = best[n * stride + l];
+            if (product != Double.POSITIVE_INFINITY) {
+                result = Math.min(result, log10Sum(LOG10_FACTORIAL[l] + product, LOG10_SEQUENCE_GROWTH * (l - 1)));
+            }
+        }
+        return result;
+    }
+
+    private static void extend(Scratch s, int start, int end, double log10Guesses) {
+        int stride = MAX_LENGTH + 1;
+        int from = start == 0 ? 0 : 1;
+        int to = start == 0 ? 0 : Math.min(start, s.maxSequence - 1);
+        for (int l = from; l <= to; l++) {
+            double product = s.best[start * stride + l];
+            if (product == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int next = end * stride + l + 1;
+            double candidate = product + log10Guesses;
+            if (candidate < s.best[next]) {
+                s.best[next] = candidate;
+                s.bruteForce[next] = false;
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- Versuche je Muster
+
+    /** Teilmuster sind nie billiger als 10 (ein Zeichen) bzw. 50 Versuche */
+    private static double minimumGuesses(int start, int end, int length) {
+        if (start == 0 && end == length) {
+            return 0;
+        }
+        return end - start == 1 ? LOG10_MIN_SINGLE_CHAR : LOG10_MIN_MULTI_CHAR;
+    }
+
+    /** Großschreibung: erster/letzter Buchstabe oder alles groß verdoppelt, sonst Kombinationen */
+    private static double uppercaseVariations(char[] chars, int start, int end) {
+        int upper = 0;
+        int lower = 0;
+        for (int i = start; i < end; i++) {
+            if (Character.isUpperCase(chars[i])) {
+                upper++;
+            } else if (Character.isLowerCase(chars[i])) {
+                lower++;
+            }
+        }
+        if (upper == 0) {
+            return 1;
+        }
+        if (lower == 0 || (upper == 1 && (Character.isUpperCase(chars[start]) || Character.isUpperCase(chars[end - 1])))) {
+            return 2;
+        }
+        double variations = 0;
+        for (int k = 1; k <= Math.min(upper, lower); k++) {
+            variations += binomial(upper + lower, k);
+        }
+        return variations;
+    }
+
+    /** l33t: je ersetztem Buchstaben verdoppelt, bei gemischtem Vorkommen die Kombinationen */
+    private static double l33tVariations(Scratch s, int start, int end) {
+        double variations = 1;
+        for (int i = start; i < end; i++) {
+            char letter = s.word[i];
+            if (s.lower[i] == letter || !firstSubstitution(s, start, i)) {
+                continue;
+            }
+            int substituted = 0;
+            int kept = 0;
+            for (int k = start; k < end; k++) {
+                if (s.word[k] == letter) {
+                    if (s.lower[k] == letter) {
+                        kept++;
+                    } else {
+                        substituted++;
+                    }
+                }
+            }
+            if (kept == 0) {
+                variations *= 2;
+            } else {
+                double combinations = 0;
+                for (int k = 1; k <= Math.min(substituted, kept); k++) {
+                    combinations += binomial(substituted + kept, k);
+                }
+                variations *= combinations;
+            }
+        }
+        return variations;
+    }
+
+    /** @return true wenn vor i kein anderes Zeichen für denselben Buchstaben ersetzt wurde */
+    private static boolean firstSubstitution(Scratch s, int start, int i) {
+        for (int k = start; k < i; k++) {
+            if (s.word[k] == s.word[i] && s.lower[k] != s.word[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double keyboardGuesses(KeyboardLayout layout, int length, int turns, int shifted) {
+        double guesses = 0;
+        for (int i = 2; i <= length; i++) {
+            for (int j = 1; j <= Math.min(turns, i - 1); j++) {
+                guesses += binomial(i - 1, j - 1) * layout.keys() * Math.pow(layout.averageDegree(), j);
+            }
+        }
+        int unshifted = length - shifted;
+        if (shifted > 0) {
+            if (unshifted == 0) {
+                guesses *= 2;
+            } else {
+                double variations = 0;
+                for (int k = 1; k <= Math.min(shifted, unshifted); k++) {
+                    variations += binomial(length, k);
+                }
+                guesses *= variations;
+            }
+        }
+        return guesses;
+    }
+
+    private static double yearSpace(int year) {
+        return Math.max(Math.abs(year - REFERENCE_YEAR), MIN_YEAR_SPACE);
+    }
+
+    /**
+     * Deutet drei Ziffernblöcke als Datum (Jahr vorne oder hinten, Tag und Monat
+     * in beliebiger Reihenfolge).
+     *
+     * @return das Jahr (zweistellige ergänzt) oder -1 wenn es kein gültiges Datum ist
+     */
+    private static int dateYear(char[] chars, int start, int firstEnd, int secondEnd, int end) {
+        return dateYear(chars, start, firstEnd, firstEnd, secondEnd, secondEnd, end);
+    }
+
+    private static int dateYear(char[] chars, int aStart, int aEnd, int bStart, int bEnd, int cStart, int cEnd) {
+        int aLength = aEnd - aStart;
+        int bLength = bEnd - bStart;
+        int cLength = cEnd - cStart;
+        if (bLength > 2) {
+            return -1;
+        }
+        int a = number(chars, aStart, aEnd);
+        int b = number(chars, bStart, bEnd);
+        int c = number(chars, cStart, cEnd);
+        int best = -1;
+        if ((cLength == 2 || cLength == 4) && aLength <= 2 && isDayAndMonth(a, b)) {
+            best = fullYear(c, cLength);
+        }
+        if ((aLength == 2 || aLength == 4) && cLength <= 2 && isDayAndMonth(b, c)) {
+            int year = fullYear(a, aLength);
+            if (year >= 0 && (best < 0 || Math.abs(year - REFERENCE_YEAR) < Math.abs(best - REFERENCE_YEAR))) {
+                best = year;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isDayAndMonth(int x, int y) {
+        return (x >= 1 && x <= 31 && y >= 1 && y <= 12) || (y >= 1 && y <= 31 && x >= 1 && x <= 12);
+    }
+
+    private static int fullYear(int year, int digits) {
+        if (digits == 2) {
+            return year > 50 ? 1900 + year : 2000 + year;
+        }
+        return year >= 1000 && year <= 2050 ? year : -1;
+    }
+
+    // ---------------------------------------------------------------- Hilfsfunktionen
+
+    private static double binomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        double result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    /** @return log10(10^a + 10^b) ohne Überlauf */
+    private static double log10Sum(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log10(1 + Math.pow(10, Math.min(a, b) - max));
+    }
+
+    private static int cardinality(char c) {
+        int kind = PasswordAnalysis.classOf(c);
+        return kind == PasswordAnalysis.DIGIT ? 10 : kind == PasswordAnalysis.UPPER || kind == PasswordAnalysis.LOWER ? 26 : 33;
+    }
+
+    /** @return 1 für Ziffern, 2 für Klein-, 3 für Großbuchstaben, sonst 0 */
+    private static int sequenceClass(char c) {
+        int kind = PasswordAnalysis.classOf(c);
+        return kind == PasswordAnalysis.DIGIT ? 1 : kind == PasswordAnalysis.LOWER ? 2 : kind == PasswordAnalysis.UPPER ? 3 : 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean allDigits(char[] chars, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digitsFrom(Scratch s, int start, int max) {
+        int count = 0;
+        while (start + count < s.length && isDigit(s.chars[start + count])) {
+            count++;
+        }
+        return count <= max ? count : 0;
+    }
+
+    private static int number(char[] chars, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (chars[i] - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example;
+
+/**
+ * Kompakte Kodierung eines Validierungsergebnisses in einem Byte.
+ * <pre>
+ *   Bit 0-3  Zeichenklassen (siehe {@link PasswordAnalysis})
+ *   Bit 4    Mindestlänge erfüllt
+ *   Bit 5    Passwort steht auf der Liste schwacher Passwörter
+ *   Bit 6-7  {@link PasswordVerdict} (Ordinalzahl)
+ * </pre>
+ * Server und Konsole zeigen auch die Stärkeschätzung an; dafür gibt es einen
+ * erweiterten Code (int), der auch im {@link VerdictCache} Platz findet:
+ * <pre>
+ *   Bit 0-7   Ergebniscode wie oben
+ *   Bit 8-10  Stärke + 1 (0 = nicht geschätzt)
+ *   Bit 11-20 log10 der geschätzten Versuche in Zehnteln (gerundet, höchstens 1023)
+ * </pre>
+ */
+public final class ValidationCodes {
+
+    static final int MIN_LENGTH_BIT = 1 << 4;
+    static final int BLACKLISTED_BIT = 1 << 5;
+    static final int VERDICT_SHIFT = 6;
+    static final int SCORE_SHIFT = 8;
+    static final int GUESSES_SHIFT = 11;
+    static final int MAX_GUESSES_TENTHS = 1023;
+
+    private ValidationCodes() {
+    }
+
+    /**
+     * Setzt einen Ergebniscode zusammen.
+     *
+     * @return der Code als byte
+     */
+    static byte encode(int classes, boolean minLength, boolean blacklisted, PasswordVerdict verdict) {
+        int code = classes | (verdict.ordinal() << VERDICT_SHIFT);
+        if (minLength) {
+            code |= MIN_LENGTH_BIT;
+        }
+        if (blacklisted) {
+            code |= BLACKLISTED_BIT;
+        }
+        return (byte) code;
+    }
+
+    /**
+     * Ergänzt einen Ergebniscode um die Stärkeschätzung.
+     *
+     * @param code Der Ergebniscode
+     * @param log10Guesses Rückgabe von {@link StrengthEstimator#log10Guesses(CharSequence)}
+     * @return der erweiterte Code
+     */
+    static int withStrength(byte code, double log10Guesses) {
+        int tenths = (int) Math.min(Math.round(log10Guesses * 10), MAX_GUESSES_TENTHS);
+        return (code & 0xFF) | (StrengthEstimator.score(log10Guesses) + 1) << SCORE_SHIFT | tenths << GUESSES_SHIFT;
+    }
+
+    /** @return true wenn der erweiterte Code eine Stärkeschätzung enthält */
+    public static boolean hasStrength(int extended) {
+        return (extended >>> SCORE_SHIFT & 7) != 0;
+    }
+
+    /** @return Stärke 0 bis {@link StrengthEstimator#MAX_SCORE} aus einem erweiterten Code mit Schätzung */
+    public static int strengthScore(int extended) {
+        return (extended >>> SCORE_SHIFT & 7) - 1;
+    }
+
+    /** @return log10 der geschätzten Versuche auf Zehntel gerundet, aus einem erweiterten Code mit Schätzung */
+    public static double log10Guesses(int extended) {
+        return (extended >>> GUESSES_SHIFT & MAX_GUESSES_TENTHS) / 10.0;
+    }
+
+    /** @return Bitmaske der Zeichenklassen */
+    public static int classes(byte code) {
+        return code & PasswordAnalysis.ALL_CLASSES;
+    }
+
+    /** @return true wenn die Mindestlänge erfüllt ist */
+    public static boolean meetsMinLength(byte code) {
+        return (code & MIN_LENGTH_BIT) != 0;
+    }
+
+    /** @return true wenn das Passwort als schwach bekannt ist */
+    public static boolean isBlacklisted(byte code) {
+        return (code & BLACKLISTED_BIT) != 0;
+    }
+
+    /** @return die Gesamtbewertung */
+    public static PasswordVerdict verdict(byte code) {
+        return PasswordVerdict.ofOrdinal((code & 0xFF) >>> VERDICT_SHIFT);
+    }
+}
@@ -0,0 +1,280 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Eingebetteter HTTP-Dienst für die Passwort-Validierung.
+ * Jede Anfrage läuft auf einem eigenen virtuellen Thread; blockierende
+ * Aufrufe binden also keine Plattform-Threads.
+ *
+ * <pre>
+ *   POST /validate   Rumpf: Passwort als text/plain oder {"password": "..."} als JSON
+ *   GET  /health     Lebenszeichen
+ *   GET  /metrics    Metriken im Prometheus-Textformat (siehe {@link ValidatorMetrics})
+ * </pre>
+ * Die SQL-Injection-Prüfung und die Anfragebegrenzung ({@link SecurityMonitor#enableRateLimit},
+ * Antwort 429 mit Retry-After) verwenden die echte Absenderadresse der Verbindung.
+ * Mit einer {@link PolicyRegistry} wählt der Kopf {@value #TENANT_HEADER} die Richtlinie des Mandanten.
+ */
+public final class ValidationServer {
+
+    /** Größere Anfragerümpfe werden abgelehnt */
+    public static final int MAX_BODY_BYTES = 4096;
+
+    /** Anfragekopf mit dem Namen des Mandanten */
+    public static final String TENANT_HEADER = "X-Mandant";
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final PolicyRegistry policies;
+
+    private ValidationServer(HttpServer server, ExecutorService executor, PolicyRegistry policies) {
+        this.server = server;
+        this.executor = executor;
+        this.policies = policies;
+    }
+
+    /**
+     * Startet den Dienst.
+     *
+     * @param address Adresse und Port (Port 0 = beliebiger freier Port)
+     * @return der laufende Dienst
+     * @throws IOException wenn der Port nicht geöffnet werden kann
+     */
+    public static ValidationServer start(InetSocketAddress address) throws IOException {
+        return start(address, null);
+    }
+
+    /**
+     * Startet den Dienst mit Richtlinien je Mandant.
+     *
+     * @param address Adresse und Port (Port 0 = beliebiger freier Port)
+     * @param policies Richtlinien je Mandant oder null für die Standard-Richtlinie
+     * @return der laufende Dienst
+     * @throws IOException wenn der Port nicht geöffnet werden kann
+     */
+    public static ValidationServer start(InetSocketAddress address, PolicyRegistry policies) throws IOException {
+        HttpServer server = HttpServer.create(address, 1024);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        ValidationServer validationServer = new ValidationServer(server, executor, policies);
+        server.createContext("/validate", validationServer::handleValidate);
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"ok\"}"));
+        server.createContext("/metrics", exchange -> respond(exchange, 200, PROMETHEUS_TEXT, ValidatorMetrics.scrape()));
+        server.start();
+        return validationServer;
+    }
+
+    /** @return der tatsächlich gebundene Port */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Beendet den Dienst; laufende Anfragen erhalten bis zu einer Sekunde Zeit.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handleValidate(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, "{\"fehler\":\"Nur POST erlaubt\"}");
+                return;
+            }
+            String clientIP = exchange.getRemoteAddress().getAddress().getHostAddress();
+            if (SecurityMonitor.isIPBlocked(clientIP)) {
+                respond(exchange, 403, "{\"fehler\":\"IP gesperrt\"}");
+                return;
+            }
+            // Vor dem Lesen des Rumpfs: eine Anfrageflut kostet so nur den Token-Bucket
+            if (!SecurityMonitor.allowRequest(clientIP)) {
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(SecurityMonitor.retryAfterSeconds()));
+                respond(exchange, 429, "{\"fehler\":\"Zu viele Anfragen\"}");
+                return;
+            }
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                respond(exchange, 413, "{\"fehler\":\"Anfrage zu groß\"}");
+                return;
+            }
+            // Passwort nur als char[] halten (kein String), nach der Antwort überschreiben
+            char[] chars = new char[body.length];
+            try {
+                int length = PasswordBuffers.decodeUtf8(body, 0, body.length, chars);
+                PasswordBuffers.wipe(body);
+                String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                if (contentType != null && contentType.contains("json")) {
+                    length = extractJsonString(chars, length, "password");
+                }
+                if (length < 0) {
+                    respond(exchange, 400, "{\"fehler\":\"Feld 'password' fehlt\"}");
+                    return;
+                }
+                CharSlice password = new CharSlice().set(chars, 0, length);
+
+                if (SecurityMonitor.checkForSQLInjection(password, clientIP)) {
+                    ValidatorMetrics.recordVerdict(PasswordVerdict.REJECTED);
+                    int status = SecurityMonitor.isIPBlocked(clientIP) ? 403 : 400;
+                    respond(exchange, status, "{\"bewertung\":\"" + PasswordVerdict.REJECTED + "\",\"fehler\":\"SQL-Injection erkannt\"}");
+                    return;
+                }
+                PasswordPolicy policy = policies == null ? PasswordPolicy.defaults()
+                        : policies.policy(exchange.getRequestHeaders().getFirst(TENANT_HEADER));
+                respond(exchange, 200, toJson(password, policy));
+            } finally {
+                PasswordBuffers.wipe(chars);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String toJson(CharSequence password, PasswordPolicy policy) {
+        // Über den Ergebnis-Cache: ein erneuter Anmeldeversuch kostet keine Wortliste, keinen Breach-Dienst
+        PasswordAnalysis analysis = new PasswordAnalysis();
+        int result = policy.assess(password, analysis);
+        byte code = (byte) result;
+        return "{\"bewertung\":\"" + ValidationCodes.verdict(code)
+                + "\",\"richtlinie\":\"" + policy.name()
+                + "\",\"mindestlaenge\":" + ValidationCodes.meetsMinLength(code)
+                + ",\"ziffer\":" + analysis.hasDigit()
+                + ",\"grossUndKlein\":" + analysis.hasUpperAndLower()
+                + ",\"sonderzeichen\":" + analysis.hasSpecialChar()
+                + ",\"schwach\":" + ValidationCodes.isBlacklisted(code)
+                + ",\"zeichengruppen\":" + analysis.characterGroups()
+                + ",\"staerke\":" + ValidationCodes.strengthScore(result)
+                + ",\"versucheLog10\":" + ValidationCodes.log10Guesses(result)
+                + "}";
+    }
+
+    /** @return der Rumpf oder null wenn er zu groß ist */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        if (bytes.length > MAX_BODY_BYTES) {
+            PasswordBuffers.wipe(bytes);
+            return null;
+        }
+        return bytes;
+    }
+
+    /**
+     * Liest den String-Wert eines Schlüssels auf oberster Ebene eines flachen JSON-Objekts.
+     * Der entschlüsselte Wert wird an den Anfang des Arrays geschrieben (nie länger als
+     * seine Quelle), es entsteht also keine Kopie als String.
+     *
+     * @param json Das JSON-Objekt, wird überschrieben
+     * @param length Anzahl gültiger Zeichen in json
+     * @param key Der Schlüssel
+     * @return Länge des Wertes oder -1 wenn er fehlt bzw. kein String ist
+     */
+    static int extractJsonString(char[] json, int length, String key) {
+        int i = indexOfQuoted(json, length, key, 0);
+        while (i >= 0) {
+            int j = skipWhitespace(json, length, i + key.length() + 2);
+            if (j < length && json[j] == ':') {
+                j = skipWhitespace(json, length, j + 1);
+                if (j >= length || json[j] != '"') {
+                    return -1;
+                }
+                int out = 0;
+                for (j++; j < length; j++) {
+                    char c = json[j];
+                    if (c == '"') {
+                        return out;
+                    }
+                    if (c == '\\' && j + 1 < length) {
+                        char escaped = json[++j];
+                        switch (escaped) {
+                            case 'n' -> json[out++] = '\n';
+                            case 't' -> json[out++] = '\t';
+                            case 'r' -> json[out++] = '\r';
+                            case 'b' -> json[out++] = '\b';
+                            case 'f' -> json[out++] = '\f';
+                            case 'u' -> {
+                                int code = j + 4 < length ? hex(json, j + 1) : -1;
+                                if (code < 0) {
+                                    return -1;
+                                }
+                                json[out++] = (char) code;
+                                j += 4;
+                            }
+                            default -> json[out++] = escaped;
+                        }
+                    } else {
+                        json[out++] = c;
+                    }
+                }
+                return -1;
+            }
+            i = indexOfQuoted(json, length, key, i + 1);
+        }
+        return -1;
+    }
+
+    /** @return Position von "key" (mit Anführungszeichen) ab from oder -1 */
+    private static int indexOfQuoted(char[] json, int length, String key, int from) {
+        int last = length - key.length() - 2;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (json[i] != '"' || json[i + key.length() + 1] != '"') {
+                continue;
+            }
+            for (int k = 0; k < key.length(); k++) {
+                if (json[i + 1 + k] != key.charAt(k)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /** @return Wert von vier Hex-Ziffern ab start oder -1 */
+    private static int hex(char[] json, int start) {
+        int value = 0;
+        for (int k = start; k < start + 4; k++) {
+            int digit = Character.digit(json[k], 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static int skipWhitespace(char[] s, int length, int i) {
+        while (i < length && Character.isWhitespace(s[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        respond(exchange, status, JSON, json);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
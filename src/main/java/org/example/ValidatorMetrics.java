@@ -0,0 +1,355 @@
+package org.example;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prozessweite Metriken für Validierung und SQL-Injection-Erkennung.
+ * Alle Zähler sind {@link LongAdder} bzw. atomare Arrays; das Erfassen
+ * legt keine Objekte an und kann daher im Produktivbetrieb aktiv bleiben.
+ * Ausgelesen wird über JMX ({@link #registerMBean()}) oder als Text im
+ * Prometheus-Format ({@link #scrape()}, im HTTP-Dienst unter /metrics).
+ */
+public final class ValidatorMetrics {
+
+    /** Gemessene Prüfungen */
+    public enum Check {
+        VALIDATION("validation"),
+        SQL_INJECTION("sql_injection"),
+        WEAK_PASSWORD("weak_password"),
+        STRENGTH("strength"),
+        BREACH_RANGE("breach_range");
+
+        private final String label;
+
+        Check(String label) {
+            this.label = label;
+        }
+
+        /** @return Name in der Textausgabe */
+        public String label() {
+            return label;
+        }
+    }
+
+    /** ObjectName der JMX-Bean */
+    public static final String OBJECT_NAME = "org.example:type=ValidatorMetrics";
+
+    private static final PasswordVerdict[] VERDICTS = PasswordVerdict.values();
+    private static final Check[] CHECKS = Check.values();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_KEYS = {"p50", "p90", "p99", "p999"};
+
+    private static final LongAdder[] verdicts = newAdders(VERDICTS.length);
+    private static final AtomicLongArray patternHits = new AtomicLongArray(SecurityMonitor.sqlInjectionPatternCount());
+    private static final LongAdder ipBlocks = new LongAdder();
+    private static final LongAdder ipUnblocks = new LongAdder();
+    private static final LongAdder rateLimited = new LongAdder();
+    private static final LongAdder verdictCacheHits = new LongAdder();
+    private static final LongAdder verdictCacheMisses = new LongAdder();
+    private static final LatencyHistogram[] latencies = newHistograms(CHECKS.length);
+    private static volatile boolean latencyEnabled = true;
+
+    private ValidatorMetrics() {
+    }
+
+    /**
+     * Zählt eine Validierung.
+     *
+     * @param verdict Die Bewertung
+     */
+    public static void recordVerdict(PasswordVerdict verdict) {
+        verdicts[verdict.ordinal()].increment();
+    }
+
+    /**
+     * Zählt einen Treffer eines SQL-Injection-Musters.
+     *
+     * @param patternIndex Index des Musters (siehe {@link SecurityMonitor#findSQLInjectionPattern})
+     */
+    public static void recordPatternHit(int patternIndex) {
+        patternHits.getAndIncrement(patternIndex);
+    }
+
+    /** Zählt eine IP-Sperre. */
+    public static void recordBlock() {
+        ipBlocks.increment();
+    }
+
+    /** Zählt eine IP-Entsperrung. */
+    public static void recordUnblock() {
+        ipUnblocks.increment();
+    }
+
+    /** Zählt eine wegen der Anfragebegrenzung abgewiesene Anfrage. */
+    public static void recordRateLimited() {
+        rateLimited.increment();
+    }
+
+    /** Zählt einen Treffer im {@link VerdictCache}. */
+    public static void recordVerdictCacheHit() {
+        verdictCacheHits.increment();
+    }
+
+    /** Zählt einen Fehlschlag im {@link VerdictCache}. */
+    public static void recordVerdictCacheMiss() {
+        verdictCacheMisses.increment();
+    }
+
+    /**
+     * Startet eine Latenzmessung.
+     *
+     * @return Startzeit für {@link #recordLatency} oder 0 wenn die Messung ausgeschaltet ist
+     */
+    public static long startTimer() {
+        return latencyEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Beendet eine Latenzmessung.
+     *
+     * @param check Die gemessene Prüfung
+     * @param start Rückgabewert von {@link #startTimer()}
+     */
+    public static void recordLatency(Check check, long start) {
+        if (start != 0) {
+            latencies[check.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /** @param enabled Latenzmessung ein- oder ausschalten (Zähler bleiben aktiv) */
+    public static void setLatencyEnabled(boolean enabled) {
+        latencyEnabled = enabled;
+    }
+
+    /** @return true wenn Latenzen erfasst werden */
+    public static boolean isLatencyEnabled() {
+        return latencyEnabled;
+    }
+
+    /** @return Anzahl der Validierungen mit dieser Bewertung */
+    public static long verdictCount(PasswordVerdict verdict) {
+        return verdicts[verdict.ordinal()].sum();
+    }
+
+    /** @return Anzahl der Treffer dieses Musters */
+    public static long patternHits(int patternIndex) {
+        return patternHits.get(patternIndex);
+    }
+
+    /** @return Anzahl der IP-Sperren */
+    public static long ipBlocks() {
+        return ipBlocks.sum();
+    }
+
+    /** @return Anzahl der IP-Entsperrungen */
+    public static long ipUnblocks() {
+        return ipUnblocks.sum();
+    }
+
+    /** @return Anzahl der wegen der Anfragebegrenzung abgewiesenen Anfragen */
+    public static long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    /** @return Anzahl der Treffer im {@link VerdictCache} */
+    public static long verdictCacheHits() {
+        return verdictCacheHits.sum();
+    }
+
+    /** @return Anzahl der Fehlschläge im {@link VerdictCache} */
+    public static long verdictCacheMisses() {
+        return verdictCacheMisses.sum();
+    }
+
+    /** @return Latenz-Histogramm dieser Prüfung */
+    public static LatencyHistogram latency(Check check) {
+        return latencies[check.ordinal()];
+    }
+
+    /**
+     * Registriert die Metriken als MXBean beim Plattform-MBeanServer.
+     * Mehrfache Aufrufe sind unschädlich.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MXBean(), name);
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            // Gleichzeitig registriert - nichts zu tun
+        } catch (JMException e) {
+            throw new IllegalStateException("JMX-Registrierung fehlgeschlagen", e);
+        }
+    }
+
+    /**
+     * @return alle Metriken im Prometheus-Textformat (Version 0.0.4)
+     */
+    public static String scrape() {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("# HELP pwvalidator_validations_total Validierungen je Bewertung\n");
+        sb.append("# TYPE pwvalidator_validations_total counter\n");
+        for (PasswordVerdict verdict : VERDICTS) {
+            sb.append("pwvalidator_validations_total{verdict=\"").append(verdict).append("\"} ")
+                    .append(verdictCount(verdict)).append('\n');
+        }
+
+        sb.append("# HELP pwvalidator_injection_pattern_hits_total Treffer je SQL-Injection-Muster\n");
+        sb.append("# TYPE pwvalidator_injection_pattern_hits_total counter\n");
+        for (int i = 0; i < patternHits.length(); i++) {
+            long hits = patternHits.get(i);
+            if (hits > 0) {
+                sb.append("pwvalidator_injection_pattern_hits_total{pattern=\"");
+                appendLabelValue(sb, SecurityMonitor.sqlInjectionPattern(i));
+                sb.append("\"} ").append(hits).append('\n');
+            }
+        }
+
+        sb.append("# HELP pwvalidator_ip_blocks_total Gesperrte IP-Adressen\n");
+        sb.append("# TYPE pwvalidator_ip_blocks_total counter\n");
+        sb.append("pwvalidator_ip_blocks_total ").append(ipBlocks()).append('\n');
+        sb.append("# HELP pwvalidator_ip_unblocks_total Entsperrte IP-Adressen\n");
+        sb.append("# TYPE pwvalidator_ip_unblocks_total counter\n");
+        sb.append("pwvalidator_ip_unblocks_total ").append(ipUnblocks()).append('\n');
+        sb.append("# HELP pwvalidator_rate_limited_total Wegen der Anfragebegrenzung abgewiesene Anfragen\n");
+        sb.append("# TYPE pwvalidator_rate_limited_total counter\n");
+        sb.append("pwvalidator_rate_limited_total ").append(rateLimited()).append('\n');
+        sb.append("# HELP pwvalidator_verdict_cache_total Zugriffe auf den Ergebnis-Cache\n");
+        sb.append("# TYPE pwvalidator_verdict_cache_total counter\n");
+        sb.append("pwvalidator_verdict_cache_total{result=\"hit\"} ").append(verdictCacheHits()).append('\n');
+        sb.append("pwvalidator_verdict_cache_total{result=\"miss\"} ").append(verdictCacheMisses()).append('\n');
+
+        sb.append("# HELP pwvalidator_check_latency_seconds Latenz je Prüfung\n");
+        sb.append("# TYPE pwvalidator_check_latency_seconds summary\n");
+        for (Check check : CHECKS) {
+            LatencyHistogram histogram = latency(check);
+            for (double quantile : QUANTILES) {
+                sb.append("pwvalidator_check_latency_seconds{check=\"").append(check.label())
+                        .append("\",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.percentile(quantile))).append('\n');
+            }
+            sb.append("pwvalidator_check_latency_seconds_sum{check=\"").append(check.label()).append("\"} ")
+                    .append(seconds(histogram.sum())).append('\n');
+            sb.append("pwvalidator_check_latency_seconds_count{check=\"").append(check.label()).append("\"} ")
+                    .append(histogram.count()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static void appendLabelValue(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static LatencyHistogram[] newHistograms(int count) {
+        LatencyHistogram[] histograms = new LatencyHistogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    /**
+     * Adapter für JMX; liest bei jedem Zugriff die aktuellen Werte.
+     */
+    private static final class MXBean implements ValidatorMetricsMXBean {
+
+        @Override
+        public Map<String, Long> getValidationsByVerdict() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (PasswordVerdict verdict : VERDICTS) {
+                result.put(verdict.name(), verdictCount(verdict));
+            }
+            return result;
+        }
+
+        @Override
+        public Map<String, Long> getInjectionPatternHits() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int i = 0; i < patternHits.length(); i++) {
+                long hits = patternHits.get(i);
+                if (hits > 0) {
+                    result.put(SecurityMonitor.sqlInjectionPattern(i), hits);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public long getIpBlocks() {
+            return ipBlocks();
+        }
+
+        @Override
+        public long getIpUnblocks() {
+            return ipUnblocks();
+        }
+
+        @Override
+        public long getRateLimited() {
+            return rateLimited();
+        }
+
+        @Override
+        public long getVerdictCacheHits() {
+            return verdictCacheHits();
+        }
+
+        @Override
+        public long getVerdictCacheMisses() {
+            return verdictCacheMisses();
+        }
+
+        @Override
+        public Map<String, Long> getLatencyPercentilesNanos() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Check check : CHECKS) {
+                LatencyHistogram histogram = latency(check);
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    result.put(check.label() + "." + QUANTILE_KEYS[i], histogram.percentile(QUANTILES[i]));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isLatencyEnabled() {
+            return ValidatorMetrics.isLatencyEnabled();
+        }
+
+        @Override
+        public void setLatencyEnabled(boolean enabled) {
+            ValidatorMetrics.setLatencyEnabled(enabled);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+import java.util.Map;
+
+/**
+ * JMX-Sicht auf {@link ValidatorMetrics} (ObjectName {@value ValidatorMetrics#OBJECT_NAME}).
+ */
+public interface ValidatorMetricsMXBean {
+
+    /** @return Anzahl der Validierungen je Bewertung */
+    Map<String, Long> getValidationsByVerdict();
+
+    /** @return Treffer je SQL-Injection-Muster (nur Muster mit Treffern) */
+    Map<String, Long> getInjectionPatternHits();
+
+    /** @return Anzahl der IP-Sperren */
+    long getIpBlocks();
+
+    /** @return Anzahl der IP-Entsperrungen */
+    long getIpUnblocks();
+
+    /** @return Anzahl der wegen der Anfragebegrenzung abgewiesenen Anfragen */
+    long getRateLimited();
+
+    /** @return Anzahl der Treffer im Ergebnis-Cache */
+    long getVerdictCacheHits();
+
+    /** @return Anzahl der Fehlschläge im Ergebnis-Cache */
+    long getVerdictCacheMisses();
+
+    /** @return Latenz-Quantile in Nanosekunden, Schlüssel z. B. "validation.p99" */
+    Map<String, Long> getLatencyPercentilesNanos();
+
+    /** @return true wenn Latenzen erfasst werden */
+    boolean isLatencyEnabled();
+
+    /** @param enabled Latenzmessung ein- oder ausschalten */
+    void setLatencyEnabled(boolean enabled);
+}
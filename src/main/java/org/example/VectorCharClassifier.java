@@ -0,0 +1,87 @@
+package org.example;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD-Klassifizierung mit dem Vector API (jdk.incubator.vector): je nach CPU werden
+ * 16 (AVX2) oder 32 (AVX-512) Zeichen pro Befehl verglichen. Ziffern und Buchstaben
+ * werden über Bereichsvergleiche bestimmt, Sonderzeichen über die Bitmaps der Tabelle
+ * (Zeile per Lane-Permutation, Bit per Verschiebung), Zeichen ab 128 über einen
+ * Vergleich. Es gibt keine Verzweigung je Zeichen.
+ *
+ * Wird ausschließlich per Reflection von {@link CharClassifier} geladen; fehlt das Modul
+ * zur Laufzeit, schlägt bereits das Laden fehl und der skalare Weg bleibt aktiv.
+ */
+final class VectorCharClassifier implements CharClassifier.Kernel {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    VectorCharClassifier() {
+        // Die 8 Bitmap-Zeilen müssen in einen Vektor passen
+        if (SPECIES.length() < 8) {
+            throw new UnsupportedOperationException("Vektorbreite " + SPECIES.vectorBitSize() + " Bit zu klein");
+        }
+    }
+
+    @Override
+    public int scan(char[] chars, int offset, int length, CharClassifier.Table table) {
+        int lanes = SPECIES.length();
+        int end = offset + length;
+        int bound = offset + SPECIES.loopBound(length);
+        int stopMask = table.stopMask;
+        ShortVector firstRows = ShortVector.fromArray(SPECIES, table.firstRows, 0);
+        ShortVector secondRows = ShortVector.fromArray(SPECIES, table.secondRows, 0);
+        boolean lookupFirst = table.firstBit != 0;
+        boolean lookupSecond = table.secondBit != 0;
+        // Je Klasse eine Maske über alle bisherigen Blöcke (auf AVX-512 in Maskenregistern)
+        VectorMask<Short> digit = SPECIES.maskAll(false);
+        VectorMask<Short> upper = digit;
+        VectorMask<Short> lower = digit;
+        VectorMask<Short> wide = digit;
+        VectorMask<Short> first = digit;
+        VectorMask<Short> second = digit;
+        int mask = 0;
+        int i = offset;
+        for (; i < bound; i += lanes) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            // c - 'x' als vorzeichenloser Wert: ein Vergleich je Bereich
+            digit = digit.or(v.sub((short) '0').compare(VectorOperators.UNSIGNED_LT, (short) 10));
+            upper = upper.or(v.sub((short) 'A').compare(VectorOperators.UNSIGNED_LT, (short) 26));
+            lower = lower.or(v.sub((short) 'a').compare(VectorOperators.UNSIGNED_LT, (short) 26));
+            VectorMask<Short> nonAscii = v.compare(VectorOperators.UNSIGNED_GE, (short) 128);
+            wide = wide.or(nonAscii);
+            if (lookupFirst) {
+                // Zeile (c / 16, bei Zeichen ab 128 bedeutungslos und ausgeblendet) und Bit (c % 16)
+                ShortVector row = v.lanewise(VectorOperators.LSHR, 4).and((short) 7);
+                ShortVector bit = v.and((short) 15);
+                first = first.or(member(firstRows, row, bit).andNot(nonAscii));
+                if (lookupSecond) {
+                    second = second.or(member(secondRows, row, bit).andNot(nonAscii));
+                }
+            }
+            mask = (digit.anyTrue() ? PasswordAnalysis.DIGIT : 0)
+                    | (upper.anyTrue() ? PasswordAnalysis.UPPER : 0)
+                    | (lower.anyTrue() ? PasswordAnalysis.LOWER : 0)
+                    | (wide.anyTrue() ? table.nonAscii : 0)
+                    | (first.anyTrue() ? table.firstBit : 0)
+                    | (second.anyTrue() ? table.secondBit : 0);
+            if (mask == stopMask) {
+                return mask;
+            }
+        }
+        byte[] ascii = table.ascii;
+        for (; i < end && mask != stopMask; i++) {
+            char c = chars[i];
+            mask |= c < 128 ? ascii[c] : table.nonAscii;
+        }
+        return mask;
+    }
+
+    /** @return Lanes, deren Bit in der Bitmap gesetzt ist */
+    private static VectorMask<Short> member(ShortVector rows, ShortVector row, ShortVector bit) {
+        return row.selectFrom(rows).lanewise(VectorOperators.LSHR, bit).and((short) 1).compare(VectorOperators.NE, (short) 0);
+    }
+}
@@ -0,0 +1,359 @@
+package org.example;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Begrenzter Zwischenspeicher für Ergebniscodes, damit wiederkehrende Passwörter
+ * (erneute Anmeldeversuche, wiederholte Massenprüfungen, häufige Passwörter vieler Nutzer)
+ * nicht jedes Mal Wortliste, Breach-Filter, Breach-Dienst und Stärkeschätzung durchlaufen.
+ *
+ * <ul>
+ *   <li>Schlüssel ist ein 64-Bit-SipHash-2-4 mit zufälligem Schlüssel je Instanz über
+ *       Namensraum (Richtlinie) und Passwort; das Passwort selbst wird nie gespeichert, und
+ *       ohne den geheimen Schlüssel lassen sich weder Einträge zuordnen noch Kollisionen
+ *       erzwingen.</li>
+ *   <li>Die Einträge liegen in einem {@link AtomicLongArray} fester Größe, aufgeteilt in
+ *       Sätze zu {@value #WAYS} Plätzen (zwei Cache-Zeilen). Jeder Platz besteht aus
+ *       {@code Schlüssel ^ Wert} und {@code Wert}; Lesen kommt so ohne Sperre aus, ein
+ *       halb geschriebener Platz passt nicht zum gesuchten Schlüssel und gilt als Fehlschlag.</li>
+ *   <li>Aufnahme nach W-TinyLFU je Satz: Neue Einträge landen immer im Fensterplatz 0.
+ *       Wer dort verdrängt wird, ersetzt den seltensten der übrigen Plätze nur, wenn er laut
+ *       Häufigkeitsskizze (Count-Min mit 4-Bit-Zählern, regelmäßig halbiert) öfter gefragt
+ *       war; einmalige Passwörter verdrängen so keine häufigen.</li>
+ *   <li>Jeder Eintrag trägt die Epoche, in der er entstand. {@link #invalidateAll()} erhöht
+ *       die Epoche (neue Wortliste, neuer Breach-Filter oder Breach-Dienst) und macht damit
+ *       alle Einträge aller Instanzen ungültig; neu geladene Richtlinien haben ohnehin einen
+ *       neuen Namensraum. Zusätzlich verfallen Einträge nach der TTL, weil der Breach-Dienst
+ *       neue Lecks kennen kann.</li>
+ * </ul>
+ *
+ * Aktiviert wird der Speicher mit {@link #setActive(VerdictCache)};
+ * {@link PasswordPolicy#evaluate(CharSequence, PasswordAnalysis)},
+ * {@link PasswordPolicy#assess(CharSequence, PasswordAnalysis)} (Server und Konsole) und
+ * {@link SecurityMonitor#checkForSQLInjection(CharSequence, String)} fragen ihn dann zuerst.
+ */
+public final class VerdictCache {
+
+    /** Standard: 64 MiB, Einträge gelten eine Stunde */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    /** Plätze je Satz, Platz 0 ist das Aufnahmefenster */
+    static final int WAYS = 8;
+
+    /** Namensraum für "enthält kein SQL-Injection-Muster" (Richtlinien beginnen bei 1) */
+    static final long SQL_NAMESPACE = 0;
+
+    // Speicher je Platz: zwei longs Eintrag, ein halbes long Häufigkeitsskizze
+    private static final int BYTES_PER_ENTRY = 16 + 4;
+
+    /** Größter speicherbarer Wert: Ergebniscode und Stärke (siehe {@link ValidationCodes}) */
+    static final int MAX_VALUE = (1 << 21) - 1;
+
+    // Wert: Bit 0-20 Ergebnis, Bit 21 belegt, Bit 22-31 Epoche, Bit 32-63 Sekunde der Aufnahme
+    // (1024 Epochen: so oft wird innerhalb einer TTL nie neu geladen)
+    private static final long PRESENT = 1L << 21;
+    private static final int EPOCH_SHIFT = 22;
+    private static final long EPOCH_MASK = (1L << 10) - 1;
+
+    // Zähler der Skizze: 4 Bit, 16 je long
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final long[] SEEDS = {0x97cb3127_94b96f33L, 0xc2b2ae3d_27d4eb4fL, 0x165667b1_9e3779f9L,
+            0xd6e8feb8_6659fd93L};
+
+    private static final AtomicInteger EPOCH = new AtomicInteger();
+    private static volatile VerdictCache active;
+
+    private final long k0;
+    private final long k1;
+    private final AtomicLongArray slots;
+    private final int setMask;
+    private final AtomicLongArray sketch;
+    private final int sketchMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final long ttlSeconds;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+
+    /**
+     * Erzeugt einen Speicher mit Standardwerten.
+     */
+    public VerdictCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_TTL);
+    }
+
+    /**
+     * Erzeugt einen Speicher.
+     *
+     * @param maxBytes Speicherbudget für Einträge und Häufigkeitsskizze (mindestens ein Satz)
+     * @param ttl Wie lange ein Ergebnis gilt
+     */
+    public VerdictCache(long maxBytes, Duration ttl) {
+        this(maxBytes, ttl, new SecureRandom().nextLong(), new SecureRandom().nextLong(), System::nanoTime);
+    }
+
+    VerdictCache(long maxBytes, Duration ttl, long k0, long k1, LongSupplier nanoClock) {
+        long sets = maxBytes / ((long) WAYS * BYTES_PER_ENTRY);
+        if (sets < 1 || ttl.toSeconds() < 1) {
+            throw new IllegalArgumentException("Budget muss mindestens " + WAYS * BYTES_PER_ENTRY
+                    + " Bytes, TTL mindestens eine Sekunde betragen");
+        }
+        // Zweierpotenz, höchstens 2^26 Sätze (1 GiB Einträge)
+        int setCount = (int) Long.highestOneBit(Math.min(sets, 1L << 26));
+        this.k0 = k0;
+        this.k1 = k1;
+        this.slots = new AtomicLongArray(setCount * WAYS * 2);
+        this.setMask = setCount - 1;
+        int sketchLength = Math.max(1, setCount * WAYS / 2);
+        this.sketch = new AtomicLongArray(sketchLength);
+        this.sketchMask = sketchLength - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * setCount * WAYS);
+        this.ttlSeconds = Math.min(ttl.toSeconds(), Integer.MAX_VALUE);
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Setzt den Speicher, den Richtlinien und SQL-Injection-Prüfung verwenden.
+     *
+     * @param cache Der Speicher oder null zum Abschalten
+     */
+    public static void setActive(VerdictCache cache) {
+        active = cache;
+    }
+
+    /** @return der aktive Speicher oder null */
+    public static VerdictCache active() {
+        return active;
+    }
+
+    /**
+     * Macht alle bisherigen Einträge aller Speicher ungültig, z. B. nach dem Austausch der
+     * Wortliste oder des Breach-Filters.
+     */
+    public static void invalidateAll() {
+        EPOCH.incrementAndGet();
+    }
+
+    /** @return Anzahl der Plätze */
+    public int capacity() {
+        return slots.length() / 2;
+    }
+
+    /**
+     * Berechnet den Schlüssel eines Passworts.
+     *
+     * @param namespace Namensraum (siehe {@link PasswordPolicy}), damit Richtlinien sich nicht mischen
+     * @param password Das Passwort (darf nicht null sein)
+     * @return SipHash-2-4 über den Namensraum (8 Bytes) und die UTF-16LE-Zeichen
+     */
+    public long key(long namespace, CharSequence password) {
+        return sipHash(k0, k1, namespace, password);
+    }
+
+    /**
+     * SipHash-2-4 mit einem 128-Bit-Schlüssel, auch für das Sicherheitsprotokoll.
+     *
+     * @param k0 Untere Hälfte des Schlüssels
+     * @param k1 Obere Hälfte des Schlüssels
+     * @param namespace Namensraum (die ersten 8 Bytes der Nachricht)
+     * @param password Die Zeichen (UTF-16LE), darf nicht null sein
+     * @return der 64-Bit-Hash
+     */
+    static long sipHash(long k0, long k1, long namespace, CharSequence password) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        v3 ^= namespace;
+        for (int r = 0; r < 2; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= namespace;
+
+        int n = password.length();
+        int i = 0;
+        while (true) {
+            long m;
+            boolean last = n - i < 4;
+            if (last) {
+                // Restliche 0 bis 3 Zeichen und die Gesamtlänge in Bytes im obersten Byte
+                m = (8L + 2L * n) << 56;
+                for (int k = 0; i < n; i++, k++) {
+                    m |= (long) password.charAt(i) << (16 * k);
+                }
+            } else {
+                m = password.charAt(i) | (long) password.charAt(i + 1) << 16
+                        | (long) password.charAt(i + 2) << 32 | (long) password.charAt(i + 3) << 48;
+                i += 4;
+            }
+            v3 ^= m;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+            if (last) {
+                break;
+            }
+        }
+
+        v2 ^= 0xff;
+        for (int r = 0; r < 4; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /**
+     * Sucht einen Ergebniscode ohne Sperre und zählt den Zugriff für die Aufnahme.
+     *
+     * @param key Rückgabe von {@link #key(long, CharSequence)}
+     * @return der gespeicherte Wert (0 bis {@link #MAX_VALUE}) oder -1 wenn nicht (mehr) vorhanden
+     */
+    public int get(long key) {
+        increment(key);
+        int base = (int) (key & setMask) * WAYS * 2;
+        int epoch = EPOCH.get();
+        long now = seconds();
+        for (int way = 0; way < WAYS; way++) {
+            long value = slots.get(base + 2 * way + 1);
+            if ((slots.get(base + 2 * way) ^ value) == key && isLive(value, epoch, now)) {
+                ValidatorMetrics.recordVerdictCacheHit();
+                return (int) (value & MAX_VALUE);
+            }
+        }
+        ValidatorMetrics.recordVerdictCacheMiss();
+        return -1;
+    }
+
+    /**
+     * Nimmt einen Ergebniscode auf (vorher mit {@link #get(long)} nachgefragt).
+     *
+     * @param key Rückgabe von {@link #key(long, CharSequence)}
+     * @param code Der Ergebniscode (0 bis 255), auf Wunsch mit Stärke (bis {@link #MAX_VALUE})
+     */
+    public void put(long key, int code) {
+        int base = (int) (key & setMask) * WAYS * 2;
+        int epoch = EPOCH.get();
+        long now = seconds();
+        long value = (code & MAX_VALUE) | PRESENT | (epoch & EPOCH_MASK) << EPOCH_SHIFT | now << 32;
+        int free = -1;
+        for (int way = 0; way < WAYS; way++) {
+            long stored = slots.get(base + 2 * way + 1);
+            long storedKey = slots.get(base + 2 * way) ^ stored;
+            if (storedKey == key) {
+                write(base, way, key, value);
+                return;
+            }
+            if (free < 0 && !isLive(stored, epoch, now)) {
+                free = way;
+            }
+        }
+        if (free >= 0) {
+            write(base, free, key, value);
+            return;
+        }
+        // Fenster voll: der bisherige Fensterinhalt tritt gegen den seltensten Hauptplatz an
+        long windowValue = slots.get(base + 1);
+        long windowKey = slots.get(base) ^ windowValue;
+        int victim = 1;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int way = 1; way < WAYS; way++) {
+            long stored = slots.get(base + 2 * way + 1);
+            int frequency = frequency(slots.get(base + 2 * way) ^ stored);
+            if (frequency < victimFrequency) {
+                victim = way;
+                victimFrequency = frequency;
+            }
+        }
+        if (frequency(windowKey) > victimFrequency) {
+            write(base, victim, windowKey, windowValue);
+        }
+        write(base, 0, key, value);
+    }
+
+    /** Leert den Speicher und die Häufigkeitsskizze. */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0);
+        }
+        for (int i = 0; i < sketch.length(); i++) {
+            sketch.set(i, 0);
+        }
+        additions.set(0);
+    }
+
+    private void write(int base, int way, long key, long value) {
+        // Wert zuletzt: wer den neuen Wert mit dem alten Schlüsselfeld liest, sieht einen Fehlschlag
+        slots.set(base + 2 * way, key ^ value);
+        slots.set(base + 2 * way + 1, value);
+    }
+
+    private boolean isLive(long value, int epoch, long now) {
+        return (value & PRESENT) != 0
+                && ((value >>> EPOCH_SHIFT) & EPOCH_MASK) == (epoch & EPOCH_MASK)
+                && now - (value >>> 32) < ttlSeconds;
+    }
+
+    private long seconds() {
+        return (nanoClock.getAsLong() - startNanos) / 1_000_000_000L;
+    }
+
+    // ---------------------------------------------------------------- Häufigkeitsskizze
+
+    /** Erhöht die vier Zähler des Schlüssels (gesättigt bei 15) und halbiert regelmäßig alle. */
+    private void increment(long key) {
+        boolean added = false;
+        for (int k = 0; k < SEEDS.length; k++) {
+            long hash = (key ^ (key >>> 29)) * SEEDS[k];
+            int index = (int) (hash >>> 32) & sketchMask;
+            int shift = (int) (hash >>> 60) << 2;
+            long word = sketch.get(index);
+            if (((word >>> shift) & 0xf) != 0xf) {
+                // Ein verlorener Wettlauf kostet nur eine Zählung
+                added |= sketch.compareAndSet(index, word, word + (1L << shift));
+            }
+        }
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+    /** @return geschätzte Zugriffe (Minimum der vier Zähler, 0 bis 15) */
+    private int frequency(long key) {
+        int min = 0xf;
+        for (int k = 0; k < SEEDS.length; k++) {
+            long hash = (key ^ (key >>> 29)) * SEEDS[k];
+            int index = (int) (hash >>> 32) & sketchMask;
+            int shift = (int) (hash >>> 60) << 2;
+            min = Math.min(min, (int) ((sketch.get(index) >>> shift) & 0xf));
+        }
+        return min;
+    }
+
+    /** Halbiert alle Zähler, damit alte Häufigkeiten verblassen. */
+    private void reset() {
+        for (int i = 0; i < sketch.length(); i++) {
+            long word;
+            do {
+                word = sketch.get(i);
+            } while (!sketch.compareAndSet(i, word, (word >>> 1) & RESET_MASK));
+        }
+        additions.addAndGet(-sampleSize / 2);
+    }
+}
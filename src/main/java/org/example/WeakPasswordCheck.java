@@ -0,0 +1,164 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Zentrale Prüfung gegen schwache bzw. geleakte Passwörter.
+ * Die Quellen werden einmal geladen und danach nur noch lesend verwendet,
+ * so dass beliebig viele Threads gleichzeitig prüfen können.
+ */
+public final class WeakPasswordCheck {
+
+    private static volatile WeakPasswordDictionary dictionary = WeakPasswordDictionary.defaults();
+    private static volatile BreachFilter breachFilter;
+    private static volatile BreachRangeClient rangeClient;
+
+    private WeakPasswordCheck() {
+    }
+
+    /**
+     * Überprüft, ob das Passwort als schwach bekannt ist, auch in Schreibvarianten
+     * wie "P@ssw0rd" oder "password2024" (siehe {@link WeakPasswordDictionary#containsVariant}).
+     *
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @return true wenn das Passwort schwach ist oder null
+     */
+    public static boolean isWeak(CharSequence password) {
+        long start = ValidatorMetrics.startTimer();
+        boolean weak = lookup(password);
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.WEAK_PASSWORD, start);
+        return weak;
+    }
+
+    /**
+     * Überprüft ein Passwort gegen ein bestimmtes Wörterbuch (z. B. einer {@link PasswordPolicy}).
+     *
+     * @param password Das zu prüfende Passwort (darf null sein)
+     * @param words Das Wörterbuch
+     * @param withBreachFilter true um zusätzlich den eingeblendeten Bloom-Filter zu prüfen
+     * @param withVariants true um auch Schreibvarianten zu erkennen
+     * @return true wenn das Passwort schwach ist oder null
+     */
+    static boolean isWeak(CharSequence password, WeakPasswordDictionary words, boolean withBreachFilter,
+                          boolean withVariants) {
+        long start = ValidatorMetrics.startTimer();
+        boolean weak = lookup(password, words, withBreachFilter, withVariants);
+        ValidatorMetrics.recordLatency(ValidatorMetrics.Check.WEAK_PASSWORD, start);
+        return weak;
+    }
+
+    private static boolean lookup(CharSequence password) {
+        return lookup(password, dictionary, true, true);
+    }
+
+    private static boolean lookup(CharSequence password, WeakPasswordDictionary words, boolean withBreaches,
+                                  boolean withVariants) {
+        if (password == null) {
+            return true;
+        }
+        if (words.contains(password)) {
+            return true;
+        }
+        // Varianten nur im Trie der häufigsten Einträge, ohne Zwischen-Strings
+        if (withVariants && words.containsVariant(password)) {
+            return true;
+        }
+        return withBreaches && isBreached(password);
+    }
+
+    /**
+     * Prüft gegen die eingeblendete Breach-Liste und den Breach-Dienst (soweit eingerichtet).
+     *
+     * @param password Das Passwort (darf nicht null sein)
+     * @return true wenn das Passwort in einem Datenleck vorkam
+     */
+    static boolean isBreached(CharSequence password) {
+        // Exakte Prüfung gegen die eingeblendete Breach-Liste (falls geöffnet)
+        BreachFilter filter = breachFilter;
+        if (filter != null && filter.contains(password)) {
+            return true;
+        }
+        // Bereichsabfrage beim Dienst; zwischengespeicherte Bereiche ohne Netzzugriff
+        BreachRangeClient client = rangeClient;
+        return client != null && client.isBreached(password);
+    }
+
+    /**
+     * Ersetzt das aktive Wörterbuch durch eine geladene Wortliste.
+     *
+     * @param wordlist Pfad zur Wortliste (ein Passwort pro Zeile)
+     * @throws IOException wenn die Datei nicht gelesen werden kann
+     */
+    public static void loadWordlist(Path wordlist) throws IOException {
+        setDictionary(WeakPasswordDictionary.load(wordlist));
+    }
+
+    /**
+     * Setzt das aktive Wörterbuch.
+     *
+     * @param newDictionary Das neue Wörterbuch (darf nicht null sein)
+     */
+    public static void setDictionary(WeakPasswordDictionary newDictionary) {
+        if (newDictionary == null) {
+            throw new IllegalArgumentException("Wörterbuch darf nicht null sein");
+        }
+        dictionary = newDictionary;
+        VerdictCache.invalidateAll();
+    }
+
+    /**
+     * Blendet einen vorgefertigten Bloom-Filter (und optional die sortierte
+     * Hash-Datei zur Bestätigung) ein.
+     *
+     * @param filterFile Filterdatei aus {@link BreachFilterBuilder}
+     * @param hashFile Sortierte Hash-Datei oder null
+     * @throws IOException wenn die Dateien nicht geöffnet werden können
+     */
+    public static void openBreachFilter(Path filterFile, Path hashFile) throws IOException {
+        breachFilter = BreachFilter.open(filterFile, hashFile);
+        VerdictCache.invalidateAll();
+    }
+
+    /**
+     * Setzt den aktiven Bloom-Filter.
+     *
+     * @param filter Der Filter oder null zum Abschalten
+     */
+    public static void setBreachFilter(BreachFilter filter) {
+        breachFilter = filter;
+        VerdictCache.invalidateAll();
+    }
+
+    /**
+     * Setzt den Client für Bereichsabfragen bei einem Breach-Dienst (nach HIBP-Vorbild).
+     * Er wird nach Wörterbuch und Bloom-Filter gefragt, also nur für sonst unauffällige Passwörter.
+     *
+     * @param client Der Client oder null zum Abschalten
+     */
+    public static void setBreachRangeClient(BreachRangeClient client) {
+        rangeClient = client;
+        VerdictCache.invalidateAll();
+    }
+
+    /** @return bisher fehlgeschlagene Abfragen des aktiven Breach-Dienstes (0 ohne Dienst) */
+    static long breachFailures() {
+        BreachRangeClient client = rangeClient;
+        return client != null ? client.failures() : 0;
+    }
+
+    /** @return der aktive Client für Bereichsabfragen oder null */
+    public static BreachRangeClient getBreachRangeClient() {
+        return rangeClient;
+    }
+
+    /** @return der aktive Bloom-Filter oder null */
+    public static BreachFilter getBreachFilter() {
+        return breachFilter;
+    }
+
+    /** @return das aktive Wörterbuch */
+    public static WeakPasswordDictionary getDictionary() {
+        return dictionary;
+    }
+}
@@ -0,0 +1,241 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Wörterbuch schwacher bzw. geleakter Passwörter.
+ * Speichert nur 64-Bit-Fingerabdrücke der kleingeschriebenen Einträge in einem
+ * primitiven long[] mit offener Adressierung (lineares Sondieren).
+ * Nachschlagen ist O(1) und legt keine Objekte an.
+ *
+ * Zusätzlich werden die ersten {@value #MAX_VARIANT_WORDS} Einträge in einen Trie für
+ * Schreibvarianten ("P@ssw0rd", "password2024") aufgenommen, siehe {@link WeakPasswordVariants}.
+ *
+ * Hinweis: Da nur Fingerabdrücke gespeichert werden, ist eine Falsch-Positiv-Rate
+ * von etwa n / 2^64 möglich - bei 100 Millionen Einträgen praktisch null.
+ */
+public final class WeakPasswordDictionary {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long EMPTY = 0L;
+    // Höchstens so viele Einträge vorab reservieren (16 MiB); größere Listen wachsen beim Laden
+    private static final int MAX_PREALLOCATED_ENTRIES = 1 << 20;
+
+    /** Startwert des FNV-1a-Zustands, siehe {@link #fnv(long, char)} */
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    /** Höchstzahl der Einträge, die auch als Schreibvariante erkannt werden (Wortlisten sind nach Häufigkeit sortiert) */
+    public static final int MAX_VARIANT_WORDS = 100_000;
+
+    // Liste schwacher Passwörter (Standard)
+    private static final String[] DEFAULT_WORDS = {
+            "password", "123456", "123456789", "12345678", "12345",
+            "1234567", "password123", "admin", "qwerty", "abc123",
+            "letmein", "monkey", "1234567890", "dragon", "111111",
+            "baseball", "iloveyou", "trustno1", "sunshine", "master",
+            "welcome", "shadow", "ashley", "football", "jesus",
+            "michael", "ninja", "mustang", "password1", "root", "sudo"
+    };
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private final WeakPasswordVariants variants = new WeakPasswordVariants();
+
+    /**
+     * Erzeugt ein leeres Wörterbuch.
+     *
+     * @param expectedEntries Erwartete Anzahl Einträge (vermeidet Umkopieren beim Laden)
+     */
+    public WeakPasswordDictionary(int expectedEntries) {
+        int capacity = tableSizeFor((long) Math.max(expectedEntries, 16) * 4 / 3 + 1);
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return Wörterbuch mit der eingebauten Liste häufiger schwacher Passwörter
+     */
+    public static WeakPasswordDictionary defaults() {
+        WeakPasswordDictionary dictionary = new WeakPasswordDictionary(DEFAULT_WORDS.length);
+        for (String word : DEFAULT_WORDS) {
+            dictionary.add(word);
+        }
+        return dictionary;
+    }
+
+    /**
+     * Lädt eine zeilenweise Wortliste (UTF-8, ein Passwort pro Zeile).
+     * Die eingebaute Standardliste wird immer mit aufgenommen.
+     *
+     * @param wordlist Pfad zur Wortliste
+     * @return das befüllte Wörterbuch
+     * @throws IOException wenn die Datei nicht gelesen werden kann
+     */
+    public static WeakPasswordDictionary load(Path wordlist) throws IOException {
+        // Grobe Schätzung: ~10 Bytes pro Zeile, gedeckelt - lange Zeilen würden sonst viel zu viel reservieren
+        long estimate = Math.min(Files.size(wordlist) / 10, MAX_PREALLOCATED_ENTRIES);
+        WeakPasswordDictionary dictionary = new WeakPasswordDictionary((int) estimate);
+        for (String word : DEFAULT_WORDS) {
+            dictionary.add(word);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(wordlist, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    dictionary.add(line);
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    /**
+     * Fügt ein Passwort hinzu (Groß-/Kleinschreibung wird ignoriert).
+     * Nicht threadsicher - nur vor der Veröffentlichung des Wörterbuchs aufrufen.
+     *
+     * @param password Das schwache Passwort
+     * @return true wenn der Eintrag neu war
+     */
+    public boolean add(CharSequence password) {
+        if (size + 1 > (table.length >>> 2) * 3) {
+            grow();
+        }
+        boolean added = insert(fingerprint(password));
+        if (added && variants.size() < MAX_VARIANT_WORDS) {
+            variants.add(password);
+        }
+        return added;
+    }
+
+    /**
+     * Prüft, ob das Passwort (ohne Beachtung der Groß-/Kleinschreibung) enthalten ist.
+     *
+     * @param password Das zu prüfende Passwort (darf nicht null sein)
+     * @return true wenn das Passwort im Wörterbuch steht
+     */
+    public boolean contains(CharSequence password) {
+        return containsFingerprint(fingerprint(password));
+    }
+
+    /**
+     * @param fingerprint Rückgabe von {@link #fingerprint(CharSequence)} bzw. {@link #finish(long)}
+     * @return true wenn ein Eintrag mit diesem Fingerabdruck enthalten ist
+     */
+    boolean containsFingerprint(long fingerprint) {
+        long[] t = table;
+        int m = mask;
+        int index = (int) fingerprint & m;
+        while (true) {
+            long entry = t[index];
+            if (entry == fingerprint) {
+                return true;
+            }
+            if (entry == EMPTY) {
+                return false;
+            }
+            index = (index + 1) & m;
+        }
+    }
+
+    /**
+     * Prüft, ob das Passwort eine Schreibvariante eines Eintrags ist (Unicode-Faltung,
+     * Leetspeak, Ziffern und Sonderzeichen davor oder dahinter). Legt keine Objekte an.
+     *
+     * @param password Das zu prüfende Passwort (darf nicht null sein)
+     * @return true wenn das Passwort einem Eintrag entspricht
+     */
+    public boolean containsVariant(CharSequence password) {
+        return variants.matches(password);
+    }
+
+    /** @return der Trie der Schreibvarianten (nur lesen) */
+    WeakPasswordVariants variants() {
+        return variants;
+    }
+
+    /** @return Anzahl der Einträge */
+    public int size() {
+        return size;
+    }
+
+    private boolean insert(long fingerprint) {
+        int index = (int) fingerprint & mask;
+        while (true) {
+            long entry = table[index];
+            if (entry == fingerprint) {
+                return false;
+            }
+            if (entry == EMPTY) {
+                table[index] = fingerprint;
+                size++;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        if (table.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Wörterbuch ist voll: " + size + " Einträge");
+        }
+        long[] old = table;
+        table = new long[old.length << 1];
+        mask = table.length - 1;
+        size = 0;
+        for (long entry : old) {
+            if (entry != EMPTY) {
+                insert(entry);
+            }
+        }
+    }
+
+    /**
+     * Berechnet den 64-Bit-Fingerabdruck der kleingeschriebenen Zeichenfolge
+     * (FNV-1a mit anschließender Durchmischung), ohne einen String anzulegen.
+     */
+    static long fingerprint(CharSequence password) {
+        long h = FNV_OFFSET;
+        for (int i = 0, n = password.length(); i < n; i++) {
+            h = fnv(h, password.charAt(i));
+        }
+        return finish(h);
+    }
+
+    /**
+     * Nimmt ein Zeichen in den FNV-1a-Zustand auf (ab {@link #FNV_OFFSET}). Der Zustand
+     * hängt nur vom Präfix ab und kann daher beim Tippen Zeichen für Zeichen mitgeführt werden.
+     */
+    static long fnv(long h, char c) {
+        if (c < 128) {
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+        } else {
+            c = Character.toLowerCase(c);
+        }
+        return (h ^ c) * 0x100000001b3L;
+    }
+
+    /** Durchmischt einen FNV-1a-Zustand zum Fingerabdruck */
+    static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+
+    private static int tableSizeFor(long minimum) {
+        int capacity = 16;
+        while (capacity < minimum && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
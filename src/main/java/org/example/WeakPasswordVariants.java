@@ -0,0 +1,244 @@
+package org.example;
+
+import java.text.Normalizer;
+
+/**
+ * Erkennt Schreibvarianten schwacher Passwörter: "P@ssw0rd", "Passw0rd!", "password2024",
+ * "ＰＡＳＳＷＯＲＤ" oder "pässwörd". Die Wörter liegen gefaltet in einem {@link WordTrie};
+ * das Passwort wird Zeichen für Zeichen durch den Trie geführt, ohne Zwischen-Strings
+ * anzulegen. Pro Zeichen werden geprüft:
+ * <ul>
+ *   <li>Unicode-Faltung (Kompatibilitätszerlegung wie NFKC, ohne Akzente, kleingeschrieben)</li>
+ *   <li>Leetspeak-Ersetzungen (4/@ → a, 3 → e, 1/!/| → i oder l, 0 → o, $/5 → s, 7/+ → t, ...)</li>
+ * </ul>
+ * Vor und hinter dem Wort dürfen beliebig viele Ziffern und Sonderzeichen stehen
+ * (Jahreszahlen, "123", "!"). Nicht threadsicher beim Aufbau, danach nur lesend verwendet.
+ */
+final class WeakPasswordVariants {
+
+    /** Kürzere Wörter werden nicht aufgenommen (zu viele Zufallstreffer mit Zusätzen) */
+    static final int MIN_WORD_LENGTH = 4;
+
+    /** Längere Passwörter werden nicht auf Varianten geprüft */
+    static final int MAX_LENGTH = 64;
+
+    // Markiert Zeichen, die beim Falten entfallen (z. B. kombinierende Akzente)
+    private static final char SKIP = '\uFFFF';
+
+    // Leetspeak: ASCII-Zeichen -> mögliche Buchstaben
+    private static final String[] LEET = new String[128];
+
+    static {
+        LEET['0'] = "o";
+        LEET['1'] = "il";
+        LEET['2'] = "z";
+        LEET['3'] = "e";
+        LEET['4'] = "a";
+        LEET['5'] = "s";
+        LEET['6'] = "g";
+        LEET['7'] = "t";
+        LEET['8'] = "b";
+        LEET['9'] = "g";
+        LEET['@'] = "a";
+        LEET['$'] = "s";
+        LEET['!'] = "i";
+        LEET['|'] = "il";
+        LEET['+'] = "t";
+        LEET['('] = "c";
+        LEET['<'] = "c";
+    }
+
+    /**
+     * Faltung aller Zeichen ab 128: erstes Zeichen in Bit 0-15, optional ein zweites in Bit 16-31,
+     * 0 = noch nicht berechnet. Wird beim ersten Auftreten eines Zeichens gefüllt; gleichzeitiges
+     * Füllen durch mehrere Threads schreibt denselben Wert und ist daher unschädlich.
+     */
+    private static final int[] FOLDED = new int[Character.MAX_VALUE + 1];
+
+    private final WordTrie trie = new WordTrie();
+
+    /**
+     * Nimmt ein schwaches Passwort auf (gefaltet; kürzere als {@link #MIN_WORD_LENGTH} werden ignoriert).
+     *
+     * @param word Das schwache Passwort
+     */
+    void add(CharSequence word) {
+        StringBuilder folded = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            int f = fold(word.charAt(i));
+            if ((char) f != SKIP) {
+                folded.append((char) f);
+                if (f >>> 16 != 0) {
+                    folded.append((char) (f >>> 16));
+                }
+            }
+        }
+        if (folded.length() >= MIN_WORD_LENGTH) {
+            trie.add(folded, 1);
+        }
+    }
+
+    /** @return Anzahl der aufgenommenen Wörter */
+    int size() {
+        return trie.size();
+    }
+
+    /**
+     * Prüft, ob das Passwort eine Variante eines aufgenommenen Wortes ist.
+     *
+     * @param password Das Passwort (darf nicht null sein)
+     * @return true wenn es nach Faltung, Leetspeak und Abschneiden von Zusätzen einem Wort entspricht
+     */
+    boolean matches(CharSequence password) {
+        int n = password.length();
+        if (n > MAX_LENGTH || trie.size() == 0) {
+            return false;
+        }
+        // Zusätze: führende bzw. abschließende Zeichen, die keine Buchstaben sind
+        int prefixEnd = 0;
+        while (prefixEnd < n && !Character.isLetter(password.charAt(prefixEnd))) {
+            prefixEnd++;
+        }
+        int suffixStart = n;
+        while (suffixStart > 0 && !Character.isLetter(password.charAt(suffixStart - 1))) {
+            suffixStart--;
+        }
+        for (int start = 0; start <= prefixEnd && start < n; start++) {
+            if (walk(password, start, WordTrie.ROOT, 0, suffixStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tiefensuche über (Position, Trie-Knoten); verzweigt nur bei mehrdeutigen Zeichen.
+     */
+    private boolean walk(CharSequence password, int i, int node, int depth, int suffixStart) {
+        if (depth >= MIN_WORD_LENGTH && i >= suffixStart && trie.rank(node) != 0) {
+            return true;
+        }
+        if (i == password.length()) {
+            return false;
+        }
+        char c = password.charAt(i);
+        int f = fold(c);
+        char first = (char) f;
+        if (first == SKIP) {
+            return walk(password, i + 1, node, depth, suffixStart);
+        }
+        int next = trie.child(node, first);
+        int steps = 1;
+        if (next != WordTrie.NONE && f >>> 16 != 0) {
+            next = trie.child(next, (char) (f >>> 16));
+            steps = 2;
+        }
+        if (next != WordTrie.NONE && walk(password, i + 1, next, depth + steps, suffixStart)) {
+            return true;
+        }
+        String alternatives = c < 128 ? LEET[c] : null;
+        if (alternatives != null) {
+            for (int k = 0; k < alternatives.length(); k++) {
+                next = trie.child(node, alternatives.charAt(k));
+                if (next != WordTrie.NONE && walk(password, i + 1, next, depth + 1, suffixStart)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Schritt des Tries für die zeichenweise Prüfung (siehe {@link IncrementalValidator}): hängt
+     * alle Knoten an, die von {@code node} aus mit dem Zeichen erreichbar sind - dieselben
+     * Übergänge wie in {@link #matches(CharSequence)}, nur in Breite statt in Tiefe.
+     *
+     * @param node Ausgangsknoten
+     * @param c Das Zeichen
+     * @param next Zielpuffer (braucht Platz für drei weitere Knoten)
+     * @param count Bereits belegte Einträge im Zielpuffer
+     * @return neue Anzahl belegter Einträge
+     */
+    int advance(int node, char c, int[] next, int count) {
+        int f = fold(c);
+        char first = (char) f;
+        if (first == SKIP) {
+            next[count++] = node;
+            return count;
+        }
+        int child = trie.child(node, first);
+        if (child != WordTrie.NONE && f >>> 16 != 0) {
+            child = trie.child(child, (char) (f >>> 16));
+        }
+        if (child != WordTrie.NONE) {
+            next[count++] = child;
+        }
+        String alternatives = c < 128 ? LEET[c] : null;
+        if (alternatives != null) {
+            for (int k = 0; k < alternatives.length(); k++) {
+                child = trie.child(node, alternatives.charAt(k));
+                if (child != WordTrie.NONE) {
+                    next[count++] = child;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** @return true wenn an diesem Knoten ein aufgenommenes Wort endet */
+    boolean isWord(int node) {
+        return trie.rank(node) != 0;
+    }
+
+    /**
+     * Faltet ein einzelnes Zeichen.
+     *
+     * @param c Das Zeichen
+     * @return erstes Zeichen in Bit 0-15 (U+FFFF = entfällt), zweites Zeichen in Bit 16-31 oder 0
+     */
+    static int fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        }
+        int f = FOLDED[c];
+        if (f == 0) {
+            f = computeFold(c);
+            FOLDED[c] = f;
+        }
+        return f;
+    }
+
+    private static int computeFold(char c) {
+        if (c == 'ß' || c == 'ẞ') {
+            return 's' | 's' << 16;
+        }
+        if (Character.isSurrogate(c)) {
+            return c;
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFKD);
+        char first = 0;
+        char second = 0;
+        int count = 0;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char d = decomposed.charAt(i);
+            if (Character.getType(d) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            d = Character.toLowerCase(d);
+            if (count == 0) {
+                first = d;
+            } else {
+                second = d;
+            }
+            count++;
+        }
+        if (count == 0) {
+            return SKIP;
+        }
+        if (count > 2) {
+            // Längere Zerlegungen (z. B. "ﬃ") bleiben unverändert
+            return Character.toLowerCase(c);
+        }
+        return first | second << 16;
+    }
+}
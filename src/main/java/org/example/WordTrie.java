@@ -0,0 +1,143 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Kompakter Trie über einer Rangliste von Wörtern (häufigste zuerst).
+ * Knoten liegen in primitiven Arrays (erstes Kind / nächstes Geschwister);
+ * die Kinder der Wurzel werden für Zeichen unter 256 direkt nachgeschlagen.
+ * Nach dem Aufbau unveränderlich und damit von allen Threads lesbar.
+ */
+final class WordTrie {
+
+    static final int ROOT = 0;
+    static final int NONE = -1;
+
+    private char[] labels;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] ranks; // 0 = kein Wortende
+    private final int[] rootChildren = new int[256];
+    private int used = 1;
+    private int words;
+
+    WordTrie() {
+        int capacity = 1024;
+        labels = new char[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        ranks = new int[capacity];
+        firstChild[ROOT] = NONE;
+        nextSibling[ROOT] = NONE;
+        Arrays.fill(rootChildren, NONE);
+    }
+
+    /**
+     * Lädt eine Rangliste aus dem Klassenpfad: ein Wort pro Zeile,
+     * jede Kommentarzeile (#) beginnt einen neuen Abschnitt mit Rang 1.
+     *
+     * @param resource Name der Ressource relativ zu dieser Klasse
+     * @return der befüllte Trie
+     */
+    static WordTrie load(String resource) {
+        WordTrie trie = new WordTrie();
+        try (InputStream in = WordTrie.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Ressource fehlt: " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            int rank = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    rank = 0;
+                } else if (!line.isBlank()) {
+                    trie.add(line.strip(), ++rank);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return trie;
+    }
+
+    /**
+     * Fügt ein Wort hinzu; steht es schon mit kleinerem Rang im Trie, bleibt dieser.
+     *
+     * @param word Das Wort (wird kleingeschrieben)
+     * @param rank Rang ab 1
+     */
+    void add(CharSequence word, int rank) {
+        int node = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toLowerCase(word.charAt(i));
+            int next = child(node, c);
+            if (next == NONE) {
+                next = newNode(c);
+                if (node == ROOT && c < 256) {
+                    rootChildren[c] = next;
+                }
+                nextSibling[next] = firstChild[node];
+                firstChild[node] = next;
+            }
+            node = next;
+        }
+        if (node == ROOT) {
+            return;
+        }
+        if (ranks[node] == 0) {
+            words++;
+            ranks[node] = rank;
+        } else {
+            ranks[node] = Math.min(ranks[node], rank);
+        }
+    }
+
+    /**
+     * @param node Aktueller Knoten
+     * @param c Nächstes Zeichen (bereits kleingeschrieben)
+     * @return Kindknoten oder {@link #NONE}
+     */
+    int child(int node, char c) {
+        if (node == ROOT && c < 256) {
+            return rootChildren[c];
+        }
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (labels[child] == c) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    /** @return Rang des Wortes, das an diesem Knoten endet, oder 0 */
+    int rank(int node) {
+        return ranks[node];
+    }
+
+    /** @return Anzahl der Wörter */
+    int size() {
+        return words;
+    }
+
+    private int newNode(char c) {
+        if (used == labels.length) {
+            int capacity = used * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+        }
+        int node = used++;
+        labels[node] = c;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        return node;
+    }
+}
@@ -0,0 +1,172 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests für den Breach-Filter: Falsch-Positiv-Rate, exakte Treffer und die sortierte Hash-Datei
+ */
+public class BreachFilterTest {
+
+    private static final int ENTRIES = 5_000;
+    private static final int PROBES = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 Testing BreachFilter...");
+        Path dir = Files.createTempDirectory("breach-filter");
+        try {
+            Path wordlist = dir.resolve("wortliste.txt");
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < ENTRIES; i++) {
+                lines.add("geleakt-" + i);
+            }
+            lines.add("");
+            lines.add("geleakt-17"); // Duplikat
+            Files.write(wordlist, lines, StandardCharsets.UTF_8);
+
+            testFalsePositiveRate(dir, wordlist);
+            testExactLookups(dir, wordlist);
+            testSortAcrossChunks(dir, wordlist);
+            testSha1Format(dir);
+            testInvalidFiles(dir, wordlist);
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    public static void testFalsePositiveRate(Path dir, Path wordlist) throws IOException {
+        Path filterFile = dir.resolve("rate.bf");
+        long entries = new BreachFilterBuilder(false, 1_000).buildFilter(wordlist, filterFile, FALSE_POSITIVE_RATE);
+        BreachFilter filter = BreachFilter.open(filterFile);
+        test("Every non-empty line should be inserted", entries == ENTRIES + 1 && filter.entryCount() == entries);
+
+        boolean noFalseNegatives = true;
+        for (int i = 0; i < ENTRIES; i++) {
+            noFalseNegatives &= filter.contains("geleakt-" + i);
+        }
+        test("Filter should never miss an inserted password", noFalseNegatives);
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.contains("sauber-" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / PROBES;
+        System.out.printf("   Falsch-Positiv-Rate: %.4f (Ziel %.4f, k=%d)%n", rate, FALSE_POSITIVE_RATE, filter.hashCount());
+        test("False positive rate should stay near the target", rate <= FALSE_POSITIVE_RATE * 1.5);
+    }
+
+    public static void testExactLookups(Path dir, Path wordlist) throws IOException {
+        Path filterFile = dir.resolve("exakt.bf");
+        Path hashFile = dir.resolve("exakt.bh");
+        // Sehr ungenauer Filter, damit die Hash-Datei viele Falsch-Positive abfangen muss
+        BreachFilterBuilder builder = new BreachFilterBuilder(false, 1_000);
+        builder.buildFilter(wordlist, filterFile, 0.5);
+        long hashes = builder.buildHashFile(wordlist, hashFile);
+        test("Hash file should hold each password once", hashes == ENTRIES);
+
+        BreachFilter filter = BreachFilter.open(filterFile, hashFile);
+        boolean found = true;
+        for (int i = 0; i < ENTRIES; i++) {
+            found &= filter.contains("geleakt-" + i);
+        }
+        test("Confirmed lookups should find every inserted password", found);
+
+        int filterHits = 0;
+        int confirmed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            byte[] sha1 = PasswordSha1.of("sauber-" + i);
+            filterHits += filter.mightContain(sha1) ? 1 : 0;
+            confirmed += filter.containsSha1(sha1) ? 1 : 0;
+        }
+        test("Hash file should reject every false positive (" + filterHits + " filter hits)",
+                filterHits > 0 && confirmed == 0);
+        test("Lookup should be exact, not case-insensitive",
+                !filter.contains("GELEAKT-1") && !filter.contains("geleakt-1 "));
+    }
+
+    public static void testSortAcrossChunks(Path dir, Path wordlist) throws IOException {
+        // Ein Block für alles und viele kleine Blöcke (Auslagern und Mischen) müssen dieselbe Datei ergeben
+        Path single = dir.resolve("ein-block.bh");
+        Path spilled = dir.resolve("viele-bloecke.bh");
+        new BreachFilterBuilder(false, ENTRIES * 2).buildHashFile(wordlist, single);
+        new BreachFilterBuilder(false, 333).buildHashFile(wordlist, spilled);
+        test("Spilled and in-memory sort should produce identical files",
+                Arrays.equals(Files.readAllBytes(single), Files.readAllBytes(spilled)));
+
+        byte[] data = Files.readAllBytes(spilled);
+        int size = BreachHashFile.RECORD_SIZE;
+        boolean ascending = true;
+        for (int offset = BreachHashFile.HEADER_SIZE + size; offset + size <= data.length; offset += size) {
+            ascending &= Arrays.compareUnsigned(data, offset - size, offset, data, offset, offset + size) < 0;
+        }
+        test("Hashes should be strictly ascending (unsigned)", ascending
+                && data.length == BreachHashFile.HEADER_SIZE + ENTRIES * size);
+        test("Chunk files should be removed after merging", countChunks(dir) == 0);
+    }
+
+    public static void testSha1Format(Path dir) throws IOException {
+        HexFormat hex = HexFormat.of().withUpperCase();
+        Path wordlist = dir.resolve("hibp.txt");
+        Files.write(wordlist, List.of(
+                hex.formatHex(PasswordSha1.of("hunter2")) + ":17",
+                hex.formatHex(PasswordSha1.of("Sommer2024")).toLowerCase(),
+                "keine-hex-zeile"), StandardCharsets.UTF_8);
+        Path filterFile = dir.resolve("hibp.bf");
+        Path hashFile = dir.resolve("hibp.bh");
+        BreachFilterBuilder builder = new BreachFilterBuilder(true, 1_000);
+        builder.buildFilter(wordlist, filterFile, 0.001);
+        test("SHA-1 lines should be parsed with and without count", builder.buildHashFile(wordlist, hashFile) == 2);
+        BreachFilter filter = BreachFilter.open(filterFile, hashFile);
+        test("Passwords from SHA-1 lines should be found", filter.contains("hunter2") && filter.contains("Sommer2024"));
+        test("Invalid lines should be skipped", !filter.contains("keine-hex-zeile"));
+    }
+
+    public static void testInvalidFiles(Path dir, Path wordlist) throws IOException {
+        Path wrong = dir.resolve("kein-filter.bf");
+        Files.write(wrong, new byte[64]);
+        boolean rejected;
+        try {
+            BreachFilter.open(wrong);
+            rejected = false;
+        } catch (IOException e) {
+            rejected = true;
+        }
+        test("File without magic should be refused", rejected);
+
+        try {
+            new BreachFilterBuilder(false, 1_000).buildFilter(wordlist, dir.resolve("x.bf"), 1.5);
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        test("False positive rate outside (0, 1) should be refused", rejected);
+    }
+
+    private static long countChunks(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".chunk")).count();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
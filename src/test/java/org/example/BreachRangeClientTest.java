@@ -0,0 +1,257 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests für Bereichsabfragen bei einem Breach-Dienst gegen einen lokalen Stub,
+ * der Bereichsdateien aus einem Verzeichnis ausliefert
+ */
+public class BreachRangeClientTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final String[] BREACHED = {"hunter2", "Tr0ub4dor&3", "correcthorsebatterystaple"};
+
+    private static Path ranges;
+    private static HttpServer server;
+    private static URI base;
+    private static ExecutorService executor;
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static final Set<String> prefixes = ConcurrentHashMap.newKeySet();
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 Testing BreachRangeClient...");
+        startStub();
+        try {
+            testLookup();
+            testParse();
+            testCacheAndTtl();
+            testLruEviction();
+            testFailures();
+            testWeakPasswordCheckIntegration();
+
+            System.out.println("\n" + "=".repeat(50));
+
+            System.out.println("🧪 Testing concurrent lookups...");
+            testCoalescing();
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+            try (var files = Files.list(ranges)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(ranges);
+        }
+    }
+
+    private static void startStub() throws IOException {
+        ranges = Files.createTempDirectory("ranges");
+        for (int i = 0; i < BREACHED.length; i++) {
+            String hash = sha1Hex(BREACHED[i]);
+            // Füllzeile mit Anzahl 0 und eine unsortierte Zeile, wie sie ein eigener Spiegel liefern könnte
+            String body = "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:0\r\n" + hash.substring(5) + ":" + (i + 1) * 100 + "\r\n"
+                    + "00000000000000000000000000000000001:7\r\n";
+            Files.writeString(ranges.resolve(hash.substring(0, 5) + ".txt"), body);
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(4);
+        server.setExecutor(executor);
+        server.createContext("/range/", exchange -> {
+            hits.incrementAndGet();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String prefix = exchange.getRequestURI().getPath().substring("/range/".length());
+            prefixes.add(prefix);
+            Path file = ranges.resolve(prefix + ".txt");
+            byte[] body = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+            boolean padding = "true".equals(exchange.getRequestHeaders().getFirst("Add-Padding"));
+            exchange.sendResponseHeaders(!padding ? 400 : Files.exists(file) ? 200 : 404, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        base = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/range");
+    }
+
+    public static void testLookup() throws Exception {
+        try (BreachRangeClient client = new BreachRangeClient(base)) {
+            test("Breached password should be found", client.isBreached("hunter2"));
+            test("Occurrences should be reported", client.occurrencesAsync("Tr0ub4dor&3").get() == 200);
+            test("Padding entries should not count",
+                    client.occurrencesAsync("correcthorsebatterystaple").get() == 300 && client.failures() == 0);
+            test("Other password in a known range should not match", !client.isBreached("hunter3") || sameRange("hunter2", "hunter3"));
+            test("Only the 5-character prefix should be sent",
+                    prefixes.stream().allMatch(prefix -> prefix.matches("[0-9A-F]{5}")) && client.requests() == prefixes.size());
+        }
+    }
+
+    public static void testParse() {
+        byte[] body = ("0000000000000000000000000000000000B:5\n"
+                + "0000000000000000000000000000000000A:3\n"
+                + "\n").getBytes(StandardCharsets.US_ASCII);
+        BreachRangeClient.Range range = BreachRangeClient.parse(body, 0);
+        test("LF line endings and unsorted lines should be accepted",
+                range.his.length == 2 && range.occurrences(0, 0, 0xA) == 3 && range.occurrences(0, 0, 0xB) == 5);
+        test("Prefix should be formatted as 5 hex digits", BreachRangeClient.hex(0x0A1B2).equals("0A1B2"));
+
+        boolean rejected;
+        try {
+            BreachRangeClient.parse("XYZ:1\n".getBytes(StandardCharsets.US_ASCII), 0);
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        test("Malformed response should be rejected", rejected);
+    }
+
+    public static void testCacheAndTtl() throws Exception {
+        AtomicLong now = new AtomicLong(SECOND);
+        HttpClient http = HttpClient.newHttpClient();
+        try (BreachRangeClient client = new BreachRangeClient(base, 100, Duration.ofMinutes(10), Duration.ofSeconds(2),
+                http, true, now::get)) {
+            client.isBreached("hunter2");
+            client.isBreached("hunter2");
+            client.occurrencesAsync("hunter2").get();
+            test("Cached range should not be fetched again", client.requests() == 1 && client.cachedPrefixes() == 1);
+
+            now.addAndGet(11 * 60 * SECOND);
+            test("Expired range should be fetched again", client.isBreached("hunter2") && client.requests() == 2);
+        }
+    }
+
+    public static void testLruEviction() throws Exception {
+        try (BreachRangeClient client = new BreachRangeClient(base, 2, Duration.ofHours(1), Duration.ofSeconds(2))) {
+            client.isBreached(BREACHED[0]);
+            client.isBreached(BREACHED[1]);
+            client.isBreached(BREACHED[0]);
+            client.isBreached(BREACHED[2]);
+            test("Cache should not exceed its size", client.cachedPrefixes() == 2);
+            client.isBreached(BREACHED[0]);
+            test("Recently used range should survive", client.requests() == 3);
+            client.isBreached(BREACHED[1]);
+            test("Least recently used range should be evicted", client.requests() == 4);
+        }
+    }
+
+    public static void testFailures() {
+        try (BreachRangeClient client = new BreachRangeClient(base, 10, Duration.ofHours(1), Duration.ofSeconds(2))) {
+            String unknown = "kein-leck-" + System.nanoTime();
+            test("Missing range should count as not breached", !client.isBreached(unknown) && client.failures() == 1);
+            client.isBreached(unknown);
+            test("Failures should not be cached", client.requests() == 2 && client.cachedPrefixes() == 0);
+        }
+        try (BreachRangeClient client = new BreachRangeClient(URI.create("http://127.0.0.1:1/range/"), 10,
+                Duration.ofHours(1), Duration.ofMillis(500))) {
+            test("Unreachable service should fail open", !client.isBreached("hunter2") && client.failures() == 1);
+        }
+        gate = new CountDownLatch(1);
+        try (BreachRangeClient client = new BreachRangeClient(base, 10, Duration.ofHours(1), Duration.ofMillis(200))) {
+            long start = System.nanoTime();
+            boolean breached = client.isBreached("hunter2");
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            test("Slow service should be cut off after the timeout", !breached && millis < 1500);
+        } finally {
+            gate.countDown();
+        }
+    }
+
+    public static void testWeakPasswordCheckIntegration() {
+        try (BreachRangeClient client = new BreachRangeClient(base)) {
+            WeakPasswordCheck.setBreachRangeClient(client);
+            test("Breached password should be weak", WeakPasswordCheck.isWeak("correcthorsebatterystaple"));
+            test("Policy should mark breached passwords as blacklisted",
+                    ValidationCodes.isBlacklisted(PasswordValidator.evaluate("Tr0ub4dor&3", new PasswordAnalysis())));
+            IncrementalValidator validator = new IncrementalValidator();
+            validator.append("Tr0ub4dor&3");
+            test("Incremental validator should ask the service too",
+                    ValidationCodes.isBlacklisted(validator.evaluate(new PasswordAnalysis())));
+        } finally {
+            WeakPasswordCheck.setBreachRangeClient(null);
+        }
+        test("Disabled client should no longer be asked", !WeakPasswordCheck.isWeak("correcthorsebatterystaple"));
+    }
+
+    public static void testCoalescing() throws Exception {
+        try (BreachRangeClient client = new BreachRangeClient(base)) {
+            int before = hits.get();
+            gate = new CountDownLatch(1);
+            List<CompletableFuture<Integer>> lookups = new ArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    CompletableFuture<Integer> lookup = client.occurrencesAsync("hunter2");
+                    synchronized (lookups) {
+                        lookups.add(lookup);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            test("Lookups should not block while the range is loading", lookups.stream().noneMatch(CompletableFuture::isDone));
+            gate.countDown();
+            boolean all = true;
+            for (CompletableFuture<Integer> lookup : lookups) {
+                all &= lookup.get(5, TimeUnit.SECONDS) == 100;
+            }
+            test("All 16 lookups should get the result", all);
+            test("Concurrent lookups should share one request", client.requests() == 1 && hits.get() - before == 1);
+        }
+    }
+
+    private static boolean sameRange(String a, String b) {
+        return sha1Hex(a).regionMatches(0, sha1Hex(b), 0, 5);
+    }
+
+    private static String sha1Hex(String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().withUpperCase().formatHex(digest.digest(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
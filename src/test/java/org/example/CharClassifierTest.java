@@ -0,0 +1,118 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Tests für die (optional vektorisierte) Zeichenklassen-Prüfung.
+ * Mit {@code java --add-modules jdk.incubator.vector ...} starten, um den SIMD-Weg zu prüfen.
+ */
+public class CharClassifierTest {
+
+    private static final String ALPHABET = "abcxyzABCXYZ0189!@#$%^&*()_+-=[]{}|;:,.<>? \"'/\\`~\t\u007fäöüßÄ€😀";
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 Testing CharClassifier...");
+        System.out.println("   Vector API: " + (CharClassifier.isVectorized() ? "aktiv" : "nicht verfügbar, skalarer Weg"));
+        testSameMaskAsScalar();
+        testPasswordEntryPoints();
+        testSpeed();
+    }
+
+    public static void testSameMaskAsScalar() {
+        CharClassifier.Table defaultTable = table(PasswordAnalysis.ALLOWED_SPECIAL_CHARS, false);
+        CharClassifier.Table strictTable = table("!?", true);
+        CharClassifier.Kernel vector = CharClassifier.vectorKernel();
+        Random random = new Random(42);
+        boolean same = true;
+        for (int run = 0; run < 20_000; run++) {
+            int length = random.nextInt(200);
+            int offset = random.nextInt(8);
+            char[] chars = new char[offset + length + 3];
+            // Meist wenige Zeichenklassen, damit der Vektor-Weg nicht sofort abbricht
+            String alphabet = random.nextBoolean() ? ALPHABET : ALPHABET.substring(0, 6 + random.nextInt(10));
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            same &= vector.scan(chars, offset, length, defaultTable)
+                    == CharClassifier.scanScalar(chars, offset, length, defaultTable);
+            same &= vector.scan(chars, offset, length, strictTable)
+                    == CharClassifier.scanScalar(chars, offset, length, strictTable);
+        }
+        test("Vector and scalar path should return the same mask", same);
+
+        char[] lastLane = new char[64];
+        Arrays.fill(lastLane, 'a');
+        lastLane[63] = '!';
+        test("Special character in the last lane should be found",
+                vector.scan(lastLane, 0, 64, defaultTable)
+                        == (PasswordAnalysis.LOWER | PasswordAnalysis.SPECIAL));
+    }
+
+    public static void testPasswordEntryPoints() throws IOException {
+        String passphrase = "korrekt pferd batterie heftklammer und noch ein paar woerter mehr 2024!";
+        int expected = 0;
+        for (int i = 0; i < passphrase.length(); i++) {
+            expected |= PasswordAnalysis.classOf(passphrase.charAt(i));
+        }
+        char[] chars = passphrase.toCharArray();
+        test("Long String and char[] should give the per-character mask",
+                PasswordAnalysis.classMask(passphrase) == expected
+                        && PasswordAnalysis.classMask(new CharSlice().set(chars, 0, chars.length)) == expected
+                        && PasswordAnalysis.classMask(new StringBuilder(passphrase)) == expected);
+
+        Properties properties = new Properties();
+        properties.setProperty("sonderzeichen", "!");
+        properties.setProperty("nur-erlaubte-zeichen", "true");
+        properties.setProperty("wortliste", "keine");
+        PasswordPolicy policy = PasswordPolicy.compile("streng", properties);
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        test("Policy should see disallowed characters in long passwords",
+                policy.scan(passphrase, scratch) != scratch.classes()
+                        && policy.scan(passphrase.replace(' ', 'x'), scratch) == scratch.classes()
+                        && policy.scan(passphrase.replace(' ', 'ä'), scratch) != scratch.classes());
+    }
+
+    public static void testSpeed() {
+        CharClassifier.Table table = table(PasswordAnalysis.ALLOWED_SPECIAL_CHARS, false);
+        char[] passphrase = "dies ist eine sehr lange passphrase aus vielen kleinen woertern ohne ziffern".repeat(4).toCharArray();
+        CharClassifier.Kernel vector = CharClassifier.vectorKernel();
+        int sink = 0;
+        for (int i = 0; i < 200_000; i++) {
+            sink += vector.scan(passphrase, 0, passphrase.length, table);
+            sink += CharClassifier.scanScalar(passphrase, 0, passphrase.length, table);
+        }
+        int runs = 500_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink += CharClassifier.scanScalar(passphrase, 0, passphrase.length, table);
+        }
+        long scalar = (System.nanoTime() - start) / runs;
+        start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink += vector.scan(passphrase, 0, passphrase.length, table);
+        }
+        long vectorized = (System.nanoTime() - start) / runs;
+        System.out.println("   " + passphrase.length + " Zeichen: skalar " + scalar + " ns, Vektor " + vectorized
+                + " ns (" + sink + ")");
+        test("Both paths should finish a passphrase in well under 10 µs", scalar < 10_000 && vectorized < 10_000);
+    }
+
+    private static CharClassifier.Table table(String specialChars, boolean otherForRest) {
+        byte[] table = new byte[128];
+        for (char c = 0; c < 128; c++) {
+            int bit = PasswordAnalysis.classOf(c) & ~PasswordAnalysis.SPECIAL;
+            table[c] = (byte) (bit == 0 && otherForRest ? 16 : bit);
+        }
+        for (int i = 0; i < specialChars.length(); i++) {
+            table[specialChars.charAt(i)] = PasswordAnalysis.SPECIAL;
+        }
+        return CharClassifier.table(table, otherForRest ? 16 : 0);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
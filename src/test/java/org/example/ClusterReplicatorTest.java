@@ -0,0 +1,218 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tests für den Abgleich der Sperrliste zwischen mehreren Knoten auf der Loopback-Schnittstelle
+ */
+public class ClusterReplicatorTest {
+
+    private static final byte[] KEY = "gemeinsamer-cluster-schluessel".getBytes(StandardCharsets.UTF_8);
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    /** Ein Knoten: eigener Speicher und eigene Replikation */
+    private record Node(IpReputationStore store, ClusterReplicator replicator) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 Testing ClusterReplicator...");
+        int[] ports = freePorts(5);
+        List<Node> nodes = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                nodes.add(start(ports, i, KEY));
+            }
+            testSplitOffenses(nodes);
+            testBlockAndUnblock(nodes);
+            testLateJoiner(nodes, ports);
+            testWrongKey(nodes, ports);
+
+            System.out.println("\n" + "=".repeat(50));
+
+            System.out.println("🧪 Testing SecurityMonitor integration...");
+            testSecurityMonitor(nodes.get(0));
+        } finally {
+            for (Node node : nodes) {
+                node.replicator().close();
+            }
+        }
+    }
+
+    public static void testSplitOffenses(List<Node> nodes) throws InterruptedException {
+        String ip = "198.51.100.7";
+        offense(nodes.get(0), ip);
+        offense(nodes.get(1), ip);
+        test("One offense on each of two nodes should block on every node",
+                await(() -> nodes.stream().allMatch(n -> n.store().status(ip) == IpReputationStore.BLOCKED)));
+        test("Remote blocks should be counted", nodes.get(2).replicator().remoteBlocks() >= 1);
+
+        String single = "198.51.100.8";
+        offense(nodes.get(2), single);
+        test("A single offense should make the address suspicious everywhere",
+                await(() -> nodes.stream().allMatch(n -> n.store().status(single) == IpReputationStore.SUSPICIOUS)));
+    }
+
+    public static void testBlockAndUnblock(List<Node> nodes) throws InterruptedException {
+        String ip = "2001:db8::42";
+        offense(nodes.get(1), ip);
+        offense(nodes.get(1), ip);
+        test("Local block should reach every node",
+                await(() -> nodes.stream().allMatch(n -> n.store().status(ip) == IpReputationStore.BLOCKED)));
+
+        nodes.get(2).store().unblock(ip);
+        nodes.get(2).replicator().unblocked(ip);
+        test("Unblock on another node should win everywhere",
+                await(() -> nodes.stream().allMatch(n -> n.store().status(ip) == IpReputationStore.CLEAN)));
+        Thread.sleep(500);
+        test("Unblock should stay in effect after further rounds",
+                nodes.stream().allMatch(n -> n.store().status(ip) == IpReputationStore.CLEAN));
+
+        offense(nodes.get(0), ip);
+        offense(nodes.get(0), ip);
+        test("Later block should override the unblock",
+                await(() -> nodes.stream().allMatch(n -> n.store().status(ip) == IpReputationStore.BLOCKED)));
+    }
+
+    public static void testLateJoiner(List<Node> nodes, int[] ports) throws Exception {
+        // Die anderen Knoten kennen Port 3 schon, bisher gingen die Pakete ins Leere
+        Node late = start(ports, 3, KEY);
+        nodes.add(late);
+        test("Late node should catch up through the full sync",
+                await(() -> late.store().status("198.51.100.7") == IpReputationStore.BLOCKED
+                        && late.store().status("2001:db8::42") == IpReputationStore.BLOCKED));
+        test("Repeated full syncs should not inflate offense counts",
+                late.store().status("198.51.100.8") == IpReputationStore.SUSPICIOUS);
+    }
+
+    public static void testWrongKey(List<Node> nodes, int[] ports) throws Exception {
+        byte[] wrongKey = "falscher-schluessel-falscher".getBytes(StandardCharsets.UTF_8);
+        Node intruder = start(ports, 4, wrongKey);
+        try {
+            long rejected = nodes.get(0).replicator().packetsRejected();
+            offense(intruder, "192.0.2.99");
+            offense(intruder, "192.0.2.99");
+            test("Packets with a wrong key should be rejected",
+                    await(() -> nodes.get(0).replicator().packetsRejected() > rejected));
+            test("Rejected packets should not block anything",
+                    nodes.stream().allMatch(n -> n.store().status("192.0.2.99") == IpReputationStore.CLEAN));
+        } finally {
+            intruder.replicator().close();
+        }
+
+        boolean shortKey;
+        try {
+            ClusterReplicator.start(new IpReputationStore(), new InetSocketAddress(LOOPBACK, 0), List.of(), new byte[8]);
+            shortKey = false;
+        } catch (IllegalArgumentException e) {
+            shortKey = true;
+        }
+        test("Short key should be refused", shortKey);
+    }
+
+    public static void testSecurityMonitor(Node peer) throws Exception {
+        SecurityMonitor.setConsoleWarnings(false);
+        ClusterReplicator replicator = SecurityMonitor.enableReplication(new InetSocketAddress(LOOPBACK, 0),
+                List.of(new InetSocketAddress(LOOPBACK, peer.replicator().port())), KEY);
+        try {
+            String ip = "203.0.113.77";
+            SecurityMonitor.checkForSQLInjection("' OR 1=1 --", ip);
+            SecurityMonitor.checkForSQLInjection("'; DROP TABLE users --", ip);
+            test("Block by the monitor should reach the peer",
+                    await(() -> peer.store().status(ip) == IpReputationStore.BLOCKED));
+            SecurityMonitor.unblockIP(ip);
+            test("Unblock by the monitor should reach the peer",
+                    await(() -> peer.store().status(ip) == IpReputationStore.CLEAN));
+
+            // Eigener Knoten, der den Monitor als Nachbarn kennt
+            IpReputationStore senderStore = new IpReputationStore();
+            Node sender = new Node(senderStore, ClusterReplicator.start(senderStore, new InetSocketAddress(LOOPBACK, 0),
+                    List.of(new InetSocketAddress(LOOPBACK, replicator.port())), KEY, 99, Duration.ofMillis(50), 1, 4,
+                    IpReputationStore.DEFAULT_TTL, System::currentTimeMillis));
+            try {
+                String remote = "203.0.113.78";
+                long blocks = ValidatorMetrics.ipBlocks();
+                offense(sender, remote);
+                offense(sender, remote);
+                test("Block by another node should reach the monitor", await(() -> SecurityMonitor.isIPBlocked(remote)));
+                test("Remote block should be counted like a local one",
+                        await(() -> ValidatorMetrics.ipBlocks() == blocks + 1));
+                long unblocks = ValidatorMetrics.ipUnblocks();
+                sender.store().unblock(remote);
+                sender.replicator().unblocked(remote);
+                test("Remote unblock should be counted like a local one",
+                        await(() -> !SecurityMonitor.isIPBlocked(remote) && ValidatorMetrics.ipUnblocks() == unblocks + 1));
+            } finally {
+                sender.replicator().close();
+            }
+
+            boolean rejected;
+            try {
+                SecurityMonitor.configureReputation(Duration.ofHours(1), 2, Duration.ofHours(24), 1000);
+                rejected = false;
+            } catch (IllegalStateException e) {
+                rejected = true;
+            }
+            test("Replacing the replicated store should be refused", rejected);
+        } finally {
+            SecurityMonitor.setClusterReplicator(null);
+            replicator.close();
+            SecurityMonitor.setConsoleWarnings(true);
+        }
+    }
+
+    private static Node start(int[] ports, int index, byte[] key) throws IOException {
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            if (i != index) {
+                peers.add(new InetSocketAddress(LOOPBACK, ports[i]));
+            }
+        }
+        IpReputationStore store = new IpReputationStore();
+        ClusterReplicator replicator = ClusterReplicator.start(store, new InetSocketAddress(LOOPBACK, ports[index]),
+                peers, key, index + 1, Duration.ofMillis(50), 2, 4, IpReputationStore.DEFAULT_TTL,
+                System::currentTimeMillis);
+        return new Node(store, replicator);
+    }
+
+    /** Meldet einen Verstoß wie der SecurityMonitor: erst lokal, dann an den Cluster */
+    private static void offense(Node node, String ip) {
+        int result = node.store().recordOffense(ip);
+        node.replicator().offense(ip, (result & IpReputationStore.NEWLY_BLOCKED) != 0);
+    }
+
+    private static int[] freePorts(int count) throws IOException {
+        int[] ports = new int[count];
+        DatagramSocket[] sockets = new DatagramSocket[count];
+        for (int i = 0; i < count; i++) {
+            sockets[i] = new DatagramSocket(new InetSocketAddress(LOOPBACK, 0));
+            ports[i] = sockets[i].getLocalPort();
+        }
+        for (DatagramSocket socket : sockets) {
+            socket.close();
+        }
+        return ports;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,157 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Tests für die zeichenweise Prüfung während der Eingabe
+ */
+public class IncrementalValidatorTest {
+
+    // Zeichen, aus denen die Zufallseingaben bestehen: Buchstaben, Leetspeak, Umlaute, SQL-Zeichen
+    private static final String ALPHABET = "passwordPASSWORDqwertyadmin0134579@$!|+-_'\"=;# ßäöüÄ１ＡＢ*/";
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 Testing IncrementalValidator...");
+        testTyping();
+        testVariants();
+        testUpdate();
+        testRandomEditsMatchFullEvaluation();
+        testCustomPolicy();
+        testDictionaryChange();
+    }
+
+    public static void testTyping() {
+        IncrementalValidator validator = new IncrementalValidator();
+        validator.append("Blau-Fisch#Regen");
+        test("Unfinished password should be medium", validator.verdict() == PasswordVerdict.MEDIUM);
+        validator.append("42");
+        test("Typed password should be strong", validator.verdict() == PasswordVerdict.STRONG);
+        test("Length should be tracked", validator.length() == 18);
+        test("Classes should be tracked", validator.classes() == PasswordAnalysis.ALL_CLASSES);
+
+        validator.deleteLast();
+        validator.deleteLast();
+        validator.truncate(4);
+        test("Backspace should remove classes", validator.classes() == (PasswordAnalysis.UPPER | PasswordAnalysis.LOWER));
+        validator.clear();
+        test("Cleared validator should be empty", validator.length() == 0 && !validator.deleteLast());
+        test("Empty password should be weak", validator.verdict() == PasswordVerdict.WEAK);
+
+        validator.append("admin'--");
+        test("SQL injection should be rejected", validator.verdict() == PasswordVerdict.REJECTED);
+    }
+
+    public static void testVariants() {
+        IncrementalValidator validator = new IncrementalValidator();
+        String[] weak = {"P@ssw0rd2024!", "Passw0rd!", "!!Password1", "ＰＡＳＳＷＯＲＤ12#", "Qwerty123!"};
+        for (String password : weak) {
+            validator.clear();
+            validator.append(password);
+            byte expected = PasswordPolicy.defaults().evaluate(password, new PasswordAnalysis());
+            byte code = validator.evaluate(new PasswordAnalysis());
+            test("Variant " + password + " should be blacklisted", ValidationCodes.isBlacklisted(code) && code == expected);
+        }
+
+        validator.clear();
+        validator.append("P@ssw0rdX");
+        test("Letter after the word should not match", !ValidationCodes.isBlacklisted(validator.evaluate(new PasswordAnalysis())));
+        validator.deleteLast();
+        validator.append('7');
+        test("Backspace should restore the trie cursor", ValidationCodes.isBlacklisted(validator.evaluate(new PasswordAnalysis())));
+    }
+
+    public static void testUpdate() {
+        IncrementalValidator validator = new IncrementalValidator();
+        validator.update("MySecure123!");
+        validator.update("MySecure1234!");
+        validator.update("MyS3cure1234!");
+        String text = "MyS3cure1234!";
+        test("Edit in the middle should match the full evaluation",
+                validator.evaluate(new PasswordAnalysis()) == PasswordPolicy.defaults().evaluate(text, new PasswordAnalysis())
+                        && validator.length() == text.length());
+    }
+
+    public static void testRandomEditsMatchFullEvaluation() {
+        PasswordPolicy policy = PasswordPolicy.defaults();
+        Random random = new Random(22);
+        IncrementalValidator validator = new IncrementalValidator(policy);
+        StringBuilder text = new StringBuilder();
+        PasswordAnalysis expectedScratch = new PasswordAnalysis();
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        int mismatches = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 6 || text.isEmpty()) {
+                char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                text.append(c);
+                validator.append(c);
+            } else if (action < 9) {
+                text.setLength(text.length() - 1);
+                validator.deleteLast();
+            } else {
+                int keep = random.nextInt(text.length() + 1);
+                text.setLength(keep);
+                text.append("Password");
+                validator.update(text);
+            }
+            if (text.length() > 80) {
+                text.setLength(0);
+                validator.clear();
+            }
+            byte expected = policy.evaluate(text, expectedScratch);
+            byte code = validator.evaluate(scratch);
+            if (code != expected || scratch.length() != expectedScratch.length()) {
+                if (mismatches++ < 3) {
+                    System.out.println("   Abweichung bei \"" + text + "\": " + code + " statt " + expected);
+                }
+            }
+        }
+        test("20000 random edits should match the full evaluation", mismatches == 0);
+    }
+
+    public static void testCustomPolicy() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("mindestlaenge", "10");
+        properties.setProperty("pflichtklassen", "ziffer, sonder");
+        properties.setProperty("sonderzeichen", "!?");
+        properties.setProperty("nur-erlaubte-zeichen", "true");
+        properties.setProperty("varianten", "false");
+        PasswordPolicy policy = PasswordPolicy.compile("eingabe", properties);
+        IncrementalValidator validator = new IncrementalValidator(policy);
+        String[] steps = {"abcdefgh1", "abcdefgh1!", "abcdefgh1!#", "P@ssw0rd2024!", "Wolke7?Laterne"};
+        boolean same = true;
+        for (String password : steps) {
+            validator.update(password);
+            same &= validator.evaluate(new PasswordAnalysis()) == policy.evaluate(password, new PasswordAnalysis());
+        }
+        test("Custom policy should match its full evaluation", same);
+        validator.update("abcdefgh1!#");
+        validator.deleteLast();
+        test("Deleting a disallowed character should allow the password again",
+                validator.verdict() == ValidationCodes.verdict(policy.evaluate("abcdefgh1!", new PasswordAnalysis())));
+    }
+
+    public static void testDictionaryChange() {
+        WeakPasswordDictionary original = WeakPasswordCheck.getDictionary();
+        IncrementalValidator validator = new IncrementalValidator();
+        validator.append("Zitrone-42!");
+        boolean before = ValidationCodes.isBlacklisted(validator.evaluate(new PasswordAnalysis()));
+        WeakPasswordDictionary dictionary = new WeakPasswordDictionary(1);
+        dictionary.add("zitrone");
+        WeakPasswordCheck.setDictionary(dictionary);
+        try {
+            test("New dictionary should be used for variants",
+                    !before && ValidationCodes.isBlacklisted(validator.evaluate(new PasswordAnalysis())));
+        } finally {
+            WeakPasswordCheck.setDictionary(original);
+        }
+        test("Original dictionary should be used again",
+                !ValidationCodes.isBlacklisted(validator.evaluate(new PasswordAnalysis())));
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests für den threadsicheren IP-Reputationsspeicher
+ */
+public class IpReputationStoreTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("🧪 Testing IpReputationStore...");
+        testStatusTransitions();
+        testIpv6AndIpv4Mapped();
+        testSlidingWindowAndTtl();
+        testBoundedSize();
+
+        System.out.println("\n" + "=".repeat(50));
+
+        System.out.println("🧪 Testing concurrent offenses...");
+        testConcurrentOffenses();
+        testSingleBlockTransition();
+    }
+
+    public static void testStatusTransitions() {
+        IpReputationStore store = new IpReputationStore();
+
+        test("Unknown IP should be clean", store.status("10.0.0.1") == IpReputationStore.CLEAN);
+        test("First offense should mark suspicious", store.reportOffense("10.0.0.1") == IpReputationStore.SUSPICIOUS);
+        test("Second offense should block", store.reportOffense("10.0.0.1") == IpReputationStore.BLOCKED);
+        test("Blocked IP should stay blocked", store.reportOffense("10.0.0.1") == IpReputationStore.BLOCKED);
+        test("Unblock should return true", store.unblock("10.0.0.1"));
+        test("Unblocked IP should be clean", store.status("10.0.0.1") == IpReputationStore.CLEAN);
+    }
+
+    public static void testIpv6AndIpv4Mapped() {
+        IpReputationStore store = new IpReputationStore();
+        store.reportOffense("::ffff:192.168.1.5");
+
+        test("IPv4-mapped should equal IPv4", store.status("192.168.1.5") == IpReputationStore.SUSPICIOUS);
+        store.reportOffense("2001:db8::1");
+        test("Compressed IPv6 should match full form",
+                store.status("2001:0db8:0:0:0:0:0:1") == IpReputationStore.SUSPICIOUS);
+    }
+
+    public static void testSlidingWindowAndTtl() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        IpReputationStore store = new IpReputationStore(Duration.ofMinutes(1), 3, Duration.ofMinutes(10), 100, now::get);
+
+        store.reportOffense("10.0.0.2");
+        store.reportOffense("10.0.0.2");
+        test("Two offenses below threshold 3 should be suspicious", store.status("10.0.0.2") == IpReputationStore.SUSPICIOUS);
+
+        now.addAndGet(Duration.ofMinutes(5).toMillis());
+        test("Old offenses outside window should not block", store.reportOffense("10.0.0.2") == IpReputationStore.SUSPICIOUS);
+
+        store.reportOffense("10.0.0.2");
+        test("Third offense within window should block", store.reportOffense("10.0.0.2") == IpReputationStore.BLOCKED);
+
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        test("Blocked IP should expire after TTL", store.status("10.0.0.2") == IpReputationStore.CLEAN);
+        test("Expired IP should not be counted", store.count(IpReputationStore.BLOCKED) == 0);
+    }
+
+    public static void testBoundedSize() {
+        AtomicLong now = new AtomicLong();
+        IpReputationStore store = new IpReputationStore(Duration.ofMinutes(1), 2, Duration.ofHours(1), 64, now::get);
+        for (int i = 0; i < 10_000; i++) {
+            now.incrementAndGet();
+            store.reportOffense("10.2." + (i / 250) + "." + (i % 250));
+        }
+
+        int stored = store.count(IpReputationStore.SUSPICIOUS);
+        test("Store should never exceed its maximum size", stored <= 64 && stored > 0);
+        test("Most recent IP should still be tracked", store.status("10.2.39.249") == IpReputationStore.SUSPICIOUS);
+        test("Oldest IP should have been evicted", store.status("10.2.0.0") == IpReputationStore.CLEAN);
+    }
+
+    public static void testConcurrentOffenses() throws InterruptedException {
+        IpReputationStore store = new IpReputationStore(Duration.ofHours(1), 2, Duration.ofHours(1), 10_000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    store.reportOffense("10.1." + (i / 250) + "." + (i % 250));
+                    store.status("10.1.0.1");
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        // Statistik während der Schreibzugriffe abfragen
+        for (int i = 0; i < 100; i++) {
+            store.addresses(IpReputationStore.BLOCKED);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        test("All 5000 IPs should be blocked", store.count(IpReputationStore.BLOCKED) == 5000);
+        test("No IP should remain suspicious", store.count(IpReputationStore.SUSPICIOUS) == 0);
+    }
+
+    public static void testSingleBlockTransition() throws InterruptedException {
+        IpReputationStore store = new IpReputationStore(Duration.ofHours(1), 2, Duration.ofHours(1), 10_000);
+        AtomicLong transitions = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    int result = store.recordOffense("10.2." + (i / 250) + "." + (i % 250));
+                    if ((result & IpReputationStore.NEWLY_BLOCKED) != 0) {
+                        transitions.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        test("Each IP should report the block transition exactly once", transitions.get() == 1000);
+        test("Status bits should match the store",
+                (store.recordOffense("10.2.0.1") & IpReputationStore.STATUS_MASK) == IpReputationStore.BLOCKED);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+/**
+ * Tests für die Analyse in einem Durchlauf (Klassen-Bitmaske und Länge)
+ */
+public class PasswordAnalysisTest {
+
+    public static void main(String[] args) {
+        System.out.println("🧪 Testing PasswordAnalysis...");
+        testClassMask();
+        testLengthAccessors();
+        testReuse();
+    }
+
+    public static void testClassMask() {
+        test("Class bits should be distinct single bits",
+                Integer.bitCount(PasswordAnalysis.ALL_CLASSES) == 4 && PasswordAnalysis.ALL_CLASSES == 0b1111);
+        test("Single classes should be detected",
+                PasswordAnalysis.classMask("123") == PasswordAnalysis.DIGIT
+                        && PasswordAnalysis.classMask("ABC") == PasswordAnalysis.UPPER
+                        && PasswordAnalysis.classMask("abc") == PasswordAnalysis.LOWER
+                        && PasswordAnalysis.classMask("!?#") == PasswordAnalysis.SPECIAL);
+        test("All classes should combine", PasswordAnalysis.classMask("Ab1!") == PasswordAnalysis.ALL_CLASSES);
+        test("Empty password should have no classes", PasswordAnalysis.classMask("") == 0);
+        test("Non-ASCII and disallowed symbols should not count",
+                PasswordAnalysis.classMask("äöü ß€\"'~") == 0 && PasswordAnalysis.classMask("Ä1") == PasswordAnalysis.DIGIT);
+        test("classOf should match the mask of a single character",
+                PasswordAnalysis.classOf('7') == PasswordAnalysis.DIGIT && PasswordAnalysis.classOf('Q') == PasswordAnalysis.UPPER
+                        && PasswordAnalysis.classOf('q') == PasswordAnalysis.LOWER && PasswordAnalysis.classOf('@') == PasswordAnalysis.SPECIAL
+                        && PasswordAnalysis.classOf(' ') == 0 && PasswordAnalysis.classOf('é') == 0);
+
+        PasswordAnalysis analysis = PasswordAnalysis.of("Sicher#Pass");
+        test("Accessors should read the mask", !analysis.hasDigit() && analysis.hasUpperAndLower()
+                && analysis.hasSpecialChar() && analysis.characterGroups() == 3
+                && analysis.classes() == (PasswordAnalysis.UPPER | PasswordAnalysis.LOWER | PasswordAnalysis.SPECIAL));
+        test("Upper without lower should not count as mixed case", !PasswordAnalysis.of("ABC1").hasUpperAndLower());
+    }
+
+    public static void testLengthAccessors() {
+        PasswordAnalysis analysis = PasswordAnalysis.of("abcdefgh");
+        test("Length should be counted in chars", analysis.length() == 8 && !analysis.isNull());
+        test("Minimum length should be inclusive", analysis.hasMinLength(8) && !analysis.hasMinLength(9));
+        test("Surrogate pairs should count as two chars", PasswordAnalysis.of("a😀").length() == 3);
+
+        PasswordAnalysis empty = PasswordAnalysis.of("");
+        test("Empty password should have length 0", empty.length() == 0 && !empty.isNull() && empty.hasMinLength(0));
+
+        PasswordAnalysis none = PasswordAnalysis.of(null);
+        test("Null password should report length -1", none.isNull() && none.length() == -1
+                && none.classes() == 0 && !none.hasMinLength(0));
+    }
+
+    public static void testReuse() {
+        PasswordAnalysis analysis = new PasswordAnalysis();
+        test("Fresh analysis should look like null", analysis.isNull() && analysis.classes() == 0);
+        analysis.analyze("Ab1!xyz");
+        analysis.analyze("abc");
+        test("Reuse should replace length and classes",
+                analysis.length() == 3 && analysis.classes() == PasswordAnalysis.LOWER);
+        analysis.analyze(null);
+        test("Reuse with null should reset", analysis.isNull() && analysis.characterGroups() == 0);
+        test("analyze should return the same instance", analysis.analyze(new StringBuilder("x1")) == analysis
+                && analysis.length() == 2 && analysis.characterGroups() == 2);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
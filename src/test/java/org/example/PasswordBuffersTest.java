@@ -0,0 +1,167 @@
+package org.example;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Tests für die Prüfung direkt aus char[]-, byte[]- und ByteBuffer-Puffern
+ */
+public class PasswordBuffersTest {
+
+    private static final String[] PASSWORDS = {"MySecure123!", "Password1!", "abcdefgh", "Kurz1!", "password",
+            "P@ssw0rd2024", "Blau-Fisch#Regen42", "ÄÖÜäöü12!x", "Emoji😀Pass1!", "admin'--", "ＰＡＳＳＷＯＲＤ", ""};
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 Testing PasswordBuffers...");
+        testSameResultAsString();
+        testDecoder();
+        testMalformedInput();
+        testBuffersUnchanged();
+        testWipe();
+        testAllocation();
+    }
+
+    public static void testSameResultAsString() throws IOException {
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        boolean chars = true;
+        boolean bytes = true;
+        boolean heap = true;
+        boolean direct = true;
+        for (String password : PASSWORDS) {
+            byte expected = PasswordValidator.evaluate(password, scratch);
+            char[] padded = ("xx" + password + "yy").toCharArray();
+            chars &= PasswordValidator.evaluate(padded, 2, password.length(), scratch) == expected;
+            byte[] utf8 = ("xx" + password + "yy").getBytes(StandardCharsets.UTF_8);
+            int length = utf8.length - 4;
+            bytes &= PasswordValidator.evaluateUtf8(utf8, 2, length, scratch) == expected;
+            heap &= PasswordValidator.evaluateUtf8(ByteBuffer.wrap(utf8, 2, length), scratch) == expected;
+            direct &= PasswordValidator.evaluateUtf8(toDirect(password), scratch) == expected;
+        }
+        test("char[] should be evaluated like the String", chars);
+        test("UTF-8 byte[] should be evaluated like the String", bytes);
+        test("Heap ByteBuffer should be evaluated like the String", heap);
+        test("Direct ByteBuffer should be evaluated like the String", direct);
+        test("Null should be weak",
+                ValidationCodes.verdict(PasswordValidator.evaluate((char[]) null, 0, 0, scratch)) == PasswordVerdict.WEAK
+                        && ValidationCodes.verdict(PasswordValidator.evaluateUtf8((ByteBuffer) null, scratch)) == PasswordVerdict.WEAK);
+
+        boolean rejected;
+        try {
+            PasswordValidator.evaluate(new char[4], 2, 3, scratch);
+            rejected = false;
+        } catch (IndexOutOfBoundsException e) {
+            rejected = true;
+        }
+        test("Range outside the array should be rejected", rejected);
+
+        Properties properties = new Properties();
+        properties.setProperty("mindestlaenge", "14");
+        PasswordPolicy tenant = PasswordPolicy.compile("puffer", properties);
+        byte[] utf8 = "MySecure123!".getBytes(StandardCharsets.UTF_8);
+        test("Policy entry points should use the policy",
+                ValidationCodes.verdict(tenant.evaluateUtf8(utf8, 0, utf8.length, scratch)) == PasswordVerdict.WEAK
+                        && ValidationCodes.verdict(tenant.evaluate("MySecure123!".toCharArray(), 0, 12, scratch)) == PasswordVerdict.WEAK);
+    }
+
+    public static void testDecoder() {
+        boolean same = true;
+        for (String password : PASSWORDS) {
+            byte[] utf8 = password.getBytes(StandardCharsets.UTF_8);
+            char[] out = new char[utf8.length];
+            int n = PasswordBuffers.decodeUtf8(utf8, 0, utf8.length, out);
+            same &= new String(out, 0, n).equals(password);
+        }
+        test("Decoder should match the JDK for valid UTF-8 (incl. surrogate pairs)", same);
+    }
+
+    public static void testMalformedInput() {
+        byte[][] malformed = {
+                {(byte) 0xC3},                               // abgeschnitten
+                {(byte) 0xC0, (byte) 0x80},                  // überlange Kodierung
+                {(byte) 0xED, (byte) 0xA0, (byte) 0x80},     // Surrogat
+                {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80}, // über U+10FFFF
+                {'a', (byte) 0x80, 'b'}                      // einzelnes Folgebyte
+        };
+        boolean replaced = true;
+        for (byte[] utf8 : malformed) {
+            char[] out = new char[utf8.length];
+            int n = PasswordBuffers.decodeUtf8(utf8, 0, utf8.length, out);
+            replaced &= new String(out, 0, n).indexOf('\uFFFD') >= 0 && n <= utf8.length;
+        }
+        test("Malformed UTF-8 should be replaced by U+FFFD", replaced);
+    }
+
+    public static void testBuffersUnchanged() {
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        ByteBuffer direct = toDirect("MySecure123!");
+        int position = direct.position();
+        int limit = direct.limit();
+        PasswordValidator.evaluateUtf8(direct, scratch);
+        test("Evaluation should not move the buffer", direct.position() == position && direct.limit() == limit);
+        char[] password = "MySecure123!".toCharArray();
+        PasswordValidator.evaluate(password, 0, password.length, scratch);
+        test("Evaluation should leave the caller's array intact", new String(password).equals("MySecure123!"));
+    }
+
+    public static void testWipe() {
+        char[] chars = "geheim".toCharArray();
+        PasswordBuffers.wipe(chars);
+        byte[] bytes = "geheim".getBytes(StandardCharsets.UTF_8);
+        PasswordBuffers.wipe(bytes);
+        test("Arrays should be zeroed", Arrays.equals(chars, new char[6]) && Arrays.equals(bytes, new byte[6]));
+
+        ByteBuffer direct = toDirect("xxgeheim");
+        direct.position(2);
+        PasswordBuffers.wipe(direct);
+        boolean zero = direct.get(0) == 'x' && direct.position() == 2;
+        for (int i = 2; i < direct.limit(); i++) {
+            zero &= direct.get(i) == 0;
+        }
+        test("Direct buffer should be zeroed from position to limit", zero);
+
+        StringBuilder builder = new StringBuilder("geheim");
+        PasswordBuffers.wipe(builder);
+        test("StringBuilder should be emptied", builder.length() == 0);
+    }
+
+    public static void testAllocation() {
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        ByteBuffer[] buffers = new ByteBuffer[PASSWORDS.length];
+        char[][] arrays = new char[PASSWORDS.length][];
+        for (int i = 0; i < PASSWORDS.length; i++) {
+            buffers[i] = toDirect(PASSWORDS[i]);
+            arrays[i] = PASSWORDS[i].toCharArray();
+        }
+        int sink = 0;
+        for (int i = 0; i < 100_000; i++) {
+            int k = i % PASSWORDS.length;
+            sink += PasswordValidator.evaluateUtf8(buffers[k], scratch);
+            sink += PasswordValidator.evaluate(arrays[k], 0, arrays[k].length, scratch);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        int runs = 200_000;
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < runs; i++) {
+            int k = i % PASSWORDS.length;
+            sink += PasswordValidator.evaluateUtf8(buffers[k], scratch);
+            sink += PasswordValidator.evaluate(arrays[k], 0, arrays[k].length, scratch);
+        }
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+        System.out.println("   " + allocated + " Bytes alloziert für " + 2 * runs + " Prüfungen (" + sink + ")");
+        test("Buffer evaluation should not allocate per call", allocated < 2 * runs);
+    }
+
+    private static ByteBuffer toDirect(String password) {
+        byte[] bytes = password.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,198 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests für kompilierte Richtlinien und die Registry je Mandant
+ */
+public class PasswordPolicyTest {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 Testing PasswordPolicy...");
+        testDefaultsMatchFixedRule();
+        testCustomPolicy();
+        testInvalidPolicy();
+        testRegistry();
+        testReloadDuringValidation();
+    }
+
+    public static void testDefaultsMatchFixedRule() {
+        String[] passwords = {"MySecure123!", "Password1!", "abcdefgh", "Abcdefg1", "Kurz1!", "password",
+                "Blau-Fisch#Regen42", "Wolke7 Laterne", "ÄÖÜäöü12!x", "admin'--", ""};
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        boolean same = true;
+        for (String password : passwords) {
+            PasswordAnalysis analysis = PasswordAnalysis.of(password);
+            boolean weak = WeakPasswordCheck.isWeak(password);
+            PasswordVerdict expected = SecurityMonitor.findSQLInjectionPattern(password) >= 0 ? PasswordVerdict.REJECTED
+                    : PasswordVerdict.of(analysis, PasswordValidator.DEFAULT_MIN_LENGTH, weak, StrengthEstimator.score(password));
+            byte code = PasswordPolicy.defaults().evaluate(password, scratch);
+            same &= ValidationCodes.verdict(code) == expected && ValidationCodes.classes(code) == analysis.classes();
+        }
+        test("Default policy should reproduce the fixed rule", same);
+        test("Null should be weak under the default policy",
+                ValidationCodes.verdict(PasswordPolicy.defaults().evaluate(null, scratch)) == PasswordVerdict.WEAK);
+    }
+
+    public static void testCustomPolicy() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("mindestlaenge", "12");
+        properties.setProperty("pflichtklassen", "ziffer, sonder");
+        properties.setProperty("sonderzeichen", "!?");
+        properties.setProperty("nur-erlaubte-zeichen", "true");
+        properties.setProperty("wortliste", "keine");
+        properties.setProperty("stark.zeichengruppen", "3");
+        properties.setProperty("stark.staerke", "0");
+        properties.setProperty("mittel.staerke", "0");
+        PasswordPolicy policy = PasswordPolicy.compile("streng", properties);
+        PasswordAnalysis scratch = new PasswordAnalysis();
+
+        test("Custom minimum length should apply",
+                ValidationCodes.verdict(policy.evaluate("abcdef12!", scratch)) == PasswordVerdict.WEAK);
+        test("Three groups should be strong with a lower threshold",
+                ValidationCodes.verdict(policy.evaluate("abcdefgh123!", scratch)) == PasswordVerdict.STRONG);
+        test("Missing required class should be weak",
+                ValidationCodes.verdict(policy.evaluate("abcdefGHIJKL!", scratch)) == PasswordVerdict.WEAK);
+        test("Characters outside the allowed set should be weak",
+                ValidationCodes.verdict(policy.evaluate("abcdefgh123#", scratch)) == PasswordVerdict.WEAK
+                        && ValidationCodes.verdict(policy.evaluate("abcdefgh123!ä", scratch)) == PasswordVerdict.WEAK);
+        test("Disabled word list should accept a listed password",
+                !policy.isBlacklisted("password") && policy.isBlacklisted(null));
+        test("Scratch should hold length and classes afterwards",
+                policy.evaluate("abcdefgh123!", scratch) != 0 && scratch.length() == 12 && scratch.hasSpecialChar());
+        test("Default policy should be unaffected",
+                ValidationCodes.verdict(PasswordPolicy.defaults().evaluate("abcdefgh123#", scratch)) == PasswordVerdict.MEDIUM);
+    }
+
+    public static void testInvalidPolicy() throws IOException {
+        test("Unknown key should be rejected", rejects("mindestlange", "8"));
+        test("Negative length should be rejected", rejects("mindestlaenge", "-1"));
+        test("Unknown class should be rejected", rejects("pflichtklassen", "ziffer,emoji"));
+        test("Letter as special character should be rejected", rejects("sonderzeichen", "!a"));
+        test("Medium above strong should be rejected", rejects("mittel.zeichengruppen", "4", "stark.zeichengruppen", "3"));
+    }
+
+    public static void testRegistry() throws IOException {
+        Path directory = Files.createTempDirectory("richtlinien");
+        try {
+            Files.writeString(directory.resolve("woerter.txt"), "firmenname2024\n");
+            Files.writeString(directory.resolve("acme.properties"), "mindestlaenge=16\n");
+            Files.writeString(directory.resolve("globex.properties"), "wortliste=woerter.txt\n");
+            Files.writeString(directory.resolve("initech.properties"), "wortliste=woerter.txt\nmindestlaenge=10\n");
+            PolicyRegistry registry = PolicyRegistry.open(directory);
+            PasswordAnalysis scratch = new PasswordAnalysis();
+
+            test("Every file should become a policy", registry.size() == 3);
+            test("Tenant policy should be selected by name",
+                    registry.policy("acme").minLength() == 16 && registry.policy("globex").minLength() == 8);
+            test("Unknown tenant should fall back to the default policy",
+                    registry.policy("unbekannt") == PasswordPolicy.defaults() && registry.policy(null) == PasswordPolicy.defaults());
+            test("Tenant word list should be used",
+                    ValidationCodes.isBlacklisted(registry.policy("globex").evaluate("Firmenname2024", scratch))
+                            && !ValidationCodes.isBlacklisted(registry.policy("acme").evaluate("Firmenname2024", scratch)));
+            test("Tenant word list should include the built-in list", registry.policy("globex").isBlacklisted("password"));
+
+            PasswordPolicy before = registry.policy("acme");
+            Files.writeString(directory.resolve("acme.properties"), "mindestlaenge=20\n");
+            Files.writeString(directory.resolve("standard.properties"), "mindestlaenge=9\n");
+            test("Reload should report no errors", registry.reload().isEmpty());
+            test("Reload should replace changed policies", registry.policy("acme").minLength() == 20 && before.minLength() == 16);
+            test("standard.properties should become the fallback", registry.policy("unbekannt").minLength() == 9);
+
+            Files.writeString(directory.resolve("acme.properties"), "mindestlaenge=zwanzig\n");
+            List<String> errors = registry.reload();
+            test("Invalid file should be reported and keep its last valid policy",
+                    errors.size() == 1 && errors.get(0).contains("acme") && registry.policy("acme").minLength() == 20);
+
+            String message;
+            try {
+                PolicyRegistry.open(directory);
+                message = "";
+            } catch (IllegalArgumentException e) {
+                message = e.getMessage();
+            }
+            test("Opening a directory with an invalid file should fail", message.contains("mindestlaenge"));
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    public static void testReloadDuringValidation() throws Exception {
+        Path directory = Files.createTempDirectory("richtlinien");
+        try {
+            Files.writeString(directory.resolve("acme.properties"), "mindestlaenge=8\n");
+            PolicyRegistry registry = PolicyRegistry.open(directory);
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger wrong = new AtomicInteger();
+            AtomicInteger validations = new AtomicInteger();
+            Thread[] workers = new Thread[4];
+            for (int t = 0; t < workers.length; t++) {
+                workers[t] = new Thread(() -> {
+                    PasswordAnalysis scratch = new PasswordAnalysis();
+                    while (running.get()) {
+                        PasswordPolicy policy = registry.policy("acme");
+                        byte code = policy.evaluate("Blau-Fisch#Regen42", scratch);
+                        // 18 Zeichen: nur mit Mindestlänge 20 schwach
+                        PasswordVerdict expected = policy.minLength() > 18 ? PasswordVerdict.WEAK : PasswordVerdict.STRONG;
+                        if (ValidationCodes.verdict(code) != expected) {
+                            wrong.incrementAndGet();
+                        }
+                        validations.incrementAndGet();
+                    }
+                });
+                workers[t].start();
+            }
+            for (int i = 0; i < 200; i++) {
+                Files.writeString(directory.resolve("acme.properties"), "mindestlaenge=" + (i % 2 == 0 ? 20 : 8) + "\n");
+                registry.reload();
+            }
+            running.set(false);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            System.out.println("   " + validations.get() + " Validierungen während 200 Neuladevorgängen");
+            test("Validations should always see one complete policy", wrong.get() == 0 && validations.get() > 0);
+
+            Files.writeString(directory.resolve("acme.properties"), "mindestlaenge=12\n");
+            Files.setLastModifiedTime(directory.resolve("acme.properties"),
+                    FileTime.fromMillis(System.currentTimeMillis() + 5000));
+            test("Changed file should be detected", registry.changed());
+            registry.close();
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    private static boolean rejects(String... keyValues) throws IOException {
+        Properties properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        try {
+            PasswordPolicy.compile("ungueltig", properties);
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static void deleteAll(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
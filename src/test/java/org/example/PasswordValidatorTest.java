@@ -1,6 +1,9 @@
 
 package org.example; // Paket-Deklaration: Definiert zu welchem Paket diese Klasse gehört
 
+import java.util.ArrayList; // Für die Liste der Testpasswörter
+import java.util.List; // Für die Liste der Testpasswörter
+
 /**
  * TDD Tests für den Passwort-Validator
  * Diese Klasse enthält alle Tests für die Test-Driven Development Methodik
@@ -18,6 +21,12 @@ public class PasswordValidatorTest { // Öffentliche Klasse für die Tests
         // Test 2: Ziffer enthalten
         System.out.println("🔴 RED Phase: Testing containsDigit...");
         testContainsDigit();
+        
+        System.out.println("\n" + "=".repeat(50));
+        
+        // Test 3: Massenvalidierung
+        System.out.println("🔴 RED Phase: Testing validateAll...");
+        testValidateAll();
     }
     
     // Methode zum Testen der hasMinLength-Funktionalität
@@ -90,6 +99,33 @@ public class PasswordValidatorTest { // Öffentliche Klasse für die Tests
         test("Unicode chars should be false", !PasswordValidator.containsDigit("abc①def"));
     }
     
+    // Methode zum Testen der validateAll-Funktionalität
+    public static void testValidateAll() {
+        // Gemischte Eingabe, groß genug um auf mehrere Threads verteilt zu werden
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            passwords.add("MySecure" + i + "!");   // stark
+            passwords.add("mysecure" + i + "!");   // mittel
+            passwords.add("password");             // schwach (Blacklist)
+            passwords.add("' OR 1=1--");           // abgelehnt (SQL-Injection)
+        }
+        passwords.add(null);
+        
+        BatchValidationResult result = PasswordValidator.validateAll(passwords);
+        
+        // TEST 1: Ein Ergebnis pro Eingabe
+        test("One result per password", result.size() == passwords.size());
+        
+        // TEST 2-5: Zählung je Bewertung
+        test("10000 strong passwords", result.count(PasswordVerdict.STRONG) == 10000);
+        test("10000 medium passwords", result.count(PasswordVerdict.MEDIUM) == 10000);
+        test("10000 rejected injections", result.count(PasswordVerdict.REJECTED) == 10000);
+        test("10001 weak passwords (incl. null)", result.count(PasswordVerdict.WEAK) == 10001);
+        
+        // TEST 6: Reihenfolge bleibt erhalten
+        test("Order is preserved", result.verdict(0) == PasswordVerdict.STRONG && result.isBlacklisted(2));
+    }
+    
     // Hilfsmethode zum Ausführen und Anzeigen von Testergebnissen
     private static void test(String description, boolean condition) {
         // Ternärer Operator: wenn condition true ist, zeige ✅ PASS, sonst ❌ FAIL
@@ -0,0 +1,202 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests für den Präfix-Baum und die Bereichssperren im SecurityMonitor
+ */
+public class PrefixTrieTest {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 Testing PrefixTrie...");
+        testIpv4AndIpv6();
+        testLongestMatchAgainstBruteForce();
+        testRemove();
+        testBulkLoad();
+        testConcurrentReaders();
+        testSecurityMonitorRanges();
+    }
+
+    public static void testIpv4AndIpv6() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("10.0.0.0/8");
+        trie.add("10.1.0.0/16");
+        trie.add("2001:db8::/32");
+        trie.add("192.0.2.7");
+
+        test("Address inside an IPv4 range should match", trie.contains("10.200.3.4"));
+        test("Address outside all ranges should not match", !trie.contains("11.0.0.1"));
+        test("Address inside an IPv6 range should match", trie.contains("2001:db8:1::42"));
+        test("Neighbouring IPv6 range should not match", !trie.contains("2001:db9::1"));
+        test("Single address should match exactly", trie.contains("192.0.2.7") && !trie.contains("192.0.2.8"));
+        test("IPv4-mapped IPv6 notation should match the IPv4 range", trie.contains("::ffff:10.1.2.3"));
+        test("Invalid address should not match", !trie.contains("kein.ip"));
+
+        long[] key = new long[2];
+        IpAddresses.parse("10.1.2.3", key);
+        test("Longest match should prefer /16 over /8", trie.longestMatch(key[0], key[1]) == 96 + 16);
+        test("Duplicate prefix should not be added twice", !trie.add("10.0.0.0/8") && trie.size() == 4);
+        test("Host bits should be ignored", !trie.add("10.9.9.9/8"));
+
+        boolean rejected;
+        try {
+            trie.add("10.0.0.0/33");
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        test("IPv4 prefix longer than /32 should be rejected", rejected);
+    }
+
+    public static void testLongestMatchAgainstBruteForce() {
+        Random random = new Random(42);
+        int prefixes = 5_000;
+        long[] his = new long[prefixes];
+        long[] los = new long[prefixes];
+        int[] lengths = new int[prefixes];
+        PrefixTrie trie = new PrefixTrie();
+        for (int i = 0; i < prefixes; i++) {
+            // Wenige obere Bits variieren, damit sich Präfixe oft überlappen
+            long hi = random.nextLong() & 0xF0F0_0000_0000_0000L;
+            long lo = random.nextLong();
+            lengths[i] = 1 + random.nextInt(128);
+            his[i] = hi & PrefixTrie.maskHi(lengths[i]);
+            los[i] = lo & PrefixTrie.maskLo(lengths[i]);
+            trie.add(his[i], los[i], lengths[i]);
+        }
+
+        int mismatches = 0;
+        for (int q = 0; q < 20_000; q++) {
+            long hi;
+            long lo;
+            if (q % 2 == 0) {
+                int i = random.nextInt(prefixes);
+                hi = his[i] | (random.nextLong() & ~PrefixTrie.maskHi(lengths[i]));
+                lo = los[i] | (random.nextLong() & ~PrefixTrie.maskLo(lengths[i]));
+            } else {
+                hi = random.nextLong() & 0xF0F0_0000_0000_0000L;
+                lo = random.nextLong();
+            }
+            int expected = -1;
+            for (int i = 0; i < prefixes; i++) {
+                if ((hi & PrefixTrie.maskHi(lengths[i])) == his[i] && (lo & PrefixTrie.maskLo(lengths[i])) == los[i]) {
+                    expected = Math.max(expected, lengths[i]);
+                }
+            }
+            if (trie.longestMatch(hi, lo) != expected) {
+                mismatches++;
+            }
+        }
+        test("Longest match should equal brute force on random prefixes", mismatches == 0);
+    }
+
+    public static void testRemove() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("10.0.0.0/8");
+        trie.add("10.1.0.0/16");
+        test("Removing the more specific prefix should fall back to the shorter one",
+                trie.remove("10.1.0.0/16") && trie.contains("10.1.2.3"));
+        test("Removing a missing prefix should report false", !trie.remove("10.1.0.0/16") && !trie.remove("10.0.0.0/9"));
+        test("Removing the last prefix should clear the match", trie.remove("10.0.0.0/8") && !trie.contains("10.1.2.3"));
+        test("Removed prefix can be added again", trie.add("10.0.0.0/8") && trie.size() == 1);
+    }
+
+    public static void testBulkLoad() throws IOException {
+        Path file = Files.createTempFile("ranges", ".txt");
+        try {
+            StringBuilder sb = new StringBuilder("# Anbieter-Liste\n\n");
+            for (int i = 0; i < 50_000; i++) {
+                sb.append(i >>> 8 & 0xFF).append('.').append(i & 0xFF).append(".0.0/16 # Bereich ").append(i).append('\n');
+            }
+            sb.append("2001:db8::/32\n");
+            Files.writeString(file, sb);
+
+            PrefixTrie trie = new PrefixTrie();
+            long start = System.nanoTime();
+            int added = trie.addAll(file);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("   " + added + " Bereiche geladen in " + millis + " ms");
+            test("Bulk load should add every range",
+                    added == 50_001 && trie.contains("7.8.9.10") && trie.contains("2001:db8::1"));
+
+            Files.writeString(file, "10.0.0.0/8\nkein-bereich\n");
+            String message;
+            try {
+                new PrefixTrie().addAll(file);
+                message = "";
+            } catch (IllegalArgumentException e) {
+                message = e.getMessage();
+            }
+            test("Invalid line should be reported with its line number", message.contains(":2:"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public static void testConcurrentReaders() throws InterruptedException {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("10.0.0.0/8");
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                long[] key = new long[2];
+                IpAddresses.parse("10.20.30.40", key);
+                while (running.get()) {
+                    // Der /8-Bereich darf während des Einfügens nie verschwinden
+                    if (!trie.contains(key[0], key[1])) {
+                        misses.incrementAndGet();
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        for (int i = 0; i < 100_000; i++) {
+            trie.add("10." + (i >>> 8 & 0xFF) + "." + (i & 0xFF) + ".0/24");
+            trie.add("2001:db8:" + Integer.toHexString(i & 0xFFFF) + "::/48");
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        test("Readers should never miss an existing range during inserts", misses.get() == 0);
+    }
+
+    public static void testSecurityMonitorRanges() {
+        SecurityMonitor.setConsoleWarnings(false);
+        SecurityMonitor.configureReputation(Duration.ofHours(1), 2, Duration.ofHours(24), 1000);
+        test("Blocking a range should block every address in it",
+                SecurityMonitor.blockRange("198.51.100.0/24") && SecurityMonitor.isIPBlocked("198.51.100.77"));
+        SecurityMonitor.unblockIP("198.51.100.0/24");
+        test("Unblocking a range should release its addresses", !SecurityMonitor.isIPBlocked("198.51.100.77"));
+
+        SecurityMonitor.enableSubnetEscalation(3, Duration.ofHours(1));
+        for (int host = 1; host <= 3; host++) {
+            SecurityMonitor.checkForSQLInjection("admin'--", "203.0.113." + host);
+            SecurityMonitor.checkForSQLInjection("admin'--", "203.0.113." + host);
+        }
+        test("Third blocked IP should block the whole /24", SecurityMonitor.isIPBlocked("203.0.113.200"));
+        test("Other subnets should stay open", !SecurityMonitor.isIPBlocked("203.0.114.1"));
+        SecurityMonitor.unblockIP("203.0.113.0/24");
+        SecurityMonitor.checkForSQLInjection("admin'--", "203.0.113.4");
+        SecurityMonitor.checkForSQLInjection("admin'--", "203.0.113.4");
+        test("Unblocking the /24 should reset its subnet counter",
+                SecurityMonitor.isIPBlocked("203.0.113.4") && !SecurityMonitor.isIPBlocked("203.0.113.200"));
+        SecurityMonitor.disableSubnetEscalation();
+        for (int host = 1; host <= 4; host++) {
+            SecurityMonitor.unblockIP("203.0.113." + host);
+        }
+        SecurityMonitor.setConsoleWarnings(true);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
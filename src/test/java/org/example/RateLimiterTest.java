@@ -0,0 +1,158 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests für die Anfragebegrenzung je IP-Adresse
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("🧪 Testing RateLimiter...");
+        testBurstAndRefill();
+        testPerAddress();
+        testOffenses();
+        testBoundedSize();
+        testSecurityMonitorEscalation();
+
+        System.out.println("\n" + "=".repeat(50));
+
+        System.out.println("🧪 Testing concurrent requests...");
+        testConcurrentRequests();
+    }
+
+    public static void testBurstAndRefill() {
+        AtomicLong now = new AtomicLong(5 * SECOND);
+        RateLimiter limiter = new RateLimiter(10, 5, 100, 1000, now::get);
+
+        boolean burst = true;
+        for (int i = 0; i < 5; i++) {
+            burst &= limiter.tryAcquire("10.0.0.1") == RateLimiter.ALLOWED;
+        }
+        test("Burst of 5 should be allowed", burst);
+        test("Sixth request should be limited", limiter.tryAcquire("10.0.0.1") == RateLimiter.LIMITED);
+
+        now.addAndGet(SECOND / 10);
+        test("One token should be refilled after 100 ms", limiter.tryAcquire("10.0.0.1") == RateLimiter.ALLOWED
+                && limiter.tryAcquire("10.0.0.1") == RateLimiter.LIMITED);
+
+        now.addAndGet(10 * SECOND);
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            allowed += limiter.tryAcquire("10.0.0.1") == RateLimiter.ALLOWED ? 1 : 0;
+        }
+        test("Idle client should not save more than the burst", allowed == 5);
+        test("Retry-After should be at least one second", limiter.retryAfterSeconds() == 1);
+    }
+
+    public static void testPerAddress() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(1, 2, 100, 1000, now::get);
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.1");
+
+        test("Exhausted IP should be limited", limiter.tryAcquire("10.0.0.1") == RateLimiter.LIMITED);
+        test("Other IP should have its own bucket", limiter.tryAcquire("10.0.0.2") == RateLimiter.ALLOWED);
+        test("IPv4-mapped should share the IPv4 bucket", limiter.tryAcquire("::ffff:10.0.0.1") == RateLimiter.LIMITED);
+
+        boolean rejected;
+        try {
+            limiter.tryAcquire("kein.ip");
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        test("Invalid address should be rejected", rejected);
+    }
+
+    public static void testOffenses() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(1, 1, 3, 1000, now::get);
+        limiter.tryAcquire("10.0.0.3");
+
+        test("Rejections below the threshold should only be limited",
+                limiter.tryAcquire("10.0.0.3") == RateLimiter.LIMITED && limiter.tryAcquire("10.0.0.3") == RateLimiter.LIMITED);
+        test("Third rejection in a row should be an offense", limiter.tryAcquire("10.0.0.3") == RateLimiter.OFFENSE);
+        test("Counting should start again after an offense", limiter.tryAcquire("10.0.0.3") == RateLimiter.LIMITED);
+
+        now.addAndGet(5 * SECOND);
+        limiter.tryAcquire("10.0.0.3");
+        test("Full bucket should forget earlier rejections",
+                limiter.tryAcquire("10.0.0.3") == RateLimiter.LIMITED && limiter.tryAcquire("10.0.0.3") == RateLimiter.LIMITED);
+    }
+
+    public static void testBoundedSize() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(1, 1, 100, 64, now::get);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("10.2." + (i / 250) + "." + (i % 250));
+        }
+
+        test("Table should never exceed its capacity", limiter.capacity() == 64 && limiter.activeEntries() <= 64);
+        test("Recent IP should still be limited", limiter.tryAcquire("10.2.39.249") == RateLimiter.LIMITED);
+
+        now.addAndGet(2 * SECOND);
+        test("Refilled buckets should no longer be active", limiter.activeEntries() == 0);
+    }
+
+    public static void testSecurityMonitorEscalation() {
+        String ip = "198.51.100.20";
+        AtomicLong now = new AtomicLong();
+        long limitedBefore = ValidatorMetrics.rateLimited();
+        SecurityMonitor.setRateLimiter(new RateLimiter(1, 1, 2, 1000, now::get));
+        try {
+            test("First request should pass", SecurityMonitor.allowRequest(ip));
+            test("Flood should be rejected", !SecurityMonitor.allowRequest(ip) && !SecurityMonitor.allowRequest(ip));
+            test("Rejections should be counted", ValidatorMetrics.rateLimited() - limitedBefore == 2);
+            test("First offense should not block yet", !SecurityMonitor.isIPBlocked(ip));
+            SecurityMonitor.allowRequest(ip);
+            SecurityMonitor.allowRequest(ip);
+            test("Second offense should block the IP", SecurityMonitor.isIPBlocked(ip));
+        } finally {
+            SecurityMonitor.disableRateLimit();
+            SecurityMonitor.unblockIP(ip);
+        }
+        test("Disabled limiter should allow everything", SecurityMonitor.allowRequest(ip) && SecurityMonitor.allowRequest(ip));
+    }
+
+    public static void testConcurrentRequests() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(1, 500, 100, 10_000, now::get);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("10.3.0.1") == RateLimiter.ALLOWED) {
+                        allowed.incrementAndGet();
+                    }
+                    limiter.tryAcquire("10.4." + (i / 250) + "." + (i % 250));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        test("Exactly the burst of 500 should be allowed across 8 threads", allowed.get() == 500);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
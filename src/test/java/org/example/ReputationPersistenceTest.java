@@ -0,0 +1,160 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Tests für die dauerhafte Sperrliste (WAL und Snapshots)
+ */
+public class ReputationPersistenceTest {
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 Testing ReputationPersistence...");
+        Path dir = Files.createTempDirectory("reputation");
+        try {
+            testRestartKeepsBlocks(dir.resolve("restart"));
+            testTornWalTail(dir.resolve("torn"));
+            testCorruptSnapshot(dir.resolve("corrupt"));
+            testLargeSnapshot(dir.resolve("large"));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    public static void testRestartKeepsBlocks(Path dir) throws IOException {
+        IpReputationStore store = newStore();
+        ReputationPersistence persistence = ReputationPersistence.open(dir, store);
+        block(store, "10.0.0.1");
+        block(store, "2001:db8::1");
+        block(store, "10.0.0.2");
+        store.reportOffense("10.0.0.3"); // nur verdächtig
+        persistence.snapshot();
+        store.unblock("10.0.0.2"); // nach dem Snapshot, nur im WAL
+        block(store, "10.0.0.4");
+        persistence.flush();
+        long walSize = walSize(dir);
+        for (int i = 0; i < 10; i++) {
+            store.reportOffense("10.0.0.4"); // bereits gesperrt
+        }
+        persistence.flush();
+        test("Repeat offenses of a blocked IP should not grow the WAL", walSize(dir) == walSize);
+        // Absturz simulieren: kein close(), nur das (geleerte) WAL bleibt
+
+        IpReputationStore restored = newStore();
+        ReputationPersistence reopened = ReputationPersistence.open(dir, restored);
+        test("Blocked IPv4 should survive a restart", restored.status("10.0.0.1") == IpReputationStore.BLOCKED);
+        test("Blocked IPv6 should survive a restart", restored.status("2001:db8::1") == IpReputationStore.BLOCKED);
+        test("Unblock from the WAL should be replayed", restored.status("10.0.0.2") == IpReputationStore.CLEAN);
+        test("Block from the WAL tail should be replayed", restored.status("10.0.0.4") == IpReputationStore.BLOCKED);
+        test("Suspicious IPs should not be persisted", restored.status("10.0.0.3") == IpReputationStore.CLEAN);
+        test("Snapshot should hold three addresses", reopened.restoredSnapshotEntries() == 3);
+        reopened.close();
+
+        IpReputationStore third = newStore();
+        ReputationPersistence afterClose = ReputationPersistence.open(dir, third);
+        test("Close should leave a snapshot without WAL tail",
+                afterClose.replayedRecords() == 0 && third.count(IpReputationStore.BLOCKED) == 3);
+        afterClose.close();
+    }
+
+    public static void testTornWalTail(Path dir) throws IOException {
+        IpReputationStore store = newStore();
+        ReputationPersistence persistence = ReputationPersistence.open(dir, store);
+        block(store, "10.0.1.1");
+        block(store, "10.0.1.2");
+        persistence.flush();
+
+        // Halb geschriebenen Datensatz anhängen
+        Path wal = dir.resolve("wal-0.log");
+        long validSize = Files.size(wal);
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}));
+        }
+
+        IpReputationStore restored = newStore();
+        ReputationPersistence reopened = ReputationPersistence.open(dir, restored);
+        test("Valid records before a torn tail should be replayed",
+                restored.status("10.0.1.1") == IpReputationStore.BLOCKED
+                        && restored.status("10.0.1.2") == IpReputationStore.BLOCKED);
+        test("Torn tail should be truncated", Files.size(wal) == validSize);
+        reopened.close();
+    }
+
+    public static void testCorruptSnapshot(Path dir) throws IOException {
+        IpReputationStore store = newStore();
+        ReputationPersistence persistence = ReputationPersistence.open(dir, store);
+        block(store, "10.0.2.1");
+        block(store, "10.0.2.2");
+        persistence.close();
+
+        // Neuerer Snapshot mit falscher Prüfsumme: der ältere gültige muss geladen werden
+        Path newer = dir.resolve("snapshot-999.bin");
+        try (Stream<Path> files = Files.list(dir)) {
+            Path valid = files.filter(file -> file.getFileName().toString().startsWith("snapshot-")).findFirst().orElseThrow();
+            byte[] data = Files.readAllBytes(valid);
+            data[data.length - 1] ^= 1;
+            Files.write(newer, data);
+        }
+
+        IpReputationStore restored = newStore();
+        ReputationPersistence reopened = ReputationPersistence.open(dir, restored);
+        test("Corrupt newer snapshot should fall back to the valid one",
+                reopened.restoredSnapshotEntries() == 2 && restored.status("10.0.2.1") == IpReputationStore.BLOCKED
+                        && restored.status("10.0.2.2") == IpReputationStore.BLOCKED);
+        reopened.close();
+    }
+
+    public static void testLargeSnapshot(Path dir) throws IOException {
+        int addresses = 200_000;
+        IpReputationStore store = newStore();
+        ReputationPersistence persistence = ReputationPersistence.open(dir, store);
+        for (int i = 0; i < addresses; i++) {
+            block(store, "10." + (i >>> 16) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF));
+        }
+        persistence.close();
+
+        long start = System.nanoTime();
+        IpReputationStore restored = newStore();
+        ReputationPersistence reopened = ReputationPersistence.open(dir, restored);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("   " + addresses + " gesperrte Adressen geladen in " + millis + " ms");
+        test("All blocked addresses should be restored from the snapshot",
+                restored.count(IpReputationStore.BLOCKED) == addresses && reopened.replayedRecords() == 0);
+        reopened.close();
+    }
+
+    private static IpReputationStore newStore() {
+        return new IpReputationStore(Duration.ofHours(1), 2, Duration.ofHours(24), 1_000_000);
+    }
+
+    /** @return Größe des neuesten WAL */
+    private static long walSize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-"))
+                    .mapToLong(file -> file.toFile().length()).max().orElse(0);
+        }
+    }
+
+    private static void block(IpReputationStore store, String ip) {
+        store.reportOffense(ip);
+        store.reportOffense(ip);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests für das asynchrone Sicherheitsprotokoll
+ */
+public class SecurityEventLogTest {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("security-event-log");
+        try {
+            System.out.println("🧪 Testing SecurityEventLog...");
+            testJsonLines(dir);
+            testNoPlaintextByDefault(dir);
+            testBlockPolicyKeepsAllEvents(dir);
+            testDropPolicy(dir);
+            testRotation(dir);
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    public static void testJsonLines(Path dir) throws IOException {
+        Path file = dir.resolve("json.log");
+        try (SecurityEventLog log = SecurityEventLog.open(file, 16, SecurityEventLog.OverflowPolicy.BLOCK, 1L << 30, 1, true)) {
+            log.log(SecurityEventLog.Type.SQL_INJECTION, "10.0.0.1", "admin'--", "admin'--\"\n");
+            log.log(SecurityEventLog.Type.IP_BLOCKED, "10.0.0.1", null, null);
+        }
+        List<String> lines = Files.readAllLines(file);
+        test("Two events should be written", lines.size() == 2);
+        test("Event should be a JSON object with type and IP",
+                lines.get(0).startsWith("{\"zeit\":\"") && lines.get(0).contains("\"typ\":\"SQL_INJECTION\",\"ip\":\"10.0.0.1\""));
+        test("Quotes and newlines should be escaped", lines.get(0).contains("\"eingabe\":\"admin'--\\\"\\n\""));
+        test("Missing fields should be omitted", !lines.get(1).contains("muster") && !lines.get(1).contains("laenge"));
+    }
+
+    public static void testNoPlaintextByDefault(Path dir) throws IOException {
+        Path file = dir.resolve("hash.log");
+        try (SecurityEventLog log = SecurityEventLog.open(file)) {
+            log.log(SecurityEventLog.Type.SQL_INJECTION, "10.0.0.2", "Fingerprint s&1", "Geheim'1=1");
+            log.log(SecurityEventLog.Type.SQL_INJECTION, "10.0.0.2", "Fingerprint s&1", "Geheim'1=1");
+            log.log(SecurityEventLog.Type.SQL_INJECTION, "10.0.0.2", "Fingerprint s&1", "Anders'1=1");
+        }
+        List<String> lines = Files.readAllLines(file);
+        test("Input should not be written in plaintext",
+                lines.size() == 3 && lines.stream().noneMatch(line -> line.contains("eingabe") || line.contains("Geheim")));
+        test("Length and hash should be written", lines.get(0).contains("\"laenge\":10,\"hash\":\""));
+        String hash = lines.get(0).substring(lines.get(0).indexOf("\"hash\":"));
+        test("Same input should have the same hash", lines.get(1).contains(hash) && !lines.get(2).contains(hash));
+    }
+
+    public static void testBlockPolicyKeepsAllEvents(Path dir) throws IOException, InterruptedException {
+        Path file = dir.resolve("block.log");
+        SecurityEventLog log = SecurityEventLog.open(file, 16, SecurityEventLog.OverflowPolicy.BLOCK, 1L << 30, 1, true);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String ip = "10.0.0." + t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    log.log(SecurityEventLog.Type.SQL_INJECTION, ip, "' OR 1=1--", "#" + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.close();
+
+        List<String> lines = Files.readAllLines(file);
+        test("No event should be lost with BLOCK", lines.size() == 20_000 && log.droppedEvents() == 0);
+        // Reihenfolge je Erzeuger bleibt erhalten
+        boolean ordered = true;
+        int last = -1;
+        for (String line : lines) {
+            if (line.contains("\"ip\":\"10.0.0.0\"")) {
+                int n = Integer.parseInt(line.substring(line.indexOf("\"eingabe\":\"#") + 12, line.lastIndexOf('"')));
+                ordered &= n == last + 1;
+                last = n;
+            }
+        }
+        test("Events of one producer should stay in order", ordered && last == 4999);
+    }
+
+    public static void testDropPolicy(Path dir) throws IOException {
+        Path file = dir.resolve("drop.log");
+        SecurityEventLog log = SecurityEventLog.open(file, 4, SecurityEventLog.OverflowPolicy.DROP, 1L << 30, 1);
+        int accepted = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (log.log(SecurityEventLog.Type.SQL_INJECTION, "10.0.0.9", null, null)) {
+                accepted++;
+            }
+        }
+        log.close();
+
+        long written = Files.readAllLines(file).size();
+        test("Accepted and dropped events should add up", accepted + log.droppedEvents() == 100_000);
+        test("All accepted events should be written", written == accepted);
+        test("Events after close should be dropped", !log.log(SecurityEventLog.Type.IP_UNBLOCKED, "10.0.0.9", null, null));
+    }
+
+    public static void testRotation(Path dir) throws IOException {
+        Path file = dir.resolve("rotate.log");
+        SecurityEventLog log = SecurityEventLog.open(file, 8, SecurityEventLog.OverflowPolicy.BLOCK, 1000, 3);
+        for (int i = 0; i < 500; i++) {
+            log.log(SecurityEventLog.Type.SQL_INJECTION, "10.0.0.7", "admin'--", "x");
+        }
+        log.close();
+
+        test("Current file should stay below the limit", Files.size(file) <= 1000);
+        test("Rotated files .1 and .2 should exist",
+                Files.exists(dir.resolve("rotate.log.1")) && Files.exists(dir.resolve("rotate.log.2")));
+        test("Older files should be deleted", !Files.exists(dir.resolve("rotate.log.3")));
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests für den Aho-Corasick-Automaten der festen SQL-Injection-Muster
+ */
+public class SqlInjectionMatcherTest {
+
+    public static void main(String[] args) {
+        System.out.println("🧪 Testing SqlInjectionMatcher...");
+        testConstruction();
+        testOverlappingPatterns();
+        testCaseFolding();
+        testAgainstNaiveSearch();
+    }
+
+    public static void testConstruction() {
+        SqlInjectionMatcher matcher = new SqlInjectionMatcher(List.of("' OR '1'='1", "admin'--", "UNION SELECT"));
+        test("Pattern count should match the input", matcher.patternCount() == 3);
+        test("Patterns should keep their original text",
+                matcher.pattern(1).equals("admin'--") && matcher.pattern(2).equals("UNION SELECT"));
+        test("Each pattern should find itself", matcher.find("' OR '1'='1") == 0 && matcher.find("admin'--") == 1
+                && matcher.find("UNION SELECT") == 2);
+        test("Pattern inside longer input should be found", matcher.find("xx admin'-- yy") == 1);
+        test("Clean input should not match", matcher.find("MySecure123!") == -1 && matcher.find("") == -1);
+
+        SqlInjectionMatcher empty = new SqlInjectionMatcher(List.of());
+        test("Empty pattern set should never match", empty.patternCount() == 0 && empty.find("' OR 1=1") == -1);
+
+        boolean rejected;
+        try {
+            new SqlInjectionMatcher(List.of("SELECT", "DRÖP"));
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        test("Non-ASCII pattern should be rejected", rejected);
+    }
+
+    public static void testOverlappingPatterns() {
+        // Klassisches Beispiel: Muster teilen Präfixe und Suffixe
+        SqlInjectionMatcher matcher = new SqlInjectionMatcher(List.of("HE", "SHE", "HIS", "HERS"));
+        test("Longest pattern ending first should win over its suffix", matcher.find("ushers") == 1);
+        test("Earliest end should win over a longer pattern", matcher.find("hers") == 0);
+        test("Mismatch after a shared prefix should fall back", matcher.find("hhis") == 2);
+
+        SqlInjectionMatcher suffix = new SqlInjectionMatcher(List.of("ABCD", "BC"));
+        test("Pattern reached only through a suffix link should be found", suffix.find("ABCX") == 1);
+        test("Pattern reached through failure transitions should be found", suffix.find("AABABCD") == 1);
+
+        SqlInjectionMatcher nested = new SqlInjectionMatcher(List.of("--", "'--", "admin'--"));
+        test("Patterns ending together should report the longest", nested.find("admin'--") == 2 && nested.find("x'--") == 1);
+
+        SqlInjectionMatcher duplicates = new SqlInjectionMatcher(List.of("OR 1=1", "or 1=1"));
+        test("Duplicate patterns should report the first index", duplicates.find("x OR 1=1") == 0);
+    }
+
+    public static void testCaseFolding() {
+        SqlInjectionMatcher matcher = new SqlInjectionMatcher(List.of("UNION SELECT", "or 1=1"));
+        test("Lower case input should match upper case pattern", matcher.find("' union select *") == 0);
+        test("Mixed case input should match", matcher.find("UnIoN sElEcT") == 0 && matcher.find("' Or 1=1") == 1);
+        test("Dotless i should fold like toUpperCase()", matcher.find("unıon select") == 0);
+        test("Long s should fold like toUpperCase()", matcher.find("union ſelect") == 0);
+        test("Non-ASCII letters without ASCII form should break a match",
+                matcher.find("unüon select") == -1 && matcher.find("union sélect") == -1);
+        test("Characters outside the alphabet should reset the automaton", matcher.find("UNI#ON SELECT") == -1);
+    }
+
+    public static void testAgainstNaiveSearch() {
+        // Zufällige Eingaben über einem kleinen Alphabet: viele Überlappungen
+        List<String> patterns = List.of("AB", "ABA", "BAB", "BBB", "CAB", "ABCA", "A-B", "--");
+        SqlInjectionMatcher matcher = new SqlInjectionMatcher(patterns);
+        Random random = new Random(42);
+        String alphabet = "abcABC-";
+        boolean same = true;
+        for (int run = 0; run < 20_000 && same; run++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            int index = matcher.find(input);
+            int expectedEnd = naiveEarliestEnd(patterns, input.toString().toUpperCase());
+            same = index == -1 ? expectedEnd == -1
+                    : expectedEnd >= 0 && input.toString().toUpperCase().startsWith(patterns.get(index),
+                    expectedEnd - patterns.get(index).length());
+        }
+        test("Matcher should agree with a naive search on random inputs", same);
+    }
+
+    /** @return Position hinter dem am frühesten endenden Treffer oder -1 */
+    private static int naiveEarliestEnd(List<String> patterns, String input) {
+        for (int end = 1; end <= input.length(); end++) {
+            for (String pattern : patterns) {
+                if (end >= pattern.length() && input.startsWith(pattern, end - pattern.length())) {
+                    return end;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Tests für die Token-basierte SQL-Injection-Erkennung
+ */
+public class SqlInjectionTokenizerTest {
+
+    private static final SqlInjectionTokenizer TOKENIZER = new SqlInjectionTokenizer(SqlInjectionTokenizer.DEFAULT_FINGERPRINTS);
+
+    private static final String[] OBFUSCATED = {
+            "'/**/OR/**/1=1",                 // Kommentare statt Leerzeichen
+            "'  or  1 = 1",                   // Leerraum und Kleinschreibung
+            "%27%20OR%201%3D1--",             // URL-kodiert
+            "%2527%2520OR%25201%253D1",       // doppelt URL-kodiert
+            "\\x27 OR 1=1#",                  // Hex-Escape
+            "＇ＯＲ　１＝１",                    // Vollbreite Zeichen
+            "'\tOR\n'a'='a",                  // Tabulator und Zeilenumbruch
+            "' oR -1=-1",                     // Vorzeichen
+            "admin'-- ",                      // Login-Umgehung
+            "x'||'1'=='1",                    // NoSQL/JavaScript
+            "'/*!50000UNION*/ SELECT 1,2",    // MySQL-Versionskommentar
+            "' UNION ALL SELECT password FROM users",
+            "1 or 1=1",                       // Zahlen-Kontext
+            "1 AnD sLeEp(5)",
+            "\" or \"\"=\"",                  // doppelte Anführungszeichen
+            "') or ('1'='1",
+            "'; drop table users; --",
+            "{\"$ne\": null}",                // MongoDB-Operator
+            "[%24gt]=",
+            "SELECT/**/*/**/FROM users"
+    };
+
+    private static final String[] BENIGN = {
+            "MySecure123!", "Password1!", "P@ssw0rd2024", "Blau-Fisch#Regen42", "ÄÖÜäöü12!x",
+            "O'Reilly and Sons", "it's me or you", "Rock'n'Roll#1", "Tom's #1 fan", "1 + 1 = 2",
+            "korrekt pferd batterie heftklammer", "select a strong password", "union station 42",
+            "Don't-drop-it!", "a--b", "x/*y", "\"quoted\" text", "love(2)", "$money$", "100% sicher",
+            "Pa$$ne!word", "Pa$in&out", "Ab'#12", "or", "and 1", "C:\\x2", "50% off!", "--", "''", ""
+    };
+
+    public static void main(String[] args) {
+        System.out.println("🧪 Testing SqlInjectionTokenizer...");
+        testObfuscatedAttacks();
+        testBenignPasswords();
+        testFingerprints();
+        testSecurityMonitorIntegration();
+        testLinearTime();
+    }
+
+    public static void testObfuscatedAttacks() {
+        for (String attack : OBFUSCATED) {
+            int match = TOKENIZER.detect(attack);
+            test("Should detect " + attack + (match != 0 ? " (" + SqlInjectionTokenizer.fingerprint(match) + ")" : ""),
+                    match != 0);
+        }
+    }
+
+    public static void testBenignPasswords() {
+        for (String password : BENIGN) {
+            int match = TOKENIZER.detect(password);
+            test("Should accept " + password + (match != 0 ? " (" + SqlInjectionTokenizer.fingerprint(match) + ")" : ""),
+                    match == 0);
+        }
+    }
+
+    public static void testFingerprints() {
+        test("Comment obfuscation should fold to s&1", "s&1".equals(SqlInjectionTokenizer.fingerprint(TOKENIZER.detect("'/**/OR/**/1=1"))));
+        test("Union should fold ALL", "sUE".equals(SqlInjectionTokenizer.fingerprint(TOKENIZER.detect("' UNION ALL SELECT 1"))));
+
+        SqlInjectionTokenizer custom = new SqlInjectionTokenizer(List.of("nUn"));
+        test("Custom table should be used", custom.detect("a union b") != 0 && custom.detect("' OR 1=1") == 0);
+
+        boolean rejected;
+        try {
+            new SqlInjectionTokenizer(List.of("s&x"));
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        test("Unknown token type should be rejected", rejected);
+    }
+
+    public static void testSecurityMonitorIntegration() {
+        String attack = "'/**/OR/**/1=1";
+        int index = SecurityMonitor.findSQLInjectionPattern(attack);
+        test("SecurityMonitor should report the tokenizer", index == SecurityMonitor.sqlInjectionPatternCount() - 1);
+        test("Tokenizer should have a metrics label", "<token-fingerprint>".equals(SecurityMonitor.sqlInjectionPattern(index)));
+        test("Fixed patterns should still win", SecurityMonitor.sqlInjectionPattern(SecurityMonitor.findSQLInjectionPattern("admin'--")).equals("admin'--"));
+        test("Policy should reject obfuscated attacks",
+                ValidationCodes.verdict(PasswordValidator.evaluate("Ab1!'/**/OR/**/1=1", new PasswordAnalysis())) == PasswordVerdict.REJECTED);
+    }
+
+    public static void testLinearTime() {
+        String quotes = "'a".repeat(50_000);
+        String comments = "/*".repeat(50_000);
+        String words = "abc ".repeat(50_000);
+        for (int i = 0; i < 20; i++) {
+            TOKENIZER.detect(quotes);
+            TOKENIZER.detect(comments);
+            TOKENIZER.detect(words);
+        }
+        long start = System.nanoTime();
+        TOKENIZER.detect(quotes);
+        TOKENIZER.detect(comments);
+        TOKENIZER.detect(words);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("   3 × 100-200k Zeichen in " + millis + " ms");
+        test("Long inputs should be checked in linear time", millis < 200);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import java.lang.reflect.Field;
+
+/**
+ * Tests für die Stärkeschätzung (Wörter, Tastaturmuster, Folgen, Wiederholungen, Daten)
+ */
+public class StrengthEstimatorTest {
+
+    public static void main(String[] args) {
+        System.out.println("🧪 Testing StrengthEstimator...");
+        testPatterns();
+        testScores();
+        testVerdict();
+        testL33t();
+        testNoResidue();
+        testSpeed();
+    }
+
+    public static void testPatterns() {
+        test("Common password should be guessed almost immediately", StrengthEstimator.log10Guesses("password") < 1);
+        test("Capitalised word with digit and symbol should stay weak", StrengthEstimator.score("Password1!") <= 1);
+        test("QWERTY walk should be cheap", StrengthEstimator.score("zxcvbnm,./") <= 1);
+        test("QWERTZ walk should be cheap", StrengthEstimator.score("qwertzuiopü") <= 1);
+        test("Sequence should be cheap", StrengthEstimator.score("abcdefgh") == 0);
+        test("Descending digits should be cheap", StrengthEstimator.score("98765432") == 0);
+        test("Repeated character should be cheap", StrengthEstimator.score("aaaaaaaaaa") == 0);
+        test("Repeated word should be cheap", StrengthEstimator.score("passwordpassword") == 0);
+        test("Date with separators should be cheap", StrengthEstimator.score("01.05.1990") <= 1);
+        test("Date without separators should be cheap", StrengthEstimator.score("19901231") <= 1);
+        test("Null and empty should score 0",
+                StrengthEstimator.score((CharSequence) null) == 0 && StrengthEstimator.score("") == 0);
+        test("Longer password should never be cheaper than its prefix",
+                StrengthEstimator.log10Guesses("Wolke7#Laterne!") >= StrengthEstimator.log10Guesses("Wolke7#"));
+    }
+
+    public static void testL33t() {
+        test("l33t spelling of a common word should stay weak", StrengthEstimator.score("P@ssw0rd") == 0);
+        test("Digit for two letters should still match", StrengthEstimator.score("1etme1n") == 0);
+        test("l33t should cost more than the plain word",
+                StrengthEstimator.log10Guesses("p@ssword") > StrengthEstimator.log10Guesses("password"));
+        test("Random symbols should not look like words", StrengthEstimator.score("7$@|{3%9+!") >= 3);
+    }
+
+    public static void testNoResidue() {
+        StrengthEstimator.log10Guesses("GeheimGeheim#42");
+        try {
+            Field field = StrengthEstimator.class.getDeclaredField("SCRATCH");
+            field.setAccessible(true);
+            Object scratch = ((ThreadLocal<?>) field.get(null)).get();
+            boolean clean = true;
+            for (Object instance = scratch; instance != null; instance = read(instance, "nested")) {
+                for (String name : new String[] {"chars", "lower", "word"}) {
+                    for (char c : (char[]) read(instance, name)) {
+                        clean &= c == '\0';
+                    }
+                }
+            }
+            test("Thread-local buffers should not keep the password", clean);
+        } catch (ReflectiveOperationException e) {
+            test("Buffers should be readable: " + e, false);
+        }
+    }
+
+    private static Object read(Object instance, String name) throws ReflectiveOperationException {
+        Field field = instance.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(instance);
+    }
+
+    public static void testScores() {
+        test("Random 12 characters should score 4", StrengthEstimator.score("Kx9#mQ2vL7!p") == 4);
+        test("Passphrase should score 4", StrengthEstimator.score("correcthorsebatterystaple") == 4);
+        test("Score thresholds should follow powers of ten",
+                StrengthEstimator.score(2.9) == 0 && StrengthEstimator.score(3) == 1
+                        && StrengthEstimator.score(7.9) == 2 && StrengthEstimator.score(10) == 4);
+    }
+
+    public static void testVerdict() {
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        byte weakButComplete = PasswordValidator.evaluate("Password1!", scratch);
+        test("All character classes should no longer make Password1! strong",
+                ValidationCodes.verdict(weakButComplete) == PasswordVerdict.WEAK);
+        byte strong = PasswordValidator.evaluate("Blau-Fisch#Regen42", scratch);
+        test("Hard to guess password with all classes should be strong",
+                ValidationCodes.verdict(strong) == PasswordVerdict.STRONG);
+        PasswordVerdict capped = PasswordVerdict.of(PasswordAnalysis.of("abcdefgh"), 8, false, 4);
+        test("High score should not lift a password above the class rule", capped == PasswordVerdict.WEAK);
+    }
+
+    public static void testSpeed() {
+        String[] passwords = {"Kx9#mQ2vL7!p", "MySecure123!", "Password1!", "qwertz2024", "Sommer#Sonne7"};
+        double sink = 0;
+        for (int i = 0; i < 200_000; i++) {
+            sink += StrengthEstimator.log10Guesses(passwords[i % passwords.length]);
+        }
+        int runs = 200_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink += StrengthEstimator.log10Guesses(passwords[i % passwords.length]);
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / runs;
+        // Nur zur Information: die Geschwindigkeit misst PasswordCheckBenchmark.strengthEstimate
+        System.out.printf("   %.2f µs pro Schätzung (%s)%n", micros, sink > 0 ? "ok" : "-");
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+/**
+ * Tests für Metriken und Latenz-Histogramm
+ */
+public class ValidatorMetricsTest {
+
+    public static void main(String[] args) {
+        System.out.println("🧪 Testing LatencyHistogram...");
+        testHistogramBuckets();
+        testHistogramPercentiles();
+
+        System.out.println("\n" + "=".repeat(50));
+
+        System.out.println("🧪 Testing ValidatorMetrics...");
+        testVerdictCounters();
+        testPatternHits();
+        testScrapeFormat();
+    }
+
+    public static void testHistogramBuckets() {
+        boolean monotonic = true;
+        boolean bounded = true;
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int index = LatencyHistogram.indexOf(value);
+            long upper = LatencyHistogram.upperBound(index);
+            // Wert liegt im Bucket, Obergrenze höchstens 1/16 zu hoch
+            if (upper < value || upper > value + value / 16 + 1) {
+                bounded = false;
+            }
+            if (index > 0 && LatencyHistogram.upperBound(index - 1) >= value) {
+                monotonic = false;
+            }
+        }
+        test("Every value should fall into a bucket at most 1/16 wide", bounded);
+        test("Buckets should be ordered and non-overlapping", monotonic);
+        test("Largest value should map to a valid bucket",
+                LatencyHistogram.upperBound(LatencyHistogram.indexOf(Long.MAX_VALUE)) == Long.MAX_VALUE);
+    }
+
+    public static void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        test("Empty histogram should report 0", histogram.percentile(0.99) == 0);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        long p50 = histogram.percentile(0.5);
+        long p99 = histogram.percentile(0.99);
+        test("Count should be 1000", histogram.count() == 1000);
+        test("p50 should be close to 500 µs", p50 >= 500_000 && p50 <= 532_000);
+        test("p99 should be close to 990 µs", p99 >= 990_000 && p99 <= 1_052_000);
+    }
+
+    public static void testVerdictCounters() {
+        long strong = ValidatorMetrics.verdictCount(PasswordVerdict.STRONG);
+        long weak = ValidatorMetrics.verdictCount(PasswordVerdict.WEAK);
+        PasswordAnalysis scratch = new PasswordAnalysis();
+        PasswordValidator.evaluate("Blau-Fisch#Regen42", scratch);
+        PasswordValidator.evaluate("password", scratch);
+
+        test("Strong validation should be counted", ValidatorMetrics.verdictCount(PasswordVerdict.STRONG) == strong + 1);
+        test("Weak validation should be counted", ValidatorMetrics.verdictCount(PasswordVerdict.WEAK) == weak + 1);
+        test("Validation latency should be recorded",
+                ValidatorMetrics.latency(ValidatorMetrics.Check.VALIDATION).count() >= 2);
+    }
+
+    public static void testPatternHits() {
+        int pattern = SecurityMonitor.findSQLInjectionPattern("admin'--");
+        long before = ValidatorMetrics.patternHits(pattern);
+        SecurityMonitor.findSQLInjectionPattern("xx admin'-- yy");
+        test("Pattern hit should be counted per pattern", ValidatorMetrics.patternHits(pattern) == before + 1);
+    }
+
+    public static void testScrapeFormat() {
+        String text = ValidatorMetrics.scrape();
+        test("Scrape should contain verdict counters", text.contains("pwvalidator_validations_total{verdict=\"STRONG\"}"));
+        test("Scrape should contain pattern hits", text.contains("pwvalidator_injection_pattern_hits_total{pattern=\"admin'--\"}"));
+        test("Scrape should contain latency quantiles",
+                text.contains("pwvalidator_check_latency_seconds{check=\"validation\",quantile=\"0.99\"}"));
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
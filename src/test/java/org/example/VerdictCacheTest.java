@@ -0,0 +1,300 @@
+package org.example;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests für den Ergebnis-Cache: Schlüssel, Aufnahme, Ungültigkeit und Einbindung in die Prüfungen
+ */
+public class VerdictCacheTest {
+
+    // Schlüssel der SipHash-Referenzwerte (00 01 02 ... 0f)
+    private static final long K0 = 0x0706050403020100L;
+    private static final long K1 = 0x0f0e0d0c0b0a0908L;
+    private static final long SECOND = 1_000_000_000L;
+
+    private static final String[] PASSWORDS = {"Sicher#Pass1", "abc", "password", "P@ssw0rd2024", "Blau-Fisch#Regen42",
+            "' OR 1=1 --", "ÄÖÜäöüß-12345", "kurz1!", "ＰＡＳＳＷＯＲＤ12#", ""};
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 Testing VerdictCache...");
+        testKey();
+        testGetAndPut();
+        testTtl();
+        testAdmission();
+        testPolicyIntegration();
+        testAssessWithStrength();
+        testInvalidation();
+        testBreachFailuresNotCached();
+        testSqlInjectionCheck();
+
+        System.out.println("\n" + "=".repeat(50));
+
+        System.out.println("🧪 Testing concurrent access...");
+        testConcurrentAccess();
+    }
+
+    public static void testKey() {
+        VerdictCache cache = new VerdictCache(1 << 16, Duration.ofHours(1), K0, K1, System::nanoTime);
+        // Erwartete Werte aus einer SipHash-2-4-Referenzimplementierung über Namensraum (LE) + UTF-16LE
+        test("Key should match the SipHash-2-4 reference", cache.key(1, "hunter2") == -1359064737310053203L
+                && cache.key(0, "") == 4166820438245540263L && cache.key(7, "abcd") == -5734492803564922797L
+                && cache.key(3, "Passwört€1234567") == 5643329777584897687L);
+        test("Namespaces should separate keys", cache.key(1, "hunter2") != cache.key(2, "hunter2"));
+        VerdictCache other = new VerdictCache(1 << 16, Duration.ofHours(1));
+        test("Random secret should give different keys", other.key(1, "hunter2") != cache.key(1, "hunter2"));
+        test("Budget should bound the capacity", cache.capacity() * 20 <= 1 << 16 && cache.capacity() % VerdictCache.WAYS == 0);
+
+        boolean rejected;
+        try {
+            new VerdictCache(100, Duration.ofHours(1));
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        test("Budget below one set should be refused", rejected);
+    }
+
+    public static void testGetAndPut() {
+        VerdictCache cache = new VerdictCache(1 << 16, Duration.ofHours(1));
+        long key = cache.key(1, "Sicher#Pass1");
+        test("Unknown key should miss", cache.get(key) == -1);
+        cache.put(key, 0xA7);
+        test("Stored code should be found", cache.get(key) == 0xA7);
+        cache.put(key, 0x00);
+        test("Code 0 should be stored and updated in place", cache.get(key) == 0);
+        test("Other key should still miss", cache.get(cache.key(1, "Sicher#Pass2")) == -1);
+        cache.clear();
+        test("Cleared cache should miss", cache.get(key) == -1);
+    }
+
+    public static void testTtl() {
+        AtomicLong now = new AtomicLong(SECOND);
+        VerdictCache cache = new VerdictCache(1 << 16, Duration.ofMinutes(10), K0, K1, now::get);
+        long key = cache.key(1, "abc");
+        cache.put(key, 5);
+        now.addAndGet(9 * 60 * SECOND);
+        test("Entry should live until the TTL", cache.get(key) == 5);
+        now.addAndGet(2 * 60 * SECOND);
+        test("Entry should expire after the TTL", cache.get(key) == -1);
+    }
+
+    public static void testAdmission() {
+        // 64 Sätze zu 8 Plätzen; 300 häufige Passwörter und je Runde 500 neue, einmalige
+        VerdictCache cache = new VerdictCache(64 * VerdictCache.WAYS * 20, Duration.ofHours(1), K0, K1, System::nanoTime);
+        int hotHits = 0;
+        for (int round = 0; round < 20; round++) {
+            hotHits = 0;
+            for (int i = 0; i < 300; i++) {
+                long key = cache.key(1, "haeufig" + i);
+                if (cache.get(key) == i % 200) {
+                    hotHits++;
+                } else {
+                    cache.put(key, i % 200);
+                }
+            }
+            for (int i = 0; i < 500; i++) {
+                long key = cache.key(1, "einmalig" + round + "-" + i);
+                if (cache.get(key) < 0) {
+                    cache.put(key, 1);
+                }
+            }
+        }
+        test("One-off passwords should not evict frequent ones (" + hotHits + "/300)", hotHits >= 240);
+
+        long repeated = cache.key(1, "wiederholt");
+        for (int k = 0; k < 10; k++) {
+            if (cache.get(repeated) < 0) {
+                cache.put(repeated, 42);
+            }
+        }
+        test("Repeated password should be admitted", cache.get(repeated) == 42);
+    }
+
+    public static void testPolicyIntegration() {
+        PasswordPolicy policy = PasswordPolicy.defaults();
+        List<Byte> expected = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        for (String password : PASSWORDS) {
+            PasswordAnalysis analysis = new PasswordAnalysis();
+            expected.add(policy.evaluate(password, analysis));
+            lengths.add(analysis.length());
+        }
+        VerdictCache.setActive(new VerdictCache());
+        try {
+            boolean same = true;
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < PASSWORDS.length; i++) {
+                    PasswordAnalysis analysis = new PasswordAnalysis();
+                    byte code = policy.evaluate(PASSWORDS[i], analysis);
+                    same &= code == expected.get(i) && analysis.length() == lengths.get(i)
+                            && analysis.characterGroups() == Integer.bitCount(ValidationCodes.classes(code));
+                }
+            }
+            test("Cached codes and analysis should equal uncached ones", same);
+
+            long hits = ValidatorMetrics.verdictCacheHits();
+            policy.evaluate("Sicher#Pass1", new PasswordAnalysis());
+            test("Repeated evaluation should hit the cache", ValidatorMetrics.verdictCacheHits() == hits + 1);
+
+            Properties strict = new Properties();
+            strict.setProperty("mindestlaenge", "16");
+            PasswordPolicy other = PasswordPolicy.compile("streng", strict);
+            test("Other policy should not see cached codes",
+                    ValidationCodes.verdict(other.evaluate("Sicher#Pass1", new PasswordAnalysis())) == PasswordVerdict.WEAK);
+            test("Null password should still be evaluated",
+                    ValidationCodes.verdict(policy.evaluate((CharSequence) null, new PasswordAnalysis())) == PasswordVerdict.WEAK);
+        } catch (Exception e) {
+            test("Integration should not throw: " + e, false);
+        } finally {
+            VerdictCache.setActive(null);
+        }
+    }
+
+    public static void testAssessWithStrength() {
+        PasswordPolicy policy = PasswordPolicy.defaults();
+        List<String> clean = new ArrayList<>();
+        for (String password : PASSWORDS) {
+            if (SecurityMonitor.findSQLInjectionPattern(password) < 0) {
+                clean.add(password);
+            }
+        }
+        boolean consistent = true;
+        List<Integer> expected = new ArrayList<>();
+        for (String password : clean) {
+            int result = policy.assess(password, new PasswordAnalysis());
+            double guesses = StrengthEstimator.log10Guesses(password);
+            consistent &= (byte) result == policy.evaluate(password, new PasswordAnalysis())
+                    && ValidationCodes.hasStrength(result) && ValidationCodes.strengthScore(result) == StrengthEstimator.score(guesses)
+                    && ValidationCodes.log10Guesses(result) == Math.round(guesses * 10) / 10.0;
+            expected.add(result);
+        }
+        test("Assessment should match evaluation and strength estimate", consistent);
+
+        VerdictCache cache = new VerdictCache();
+        long key = cache.key(1, "x");
+        cache.put(key, VerdictCache.MAX_VALUE);
+        test("Code with strength should fit into a cache entry", cache.get(key) == VerdictCache.MAX_VALUE);
+
+        VerdictCache.setActive(cache);
+        try {
+            // Aus evaluate() gemerkte Codes werden um die Schätzung ergänzt
+            policy.evaluate(clean.get(0), new PasswordAnalysis());
+            boolean same = true;
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < clean.size(); i++) {
+                    PasswordAnalysis analysis = new PasswordAnalysis();
+                    int result = policy.assess(clean.get(i), analysis);
+                    same &= result == expected.get(i) && analysis.length() == clean.get(i).length()
+                            && analysis.characterGroups() == Integer.bitCount(ValidationCodes.classes((byte) result));
+                }
+            }
+            test("Cached assessments should equal uncached ones", same);
+
+            long hits = ValidatorMetrics.verdictCacheHits();
+            policy.assess("Sicher#Pass1", new PasswordAnalysis());
+            test("Repeated assessment should hit the cache", ValidatorMetrics.verdictCacheHits() == hits + 1);
+            test("Evaluation should read the code of a cached assessment",
+                    policy.evaluate("Sicher#Pass1", new PasswordAnalysis()) == (byte) expected.get(clean.indexOf("Sicher#Pass1")).intValue());
+        } finally {
+            VerdictCache.setActive(null);
+        }
+    }
+
+    public static void testInvalidation() {
+        WeakPasswordDictionary original = WeakPasswordCheck.getDictionary();
+        VerdictCache.setActive(new VerdictCache());
+        try {
+            String password = "Zitrone-42!";
+            byte before = PasswordValidator.evaluate(password, new PasswordAnalysis());
+            WeakPasswordDictionary dictionary = new WeakPasswordDictionary(1);
+            dictionary.add("zitrone");
+            WeakPasswordCheck.setDictionary(dictionary);
+            byte after = PasswordValidator.evaluate(password, new PasswordAnalysis());
+            test("New dictionary should invalidate cached codes",
+                    !ValidationCodes.isBlacklisted(before) && ValidationCodes.isBlacklisted(after));
+            WeakPasswordCheck.setDictionary(original);
+            test("Restored dictionary should invalidate again",
+                    !ValidationCodes.isBlacklisted(PasswordValidator.evaluate(password, new PasswordAnalysis())));
+        } finally {
+            WeakPasswordCheck.setDictionary(original);
+            VerdictCache.setActive(null);
+        }
+    }
+
+    public static void testBreachFailuresNotCached() {
+        VerdictCache.setActive(new VerdictCache());
+        try (BreachRangeClient client = new BreachRangeClient(URI.create("http://127.0.0.1:1/range/"), 10,
+                Duration.ofHours(1), Duration.ofMillis(300))) {
+            WeakPasswordCheck.setBreachRangeClient(client);
+            PasswordValidator.evaluate("Qx7#mPz9!kLw", new PasswordAnalysis());
+            long hits = ValidatorMetrics.verdictCacheHits();
+            PasswordValidator.evaluate("Qx7#mPz9!kLw", new PasswordAnalysis());
+            test("Result after a failed breach lookup should not be cached",
+                    ValidatorMetrics.verdictCacheHits() == hits && client.failures() == 2);
+        } finally {
+            WeakPasswordCheck.setBreachRangeClient(null);
+            VerdictCache.setActive(null);
+        }
+    }
+
+    public static void testSqlInjectionCheck() {
+        SecurityMonitor.setConsoleWarnings(false);
+        VerdictCache.setActive(new VerdictCache());
+        try {
+            SecurityMonitor.checkForSQLInjection("Sicher#Pass1", "192.0.2.10");
+            long hits = ValidatorMetrics.verdictCacheHits();
+            test("Clean input should be remembered",
+                    !SecurityMonitor.checkForSQLInjection("Sicher#Pass1", "192.0.2.10")
+                            && ValidatorMetrics.verdictCacheHits() == hits + 1);
+            test("Injection should be detected every time", SecurityMonitor.checkForSQLInjection("' OR 1=1 --", "192.0.2.11")
+                    && SecurityMonitor.checkForSQLInjection("' OR 1=1 --", "192.0.2.11")
+                    && SecurityMonitor.isIPBlocked("192.0.2.11"));
+        } finally {
+            VerdictCache.setActive(null);
+            SecurityMonitor.unblockIP("192.0.2.11");
+            SecurityMonitor.setConsoleWarnings(true);
+        }
+    }
+
+    public static void testConcurrentAccess() throws InterruptedException {
+        // Kleiner Speicher, viele Schlüssel: ständiges Verdrängen und Überschreiben derselben Plätze
+        VerdictCache cache = new VerdictCache(4 * VerdictCache.WAYS * 20, Duration.ofHours(1));
+        AtomicBoolean wrong = new AtomicBoolean();
+        AtomicLong found = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = cache.key(1, "p" + ((i * 31 + seed) % 97));
+                    int expected = (int) (key & 0xff);
+                    int code = cache.get(key);
+                    if (code < 0) {
+                        cache.put(key, expected);
+                    } else if (code != expected) {
+                        wrong.set(true);
+                    } else {
+                        found.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        test("Concurrent readers should never see another key's code", !wrong.get());
+        test("Concurrent readers should still get hits", found.get() > 0);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
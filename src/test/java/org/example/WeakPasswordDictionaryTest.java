@@ -0,0 +1,106 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests für das Wörterbuch schwacher Passwörter (Laden, Nachschlagen, Groß-/Kleinschreibung)
+ */
+public class WeakPasswordDictionaryTest {
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 Testing WeakPasswordDictionary...");
+        testLoad();
+        testCaseFolding();
+        testGrowth();
+    }
+
+    public static void testLoad() throws IOException {
+        Path wordlist = Files.createTempFile("woerter", ".txt");
+        try {
+            Files.writeString(wordlist, "Firmenname\n\nsommerfest\nFIRMENNAME\nkennwort-2024\n", StandardCharsets.UTF_8);
+            WeakPasswordDictionary dictionary = WeakPasswordDictionary.load(wordlist);
+            int defaults = WeakPasswordDictionary.defaults().size();
+            test("Loaded list should add each new entry once", dictionary.size() == defaults + 3);
+            test("Loaded entries should be found",
+                    dictionary.contains("firmenname") && dictionary.contains("sommerfest") && dictionary.contains("kennwort-2024"));
+            test("Built-in entries should always be included", dictionary.contains("password") && dictionary.contains("qwerty"));
+            test("Other passwords should not be found", !dictionary.contains("firmenname1") && !dictionary.contains("sommer"));
+            test("Empty line should not become an entry", !dictionary.contains(""));
+        } finally {
+            Files.delete(wordlist);
+        }
+
+        boolean missing;
+        try {
+            WeakPasswordDictionary.load(Path.of("gibt-es-nicht.txt"));
+            missing = false;
+        } catch (IOException e) {
+            missing = true;
+        }
+        test("Missing file should throw IOException", missing);
+    }
+
+    public static void testCaseFolding() throws IOException {
+        Path wordlist = Files.createTempFile("woerter", ".txt");
+        try {
+            Files.writeString(wordlist, "Ärgernis\nMÜNCHEN1860\n", StandardCharsets.UTF_8);
+            WeakPasswordDictionary dictionary = WeakPasswordDictionary.load(wordlist);
+            test("Lookup should ignore ASCII case",
+                    dictionary.contains("PASSWORD") && dictionary.contains("PassWord") && dictionary.contains("München1860"));
+            test("Lookup should ignore non-ASCII case",
+                    dictionary.contains("ärgernis") && dictionary.contains("ÄRGERNIS") && dictionary.contains("münchen1860"));
+            test("Folding should not merge different letters", !dictionary.contains("argernis"));
+            StringBuilder builder = new StringBuilder("ÄrGeRnIs");
+            test("Any CharSequence should be accepted", dictionary.contains(builder));
+        } finally {
+            Files.delete(wordlist);
+        }
+    }
+
+    public static void testGrowth() throws IOException {
+        // Kurze Zeilen: die Schätzung aus der Dateigröße ist zu klein, die Tabelle muss wachsen
+        Path wordlist = Files.createTempFile("woerter", ".txt");
+        try {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 200_000; i++) {
+                lines.add(Integer.toString(i, 36));
+            }
+            Files.write(wordlist, lines, StandardCharsets.UTF_8);
+            WeakPasswordDictionary dictionary = WeakPasswordDictionary.load(wordlist);
+            boolean all = true;
+            for (String line : lines) {
+                all &= dictionary.contains(line.toUpperCase());
+            }
+            test("All entries should be found after growing", all);
+            test("Size should count distinct entries",
+                    dictionary.size() == 200_000 + WeakPasswordDictionary.defaults().size() - overlapWithDefaults(lines));
+        } finally {
+            Files.delete(wordlist);
+        }
+
+        WeakPasswordDictionary small = new WeakPasswordDictionary(1);
+        for (int i = 0; i < 10_000; i++) {
+            small.add("wort" + i);
+        }
+        test("Dictionary created for one entry should grow on demand",
+                small.size() == 10_000 && small.contains("WORT9999") && !small.contains("wort10000"));
+    }
+
+    private static int overlapWithDefaults(List<String> lines) {
+        WeakPasswordDictionary defaults = WeakPasswordDictionary.defaults();
+        int overlap = 0;
+        for (String line : lines) {
+            overlap += defaults.contains(line) ? 1 : 0;
+        }
+        return overlap;
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Tests für die Erkennung von Schreibvarianten schwacher Passwörter
+ */
+public class WeakPasswordVariantsTest {
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 Testing WeakPasswordVariants...");
+        testVariants();
+        testNoFalsePositives();
+        testLoadedWordlist();
+        testPolicySwitch();
+        testAllocationAndSpeed();
+    }
+
+    public static void testVariants() {
+        String[] variants = {"P@ssw0rd", "Passw0rd!", "password2024", "2024password", "P4$$w0rd",
+                "!!Dragon99", "m0nk3y", "Tru$tN01", "ＰＡＳＳＷＯＲＤ", "pässwörd", "Admin#1",
+                "123456789012", "Welcome2025!", "SunShine!!!"};
+        for (String variant : variants) {
+            test("Variant should be weak: " + variant, WeakPasswordCheck.isWeak(variant));
+        }
+        test("Exact entries should stay weak", WeakPasswordCheck.isWeak("password") && WeakPasswordCheck.isWeak("QWERTY"));
+    }
+
+    public static void testNoFalsePositives() {
+        String[] strong = {"MySecure123!", "Blau-Fisch#Regen42", "Kx9#mQ2vL7!p", "passwordsafe", "Xpassword",
+                "dragonfly2024", "Sommer#Sonne7", "a1b2c3d4", "ninj@turtle"};
+        for (String password : strong) {
+            test("Not a variant: " + password, !WeakPasswordCheck.isWeak(password));
+        }
+        test("Null should still count as weak", WeakPasswordCheck.isWeak(null));
+    }
+
+    public static void testLoadedWordlist() throws IOException {
+        Path wordlist = Files.createTempFile("woerter", ".txt");
+        try {
+            Files.writeString(wordlist, "firmenname\nabc\nsommerfest\n");
+            WeakPasswordDictionary dictionary = WeakPasswordDictionary.load(wordlist);
+            test("Loaded entries should be matched as variants",
+                    dictionary.containsVariant("F1rmenname2024!") && dictionary.containsVariant("$ommerfest"));
+            test("Short entries should only match exactly",
+                    dictionary.contains("ABC") && !dictionary.containsVariant("abc2024"));
+            test("Built-in entries should be matched as variants", dictionary.containsVariant("P@ssword1"));
+        } finally {
+            Files.delete(wordlist);
+        }
+    }
+
+    public static void testPolicySwitch() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("varianten", "false");
+        PasswordPolicy exactOnly = PasswordPolicy.compile("exakt", properties);
+        test("Variant matching should be switchable per policy",
+                !exactOnly.isBlacklisted("P@ssw0rd") && exactOnly.isBlacklisted("password")
+                        && PasswordPolicy.defaults().isBlacklisted("P@ssw0rd"));
+    }
+
+    public static void testAllocationAndSpeed() {
+        WeakPasswordDictionary dictionary = WeakPasswordCheck.getDictionary();
+        String[] passwords = {"P@ssw0rd2024!", "MySecure123!", "Kx9#mQ2vL7!p", "ÄÖÜäöü12!x", "123456789012"};
+        boolean sink = false;
+        for (int i = 0; i < 200_000; i++) {
+            sink ^= dictionary.containsVariant(passwords[i % passwords.length]);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        int runs = 1_000_000;
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink ^= dictionary.containsVariant(passwords[i % passwords.length]);
+        }
+        long nanos = (System.nanoTime() - start) / runs;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+        System.out.println("   " + nanos + " ns pro Prüfung, " + allocated + " Bytes alloziert (" + sink + ")");
+        test("Variant matching should not allocate per call", allocated < 10_000);
+        test("Variant matching should take well under a microsecond", nanos < 1_000);
+    }
+
+    private static void test(String description, boolean condition) {
+        System.out.println((condition ? "✅ PASS" : "❌ FAIL") + ": " + description);
+    }
+}